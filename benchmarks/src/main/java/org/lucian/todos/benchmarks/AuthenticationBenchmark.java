@@ -0,0 +1,118 @@
+package org.lucian.todos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.model.User;
+import org.lucian.todos.security.PasswordEncoder;
+import org.lucian.todos.security.PasswordHashingConfig;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.session.Session;
+import org.lucian.todos.session.SessionConfig;
+import org.lucian.todos.session.SessionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Login benchmarks against the default admin account: a successful
+ * login/logout round trip (user lookup, password verification and the
+ * last-login update), a rejected login with a wrong password, a burst
+ * of concurrent logins sampled for latency percentiles, and concurrent
+ * session lookups by token. {@link #iterations} sets the PBKDF2 work factor;
+ * the admin hash is upgraded to it on the first login.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark extends TodoDataset {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin";
+
+    @Param({"100000", "600000"})
+    public int iterations;
+
+    private PasswordEncoder passwordEncoder;
+    private SessionRegistry sessionRegistry;
+    private AuthenticationService authService;
+    private String sessionToken;
+
+    @Override
+    protected void onDatasetReady() {
+        PasswordHashingConfig config = PasswordHashingConfig.fromSystemProperties();
+        config.setIterations(iterations);
+        passwordEncoder = new PasswordEncoder(config);
+        sessionRegistry = new SessionRegistry(SessionConfig.fromSystemProperties());
+        authService = new AuthenticationService(daoFactory.getUserDAO(), passwordEncoder, sessionRegistry);
+        try {
+            sessionToken = authService.authenticate(USERNAME, PASSWORD).getToken();
+        } catch (AuthenticationException e) {
+            throw new IllegalStateException("Benchmark login failed", e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownEncoder() {
+        System.out.println();
+        System.out.println(passwordEncoder.getStats());
+        passwordEncoder.shutdown();
+        sessionRegistry.shutdown();
+    }
+
+    @Benchmark
+    public User loginAndLogout() throws AuthenticationException {
+        User user = authService.login(USERNAME, PASSWORD);
+        authService.logout();
+        return user;
+    }
+
+    @Benchmark
+    public boolean loginWithWrongPassword() {
+        try {
+            authService.login(USERNAME, "not-the-password");
+            return true;
+        } catch (AuthenticationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Eight callers logging in at once, each with their own session, against the
+     * bounded hashing executor. Refused logins count as completed operations; the
+     * encoder statistics printed at the end of each trial show how many there were.
+     */
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean concurrentLogins() {
+        try {
+            Session session = authService.authenticate(USERNAME, PASSWORD);
+            authService.logout(session);
+            return true;
+        } catch (AuthenticationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Eight request threads resolving the same session token, as a shared
+     * service does on every call.
+     */
+    @Benchmark
+    @Threads(8)
+    public Session sessionLookup() {
+        return authService.findSession(sessionToken).orElseThrow();
+    }
+}
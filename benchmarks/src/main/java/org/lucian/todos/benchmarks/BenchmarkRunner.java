@@ -0,0 +1,48 @@
+package org.lucian.todos.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the standard JMH command line
+ * options and, unless overridden with {@code -rf}/{@code -rff}, writes the results
+ * as JSON to {@value #DEFAULT_RESULT_FILE} so runs can be compared by tooling.
+ */
+public class BenchmarkRunner {
+
+    /** Default machine-readable result file. */
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-results.json";
+
+    /** Logback configuration with application logging reduced to warnings. */
+    private static final String LOGBACK_CONFIGURATION = "-Dlogback.configurationFile=logback-benchmark.xml";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .jvmArgsAppend(LOGBACK_CONFIGURATION);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
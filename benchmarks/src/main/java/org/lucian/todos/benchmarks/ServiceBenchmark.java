@@ -0,0 +1,70 @@
+package org.lucian.todos.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.lucian.todos.dao.TodoSearchResult;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.exceptions.ProjectNotFoundException;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.service.ProjectService;
+import org.lucian.todos.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Service benchmarks: full-text search, todo statistics and project completion
+ * stats, run without a user context (global queries).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark extends TodoDataset {
+
+    private static final int SEARCH_LIMIT = 20;
+
+    private TodoService todoService;
+    private ProjectService projectService;
+
+    @Override
+    protected void onDatasetReady() {
+        todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), null);
+        projectService = new ProjectService(daoFactory.getProjectDAO(), daoFactory.getTodoDAO(), null);
+    }
+
+    @Benchmark
+    public List<Todo> searchTodos() throws DatabaseException {
+        return todoService.searchTodos("plumber");
+    }
+
+    @Benchmark
+    public List<TodoSearchResult> searchTodosRankedPrefix() throws DatabaseException {
+        return todoService.searchTodosRanked("rep", SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public TodoService.TodoStatistics getTodoStatistics() throws DatabaseException {
+        return todoService.getTodoStatistics();
+    }
+
+    @Benchmark
+    public ProjectService.ProjectCompletionStats getProjectCompletionStats()
+            throws ProjectNotFoundException, DatabaseException {
+        return projectService.getProjectCompletionStats(
+                projectIds.get(ThreadLocalRandom.current().nextInt(projectIds.size())));
+    }
+
+    @Benchmark
+    public Map<Long, ProjectService.ProjectCompletionStats> getAllProjectCompletionStats() throws DatabaseException {
+        return projectService.getAllProjectCompletionStats();
+    }
+}
@@ -0,0 +1,116 @@
+package org.lucian.todos.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.TodoPage;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * DAO benchmarks: single-row CRUD throughput, batched writes and list latency.
+ * The list benchmarks are dominated by row mapping, so they also track the
+ * cost of {@code TodoDAOImpl.mapResultSetToTodo}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoDaoBenchmark extends TodoDataset {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int BATCH_SIZE = 100;
+
+    private TodoDAO todoDAO;
+
+    @Override
+    protected void onDatasetReady() {
+        todoDAO = daoFactory.getTodoDAO();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean createAndDelete() throws DatabaseException {
+        Todo created = todoDAO.create(newTodo(ThreadLocalRandom.current().nextInt(size), LocalDate.now()));
+        return todoDAO.delete(created.getId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int createAllAndDeleteAll() throws DatabaseException {
+        LocalDate today = LocalDate.now();
+        List<Todo> todos = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            todos.add(newTodo(i, today));
+        }
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (Todo todo : todoDAO.createAll(todos)) {
+            ids.add(todo.getId());
+        }
+        return todoDAO.deleteAll(ids);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Optional<Todo> findById() throws DatabaseException {
+        return todoDAO.findById(todoIds.get(ThreadLocalRandom.current().nextInt(todoIds.size())));
+    }
+
+    @Benchmark
+    public Todo update() throws DatabaseException {
+        Todo todo = todoDAO.findById(todoIds.get(ThreadLocalRandom.current().nextInt(todoIds.size()))).orElseThrow();
+        todo.setDescription("Updated " + System.nanoTime());
+        return todoDAO.update(todo);
+    }
+
+    @Benchmark
+    public List<Todo> findAll() throws DatabaseException {
+        return todoDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Todo> findAllForUser() throws DatabaseException {
+        return todoDAO.findAllForUser(USER_ID);
+    }
+
+    @Benchmark
+    public List<Todo> findByStatus() throws DatabaseException {
+        return todoDAO.findByStatus(TodoStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<Todo> findOverdue() throws DatabaseException {
+        return todoDAO.findOverdue();
+    }
+
+    @Benchmark
+    public TodoPage findAllFirstPage() throws DatabaseException {
+        return todoDAO.findAllPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) throws DatabaseException {
+        try (Stream<Todo> todos = todoDAO.streamAll()) {
+            todos.forEach(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.lucian.todos.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.database.ConnectionPoolConfig;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.factory.TodoFactory;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Shared benchmark state: a seeded SQLite database of {@link #size} todos
+ * spread over projects, stored either in memory or in a temporary file.
+ * The default admin user (ID 1) owns every row.
+ */
+@State(Scope.Benchmark)
+public abstract class TodoDataset {
+
+    /** Owner of the seeded rows; the default admin user created with the schema. */
+    protected static final long USER_ID = 1L;
+    /** Number of todos per seeded project. */
+    protected static final int TODOS_PER_PROJECT = 50;
+
+    private static final String[] WORDS = {
+        "report", "invoice", "meeting", "review", "deploy", "plumber", "garden",
+        "groceries", "budget", "release", "backup", "dentist", "presentation", "refactor"
+    };
+
+    @Param({"1000", "10000"})
+    protected int size;
+
+    @Param({"memory", "file"})
+    protected String storage;
+
+    protected DatabaseManager databaseManager;
+    protected DAOFactory daoFactory;
+    protected List<Long> todoIds;
+    protected List<Long> projectIds;
+
+    private Path databaseDirectory;
+
+    @Setup(Level.Trial)
+    public void setUpDataset() throws IOException, DatabaseException {
+        databaseManager = DatabaseManager.create(databaseUrl(), ConnectionPoolConfig.fromSystemProperties());
+        daoFactory = new DAOFactory(databaseManager);
+        seed();
+        onDatasetReady();
+    }
+
+    /**
+     * Called once the dataset is seeded; benchmarks create their DAOs and services here.
+     * JMH does not order {@code @Setup} methods across a state class hierarchy, so
+     * subclasses must not rely on their own trial setup running after this one.
+     */
+    protected void onDatasetReady() {
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownDataset() throws IOException {
+        databaseManager.shutdown();
+        if (databaseDirectory != null) {
+            try (Stream<Path> files = Files.walk(databaseDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private String databaseUrl() throws IOException {
+        return switch (storage) {
+            case "memory" -> "jdbc:sqlite::memory:";
+            case "file" -> {
+                databaseDirectory = Files.createTempDirectory("todos-bench");
+                yield "jdbc:sqlite:" + databaseDirectory.resolve("todos.db");
+            }
+            default -> throw new IllegalArgumentException("Unknown storage: " + storage);
+        };
+    }
+
+    private void seed() throws DatabaseException {
+        LocalDate today = LocalDate.now();
+
+        int projectCount = Math.max(1, size / TODOS_PER_PROJECT);
+        projectIds = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            Project project = new Project("Project " + i, "Benchmark project " + i,
+                    today.minusDays(30), today.plusDays(i % 90));
+            project.setUserId(USER_ID);
+            projectIds.add(daoFactory.getProjectDAO().create(project).getId());
+        }
+
+        List<Todo> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(newTodo(i, today));
+        }
+        todoIds = new ArrayList<>(size);
+        for (Todo todo : daoFactory.getTodoDAO().createAll(todos)) {
+            todoIds.add(todo.getId());
+        }
+    }
+
+    /**
+     * Builds the i-th seeded todo. Every tenth todo is recurring, statuses and
+     * priorities rotate, and due dates spread around today so some are overdue.
+     *
+     * @param i the row index
+     * @param today the reference date
+     * @return a new, unsaved todo
+     */
+    protected Todo newTodo(int i, LocalDate today) {
+        String title = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " #" + i;
+        String description = "Benchmark todo " + i + " about " + WORDS[(i * 7) % WORDS.length];
+        LocalDate dueDate = today.plusDays((i % 60) - 20);
+        Priority priority = Priority.values()[i % Priority.values().length];
+
+        Todo todo = i % 10 == 0
+                ? TodoFactory.createRecurringTodo(title, description, dueDate, priority, Period.ofWeeks(1))
+                : TodoFactory.createSimpleTodo(title, description, dueDate, priority);
+        todo.setStatus(TodoStatus.values()[i % TodoStatus.values().length]);
+        todo.setUserId(USER_ID);
+        if (projectIds != null && !projectIds.isEmpty()) {
+            todo.setProjectId(projectIds.get(i % projectIds.size()));
+        }
+        return todo;
+    }
+}
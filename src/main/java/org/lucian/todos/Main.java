@@ -1,6 +1,15 @@
 package org.lucian.todos;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.lucian.todos.cli.BatchCLI;
 import org.lucian.todos.cli.TodoManagementCLI;
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.metrics.MetricsRegistry;
+import org.lucian.todos.server.ServerConfig;
+import org.lucian.todos.server.TodoServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +17,9 @@ import org.slf4j.LoggerFactory;
  * Main entry point for the Todo Management System.
  * 
  * This class now launches the full-featured CLI interface for the todo management system.
+ * When command line arguments are given, they are run as a non-interactive batch command
+ * instead (see {@link BatchCLI}), and {@code serve [--host HOST] [--port PORT]} starts
+ * the HTTP API server (see {@link TodoServer}).
  */
 public class Main {
     
@@ -19,6 +31,15 @@ public class Main {
      * @param args command line arguments
      */
     public static void main(String[] args) {
+        registerMetricsDump();
+        if (args.length > 0 && "serve".equals(args[0])) {
+            runServer(args);
+            return;
+        }
+        if (args.length > 0) {
+            runBatch(args);
+            return;
+        }
         logger.info("Starting Todo Management System...");
         
         try {
@@ -40,6 +61,79 @@ public class Main {
         }
     }
     
+    /**
+     * Runs a batch command and exits with its status code.
+     * 
+     * @param args the command and its arguments
+     */
+    private static void runBatch(String[] args) {
+        int exitCode;
+        try {
+            exitCode = new BatchCLI().run(args);
+        } catch (Exception e) {
+            logger.error("Unexpected error occurred while running batch command", e);
+            System.err.println("error: " + e.getMessage());
+            exitCode = BatchCLI.EXIT_FAILED;
+        } finally {
+            DatabaseManager.getInstance().shutdown();
+        }
+        System.exit(exitCode);
+    }
+    
+    /**
+     * Runs the HTTP API server until the process is stopped.
+     * 
+     * @param args {@code serve} followed by optional {@code --host} and {@code --port}
+     */
+    private static void runServer(String[] args) {
+        TodoServer server;
+        try {
+            ServerConfig config = ServerConfig.fromSystemProperties();
+            for (int i = 1; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--host" -> config.setHost(args[++i]);
+                    case "--port" -> config.setPort(Integer.parseInt(args[++i]));
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            server = new TodoServer(DAOFactory.getInstance(), config);
+            server.start();
+        } catch (Exception e) {
+            logger.error("Failed to start Todo API server", e);
+            System.err.println("error: " + e.getMessage());
+            DatabaseManager.getInstance().shutdown();
+            System.exit(BatchCLI.EXIT_FAILED);
+            return;
+        }
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            DatabaseManager.getInstance().shutdown();
+        }, "server-shutdown"));
+        System.out.println("Todo API listening on http://" + server.getAddress().getHostString() + ":"
+                + server.getPort() + "/api (Ctrl+C to stop)");
+    }
+    
+    /**
+     * Writes the metrics report on exit if {@value MetricsRegistry#DUMP_FILE_PROPERTY} is set.
+     */
+    private static void registerMetricsDump() {
+        String dumpFile = System.getProperty(MetricsRegistry.DUMP_FILE_PROPERTY);
+        if (dumpFile == null || dumpFile.isBlank() || !MetricsRegistry.isEnabled()) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                MetricsRegistry.getDefault().dump(Path.of(dumpFile));
+            } catch (IOException e) {
+                System.err.println("Failed to write metrics to " + dumpFile + ": " + e.getMessage());
+            }
+        }, "metrics-dump"));
+    }
+    
     /**
      * Simple utility method to get the application name.
      * This method exists primarily for testing purposes.
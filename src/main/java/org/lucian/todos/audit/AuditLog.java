@@ -0,0 +1,87 @@
+package org.lucian.todos.audit;
+
+import org.lucian.todos.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records who changed what, one line per event on the {@value #LOGGER_NAME} logger:
+ * <pre>action=todo.complete user=1 id=42 detail=COMPLETED</pre>
+ * The logger is configured apart from diagnostic logging (see logback.xml), so
+ * turning application logging down to WARN keeps the audit trail, and its
+ * asynchronous appender means the caller only pays for queueing the event.
+ * Events recorded inside a {@link DatabaseManager} transaction are written when
+ * it commits and dropped if it rolls back, so the trail never shows a change
+ * that was not kept.
+ */
+public final class AuditLog {
+
+    /** The name of the logger that receives audit events. */
+    public static final String LOGGER_NAME = "audit";
+
+    private static final Logger audit = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private AuditLog() {
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param action what happened, such as {@code todo.create}
+     * @param userId the acting user, or null if unknown
+     * @param entityId the affected entity, or null
+     */
+    public static void record(String action, Long userId, Long entityId) {
+        record(action, userId, entityId, null);
+    }
+
+    /**
+     * Records an event with a detail, such as the new status.
+     *
+     * @param action what happened, such as {@code todo.status}
+     * @param userId the acting user, or null if unknown
+     * @param entityId the affected entity, or null
+     * @param detail the detail, or null; enums are written by name, and values
+     *        containing spaces, quotes or {@code =} are quoted
+     */
+    public static void record(String action, Long userId, Long entityId, Object detail) {
+        if (!audit.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(64).append("action=").append(action);
+        if (userId != null) {
+            line.append(" user=").append(userId.longValue());
+        }
+        if (entityId != null) {
+            line.append(" id=").append(entityId.longValue());
+        }
+        if (detail != null) {
+            appendValue(line.append(" detail="), detail instanceof Enum<?> constant ? constant.name() : detail.toString());
+        }
+        String event = line.toString();
+        DatabaseManager.afterCommit(() -> audit.info(event));
+    }
+
+    private static void appendValue(StringBuilder line, String value) {
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c <= ' ' || c == '"' || c == '=';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"', '\\' -> line.append('\\').append(c);
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
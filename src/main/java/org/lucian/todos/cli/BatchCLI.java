@@ -0,0 +1,271 @@
+package org.lucian.todos.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.lucian.todos.cli.batch.BatchCommand;
+import org.lucian.todos.cli.batch.BatchCommandExecutor;
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.exceptions.TodoManagementException;
+import org.lucian.todos.service.AuthenticationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-interactive command mode: runs one command given on the command line, or a
+ * script of commands read from a file or stdin, in a single authenticated session.
+ * Each invocation is one batch and runs in one database transaction: if any command
+ * fails, none of the batch's changes are kept.
+ * <p>
+ * Results go to stdout and errors to stderr, so output can be piped into other tools.
+ */
+public class BatchCLI {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchCLI.class);
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_AUTHENTICATION = 3;
+
+    /** Environment variables used when no credentials are given on the command line. */
+    public static final String USER_VARIABLE = "TODOS_USER";
+    public static final String PASSWORD_VARIABLE = "TODOS_PASSWORD";
+
+    private final DAOFactory daoFactory;
+    private final AuthenticationService authService;
+    private final BatchCommandExecutor executor;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * Creates a batch CLI on the default database and the standard streams.
+     */
+    public BatchCLI() {
+        this(DAOFactory.getInstance(), System.in, System.out, System.err);
+    }
+
+    /**
+     * Creates a batch CLI.
+     *
+     * @param daoFactory the DAOs to work with
+     * @param in the stream scripts given as {@code -} are read from
+     * @param out the stream results are printed to
+     * @param err the stream errors are printed to
+     */
+    public BatchCLI(DAOFactory daoFactory, InputStream in, PrintStream out, PrintStream err) {
+        this.daoFactory = daoFactory;
+        this.authService = new AuthenticationService(daoFactory.getUserDAO());
+        this.executor = new BatchCommandExecutor(daoFactory, authService, out, err);
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Runs the command line.
+     * Usage: {@code [--user NAME] [--password PASS] <command> [args] [--option value ...]},
+     * or {@code run <file|->} to execute a script.
+     *
+     * @param args the command line arguments
+     * @return the process exit code
+     */
+    public int run(String[] args) {
+        List<String> tokens = new ArrayList<>(Arrays.asList(args));
+        String username = System.getenv(USER_VARIABLE);
+        String password = System.getenv(PASSWORD_VARIABLE);
+        while (!tokens.isEmpty() && tokens.get(0).startsWith("--")) {
+            String option = tokens.remove(0);
+            if (option.equals("--help")) {
+                printUsage(out);
+                return EXIT_OK;
+            }
+            if (tokens.isEmpty()) {
+                err.println("error: missing value for " + option);
+                return EXIT_USAGE;
+            }
+            switch (option) {
+                case "--user" -> username = tokens.remove(0);
+                case "--password" -> password = tokens.remove(0);
+                default -> {
+                    err.println("error: unknown option " + option);
+                    printUsage(err);
+                    return EXIT_USAGE;
+                }
+            }
+        }
+        if (tokens.isEmpty() || tokens.get(0).equals("help")) {
+            printUsage(tokens.isEmpty() ? err : out);
+            return tokens.isEmpty() ? EXIT_USAGE : EXIT_OK;
+        }
+
+        List<ScriptLine> batch;
+        try {
+            batch = tokens.get(0).equals("run")
+                    ? readScript(tokens.size() > 1 ? tokens.get(1) : "-")
+                    : List.of(new ScriptLine(0, BatchCommand.parse(tokens)));
+        } catch (IOException e) {
+            err.println("error: cannot read script: " + e.getMessage());
+            return EXIT_USAGE;
+        } catch (IllegalArgumentException e) {
+            err.println("error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        try {
+            login(username, password);
+        } catch (AuthenticationException e) {
+            err.println("error: " + e.getMessage());
+            return EXIT_AUTHENTICATION;
+        }
+        try {
+            return runBatch(batch);
+        } finally {
+            authService.logout();
+        }
+    }
+
+    private void login(String username, String password) throws AuthenticationException {
+        if (username == null || password == null) {
+            throw new AuthenticationException("Credentials required: use --user and --password or set "
+                    + USER_VARIABLE + " and " + PASSWORD_VARIABLE);
+        }
+        authService.login(username, password);
+    }
+
+    /**
+     * Runs all commands of a batch in one transaction, or a standalone command on its own.
+     */
+    private int runBatch(List<ScriptLine> batch) {
+        try {
+            if (batch.size() == 1 && BatchCommandExecutor.isStandalone(batch.get(0).command())) {
+                execute(batch.get(0));
+            } else {
+                daoFactory.getDatabaseManager().inTransaction(() -> {
+                    for (ScriptLine line : batch) {
+                        execute(line);
+                    }
+                    return null;
+                });
+            }
+            out.flush();
+            return EXIT_OK;
+        } catch (BatchFailure e) {
+            Throwable cause = e.getCause();
+            String location = e.line.number() > 0 ? "line " + e.line.number() + ": " : "";
+            err.println("error: " + location + cause.getMessage());
+            if (batch.size() > 1) {
+                err.println("batch rolled back, no changes were saved");
+            }
+            logger.debug("Batch command failed: {}", e.line.command(), cause);
+            return cause instanceof IllegalArgumentException ? EXIT_USAGE : EXIT_FAILED;
+        } catch (DatabaseException e) {
+            logger.error("Batch transaction failed", e);
+            err.println("error: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private void execute(ScriptLine line) {
+        try {
+            executor.execute(line.command());
+        } catch (TodoManagementException | RuntimeException e) {
+            throw new BatchFailure(line, e);
+        }
+    }
+
+    /**
+     * Reads a script: one command per line, blank lines and {@code #} comments ignored.
+     * A leading {@code todo} on a line is optional.
+     */
+    private List<ScriptLine> readScript(String source) throws IOException {
+        List<ScriptLine> lines = new ArrayList<>();
+        try (BufferedReader reader = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                List<String> tokens;
+                try {
+                    tokens = BatchCommand.tokenize(line);
+                    if (!tokens.isEmpty() && tokens.get(0).equals("todo")) {
+                        tokens = tokens.subList(1, tokens.size());
+                    }
+                    if (!tokens.isEmpty()) {
+                        BatchCommand command = BatchCommand.parse(tokens);
+                        if (BatchCommandExecutor.isStandalone(command)) {
+                            throw new IllegalArgumentException("'" + command.getName()
+                                    + "' cannot be part of a script");
+                        }
+                        lines.add(new ScriptLine(number, command));
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("line " + number + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static void printUsage(PrintStream stream) {
+        stream.println("""
+            Usage: todo [--user NAME] [--password PASS] <command> [arguments] [--option value ...]
+                   todo [--user NAME] [--password PASS] run <script-file | ->
+
+            Credentials can also be given with the TODOS_USER and TODOS_PASSWORD environment variables.
+            A script holds one command per line; the whole script runs in one transaction.
+            Imports run on their own, commit in batches and resume after an interruption.
+
+            Commands:
+              add --title T [--description D] [--due yyyy-MM-dd] [--priority P] [--project ID]
+                  [--every DAYS [--occurrences N]]
+              list [--status S | --priority P | --project ID | --overdue]
+              show ID
+              update ID [--title T] [--description D] [--due yyyy-MM-dd] [--priority P] [--status S]
+                  [--project ID|none]
+              complete ID | start ID | cancel ID | delete ID
+              search TERM... [--limit N]
+              stats
+              project add --name N [--description D] [--start yyyy-MM-dd] [--end yyyy-MM-dd]
+              project list
+              project delete ID
+              export todos [--status S | --priority P | --project ID | --due-before yyyy-MM-dd | --overdue]
+              export projects
+              export users
+                  [--format ndjson|csv] [--output FILE (.gz compresses) | --gzip] [--all-users]
+              import todos FILE [--format ndjson|csv] [--batch-size N] [--restart]
+
+            Every other command accepts --format text (default, tab-separated) or --format json.
+            Exports stream to stdout unless --output is given and cover the logged-in user's
+            todos and projects. Administrators (-Dtodos.auth.admins, default admin) may export
+            everyone's with --all-users, and the user list with export users.""");
+    }
+
+    private record ScriptLine(int number, BatchCommand command) {
+    }
+
+    /** Carries a failed command out of the transaction so the batch is rolled back. */
+    private static final class BatchFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final transient ScriptLine line;
+
+        BatchFailure(ScriptLine line, Exception cause) {
+            super(cause);
+            this.line = line;
+        }
+    }
+}
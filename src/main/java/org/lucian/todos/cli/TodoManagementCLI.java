@@ -44,7 +44,7 @@ public class TodoManagementCLI {
         try {
             DAOFactory daoFactory = DAOFactory.getInstance();
             this.authService = new AuthenticationService(daoFactory.getUserDAO());
-            this.todoService = new TodoService(daoFactory.getTodoDAO(), authService);
+            this.todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), authService);
             this.projectService = new ProjectService(daoFactory.getProjectDAO(), daoFactory.getTodoDAO(), authService);
         } catch (Exception e) {
             logger.error("Failed to initialize database", e);
@@ -79,6 +79,14 @@ public class TodoManagementCLI {
             
             // Main application loop - only accessible after authentication
             while (running) {
+                // A logout or an expired session sends the user back to login
+                if (!authService.isLoggedIn()) {
+                    CLIUtils.printWarning("You are no longer logged in. Please log in again.");
+                    if (!handleAuthenticationFlow()) {
+                        CLIUtils.printInfo("Goodbye!");
+                        return;
+                    }
+                }
                 mainMenu.display();
                 handleMainMenuChoice();
             }
@@ -181,6 +189,7 @@ public class TodoManagementCLI {
             if (scanner != null) {
                 scanner.close();
             }
+            DAOFactory.getInstance().getDatabaseManager().shutdown();
             logger.info("Todo Management CLI shutting down");
         } catch (Exception e) {
             logger.error("Error during cleanup", e);
@@ -0,0 +1,190 @@
+package org.lucian.todos.cli.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One parsed batch command: a name, positional arguments and {@code --name value}
+ * options, e.g. {@code add --title "Buy milk" --priority HIGH} or {@code complete 42}.
+ * Options may also be written as {@code --name=value}. The {@code project},
+ * {@code export} and {@code import} command groups take their sub-command as part of the name ({@code project add}).
+ */
+public class BatchCommand {
+
+    /** Options that take no value. */
+    private static final Set<String> FLAGS = Set.of("help", "overdue", "gzip", "all-users", "restart");
+
+    /** Commands that take a sub-command, e.g. {@code project add}. */
+    private static final Set<String> GROUPS = Set.of("project", "export", "import");
+
+    private final String name;
+    private final List<String> arguments;
+    private final Map<String, String> options;
+
+    private BatchCommand(String name, List<String> arguments, Map<String, String> options) {
+        this.name = name;
+        this.arguments = Collections.unmodifiableList(arguments);
+        this.options = Collections.unmodifiableMap(options);
+    }
+
+    /**
+     * Parses a command from its tokens.
+     *
+     * @param tokens the command tokens, starting with the command name
+     * @return the parsed command
+     * @throws IllegalArgumentException if the tokens are not a valid command
+     */
+    public static BatchCommand parse(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Missing command");
+        }
+        int index = 0;
+        String name = tokens.get(index++).toLowerCase();
+        if (GROUPS.contains(name)) {
+            if (index >= tokens.size() || tokens.get(index).startsWith("--")) {
+                throw new IllegalArgumentException("Missing " + name + " sub-command");
+            }
+            name = name + " " + tokens.get(index++).toLowerCase();
+        }
+
+        List<String> arguments = new ArrayList<>();
+        Map<String, String> options = new LinkedHashMap<>();
+        while (index < tokens.size()) {
+            String token = tokens.get(index++);
+            if (!token.startsWith("--") || token.length() == 2) {
+                arguments.add(token);
+                continue;
+            }
+            String option = token.substring(2);
+            String value;
+            int equals = option.indexOf('=');
+            if (equals >= 0) {
+                value = option.substring(equals + 1);
+                option = option.substring(0, equals);
+            } else if (FLAGS.contains(option)) {
+                value = "true";
+            } else if (index < tokens.size()) {
+                value = tokens.get(index++);
+            } else {
+                throw new IllegalArgumentException("Missing value for option --" + option);
+            }
+            if (options.put(option, value) != null) {
+                throw new IllegalArgumentException("Option --" + option + " given more than once");
+            }
+        }
+        return new BatchCommand(name, arguments, options);
+    }
+
+    /**
+     * Splits a script line into tokens. Tokens are separated by whitespace; single or
+     * double quotes group text containing spaces, and a backslash escapes the next character.
+     *
+     * @param line the script line
+     * @return the tokens, empty for a blank line or a {@code #} comment
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    public static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() && quote != '\'') {
+                current.append(line.charAt(++i));
+                inToken = true;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else if (c == '#' && !inToken) {
+                break;
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    public boolean hasOption(String option) {
+        return options.containsKey(option);
+    }
+
+    public String getOption(String option) {
+        return options.get(option);
+    }
+
+    public String getOption(String option, String defaultValue) {
+        return options.getOrDefault(option, defaultValue);
+    }
+
+    /**
+     * Gets a required option value.
+     *
+     * @param option the option name without dashes
+     * @return the value
+     * @throws IllegalArgumentException if the option is missing
+     */
+    public String requireOption(String option) {
+        String value = options.get(option);
+        if (value == null) {
+            throw new IllegalArgumentException("Command '" + name + "' requires --" + option);
+        }
+        return value;
+    }
+
+    /**
+     * Gets a required positional argument.
+     *
+     * @param index the argument index
+     * @param description what the argument is, for the error message
+     * @return the argument
+     * @throws IllegalArgumentException if the argument is missing
+     */
+    public String requireArgument(int index, String description) {
+        if (index >= arguments.size()) {
+            throw new IllegalArgumentException("Command '" + name + "' requires " + description);
+        }
+        return arguments.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchCommand{name='%s', arguments=%s, options=%s}", name, arguments, options);
+    }
+}
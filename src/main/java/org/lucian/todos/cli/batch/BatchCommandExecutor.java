@@ -0,0 +1,487 @@
+package org.lucian.todos.cli.batch;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.dao.TodoSearchResult;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.exceptions.TodoManagementException;
+import org.lucian.todos.export.DataExporter;
+import org.lucian.todos.export.ExportFormat;
+import org.lucian.todos.export.TodoExportFilter;
+import org.lucian.todos.factory.TodoFactory;
+import org.lucian.todos.importer.ImportConfig;
+import org.lucian.todos.importer.ImportStats;
+import org.lucian.todos.importer.TodoImporter;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.lucian.todos.model.User;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.service.ProjectService;
+import org.lucian.todos.service.TodoService;
+import org.lucian.todos.util.JsonWriter;
+import org.lucian.todos.util.TodoJson;
+
+/**
+ * Executes {@link BatchCommand}s against the services and prints their results.
+ * Text output is tab-separated, one record per line, without colors or decoration;
+ * {@code --format json} prints a single line of JSON instead.
+ */
+public class BatchCommandExecutor {
+
+    private final DAOFactory daoFactory;
+    private final TodoService todoService;
+    private final ProjectService projectService;
+    private final AuthenticationService authService;
+    private final DataExporter exporter;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * Creates an executor working on the given DAOs as the user logged in to the
+     * authentication service.
+     *
+     * @param daoFactory the DAOs to work with
+     * @param authService the session the commands run in
+     * @param out the stream results are printed to
+     * @param err the stream progress is reported to
+     */
+    public BatchCommandExecutor(DAOFactory daoFactory, AuthenticationService authService, PrintStream out,
+            PrintStream err) {
+        this.daoFactory = daoFactory;
+        this.todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), authService);
+        this.projectService = new ProjectService(daoFactory.getProjectDAO(), daoFactory.getTodoDAO(), authService);
+        this.authService = authService;
+        this.exporter = new DataExporter(daoFactory.getDatabaseManager());
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Tells whether a command must run on its own, outside the batch transaction.
+     * Imports commit in batches of their own so they can be resumed.
+     *
+     * @param command the command
+     * @return true for commands that cannot be part of a script
+     */
+    public static boolean isStandalone(BatchCommand command) {
+        return command.getName().equals("import todos");
+    }
+
+    /**
+     * Executes a command.
+     *
+     * @param command the command
+     * @throws TodoManagementException if a todo or project is not found or the database fails
+     * @throws IllegalArgumentException if the command or its options are invalid
+     * @throws IllegalStateException if the operation is not allowed in the todo's current state
+     *         or for the logged-in user
+     */
+    public void execute(BatchCommand command) throws TodoManagementException {
+        switch (command.getName()) {
+            case "add" -> add(command);
+            case "list" -> list(command);
+            case "show" -> printTodo(command, todoService.findTodoById(todoId(command)));
+            case "update" -> update(command);
+            case "complete" -> printStatus(command, todoService.markTodoCompleted(todoId(command)));
+            case "start" -> printStatus(command, todoService.markTodoInProgress(todoId(command)));
+            case "cancel" -> printStatus(command, todoService.markTodoCancelled(todoId(command)));
+            case "delete" -> delete(command);
+            case "search" -> search(command);
+            case "stats" -> stats(command);
+            case "project add" -> addProject(command);
+            case "project list" -> listProjects(command);
+            case "project delete" -> deleteProject(command);
+            case "export todos", "export projects", "export users" -> export(command);
+            case "import todos" -> importTodos(command);
+            default -> throw new IllegalArgumentException("Unknown command: " + command.getName());
+        }
+    }
+
+    private void add(BatchCommand command) throws TodoManagementException {
+        String title = command.requireOption("title");
+        String description = command.getOption("description");
+        LocalDate dueDate = parseDate(command.getOption("due"));
+        Priority priority = parseEnum(Priority.class, command.getOption("priority", Priority.MEDIUM.name()));
+
+        Todo todo;
+        if (command.hasOption("every")) {
+            int days = parseInt(command.getOption("every"), "--every");
+            todo = command.hasOption("occurrences")
+                    ? TodoFactory.createRecurringTodo(title, description, dueDate, priority, Period.ofDays(days),
+                            parseInt(command.getOption("occurrences"), "--occurrences"))
+                    : TodoFactory.createRecurringTodo(title, description, dueDate, priority, Period.ofDays(days));
+        } else {
+            todo = TodoFactory.createSimpleTodo(title, description, dueDate, priority);
+        }
+        if (command.hasOption("project")) {
+            todo.setProjectId(parseId(command.getOption("project")));
+        }
+
+        Todo created = todoService.createTodo(todo);
+        if (isJson(command)) {
+            out.println(TodoJson.toJson(created));
+        } else {
+            out.println(created.getId());
+        }
+    }
+
+    private void list(BatchCommand command) throws TodoManagementException {
+        List<Todo> todos;
+        if (command.hasOption("status")) {
+            todos = todoService.getTodosByStatus(parseEnum(TodoStatus.class, command.getOption("status")));
+        } else if (command.hasOption("priority")) {
+            todos = todoService.getTodosByPriority(parseEnum(Priority.class, command.getOption("priority")));
+        } else if (command.hasOption("project")) {
+            todos = todoService.getTodosByProject(parseId(command.getOption("project")));
+        } else if (command.hasOption("overdue")) {
+            todos = todoService.getOverdueTodos();
+        } else {
+            todos = todoService.getAllTodos();
+        }
+        printTodos(command, todos);
+    }
+
+    private void update(BatchCommand command) throws TodoManagementException {
+        Todo todo = todoService.findTodoById(todoId(command));
+        Map<String, String> options = command.getOptions();
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String value = option.getValue();
+            switch (option.getKey()) {
+                case "title" -> todo.setTitle(value);
+                case "description" -> todo.setDescription(value.isEmpty() ? null : value);
+                case "due" -> todo.setDueDate(parseDate(value));
+                case "priority" -> todo.setPriority(parseEnum(Priority.class, value));
+                case "status" -> todo.setStatus(parseEnum(TodoStatus.class, value));
+                case "project" -> todo.setProjectId(value.equalsIgnoreCase("none") ? null : parseId(value));
+                case "format" -> {
+                    // output option
+                }
+                default -> throw new IllegalArgumentException("Unknown option for update: --" + option.getKey());
+            }
+        }
+        printTodo(command, todoService.updateTodo(todo));
+    }
+
+    private void delete(BatchCommand command) throws TodoManagementException {
+        Long id = todoId(command);
+        if (!todoService.deleteTodo(id)) {
+            throw new IllegalArgumentException("Todo not found with ID: " + id);
+        }
+        out.println("deleted\t" + id);
+    }
+
+    private void search(BatchCommand command) throws TodoManagementException {
+        if (command.getArguments().isEmpty()) {
+            throw new IllegalArgumentException("Command 'search' requires a search term");
+        }
+        String term = String.join(" ", command.getArguments());
+        int limit = parseInt(command.getOption("limit", "0"), "--limit");
+        List<TodoSearchResult> results = todoService.searchTodosRanked(term, limit);
+
+        if (isJson(command)) {
+            out.println(json(writer -> {
+                writer.beginArray();
+                for (TodoSearchResult result : results) {
+                    writer.beginObject()
+                        .name("todo");
+                    TodoJson.writeTodo(writer, result.getTodo());
+                    writer.name("snippet").value(result.getSnippet())
+                        .name("score").value(result.getScore())
+                        .endObject();
+                }
+                writer.endArray();
+            }));
+        } else {
+            for (TodoSearchResult result : results) {
+                out.println(todoLine(result.getTodo()) + "\t" + result.getSnippet());
+            }
+        }
+    }
+
+    private void stats(BatchCommand command) throws TodoManagementException {
+        TodoService.TodoStatistics stats = todoService.getTodoStatistics();
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("total", stats.getTotalTodos());
+        values.put("todo", stats.getTodoTodos());
+        values.put("inProgress", stats.getInProgressTodos());
+        values.put("completed", stats.getCompletedTodos());
+        values.put("cancelled", stats.getCancelledTodos());
+        values.put("overdue", stats.getOverdueTodos());
+        values.put("urgent", stats.getUrgentTodos());
+        values.put("high", stats.getHighPriorityTodos());
+        values.put("medium", stats.getMediumPriorityTodos());
+        values.put("low", stats.getLowPriorityTodos());
+
+        if (isJson(command)) {
+            out.println(json(writer -> {
+                writer.beginObject();
+                for (Map.Entry<String, Long> value : values.entrySet()) {
+                    writer.name(value.getKey()).value(value.getValue());
+                }
+                writer.endObject();
+            }));
+        } else {
+            for (Map.Entry<String, Long> value : values.entrySet()) {
+                out.println(value.getKey() + "\t" + value.getValue());
+            }
+        }
+    }
+
+    private void addProject(BatchCommand command) throws TodoManagementException {
+        Project project = new Project(command.requireOption("name"), command.getOption("description"),
+                parseDate(command.getOption("start")), parseDate(command.getOption("end")));
+        Project created = projectService.createProject(project);
+        if (isJson(command)) {
+            out.println(json(writer -> TodoJson.writeProject(writer, created)));
+        } else {
+            out.println(created.getId());
+        }
+    }
+
+    private void listProjects(BatchCommand command) throws TodoManagementException {
+        List<Project> projects = projectService.getAllProjects();
+        if (isJson(command)) {
+            out.println(json(writer -> {
+                writer.beginArray();
+                for (Project project : projects) {
+                    TodoJson.writeProject(writer, project);
+                }
+                writer.endArray();
+            }));
+        } else {
+            for (Project project : projects) {
+                out.println(project.getId() + "\t" + orEmpty(project.getStartDate()) + "\t"
+                        + orEmpty(project.getEndDate()) + "\t" + project.getName());
+            }
+        }
+    }
+
+    private void deleteProject(BatchCommand command) throws TodoManagementException {
+        Long id = parseId(command.requireArgument(0, "a project ID"));
+        if (!projectService.deleteProject(id)) {
+            throw new IllegalArgumentException("Project not found with ID: " + id);
+        }
+        out.println("deleted\t" + id);
+    }
+
+    /**
+     * Streams an export to a file or stdout. Todos and projects are limited to the
+     * logged-in user. Only an administrator may export every user's data, with
+     * {@code --all-users} or {@code export users}.
+     */
+    private void export(BatchCommand command) throws DatabaseException {
+        ExportFormat format = ExportFormat.fromName(command.getOption("format", ExportFormat.NDJSON.getExtension()));
+        User currentUser = authService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No user is currently authenticated. Cannot export.");
+        }
+        boolean everyUser = command.hasOption("all-users") || command.getName().equals("export users");
+        if (everyUser && !authService.isAdmin()) {
+            throw new IllegalStateException("Only an administrator can export every user's data");
+        }
+        Long userId = everyUser ? null : currentUser.getId();
+        String output = command.getOption("output");
+
+        try {
+            long rows = switch (command.getName()) {
+                case "export todos" -> {
+                    TodoExportFilter filter = todoExportFilter(command);
+                    TodoExportFilter scoped = userId != null ? filter.forUser(userId) : filter;
+                    yield output != null
+                            ? exporter.exportTodos(scoped, format, Path.of(output))
+                            : exporter.exportTodos(scoped, format, out, command.hasOption("gzip"));
+                }
+                case "export projects" -> output != null
+                        ? exporter.exportProjects(userId, format, Path.of(output))
+                        : exporter.exportProjects(userId, format, out, command.hasOption("gzip"));
+                default -> output != null
+                        ? exporter.exportUsers(format, Path.of(output))
+                        : exporter.exportUsers(format, out, command.hasOption("gzip"));
+            };
+            if (output != null) {
+                out.println("exported\t" + rows + "\t" + output);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bulk imports todos for the logged-in user. Progress goes to stderr; the summary
+     * line to stdout. Rejected rows are written next to the input file.
+     */
+    private void importTodos(BatchCommand command) throws DatabaseException {
+        User currentUser = authService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No user is currently authenticated. Cannot import todos.");
+        }
+        Path input = Path.of(command.requireArgument(0, "an input file"));
+        ExportFormat format = command.hasOption("format")
+                ? ExportFormat.fromName(command.getOption("format"))
+                : formatOf(input);
+
+        ImportConfig config = ImportConfig.forInput(input);
+        if (command.hasOption("batch-size")) {
+            int batchSize = parseInt(command.getOption("batch-size"), "--batch-size");
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("--batch-size must be at least 1");
+            }
+            config.setBatchSize(batchSize);
+        }
+        try {
+            if (command.hasOption("restart")) {
+                Files.deleteIfExists(config.getCheckpointFile());
+            }
+            TodoImporter importer = new TodoImporter(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), config);
+            ImportStats stats = importer.importTodos(input, format, currentUser.getId(),
+                    progress -> err.printf("imported %d, rejected %d (%.0f records/s)%n",
+                            progress.getImported(), progress.getQuarantined(), progress.getRecordsPerSecond()));
+            out.println("imported\t" + stats.getImported() + "\trejected\t" + stats.getQuarantined());
+            if (stats.getQuarantined() > 0) {
+                err.println("rejected rows written to " + config.getQuarantineFile());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Import failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static ExportFormat formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".csv.gz") ? ExportFormat.CSV : ExportFormat.NDJSON;
+    }
+
+    private static TodoExportFilter todoExportFilter(BatchCommand command) {
+        if (command.hasOption("status")) {
+            return TodoExportFilter.byStatus(parseEnum(TodoStatus.class, command.getOption("status")));
+        } else if (command.hasOption("priority")) {
+            return TodoExportFilter.byPriority(parseEnum(Priority.class, command.getOption("priority")));
+        } else if (command.hasOption("project")) {
+            return TodoExportFilter.byProject(parseId(command.getOption("project")));
+        } else if (command.hasOption("due-before")) {
+            return TodoExportFilter.dueBefore(parseDate(command.getOption("due-before")));
+        } else if (command.hasOption("overdue")) {
+            return TodoExportFilter.overdue();
+        }
+        return TodoExportFilter.all();
+    }
+
+    // Output helpers
+
+    private void printTodos(BatchCommand command, List<Todo> todos) {
+        if (isJson(command)) {
+            out.println(json(writer -> TodoJson.writeTodos(writer, todos)));
+        } else {
+            for (Todo todo : todos) {
+                out.println(todoLine(todo));
+            }
+        }
+    }
+
+    private void printTodo(BatchCommand command, Todo todo) {
+        if (isJson(command)) {
+            out.println(TodoJson.toJson(todo));
+        } else {
+            out.println(todoLine(todo));
+        }
+    }
+
+    private void printStatus(BatchCommand command, Todo todo) {
+        if (isJson(command)) {
+            out.println(TodoJson.toJson(todo));
+        } else {
+            out.println(todo.getId() + "\t" + todo.getStatus().name());
+        }
+    }
+
+    /**
+     * Formats a todo as {@code id, status, priority, due date, project ID, title}, tab-separated.
+     */
+    static String todoLine(Todo todo) {
+        return todo.getId() + "\t" + todo.getStatus().name() + "\t" + todo.getPriority().name() + "\t"
+                + orEmpty(todo.getDueDate()) + "\t" + orEmpty(todo.getProjectId()) + "\t" + todo.getTitle();
+    }
+
+    private static String orEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static boolean isJson(BatchCommand command) {
+        String format = command.getOption("format", "text").toLowerCase(Locale.ROOT);
+        return switch (format) {
+            case "json" -> true;
+            case "text" -> false;
+            default -> throw new IllegalArgumentException("Unknown format: " + format + " (expected text or json)");
+        };
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private static String json(JsonBody body) {
+        StringBuilder text = new StringBuilder();
+        try {
+            body.write(new JsonWriter(text));
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+        return text.toString();
+    }
+
+    // Parsing helpers
+
+    private static Long todoId(BatchCommand command) {
+        return parseId(command.requireArgument(0, "a todo ID"));
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID: " + value);
+        }
+    }
+
+    private static int parseInt(String value, String option) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.lucian.todos.cli.handler;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 import org.lucian.todos.cli.util.CLIUtils;
@@ -196,12 +197,12 @@ public class ProjectCommandHandler implements CommandHandler {
         try {
             Long projectId = (long) CLIUtils.getIntInput(scanner, "Enter project ID to delete: ", 1, Integer.MAX_VALUE);
             
-            Project project = projectService.getProjectById(projectId);
+            Project project = projectService.getProjectWithTodos(projectId);
             System.out.println("\nProject to be deleted:");
             System.out.println(CLIUtils.formatProject(project));
             
             // Check for assigned todos
-            List<Todo> projectTodos = todoService.getTodosByProject(projectId);
+            List<Todo> projectTodos = project.getTodos();
             if (!projectTodos.isEmpty()) {
                 System.out.println();
                 CLIUtils.printWarning("This project has " + projectTodos.size() + " assigned todos!");
@@ -240,8 +241,8 @@ public class ProjectCommandHandler implements CommandHandler {
         try {
             Long projectId = (long) CLIUtils.getIntInput(scanner, "Enter project ID: ", 1, Integer.MAX_VALUE);
             
-            Project project = projectService.getProjectById(projectId);
-            List<Todo> todos = todoService.getTodosByProject(projectId);
+            Project project = projectService.getProjectWithTodos(projectId);
+            List<Todo> todos = project.getTodos();
             
             System.out.println("\nProject: " + project.getName());
             System.out.println("=".repeat(project.getName().length() + 9));
@@ -359,8 +360,8 @@ public class ProjectCommandHandler implements CommandHandler {
         try {
             Long projectId = (long) CLIUtils.getIntInput(scanner, "Enter project ID: ", 1, Integer.MAX_VALUE);
             
-            Project project = projectService.getProjectById(projectId);
-            List<Todo> todos = todoService.getTodosByProject(projectId);
+            Project project = projectService.getProjectWithTodos(projectId);
+            List<Todo> todos = project.getTodos();
             
             System.out.println();
             System.out.println("═══════════════════════════════════════");
@@ -443,10 +444,13 @@ public class ProjectCommandHandler implements CommandHandler {
                 return;
             }
             
+            Map<Long, ProjectService.ProjectCompletionStats> allStats = projectService.getProjectCompletionStats(
+                    projects.stream().map(Project::getId).toList());
+            
             System.out.println();
             for (Project project : projects) {
                 try {
-                    ProjectService.ProjectCompletionStats stats = projectService.getProjectCompletionStats(project.getId());
+                    ProjectService.ProjectCompletionStats stats = allStats.get(project.getId());
                     
                     System.out.printf("%s[%d] %s%s%n", CLIUtils.CYAN, project.getId(), project.getName(), CLIUtils.RESET);
                     System.out.printf("  Todos: %d total, %d completed (%.1f%%)%n", 
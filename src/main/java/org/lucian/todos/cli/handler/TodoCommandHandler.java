@@ -7,7 +7,15 @@ import java.util.List;
 import java.util.Scanner;
 
 import org.lucian.todos.cli.util.CLIUtils;
+import org.lucian.todos.cli.util.PageSupplier;
+import org.lucian.todos.cli.util.RowCache;
+import org.lucian.todos.cli.util.ScreenBuffer;
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.dao.TodoSearchResult;
 import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.exceptions.ProjectNotFoundException;
+import org.lucian.todos.exceptions.TodoManagementException;
 import org.lucian.todos.exceptions.TodoNotFoundException;
 import org.lucian.todos.model.Priority;
 import org.lucian.todos.model.Todo;
@@ -25,6 +33,16 @@ import org.slf4j.LoggerFactory;
 public class TodoCommandHandler implements CommandHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(TodoCommandHandler.class);
+    private static final int TODOS_PER_PAGE = 15;
+    private static final String TABLE_BORDER =
+            "+------+--------------------------------+--------------+--------------+--------------+";
+    
+    /** The displayed columns of a todo table row. */
+    private record TableRow(Long id, String title, LocalDate dueDate, Priority priority, TodoStatus status) {
+    }
+    
+    private static final RowCache<TableRow> TABLE_ROWS = new RowCache<>(512, TodoCommandHandler::renderTableRow);
+    
     private final TodoService todoService;
     private final Scanner scanner;
     
@@ -34,19 +52,13 @@ public class TodoCommandHandler implements CommandHandler {
     }
     
     /**
-     * Displays all todos.
+     * Displays all todos, one page at a time.
      */
     public void showAllTodos() {
         try {
-            List<Todo> todos = todoService.getAllTodos();
-            if (todos.isEmpty()) {
-                CLIUtils.printInfo("No todos found.");
-                return;
-            }
-            
-            CLIUtils.printHeader("All Todos");
-            displayTodos(todos);
-        } catch (DatabaseException e) {
+            CLIUtils.displayPaginatedList(pagesOf(TodoQuery.all()), "All Todos", "No todos found.", TODOS_PER_PAGE,
+                    scanner, CLIUtils::formatTodo);
+        } catch (TodoManagementException e) {
             handleException("Failed to retrieve todos", e);
         }
     }
@@ -97,7 +109,7 @@ public class TodoCommandHandler implements CommandHandler {
         } catch (IllegalArgumentException | IllegalStateException e) {
             CLIUtils.printError("Invalid input: " + e.getMessage());
             logger.warn("Error creating todo", e);
-        } catch (DatabaseException e) {
+        } catch (DatabaseException | ProjectNotFoundException e) {
             handleException("Failed to create todo", e);
         }
     }
@@ -158,6 +170,8 @@ public class TodoCommandHandler implements CommandHandler {
                 CLIUtils.printSuccess("Todo updated successfully");
             } catch (TodoNotFoundException e) {
                 CLIUtils.printError("Todo not found: " + e.getMessage());
+            } catch (ProjectNotFoundException e) {
+                CLIUtils.printError(e.getMessage());
             }
             
         } catch (IllegalArgumentException e) {
@@ -282,6 +296,8 @@ public class TodoCommandHandler implements CommandHandler {
                 }
             } catch (TodoNotFoundException e) {
                 CLIUtils.printError("Todo not found with ID: " + todoId);
+            } catch (ProjectNotFoundException e) {
+                CLIUtils.printError("Project not found with ID: " + projectId);
             }
             
         } catch (DatabaseException e) {
@@ -341,15 +357,20 @@ public class TodoCommandHandler implements CommandHandler {
                 return;
             }
             
-            List<Todo> todos = todoService.searchTodos(searchTerm);
+            List<TodoSearchResult> results = todoService.searchTodosRanked(searchTerm, 0);
             
-            if (todos.isEmpty()) {
+            if (results.isEmpty()) {
                 CLIUtils.printInfo("No todos found matching: " + searchTerm);
                 return;
             }
             
-            CLIUtils.printInfo("Found " + todos.size() + " todos matching: " + searchTerm);
-            displayTodos(todos);
+            CLIUtils.printInfo("Found " + results.size() + " todos matching: " + searchTerm);
+            displayTodos(results.stream().map(TodoSearchResult::getTodo).toList());
+            
+            System.out.println();
+            for (TodoSearchResult result : results) {
+                System.out.println("  #" + result.getTodo().getId() + ": " + result.getSnippet());
+            }
             
         } catch (IllegalArgumentException e) {
             CLIUtils.printError("Invalid input: " + e.getMessage());
@@ -459,53 +480,56 @@ public class TodoCommandHandler implements CommandHandler {
                     break;
             }
             
-            List<Todo> todos;
-            if (priority != null) {
-                todos = todoService.getTodosByPriority(priority);
-                CLIUtils.printInfo("Todos with " + priorityName + " Priority:");
-            } else {
-                todos = todoService.getAllTodos();
-                CLIUtils.printInfo("All Todos by Priority:");
-            }
-            
-            if (todos.isEmpty()) {
-                CLIUtils.printInfo("No todos found with the selected priority.");
-                return;
-            }
+            // Group by priority, highest first, if showing all
+            TodoQuery query = priority != null
+                    ? TodoQuery.all().withPriority(priority)
+                    : TodoQuery.all().sortedBy(TodoQuery.SortKey.PRIORITY, true);
+            String title = priority != null ? "Todos with " + priorityName + " Priority" : "All Todos by Priority";
+            CLIUtils.displayPaginatedList(pagesOf(query), title, "No todos found with the selected priority.",
+                    TODOS_PER_PAGE, scanner, CLIUtils::formatTodo);
             
-            // Group and sort by priority if showing all
-            if (priority == null) {
-                todos.sort((t1, t2) -> t2.getPriority().compareTo(t1.getPriority()));
-            }
-            
-            displayTodos(todos);
-            
-        } catch (DatabaseException e) {
+        } catch (TodoManagementException e) {
             handleException("Failed to retrieve todos by priority", e);
         }
     }
     
+    /**
+     * Pages through the results of a query, one query per page, so only the todos
+     * around the one on screen are loaded however many match.
+     *
+     * @param query the filters and sort order; its offset and limit are replaced
+     */
+    private PageSupplier<Todo> pagesOf(TodoQuery query) {
+        return (pageIndex, pageSize) -> {
+            TodoQueryResult result = todoService.queryTodos(query.pageAt(pageIndex, pageSize));
+            return new PageSupplier.Page<>(result.getTodos(), result.getTotalCount());
+        };
+    }
+    
     /**
      * Displays todos in a formatted table.
      */
     private void displayTodos(List<Todo> todos) {
-        String format = "| %-4s | %-30s | %-12s | %-12s | %-12s |%n";
-        
-        System.out.format("+------+--------------------------------+--------------+--------------+--------------+%n");
-        System.out.format("| ID   | Title                          | Due Date     | Priority     | Status       |%n");
-        System.out.format("+------+--------------------------------+--------------+--------------+--------------+%n");
+        ScreenBuffer screen = CLIUtils.screen();
+        screen.line(TABLE_BORDER)
+              .line("| ID   | Title                          | Due Date     | Priority     | Status       |")
+              .line(TABLE_BORDER);
         
         for (Todo todo : todos) {
-            String dueDate = todo.getDueDate() != null ? todo.getDueDate().toString() : "None";
-            System.out.format(format, 
-                             todo.getId(), 
-                             truncate(todo.getTitle(), 30),
-                             dueDate,
-                             todo.getPriority(),
-                             todo.getStatus());
+            screen.line(TABLE_ROWS.get(new TableRow(todo.getId(), todo.getTitle(), todo.getDueDate(),
+                    todo.getPriority(), todo.getStatus())));
         }
         
-        System.out.format("+------+--------------------------------+--------------+--------------+--------------+%n");
+        screen.line(TABLE_BORDER).flush();
+    }
+    
+    private static String renderTableRow(TableRow row) {
+        return String.format("| %-4s | %-30s | %-12s | %-12s | %-12s |",
+                             row.id(),
+                             truncate(row.title(), 30),
+                             row.dueDate() != null ? row.dueDate().toString() : "None",
+                             row.priority(),
+                             row.status());
     }
     
     /**
@@ -590,7 +614,7 @@ public class TodoCommandHandler implements CommandHandler {
     /**
      * Truncates a string to a specific length.
      */
-    private String truncate(String text, int maxLength) {
+    private static String truncate(String text, int maxLength) {
         if (text == null || text.length() <= maxLength) {
             return text;
         }
@@ -1,5 +1,9 @@
 package org.lucian.todos.cli.menu;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Scanner;
 
 import org.lucian.todos.cli.handler.AuthenticationCommandHandler;
@@ -7,6 +11,7 @@ import org.lucian.todos.cli.handler.ProjectCommandHandler;
 import org.lucian.todos.cli.handler.TodoCommandHandler;
 import org.lucian.todos.cli.util.CLIUtils;
 import org.lucian.todos.cli.util.ErrorHandler;
+import org.lucian.todos.metrics.MetricsRegistry;
 import org.lucian.todos.model.User;
 import org.lucian.todos.service.AuthenticationService;
 
@@ -18,6 +23,8 @@ import org.lucian.todos.service.AuthenticationService;
  */
 public class MainMenu {
     
+    private static final DateTimeFormatter METRICS_FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
     private final Scanner scanner;
     private final TodoCommandHandler todoHandler;
     private final ProjectCommandHandler projectHandler;
@@ -216,7 +223,8 @@ public class MainMenu {
                     case "4", "priority" -> todoHandler.displayTodosByPriority();
                     case "5", "completion" -> projectHandler.displayProjectCompletionStats();
                     case "6", "summary" -> displaySystemSummary();
-                    case "7", "back", "return" -> {
+                    case "7", "metrics", "performance" -> displayPerformanceMetrics();
+                    case "8", "back", "return" -> {
                         return;
                     }
                     default -> {
@@ -246,7 +254,8 @@ public class MainMenu {
         System.out.println("  4. Todos by Priority");
         System.out.println("  5. Project Completion Stats");
         System.out.println("  6. System Summary");
-        System.out.println("  7. Back to Main Menu");
+        System.out.println("  7. Performance Metrics");
+        System.out.println("  8. Back to Main Menu");
         System.out.println();
     }
     
@@ -270,6 +279,52 @@ public class MainMenu {
         CLIUtils.waitForKeyPress(scanner);
     }
     
+    /**
+     * Displays the latency, throughput and error counts of the database operations
+     * since startup, and offers to save them to a file or start a new measurement.
+     */
+    private void displayPerformanceMetrics() {
+        CLIUtils.clearScreen();
+        CLIUtils.printHeader("Performance Metrics");
+        
+        if (!MetricsRegistry.isEnabled()) {
+            CLIUtils.printWarning("Metrics are disabled (-D" + MetricsRegistry.ENABLED_PROPERTY + "=false).");
+            CLIUtils.waitForKeyPress(scanner);
+            return;
+        }
+        
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        try {
+            StringBuilder report = new StringBuilder();
+            metrics.writeReport(report);
+            System.out.print(report);
+            System.out.println();
+            
+            String choice = CLIUtils.getInput(scanner, "Save to file (s), reset (r) or Enter to go back: ")
+                    .trim().toLowerCase();
+            switch (choice) {
+                case "s", "save" -> {
+                    String defaultFile = "logs/metrics-" + LocalDateTime.now().format(METRICS_FILE_TIMESTAMP) + ".txt";
+                    Path file = Path.of(CLIUtils.getInputWithDefault(scanner, "File", defaultFile));
+                    metrics.dump(file);
+                    CLIUtils.printSuccess("Metrics saved to " + file.toAbsolutePath());
+                    CLIUtils.waitForKeyPress(scanner);
+                }
+                case "r", "reset" -> {
+                    metrics.reset();
+                    CLIUtils.printSuccess("Metrics reset.");
+                    CLIUtils.waitForKeyPress(scanner);
+                }
+                default -> {
+                    // back to the statistics menu
+                }
+            }
+        } catch (IOException e) {
+            CLIUtils.printError("Error saving metrics: " + e.getMessage());
+            CLIUtils.waitForKeyPress(scanner);
+        }
+    }
+    
     /**
      * Displays help and documentation.
      */
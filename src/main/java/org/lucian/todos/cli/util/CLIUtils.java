@@ -8,6 +8,7 @@ import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
 
+import org.lucian.todos.exceptions.TodoManagementException;
 import org.lucian.todos.model.Priority;
 import org.lucian.todos.model.Project;
 import org.lucian.todos.model.Todo;
@@ -35,17 +36,43 @@ public class CLIUtils {
     private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
     private static final DateTimeFormatter DISPLAY_DATETIME_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
     
+    /** Pages held by a lazily fetched list: the current page and its neighbours. */
+    private static final int PAGE_WINDOW_CAPACITY = 3;
+    
+    private static final boolean WINDOWS = System.getProperty("os.name").contains("Windows");
+    
+    /** Output of the interactive CLI, written once per screen or message. */
+    private static final ScreenBuffer SCREEN = new ScreenBuffer();
+    
+    /** The displayed values of a todo; equal rows format identically. */
+    private record TodoRow(Long id, String title, String description, TodoStatus status, Priority priority,
+                           LocalDate dueDate, boolean overdue, Long projectId) {
+    }
+    
+    /** Formatted todos, so redrawing a page only formats the rows that changed. */
+    private static final RowCache<TodoRow> TODO_ROWS = new RowCache<>(1024, CLIUtils::renderTodo);
+    
+    /**
+     * Gets the buffer the CLI's screens are built in. Callers append a whole screen
+     * and then {@link ScreenBuffer#flush() flush} it.
+     * 
+     * @return the shared screen buffer
+     */
+    public static ScreenBuffer screen() {
+        return SCREEN;
+    }
+    
     /**
      * Clears the console screen.
      */
     public static void clearScreen() {
         try {
             // Try to clear screen on different operating systems
-            if (System.getProperty("os.name").contains("Windows")) {
+            if (WINDOWS) {
+                SCREEN.flush();
                 new ProcessBuilder("cmd", "/c", "cls").inheritIO().start().waitFor();
             } else {
-                System.out.print("\033[2J\033[H");
-                System.out.flush();
+                SCREEN.clearScreen().flush();
             }
         } catch (IOException | InterruptedException e) {
             // If clearing fails, just print some empty lines
@@ -62,10 +89,11 @@ public class CLIUtils {
      */
     public static void printHeader(String title) {
         String border = "=".repeat(Math.max(50, title.length() + 10));
-        System.out.println(CYAN + border + RESET);
-        System.out.println(CYAN + BOLD + centerText(title, border.length()) + RESET);
-        System.out.println(CYAN + border + RESET);
-        System.out.println();
+        SCREEN.append(CYAN).append(border).line(RESET)
+              .append(CYAN).append(BOLD).append(centerText(title, border.length())).line(RESET)
+              .append(CYAN).append(border).line(RESET)
+              .line()
+              .flush();
     }
     
     /**
@@ -74,9 +102,14 @@ public class CLIUtils {
      * @param title the section title
      */
     public static void printSectionHeader(String title) {
-        System.out.println();
-        System.out.println(BLUE + BOLD + title + RESET);
-        System.out.println(BLUE + "-".repeat(title.length()) + RESET);
+        appendSectionHeader(title);
+        SCREEN.flush();
+    }
+    
+    private static void appendSectionHeader(String title) {
+        SCREEN.line()
+              .append(BLUE).append(BOLD).append(title).line(RESET)
+              .append(BLUE).append("-".repeat(title.length())).line(RESET);
     }
     
     /**
@@ -85,7 +118,7 @@ public class CLIUtils {
      * @param message the success message
      */
     public static void printSuccess(String message) {
-        System.out.println(GREEN + "✓ " + message + RESET);
+        SCREEN.append(GREEN).append("✓ ").append(message).line(RESET).flush();
     }
     
     /**
@@ -94,7 +127,7 @@ public class CLIUtils {
      * @param message the error message
      */
     public static void printError(String message) {
-        System.out.println(RED + "✗ " + message + RESET);
+        SCREEN.append(RED).append("✗ ").append(message).line(RESET).flush();
     }
     
     /**
@@ -103,7 +136,7 @@ public class CLIUtils {
      * @param message the warning message
      */
     public static void printWarning(String message) {
-        System.out.println(YELLOW + "⚠ " + message + RESET);
+        SCREEN.append(YELLOW).append("⚠ ").append(message).line(RESET).flush();
     }
     
     /**
@@ -112,7 +145,7 @@ public class CLIUtils {
      * @param message the info message
      */
     public static void printInfo(String message) {
-        System.out.println(BLUE + "ℹ " + message + RESET);
+        SCREEN.append(BLUE).append("ℹ ").append(message).line(RESET).flush();
     }
     
     /**
@@ -198,11 +231,11 @@ public class CLIUtils {
      * @return the selected priority
      */
     public static Priority getPriorityInput(Scanner scanner, String prompt) {
-        System.out.println("\nAvailable priorities:");
+        SCREEN.line().line("Available priorities:");
         for (int i = 0; i < Priority.values().length; i++) {
-            Priority priority = Priority.values()[i];
-            System.out.printf("  %d. %s%n", i + 1, priority.toString());
+            SCREEN.append("  ").append(i + 1).append(". ").line(Priority.values()[i].toString());
         }
+        SCREEN.flush();
         
         int choice = getIntInput(scanner, prompt + " (1-" + Priority.values().length + "): ", 
                                 1, Priority.values().length);
@@ -217,11 +250,11 @@ public class CLIUtils {
      * @return the selected todo status
      */
     public static TodoStatus getTodoStatusInput(Scanner scanner, String prompt) {
-        System.out.println("\nAvailable statuses:");
+        SCREEN.line().line("Available statuses:");
         for (int i = 0; i < TodoStatus.values().length; i++) {
-            TodoStatus status = TodoStatus.values()[i];
-            System.out.printf("  %d. %s%n", i + 1, status.getDisplayName());
+            SCREEN.append("  ").append(i + 1).append(". ").line(TodoStatus.values()[i].getDisplayName());
         }
+        SCREEN.flush();
         
         int choice = getIntInput(scanner, prompt + " (1-" + TodoStatus.values().length + "): ", 
                                 1, TodoStatus.values().length);
@@ -258,42 +291,46 @@ public class CLIUtils {
      * @return formatted todo string
      */
     public static String formatTodo(Todo todo) {
-        StringBuilder sb = new StringBuilder();
+        boolean overdue = todo.getDueDate() != null && todo.getDueDate().isBefore(LocalDate.now())
+                && !todo.getStatus().isCompleted();
+        return TODO_ROWS.get(new TodoRow(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getStatus(),
+                todo.getPriority(), todo.getDueDate(), overdue, todo.getProjectId()));
+    }
+    
+    private static String renderTodo(TodoRow todo) {
+        StringBuilder sb = new StringBuilder(128);
         
         // Todo ID and title
-        sb.append(String.format("%s[ID: %d]%s %s%s%s", 
-            CYAN, todo.getId(), RESET,
-            BOLD, todo.getTitle(), RESET));
+        sb.append(CYAN).append("[ID: ").append(todo.id()).append(']').append(RESET)
+          .append(' ').append(BOLD).append(todo.title()).append(RESET);
         
         // Status with color coding
-        String statusColor = getStatusColor(todo.getStatus());
-        sb.append(String.format(" - %s%s%s", statusColor, todo.getStatus().getDisplayName(), RESET));
+        sb.append(" - ").append(getStatusColor(todo.status())).append(todo.status().getDisplayName()).append(RESET);
         
         // Priority with color coding
-        String priorityColor = getPriorityColor(todo.getPriority());
-        sb.append(String.format(" [%s%s%s]", priorityColor, todo.getPriority().toString(), RESET));
+        sb.append(" [").append(getPriorityColor(todo.priority())).append(todo.priority()).append(RESET).append(']');
         
         // Due date
-        if (todo.getDueDate() != null) {
-            String dueDateStr = todo.getDueDate().format(DISPLAY_DATE_FORMATTER);
-            if (todo.getDueDate().isBefore(LocalDate.now()) && !todo.getStatus().isCompleted()) {
-                sb.append(String.format(" %s(Due: %s - OVERDUE!)%s", RED, dueDateStr, RESET));
+        if (todo.dueDate() != null) {
+            String dueDateStr = todo.dueDate().format(DISPLAY_DATE_FORMATTER);
+            if (todo.overdue()) {
+                sb.append(' ').append(RED).append("(Due: ").append(dueDateStr).append(" - OVERDUE!)").append(RESET);
             } else {
-                sb.append(String.format(" (Due: %s)", dueDateStr));
+                sb.append(" (Due: ").append(dueDateStr).append(')');
             }
         }
         
         // Project assignment
-        if (todo.getProjectId() != null) {
-            sb.append(String.format(" %s[Project ID: %d]%s", MAGENTA, todo.getProjectId(), RESET));
+        if (todo.projectId() != null) {
+            sb.append(' ').append(MAGENTA).append("[Project ID: ").append(todo.projectId()).append(']').append(RESET);
         }
         
         // Description (if available and not too long)
-        if (todo.getDescription() != null && !todo.getDescription().trim().isEmpty()) {
-            String desc = todo.getDescription().length() > 50 
-                ? todo.getDescription().substring(0, 47) + "..."
-                : todo.getDescription();
-            sb.append(String.format("%n    %s", desc));
+        if (todo.description() != null && !todo.description().trim().isEmpty()) {
+            String desc = todo.description().length() > 50 
+                ? todo.description().substring(0, 47) + "..."
+                : todo.description();
+            sb.append(System.lineSeparator()).append("    ").append(desc);
         }
         
         return sb.toString();
@@ -391,23 +428,13 @@ public class CLIUtils {
         int currentPage = 1;
         
         while (true) {
-            clearScreen();
-            printSectionHeader(String.format("Items (Page %d of %d)", currentPage, totalPages));
-            
             int startIndex = (currentPage - 1) * itemsPerPage;
             int endIndex = Math.min(startIndex + itemsPerPage, items.size());
-            
-            for (int i = startIndex; i < endIndex; i++) {
-                System.out.printf("%d. %s%n", i + 1, formatter.apply(items.get(i)));
-            }
-            
-            System.out.println();
-            System.out.printf("Showing %d-%d of %d items%n", startIndex + 1, endIndex, items.size());
+            drawPage("Items", items.subList(startIndex, endIndex), startIndex, items.size(), currentPage, totalPages,
+                    formatter);
             
             if (totalPages > 1) {
-                System.out.println();
-                System.out.println("Navigation: [n]ext, [p]revious, [q]uit");
-                String choice = getInput(scanner, "Choice: ").toLowerCase();
+                String choice = scanner.nextLine().toLowerCase();
                 
                 switch (choice) {
                     case "n", "next" -> {
@@ -425,12 +452,112 @@ public class CLIUtils {
                     }
                 }
             } else {
-                waitForKeyPress(scanner);
+                scanner.nextLine();
                 break;
             }
         }
     }
     
+    /**
+     * Displays a list one page at a time, fetching pages on demand instead of loading the
+     * whole list. The first page is fetched and shown straight away; while a page is on screen
+     * its neighbours are fetched in the background. Only those pages are kept, so memory use
+     * does not grow with the length of the list.
+     * 
+     * @param pages fetches a page by its 0-based index
+     * @param title the title shown above each page
+     * @param emptyMessage the message shown instead when the list is empty
+     * @param itemsPerPage number of items per page
+     * @param scanner the scanner for user input
+     * @param formatter function to format each item
+     * @throws TodoManagementException if a page cannot be fetched
+     */
+    public static <T> void displayPaginatedList(PageSupplier<T> pages, String title, String emptyMessage,
+                                                int itemsPerPage, Scanner scanner,
+                                                java.util.function.Function<T, String> formatter)
+            throws TodoManagementException {
+        try (PageWindow<T> window = new PageWindow<>(pages, itemsPerPage, PAGE_WINDOW_CAPACITY)) {
+            int pageIndex = 0;
+            while (true) {
+                PageSupplier.Page<T> page = window.get(pageIndex);
+                if (page.totalCount() == 0) {
+                    printInfo(emptyMessage);
+                    return;
+                }
+                int totalPages = (int) ((page.totalCount() + itemsPerPage - 1) / itemsPerPage);
+                if (page.items().isEmpty()) {
+                    // Items were removed since the page count was taken; show the new last page
+                    window.clear();
+                    pageIndex = totalPages - 1;
+                    continue;
+                }
+                // The page just read is the most recently used, so prefetching never evicts it
+                if (pageIndex + 1 < totalPages) {
+                    window.prefetch(pageIndex + 1);
+                }
+                window.prefetch(pageIndex - 1);
+                
+                drawPage(title, page.items(), pageIndex * itemsPerPage, page.totalCount(), pageIndex + 1,
+                        totalPages, formatter);
+                
+                if (totalPages > 1) {
+                    String choice = scanner.nextLine().toLowerCase();
+                    
+                    switch (choice) {
+                        case "n", "next" -> {
+                            if (pageIndex < totalPages - 1) pageIndex++;
+                        }
+                        case "p", "prev", "previous" -> {
+                            if (pageIndex > 0) pageIndex--;
+                        }
+                        case "q", "quit" -> {
+                            return;
+                        }
+                        default -> {
+                            printError("Invalid choice. Press Enter to continue...");
+                            scanner.nextLine();
+                        }
+                    }
+                } else {
+                    scanner.nextLine();
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Draws one page of a paginated list, with the navigation prompt, and writes it
+     * to the terminal in one call.
+     */
+    private static <T> void drawPage(String title, List<T> pageItems, int startIndex, long totalCount,
+                                     int currentPage, int totalPages,
+                                     java.util.function.Function<T, String> formatter) {
+        if (WINDOWS) {
+            clearScreen();
+        } else {
+            SCREEN.clearScreen();
+        }
+        appendSectionHeader(title + " (Page " + currentPage + " of " + totalPages + ")");
+        
+        for (int i = 0; i < pageItems.size(); i++) {
+            SCREEN.append(startIndex + i + 1).append(". ").line(formatter.apply(pageItems.get(i)));
+        }
+        
+        SCREEN.line()
+              .append("Showing ").append(startIndex + 1).append('-').append(startIndex + pageItems.size())
+              .append(" of ").append(totalCount).line(" items");
+        
+        if (totalPages > 1) {
+            SCREEN.line()
+                  .line("Navigation: [n]ext, [p]revious, [q]uit")
+                  .append("Choice: ");
+        } else {
+            SCREEN.line().append("Press Enter to continue...");
+        }
+        SCREEN.flush();
+    }
+    
     /**
      * Formats a date for display.
      * 
@@ -0,0 +1,39 @@
+package org.lucian.todos.cli.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.lucian.todos.exceptions.TodoManagementException;
+
+/**
+ * Fetches one page of a list on demand, for lists too large to load whole.
+ * See {@link CLIUtils#displayPaginatedList(PageSupplier, int, java.util.Scanner, java.util.function.Function)}.
+ * Pages may be fetched on a background thread.
+ *
+ * @param <T> the item type
+ */
+@FunctionalInterface
+public interface PageSupplier<T> {
+
+    /**
+     * Fetches a page.
+     *
+     * @param pageIndex the 0-based page index
+     * @param pageSize the number of items per page
+     * @return the page's items and the current number of items in the whole list
+     * @throws TodoManagementException if the page cannot be fetched
+     */
+    Page<T> fetch(int pageIndex, int pageSize) throws TodoManagementException;
+
+    /**
+     * One fetched page.
+     *
+     * @param items the items on the page
+     * @param totalCount the number of items in the whole list
+     */
+    record Page<T>(List<T> items, long totalCount) {
+        public Page {
+            items = Collections.unmodifiableList(items);
+        }
+    }
+}
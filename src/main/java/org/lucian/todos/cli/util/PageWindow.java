@@ -0,0 +1,125 @@
+package org.lucian.todos.cli.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.lucian.todos.exceptions.TodoManagementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The pages of a {@link PageSupplier} around the one on screen. At most {@code capacity}
+ * pages are held, least recently shown first to go, so memory stays bounded however long
+ * the list is. Neighbouring pages are fetched on a background thread while the user reads
+ * the current one. Only the UI thread calls this class.
+ *
+ * @param <T> the item type
+ */
+final class PageWindow<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageWindow.class);
+
+    private final PageSupplier<T> supplier;
+    private final int pageSize;
+    private final Map<Integer, CompletableFuture<PageSupplier.Page<T>>> pages;
+    private final ExecutorService prefetcher;
+
+    /**
+     * Creates a window.
+     *
+     * @param supplier the page source
+     * @param pageSize the number of items per page
+     * @param capacity the maximum number of pages held, at least 3 so the current page
+     *                 and both neighbours fit
+     */
+    PageWindow(PageSupplier<T> supplier, int pageSize, int capacity) {
+        if (pageSize < 1 || capacity < 3) {
+            throw new IllegalArgumentException("Invalid page size " + pageSize + " or capacity " + capacity);
+        }
+        this.supplier = supplier;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CompletableFuture<PageSupplier.Page<T>>> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                eldest.getValue().cancel(false);
+                return true;
+            }
+        };
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cli-page-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets a page, waiting for it if it is being prefetched. A page that is not held
+     * is fetched on the calling thread, so the first page does not wait for a thread hand-off.
+     *
+     * @param pageIndex the 0-based page index
+     * @return the page
+     * @throws TodoManagementException if the page cannot be fetched
+     */
+    PageSupplier.Page<T> get(int pageIndex) throws TodoManagementException {
+        CompletableFuture<PageSupplier.Page<T>> pending = pages.get(pageIndex);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException | CancellationException e) {
+                // Fetch again below; the failure is reported if it recurs
+                pages.remove(pageIndex);
+                logger.debug("Prefetch of page {} failed, fetching again", pageIndex, e);
+            }
+        }
+        PageSupplier.Page<T> page = supplier.fetch(pageIndex, pageSize);
+        pages.put(pageIndex, CompletableFuture.completedFuture(page));
+        return page;
+    }
+
+    /**
+     * Starts fetching a page in the background unless it is already held.
+     *
+     * @param pageIndex the 0-based page index; ignored if negative
+     */
+    void prefetch(int pageIndex) {
+        if (pageIndex < 0 || pages.containsKey(pageIndex)) {
+            return;
+        }
+        pages.put(pageIndex, CompletableFuture.supplyAsync(() -> {
+            try {
+                return supplier.fetch(pageIndex, pageSize);
+            } catch (TodoManagementException e) {
+                throw new CompletionException(e);
+            }
+        }, prefetcher));
+    }
+
+    /**
+     * Drops every held page, e.g. after the list changed size.
+     */
+    void clear() {
+        pages.values().forEach(page -> page.cancel(false));
+        pages.clear();
+    }
+
+    /**
+     * Gets the number of pages held, including those still being fetched.
+     */
+    int size() {
+        return pages.size();
+    }
+
+    @Override
+    public void close() {
+        clear();
+        prefetcher.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package org.lucian.todos.cli.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Remembers the rendered text of list rows, so redrawing a screen only formats the rows
+ * that changed. The key must hold every value the rendering depends on, typically a
+ * record of the displayed fields: equal keys render identically. The least recently
+ * used rows are dropped beyond the capacity.
+ *
+ * @param <K> the row key type
+ */
+public final class RowCache<K> {
+
+    private final Function<K, String> renderer;
+    private final Map<K, String> rows;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity the maximum number of rows kept
+     * @param renderer renders the row for a key
+     */
+    public RowCache(int capacity, Function<K, String> renderer) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.renderer = renderer;
+        this.rows = new LinkedHashMap<>(Math.min(capacity, 1024) * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the rendered row, rendering it on first use.
+     *
+     * @param key the row's displayed values
+     * @return the rendered row
+     */
+    public synchronized String get(K key) {
+        String row = rows.get(key);
+        if (row != null) {
+            hits++;
+            return row;
+        }
+        misses++;
+        row = renderer.apply(key);
+        rows.put(key, row);
+        return row;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
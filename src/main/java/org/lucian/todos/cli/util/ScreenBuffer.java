@@ -0,0 +1,151 @@
+package org.lucian.todos.cli.util;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Formatter;
+
+/**
+ * Builds terminal output in memory and writes it with a single call on {@link #flush()}.
+ * A screen written line by line through {@code System.out} costs one write per line,
+ * which is slow on remote and emulated terminals; a buffered screen costs one.
+ * The character and byte buffers are kept between screens, so redrawing does not
+ * allocate once they have grown to the size of the largest screen.
+ * <p>
+ * Not thread-safe: a buffer belongs to the thread driving the terminal.
+ */
+public final class ScreenBuffer {
+
+    /** ANSI sequence clearing the screen and moving the cursor home. */
+    static final String CLEAR_SCREEN = "\033[2J\033[H";
+
+    private final StringBuilder text = new StringBuilder(4096);
+    private final Formatter formatter = new Formatter(text);
+    private final PrintStream target;
+    private CharsetEncoder encoder;
+    private ByteBuffer bytes = ByteBuffer.allocate(8192);
+
+    /**
+     * Creates a buffer writing to whatever {@code System.out} is when it is flushed.
+     */
+    public ScreenBuffer() {
+        this(null);
+    }
+
+    /**
+     * Creates a buffer writing to a stream.
+     *
+     * @param target the stream, or null for the current {@code System.out}
+     */
+    public ScreenBuffer(PrintStream target) {
+        this.target = target;
+    }
+
+    public ScreenBuffer append(CharSequence value) {
+        text.append(value);
+        return this;
+    }
+
+    public ScreenBuffer append(char value) {
+        text.append(value);
+        return this;
+    }
+
+    public ScreenBuffer append(long value) {
+        text.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a line break.
+     */
+    public ScreenBuffer line() {
+        text.append(System.lineSeparator());
+        return this;
+    }
+
+    /**
+     * Appends text and a line break.
+     */
+    public ScreenBuffer line(CharSequence value) {
+        return append(value).line();
+    }
+
+    /**
+     * Appends formatted text, like {@link PrintStream#printf(String, Object...)}.
+     */
+    public ScreenBuffer format(String format, Object... args) {
+        formatter.format(format, args);
+        return this;
+    }
+
+    /**
+     * Appends text padded with spaces to at least the given width.
+     * Equivalent to {@code %-<width>s} without parsing a format string.
+     */
+    public ScreenBuffer padded(Object value, int width) {
+        String shown = String.valueOf(value);
+        text.append(shown);
+        if (shown.length() < width) {
+            text.repeat(' ', width - shown.length());
+        }
+        return this;
+    }
+
+    /**
+     * Appends the ANSI sequence that clears the screen.
+     */
+    public ScreenBuffer clearScreen() {
+        text.append(CLEAR_SCREEN);
+        return this;
+    }
+
+    /**
+     * Gets the number of characters waiting to be written.
+     */
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Writes the buffered text in one call and empties the buffer.
+     */
+    public void flush() {
+        PrintStream out = target != null ? target : System.out;
+        if (text.isEmpty()) {
+            return;
+        }
+        ByteBuffer encoded = encode(out);
+        out.write(encoded.array(), 0, encoded.position());
+        out.flush();
+        text.setLength(0);
+    }
+
+    /**
+     * Encodes the buffered text in the stream's charset into the reusable byte buffer,
+     * growing it when a screen does not fit.
+     */
+    private ByteBuffer encode(PrintStream out) {
+        if (encoder == null || !encoder.charset().equals(out.charset())) {
+            encoder = out.charset().newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        int needed = (int) Math.ceil(text.length() * (double) encoder.maxBytesPerChar());
+        if (bytes.capacity() < needed) {
+            bytes = ByteBuffer.allocate(Math.max(needed, bytes.capacity() * 2));
+        }
+        bytes.clear();
+        encoder.reset();
+        CharBuffer chars = CharBuffer.wrap(text);
+        CoderResult result = encoder.encode(chars, bytes, true);
+        if (result.isOverflow()) {
+            throw new IllegalStateException("Screen buffer sized too small for " + text.length() + " characters");
+        }
+        encoder.flush(bytes);
+        return bytes;
+    }
+}
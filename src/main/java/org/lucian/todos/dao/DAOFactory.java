@@ -1,9 +1,14 @@
 package org.lucian.todos.dao;
 
+import org.lucian.todos.dao.impl.CachingTodoDAO;
+import org.lucian.todos.dao.impl.MeteredProjectDAO;
+import org.lucian.todos.dao.impl.MeteredTodoDAO;
+import org.lucian.todos.dao.impl.MeteredUserDAO;
 import org.lucian.todos.dao.impl.ProjectDAOImpl;
 import org.lucian.todos.dao.impl.TodoDAOImpl;
 import org.lucian.todos.dao.impl.UserDAOImpl;
 import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.metrics.MetricsRegistry;
 
 /**
  * Factory class for creating DAO instances.
@@ -11,6 +16,12 @@ import org.lucian.todos.database.DatabaseManager;
  */
 public class DAOFactory {
     
+    /** System property switching the todo cache on or off (default on). */
+    public static final String TODO_CACHE_ENABLED_PROPERTY = "todos.cache.todo.enabled";
+    /** System property with the maximum number of cached todos. */
+    public static final String TODO_CACHE_SIZE_PROPERTY = "todos.cache.todo.maxSize";
+    private static final int DEFAULT_TODO_CACHE_SIZE = 1000;
+    
     private final DatabaseManager databaseManager;
     private final TodoDAO todoDAO;
     private final ProjectDAO projectDAO;
@@ -24,9 +35,42 @@ public class DAOFactory {
      */
     public DAOFactory(DatabaseManager databaseManager) {
         this.databaseManager = databaseManager;
-        this.todoDAO = new TodoDAOImpl(databaseManager);
-        this.projectDAO = new ProjectDAOImpl(databaseManager);
-        this.userDAO = new UserDAOImpl(databaseManager);
+        this.todoDAO = createTodoDAO(databaseManager);
+        ProjectDAO projects = new ProjectDAOImpl(databaseManager);
+        UserDAO users = new UserDAOImpl(databaseManager);
+        if (MetricsRegistry.isEnabled()) {
+            projects = new MeteredProjectDAO(projects, MetricsRegistry.getDefault());
+            users = new MeteredUserDAO(users, MetricsRegistry.getDefault());
+        }
+        this.projectDAO = projects;
+        this.userDAO = users;
+    }
+    
+    /**
+     * Creates the todo DAO, wrapped in a {@link CachingTodoDAO} unless the cache
+     * is disabled through the {@code todos.cache.todo.*} system properties.
+     * The metered DAO wraps the cache, so its timings are the latencies callers
+     * see, cache hits included; the cache's own hit and miss counts are reported
+     * as the {@code TodoDAO.cache} gauge.
+     * 
+     * @param databaseManager the database manager to use
+     * @return the todo DAO
+     */
+    private static TodoDAO createTodoDAO(DatabaseManager databaseManager) {
+        TodoDAO todoDAO = new TodoDAOImpl(databaseManager);
+        boolean enabled = Boolean.parseBoolean(System.getProperty(TODO_CACHE_ENABLED_PROPERTY, "true"));
+        int maxSize = Integer.getInteger(TODO_CACHE_SIZE_PROPERTY, DEFAULT_TODO_CACHE_SIZE);
+        if (enabled && maxSize >= 1) {
+            CachingTodoDAO cache = new CachingTodoDAO(todoDAO, databaseManager, maxSize);
+            if (MetricsRegistry.isEnabled()) {
+                MetricsRegistry.getDefault().gauge("TodoDAO.cache", () -> cache.getStats().toString());
+            }
+            todoDAO = cache;
+        }
+        if (MetricsRegistry.isEnabled()) {
+            todoDAO = new MeteredTodoDAO(todoDAO, MetricsRegistry.getDefault());
+        }
+        return todoDAO;
     }
     
     /**
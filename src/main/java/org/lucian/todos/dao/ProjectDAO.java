@@ -1,7 +1,9 @@
 package org.lucian.todos.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.lucian.todos.exceptions.DatabaseException;
 import org.lucian.todos.model.Project;
@@ -32,6 +34,15 @@ public interface ProjectDAO {
      */
     Optional<Project> findById(Long id) throws DatabaseException;
     
+    /**
+     * Finds a project by its ID together with its todos, in a single query.
+     * 
+     * @param id the project ID
+     * @return Optional containing the project with its todos loaded (newest first) if found, empty otherwise
+     * @throws DatabaseException if query fails
+     */
+    Optional<Project> findByIdWithTodos(Long id) throws DatabaseException;
+    
     /**
      * Retrieves all projects from the database.
      * 
@@ -65,6 +76,65 @@ public interface ProjectDAO {
      */
     List<Project> findActive() throws DatabaseException;
     
+    /**
+     * Retrieves all projects owned by a user, newest first.
+     * 
+     * @param userId the owning user's ID
+     * @return list of the user's projects
+     * @throws DatabaseException if query fails
+     * @throws IllegalArgumentException if the user ID is null
+     */
+    List<Project> findAllForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Finds a user's projects by name (case-insensitive partial match).
+     * 
+     * @param userId the owning user's ID
+     * @param name the name to search for
+     * @return list of the user's matching projects
+     * @throws DatabaseException if query fails
+     */
+    List<Project> findByNameForUser(Long userId, String name) throws DatabaseException;
+    
+    /**
+     * Finds a user's completed projects (all todos completed).
+     * 
+     * @param userId the owning user's ID
+     * @return list of the user's completed projects
+     * @throws DatabaseException if query fails
+     */
+    List<Project> findCompletedForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Finds a user's active projects (has incomplete todos).
+     * 
+     * @param userId the owning user's ID
+     * @return list of the user's active projects
+     * @throws DatabaseException if query fails
+     */
+    List<Project> findActiveForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Counts the projects owned by a user.
+     * 
+     * @param userId the owning user's ID
+     * @return the user's project count
+     * @throws DatabaseException if query fails
+     */
+    long countForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Filters project IDs down to those of projects owned by a user, checking
+     * many IDs per query.
+     * 
+     * @param userId the owning user's ID
+     * @param ids the project IDs to check; null IDs are ignored
+     * @return the IDs of the user's projects among the given ones
+     * @throws DatabaseException if query fails
+     * @throws IllegalArgumentException if the user ID is null
+     */
+    Set<Long> findOwnedIds(Long userId, Collection<Long> ids) throws DatabaseException;
+    
     /**
      * Updates an existing project in the database.
      * 
@@ -0,0 +1,56 @@
+package org.lucian.todos.dao;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.TodoStatus;
+
+/**
+ * Todo counts by status and priority plus the number of overdue todos,
+ * computed by a single grouped query.
+ */
+public class TodoCountSummary {
+
+    private final Map<TodoStatus, Long> statusCounts = new EnumMap<>(TodoStatus.class);
+    private final Map<Priority, Long> priorityCounts = new EnumMap<>(Priority.class);
+    private long total;
+    private long overdue;
+
+    /**
+     * Adds the counts of one (status, priority) group.
+     *
+     * @param status the group status
+     * @param priority the group priority
+     * @param count number of todos in the group
+     * @param overdueCount number of overdue todos in the group
+     */
+    public void addGroup(TodoStatus status, Priority priority, long count, long overdueCount) {
+        statusCounts.merge(status, count, Long::sum);
+        priorityCounts.merge(priority, count, Long::sum);
+        total += count;
+        overdue += overdueCount;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public long getCount(TodoStatus status) {
+        return statusCounts.getOrDefault(status, 0L);
+    }
+
+    public long getCount(Priority priority) {
+        return priorityCounts.getOrDefault(priority, 0L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TodoCountSummary{total=%d, overdue=%d, byStatus=%s, byPriority=%s}",
+                total, overdue, statusCounts, priorityCounts);
+    }
+}
@@ -1,8 +1,11 @@
 package org.lucian.todos.dao;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.lucian.todos.exceptions.DatabaseException;
 import org.lucian.todos.model.Priority;
@@ -24,6 +27,17 @@ public interface TodoDAO {
      */
     Todo create(Todo todo) throws DatabaseException;
     
+    /**
+     * Creates several todos in a single transaction using JDBC batching.
+     * Recurring todos get their recurring data inserted in the same transaction.
+     * Either all todos are created or none are.
+     * 
+     * @param todos the todos to create (IDs will be generated)
+     * @return the created todos with generated IDs, in the same order
+     * @throws DatabaseException if creation fails
+     */
+    List<Todo> createAll(List<? extends Todo> todos) throws DatabaseException;
+    
     /**
      * Finds a todo by its ID.
      * 
@@ -41,6 +55,80 @@ public interface TodoDAO {
      */
     List<Todo> findAll() throws DatabaseException;
     
+    /**
+     * Retrieves one page of todos, newest first, using keyset pagination on (created_at, id).
+     * 
+     * @param pageToken the token returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of todos on the page
+     * @return the page with a continuation token if more todos exist
+     * @throws DatabaseException if query fails
+     * @throws IllegalArgumentException if the token is invalid or the page size is not positive
+     */
+    TodoPage findAllPage(String pageToken, int pageSize) throws DatabaseException;
+    
+    /**
+     * Retrieves one page of todos with a specific status, newest first.
+     * 
+     * @param status the todo status
+     * @param pageToken the token returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of todos on the page
+     * @return the page with a continuation token if more todos exist
+     * @throws DatabaseException if query fails
+     */
+    TodoPage findByStatusPage(TodoStatus status, String pageToken, int pageSize) throws DatabaseException;
+    
+    /**
+     * Retrieves one page of todos with a specific priority, newest first.
+     * 
+     * @param priority the todo priority
+     * @param pageToken the token returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of todos on the page
+     * @return the page with a continuation token if more todos exist
+     * @throws DatabaseException if query fails
+     */
+    TodoPage findByPriorityPage(Priority priority, String pageToken, int pageSize) throws DatabaseException;
+    
+    /**
+     * Streams all todos, newest first, mapping rows lazily from an open result set.
+     * The stream holds a pooled connection until it is closed, so it must be used
+     * in a try-with-resources block. Read failures during iteration are thrown as
+     * {@link IllegalStateException} with a {@link DatabaseException} cause.
+     * 
+     * @return a lazily populated stream of todos
+     * @throws DatabaseException if the query cannot be started
+     */
+    Stream<Todo> streamAll() throws DatabaseException;
+    
+    /**
+     * Streams all todos with a specific status. See {@link #streamAll()}.
+     * 
+     * @param status the todo status
+     * @return a lazily populated stream of todos
+     * @throws DatabaseException if the query cannot be started
+     */
+    Stream<Todo> streamByStatus(TodoStatus status) throws DatabaseException;
+    
+    /**
+     * Streams all todos with a specific priority. See {@link #streamAll()}.
+     * 
+     * @param priority the todo priority
+     * @return a lazily populated stream of todos
+     * @throws DatabaseException if the query cannot be started
+     */
+    Stream<Todo> streamByPriority(Priority priority) throws DatabaseException;
+    
+    /**
+     * Full-text searches todo titles and descriptions, best matches first.
+     * Every word of the query must match, and each word also matches as a prefix
+     * ("rep" finds "report"). Titles weigh more than descriptions in the ranking.
+     * 
+     * @param query the search text
+     * @param limit the maximum number of results; a non-positive value returns all matches
+     * @return the ranked matches with highlighted snippets
+     * @throws DatabaseException if query fails
+     */
+    List<TodoSearchResult> search(String query, int limit) throws DatabaseException;
+    
     /**
      * Finds all todos belonging to a specific project.
      * 
@@ -85,6 +173,131 @@ public interface TodoDAO {
      */
     List<Todo> findOverdue() throws DatabaseException;
     
+    /**
+     * Finds all todos due within a date range, both ends inclusive, ordered by due date.
+     * 
+     * @param from the first due date
+     * @param to the last due date
+     * @return list of todos due in the range, empty if either date is null
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findDueBetween(LocalDate from, LocalDate to) throws DatabaseException;
+    
+    /**
+     * Finds all todos due on a specific date.
+     * 
+     * @param date the due date
+     * @return list of todos due on the date
+     * @throws DatabaseException if query fails
+     */
+    default List<Todo> findDueOn(LocalDate date) throws DatabaseException {
+        return findDueBetween(date, date);
+    }
+    
+    /**
+     * Retrieves all todos owned by a user, newest first.
+     * 
+     * @param userId the owning user's ID
+     * @return list of the user's todos
+     * @throws DatabaseException if query fails
+     * @throws IllegalArgumentException if the user ID is null
+     */
+    List<Todo> findAllForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Finds a user's todos belonging to a specific project.
+     * 
+     * @param userId the owning user's ID
+     * @param projectId the project ID
+     * @return list of the user's todos in the project
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findByProjectIdForUser(Long userId, Long projectId) throws DatabaseException;
+    
+    /**
+     * Finds a user's todos with a specific status.
+     * 
+     * @param userId the owning user's ID
+     * @param status the todo status
+     * @return list of the user's todos with the specified status
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findByStatusForUser(Long userId, TodoStatus status) throws DatabaseException;
+    
+    /**
+     * Finds a user's todos with a specific priority.
+     * 
+     * @param userId the owning user's ID
+     * @param priority the todo priority
+     * @return list of the user's todos with the specified priority
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findByPriorityForUser(Long userId, Priority priority) throws DatabaseException;
+    
+    /**
+     * Finds a user's todos due on or before a specific date.
+     * 
+     * @param userId the owning user's ID
+     * @param date the due date threshold
+     * @return list of the user's todos due on or before the date
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findDueBeforeForUser(Long userId, LocalDate date) throws DatabaseException;
+    
+    /**
+     * Finds a user's overdue todos.
+     * 
+     * @param userId the owning user's ID
+     * @return list of the user's overdue todos
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findOverdueForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Finds a user's todos due within a date range, both ends inclusive, ordered by due date.
+     * 
+     * @param userId the owning user's ID
+     * @param from the first due date
+     * @param to the last due date
+     * @return list of the user's todos due in the range, empty if either date is null
+     * @throws DatabaseException if query fails
+     */
+    List<Todo> findDueBetweenForUser(Long userId, LocalDate from, LocalDate to) throws DatabaseException;
+    
+    /**
+     * Finds a user's todos due on a specific date.
+     * 
+     * @param userId the owning user's ID
+     * @param date the due date
+     * @return list of the user's todos due on the date
+     * @throws DatabaseException if query fails
+     */
+    default List<Todo> findDueOnForUser(Long userId, LocalDate date) throws DatabaseException {
+        return findDueBetweenForUser(userId, date, date);
+    }
+    
+    /**
+     * Full-text searches a user's todos. See {@link #search(String, int)}.
+     * 
+     * @param userId the owning user's ID
+     * @param query the search text
+     * @param limit the maximum number of results; a non-positive value returns all matches
+     * @return the ranked matches with highlighted snippets
+     * @throws DatabaseException if query fails
+     */
+    List<TodoSearchResult> searchForUser(Long userId, String query, int limit) throws DatabaseException;
+    
+    /**
+     * Runs a filtered, sorted and paginated listing as a single statement.
+     * Only the requested page is read into memory, together with the number
+     * of todos matching the filters.
+     * 
+     * @param query the query
+     * @return the page of todos and the total count
+     * @throws DatabaseException if query fails
+     */
+    TodoQueryResult query(TodoQuery query) throws DatabaseException;
+    
     /**
      * Updates an existing todo in the database.
      * 
@@ -94,6 +307,16 @@ public interface TodoDAO {
      */
     Todo update(Todo todo) throws DatabaseException;
     
+    /**
+     * Updates several todos in a single transaction using JDBC batching.
+     * If any todo does not exist, no changes are applied.
+     * 
+     * @param todos the todos to update
+     * @return the updated todos
+     * @throws DatabaseException if update fails or a todo is not found
+     */
+    List<Todo> updateAll(List<? extends Todo> todos) throws DatabaseException;
+    
     /**
      * Deletes a todo by its ID.
      * 
@@ -103,6 +326,16 @@ public interface TodoDAO {
      */
     boolean delete(Long id) throws DatabaseException;
     
+    /**
+     * Deletes several todos by ID in a single transaction using JDBC batching.
+     * IDs that do not exist are ignored.
+     * 
+     * @param ids the todo IDs
+     * @return the number of todos deleted
+     * @throws DatabaseException if deletion fails
+     */
+    int deleteAll(Collection<Long> ids) throws DatabaseException;
+    
     /**
      * Counts the total number of todos.
      * 
@@ -119,4 +352,59 @@ public interface TodoDAO {
      * @throws DatabaseException if query fails
      */
     long countByStatus(TodoStatus status) throws DatabaseException;
+    
+    /**
+     * Counts todos by status and by priority, and counts overdue todos,
+     * in a single grouped query.
+     * 
+     * @return the count summary
+     * @throws DatabaseException if query fails
+     */
+    TodoCountSummary countSummary() throws DatabaseException;
+    
+    /**
+     * Computes the {@link TodoCountSummary} of a single user's todos.
+     * 
+     * @param userId the owning user's ID
+     * @return the count summary
+     * @throws DatabaseException if query fails
+     */
+    TodoCountSummary countSummaryForUser(Long userId) throws DatabaseException;
+    
+    /**
+     * Computes a {@link TodoCountSummary} per project in a single grouped query.
+     * Projects without todos have no entry in the result.
+     * 
+     * @param projectIds the projects to include, or null for every project
+     * @return count summaries keyed by project ID
+     * @throws DatabaseException if query fails
+     */
+    Map<Long, TodoCountSummary> countSummaryByProject(Collection<Long> projectIds) throws DatabaseException;
+    
+    /**
+     * Discards any cached state of a project's todos after their rows were changed
+     * outside this DAO, e.g. when deleting the project sets their project_id to NULL.
+     * Implementations without a cache do nothing.
+     * 
+     * @param projectId the project ID
+     */
+    default void invalidateProject(Long projectId) {
+    }
+    
+    /**
+     * Discards any cached state of a user's todos after their rows were changed
+     * outside this DAO, e.g. when deleting the user cascades to their todos.
+     * Implementations without a cache do nothing.
+     * 
+     * @param userId the owning user's ID
+     */
+    default void invalidateUser(Long userId) {
+    }
+    
+    /**
+     * Discards all cached state, e.g. after the database was changed outside this DAO.
+     * Implementations without a cache do nothing.
+     */
+    default void invalidateAll() {
+    }
 }
@@ -0,0 +1,109 @@
+package org.lucian.todos.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import org.lucian.todos.model.Todo;
+
+/**
+ * One page of a keyset-paginated todo query.
+ * Pages are ordered by creation time (newest first) with the todo ID as tie-breaker;
+ * the next page is requested by passing {@link #getNextPageToken()} back to the DAO.
+ */
+public class TodoPage {
+
+    private final List<Todo> todos;
+    private final String nextPageToken;
+
+    public TodoPage(List<Todo> todos, String nextPageToken) {
+        this.todos = Collections.unmodifiableList(todos);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Gets the todos on this page.
+     *
+     * @return the todos, never null
+     */
+    public List<Todo> getTodos() {
+        return todos;
+    }
+
+    /**
+     * Gets the continuation token for the next page.
+     *
+     * @return the token, or null if this is the last page
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Position of the last row of a page: its raw created_at value and ID.
+     * The created_at value is kept as stored (epoch millis or text) so the
+     * keyset comparison in SQL matches the stored type.
+     */
+    public static final class Cursor {
+        private final Object createdAt;
+        private final long id;
+
+        public Cursor(Object createdAt, long id) {
+            if (!(createdAt instanceof Number) && !(createdAt instanceof String)) {
+                throw new IllegalArgumentException("Unsupported created_at value: " + createdAt);
+            }
+            this.createdAt = createdAt instanceof Number number ? (Object) number.longValue() : createdAt;
+            this.id = id;
+        }
+
+        public Object getCreatedAt() {
+            return createdAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Encodes this cursor as an opaque, URL-safe token.
+         *
+         * @return the page token
+         */
+        public String encode() {
+            String type = createdAt instanceof Long ? "i" : "s";
+            String raw = type + "|" + id + "|" + createdAt;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Decodes a token produced by {@link #encode()}.
+         *
+         * @param token the page token
+         * @return the cursor
+         * @throws IllegalArgumentException if the token is malformed
+         */
+        public static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid page token");
+                }
+                long id = Long.parseLong(parts[1]);
+                return switch (parts[0]) {
+                    case "i" -> new Cursor(Long.parseLong(parts[2]), id);
+                    case "s" -> new Cursor(parts[2], id);
+                    default -> throw new IllegalArgumentException("Invalid page token");
+                };
+            } catch (IllegalArgumentException e) {
+                // also covers Base64 and NumberFormatException
+                throw new IllegalArgumentException("Invalid page token: " + token, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package org.lucian.todos.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.TodoStatus;
+
+/**
+ * A filtered, sorted and paginated todo listing, run by {@link TodoDAO#query(TodoQuery)}
+ * as a single SQL statement that also counts every matching row.
+ * Queries are immutable: each {@code with...} method returns a narrowed copy, so a base
+ * query can be shared and refined, e.g.
+ * {@code TodoQuery.all().withStatus(TodoStatus.TODO).sortedBy(SortKey.DUE_DATE, false).page(0, 20)}.
+ * Filters combine with AND; a filter that is not set matches every todo.
+ */
+public final class TodoQuery {
+
+    /** Columns a query can be sorted by. */
+    public enum SortKey {
+        CREATED_AT,
+        /** Todos without a due date sort last in either direction. */
+        DUE_DATE,
+        /** By rank, {@link Priority#LOW} lowest, not by name. */
+        PRIORITY,
+        /** In workflow order, {@link TodoStatus#TODO} first. */
+        STATUS,
+        TITLE
+    }
+
+    /**
+     * One sort key and its direction.
+     *
+     * @param key the sort key
+     * @param descending whether larger values come first
+     */
+    public record Order(SortKey key, boolean descending) {
+        public Order {
+            Objects.requireNonNull(key, "Sort key cannot be null");
+        }
+    }
+
+    private static final TodoQuery ALL = new TodoQuery(null, Collections.emptySet(), Collections.emptySet(), null,
+            null, null, null, List.of(), 0, 0);
+
+    private final Long userId;
+    private final Set<TodoStatus> statuses;
+    private final Set<Priority> priorities;
+    private final Long projectId;
+    private final LocalDate dueFrom;
+    private final LocalDate dueTo;
+    private final String text;
+    private final List<Order> orders;
+    private final int offset;
+    private final int limit;
+
+    private TodoQuery(Long userId, Set<TodoStatus> statuses, Set<Priority> priorities, Long projectId,
+                      LocalDate dueFrom, LocalDate dueTo, String text, List<Order> orders, int offset, int limit) {
+        this.userId = userId;
+        this.statuses = statuses;
+        this.priorities = priorities;
+        this.projectId = projectId;
+        this.dueFrom = dueFrom;
+        this.dueTo = dueTo;
+        this.text = text;
+        this.orders = orders;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Gets the query matching every todo, newest first, unpaginated.
+     *
+     * @return the unrestricted query
+     */
+    public static TodoQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Restricts the query to one user's todos.
+     *
+     * @param userId the owning user's ID
+     * @return the restricted query
+     */
+    public TodoQuery forUser(Long userId) {
+        requireValue(userId, "User ID");
+        return new TodoQuery(userId, statuses, priorities, projectId, dueFrom, dueTo, text, orders, offset, limit);
+    }
+
+    /**
+     * Restricts the query to todos with any of the given statuses.
+     *
+     * @param first a status
+     * @param rest further statuses
+     * @return the restricted query
+     */
+    public TodoQuery withStatus(TodoStatus first, TodoStatus... rest) {
+        requireValue(first, "Status");
+        Set<TodoStatus> selected = EnumSet.of(first, rest);
+        return new TodoQuery(userId, Collections.unmodifiableSet(selected), priorities, projectId, dueFrom, dueTo,
+                text, orders, offset, limit);
+    }
+
+    /**
+     * Restricts the query to todos with any of the given priorities.
+     *
+     * @param first a priority
+     * @param rest further priorities
+     * @return the restricted query
+     */
+    public TodoQuery withPriority(Priority first, Priority... rest) {
+        requireValue(first, "Priority");
+        Set<Priority> selected = EnumSet.of(first, rest);
+        return new TodoQuery(userId, statuses, Collections.unmodifiableSet(selected), projectId, dueFrom, dueTo,
+                text, orders, offset, limit);
+    }
+
+    /**
+     * Restricts the query to the todos of one project.
+     *
+     * @param projectId the project ID
+     * @return the restricted query
+     */
+    public TodoQuery withProject(Long projectId) {
+        requireValue(projectId, "Project ID");
+        return new TodoQuery(userId, statuses, priorities, projectId, dueFrom, dueTo, text, orders, offset, limit);
+    }
+
+    /**
+     * Restricts the query to todos due within a range, both ends inclusive.
+     * Todos without a due date never match.
+     *
+     * @param from the first due date, or null for no lower bound
+     * @param to the last due date, or null for no upper bound
+     * @return the restricted query
+     * @throws IllegalArgumentException if both bounds are null or from is after to
+     */
+    public TodoQuery withDueBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            throw new IllegalArgumentException("At least one due date bound is required");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Due date range starts after it ends: " + from + " > " + to);
+        }
+        return new TodoQuery(userId, statuses, priorities, projectId, from, to, text, orders, offset, limit);
+    }
+
+    /**
+     * Restricts the query to todos whose title or description contains every word of
+     * the text, as a word or word prefix, like {@link TodoDAO#search(String, int)}.
+     *
+     * @param text the search text
+     * @return the restricted query
+     * @throws IllegalArgumentException if the text is null or blank
+     */
+    public TodoQuery withText(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text cannot be null or empty");
+        }
+        return new TodoQuery(userId, statuses, priorities, projectId, dueFrom, dueTo, text.trim(), orders, offset,
+                limit);
+    }
+
+    /**
+     * Adds a sort key. Keys apply in the order they are added; ties are broken by ID,
+     * newest first. Without any key, todos are sorted by creation time, newest first.
+     *
+     * @param key the sort key
+     * @param descending whether larger values come first
+     * @return the sorted query
+     */
+    public TodoQuery sortedBy(SortKey key, boolean descending) {
+        List<Order> sorted = new ArrayList<>(orders.size() + 1);
+        sorted.addAll(orders);
+        sorted.add(new Order(key, descending));
+        return new TodoQuery(userId, statuses, priorities, projectId, dueFrom, dueTo, text,
+                Collections.unmodifiableList(sorted), offset, limit);
+    }
+
+    /**
+     * Selects a window of the sorted results.
+     *
+     * @param offset the number of matching todos to skip
+     * @param limit the maximum number of todos to return, 0 for all remaining
+     * @return the paginated query
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    public TodoQuery page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        return new TodoQuery(userId, statuses, priorities, projectId, dueFrom, dueTo, text, orders, offset, limit);
+    }
+
+    /**
+     * Selects the 0-based page of the given size.
+     *
+     * @param pageIndex the page index
+     * @param pageSize the number of todos per page
+     * @return the paginated query
+     * @throws IllegalArgumentException if the page index is negative or the page size is not positive
+     */
+    public TodoQuery pageAt(int pageIndex, int pageSize) {
+        if (pageIndex < 0 || pageSize < 1) {
+            throw new IllegalArgumentException("Invalid page " + pageIndex + " of size " + pageSize);
+        }
+        return page(Math.multiplyExact(pageIndex, pageSize), pageSize);
+    }
+
+    private static void requireValue(Object value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " cannot be null");
+        }
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /** Gets the selected statuses; empty when any status matches. */
+    public Set<TodoStatus> getStatuses() {
+        return statuses;
+    }
+
+    /** Gets the selected priorities; empty when any priority matches. */
+    public Set<Priority> getPriorities() {
+        return priorities;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /** Gets the sort keys in order; empty for the default order. */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /** Gets the page size; 0 when all remaining todos are returned. */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder("TodoQuery{");
+        if (userId != null) {
+            description.append("user=").append(userId).append(", ");
+        }
+        if (!statuses.isEmpty()) {
+            description.append("status=").append(statuses).append(", ");
+        }
+        if (!priorities.isEmpty()) {
+            description.append("priority=").append(priorities).append(", ");
+        }
+        if (projectId != null) {
+            description.append("project=").append(projectId).append(", ");
+        }
+        if (dueFrom != null || dueTo != null) {
+            description.append("due=").append(dueFrom).append("..").append(dueTo).append(", ");
+        }
+        if (text != null) {
+            description.append("text='").append(text).append("', ");
+        }
+        if (!orders.isEmpty()) {
+            description.append("sort=").append(orders).append(", ");
+        }
+        return description.append("offset=").append(offset).append(", limit=").append(limit).append('}').toString();
+    }
+}
@@ -0,0 +1,54 @@
+package org.lucian.todos.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.lucian.todos.model.Todo;
+
+/**
+ * The todos of one {@link TodoQuery} page and the number of todos matching the query
+ * across all pages.
+ */
+public class TodoQueryResult {
+
+    private final List<Todo> todos;
+    private final long totalCount;
+    private final int offset;
+
+    public TodoQueryResult(List<Todo> todos, long totalCount, int offset) {
+        this.todos = Collections.unmodifiableList(todos);
+        this.totalCount = totalCount;
+        this.offset = offset;
+    }
+
+    /**
+     * Gets the todos on this page.
+     *
+     * @return the todos, never null
+     */
+    public List<Todo> getTodos() {
+        return todos;
+    }
+
+    /**
+     * Gets the number of todos matching the query, ignoring offset and limit.
+     *
+     * @return the total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the position of the first todo on this page among all matches.
+     *
+     * @return the query's offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    public boolean hasMore() {
+        return offset + todos.size() < totalCount;
+    }
+}
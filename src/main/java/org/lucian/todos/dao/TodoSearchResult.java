@@ -0,0 +1,42 @@
+package org.lucian.todos.dao;
+
+import org.lucian.todos.model.Todo;
+
+/**
+ * A full-text search hit: the matching todo, a highlighted snippet of the
+ * matching text and its bm25 relevance score (lower is more relevant).
+ */
+public class TodoSearchResult {
+
+    /** Marker placed before a matched term in {@link #getSnippet()}. */
+    public static final String HIGHLIGHT_START = "[";
+    /** Marker placed after a matched term in {@link #getSnippet()}. */
+    public static final String HIGHLIGHT_END = "]";
+
+    private final Todo todo;
+    private final String snippet;
+    private final double score;
+
+    public TodoSearchResult(Todo todo, String snippet, double score) {
+        this.todo = todo;
+        this.snippet = snippet;
+        this.score = score;
+    }
+
+    public Todo getTodo() {
+        return todo;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TodoSearchResult{id=%d, score=%.4f, snippet='%s'}", todo.getId(), score, snippet);
+    }
+}
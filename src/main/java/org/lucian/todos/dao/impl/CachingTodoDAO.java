@@ -0,0 +1,490 @@
+package org.lucian.todos.dao.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.lucian.todos.dao.TodoCountSummary;
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.TodoPage;
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.dao.TodoSearchResult;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-through cache in front of another {@link TodoDAO}, keyed by todo ID.
+ * {@link #findById(Long)} is served from a bounded LRU map; creates, updates and
+ * deletes go to the delegate first and then refresh or drop the cached entries.
+ * Listing, search and count queries always go to the delegate.
+ * <p>
+ * Inside a transaction the cache holds uncommitted state, so every todo it caches
+ * there is dropped again if the transaction rolls back.
+ * <p>
+ * Todos are mutable, so the cache stores private copies and hands out fresh copies:
+ * a caller modifying a returned todo never changes the cached state.
+ */
+public class CachingTodoDAO implements TodoDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingTodoDAO.class);
+
+    private final TodoDAO delegate;
+    private final DatabaseManager databaseManager;
+    private final int maxSize;
+    private final LinkedHashMap<Long, Todo> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Incremented on every write, so a load racing with a write does not cache stale data. */
+    private long writeCount;
+
+    /**
+     * Creates a caching DAO.
+     *
+     * @param delegate the DAO that reads and writes the database
+     * @param databaseManager the database manager whose transactions the delegate joins
+     * @param maxSize the maximum number of cached todos
+     */
+    public CachingTodoDAO(TodoDAO delegate, DatabaseManager databaseManager, int maxSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate DAO cannot be null");
+        }
+        if (databaseManager == null) {
+            throw new IllegalArgumentException("Database manager cannot be null");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.delegate = delegate;
+        this.databaseManager = databaseManager;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Todo> eldest) {
+                if (size() > CachingTodoDAO.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        logger.info("Todo cache enabled with max size {}", maxSize);
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) throws DatabaseException {
+        long stamp;
+        synchronized (entries) {
+            Todo cached = entries.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(copyOf(cached));
+            }
+            stamp = writeCount;
+        }
+        misses.incrementAndGet();
+
+        Optional<Todo> loaded = delegate.findById(id);
+        if (loaded.isPresent()) {
+            Todo copy = copyOf(loaded.get());
+            synchronized (entries) {
+                if (writeCount == stamp) {
+                    entries.put(id, copy);
+                }
+            }
+            databaseManager.afterRollback(() -> remove(id));
+        }
+        return loaded;
+    }
+
+    @Override
+    public Todo create(Todo todo) throws DatabaseException {
+        Todo created = delegate.create(todo);
+        store(created);
+        return created;
+    }
+
+    @Override
+    public List<Todo> createAll(List<? extends Todo> todos) throws DatabaseException {
+        List<Todo> created = delegate.createAll(todos);
+        storeAll(created);
+        return created;
+    }
+
+    @Override
+    public Todo update(Todo todo) throws DatabaseException {
+        Todo updated;
+        try {
+            updated = delegate.update(todo);
+        } catch (DatabaseException | RuntimeException e) {
+            if (todo != null) {
+                remove(todo.getId());
+            }
+            throw e;
+        }
+        store(updated);
+        return updated;
+    }
+
+    @Override
+    public List<Todo> updateAll(List<? extends Todo> todos) throws DatabaseException {
+        List<Todo> updated;
+        try {
+            updated = delegate.updateAll(todos);
+        } catch (DatabaseException | RuntimeException e) {
+            if (todos != null) {
+                for (Todo todo : todos) {
+                    if (todo != null) {
+                        remove(todo.getId());
+                    }
+                }
+            }
+            throw e;
+        }
+        storeAll(updated);
+        return updated;
+    }
+
+    @Override
+    public boolean delete(Long id) throws DatabaseException {
+        try {
+            return delegate.delete(id);
+        } finally {
+            remove(id);
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) throws DatabaseException {
+        try {
+            return delegate.deleteAll(ids);
+        } finally {
+            if (ids != null) {
+                removeAll(ids);
+            }
+        }
+    }
+
+    @Override
+    public void invalidateProject(Long projectId) {
+        removeIf(todo -> Objects.equals(todo.getProjectId(), projectId));
+        delegate.invalidateProject(projectId);
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        removeIf(todo -> Objects.equals(todo.getUserId(), userId));
+        delegate.invalidateUser(userId);
+    }
+
+    /**
+     * Drops every cached todo.
+     */
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            writeCount++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the cache counters.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats getStats() {
+        CacheStats stats = new CacheStats();
+        stats.setHits(hits.get());
+        stats.setMisses(misses.get());
+        stats.setEvictions(evictions.get());
+        stats.setMaxSize(maxSize);
+        synchronized (entries) {
+            stats.setSize(entries.size());
+        }
+        return stats;
+    }
+
+    private void store(Todo todo) {
+        if (todo == null || todo.getId() == null) {
+            return;
+        }
+        Long id = todo.getId();
+        put(todo);
+        databaseManager.afterRollback(() -> remove(id));
+    }
+
+    private void storeAll(List<Todo> todos) {
+        List<Long> ids = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            if (todo != null && todo.getId() != null) {
+                ids.add(todo.getId());
+                put(todo);
+            }
+        }
+        databaseManager.afterRollback(() -> removeAll(ids));
+    }
+
+    private void put(Todo todo) {
+        Todo copy = copyOf(todo);
+        synchronized (entries) {
+            writeCount++;
+            entries.put(copy.getId(), copy);
+        }
+    }
+
+    private void remove(Long id) {
+        synchronized (entries) {
+            writeCount++;
+            entries.remove(id);
+        }
+    }
+
+    private void removeAll(Collection<Long> ids) {
+        synchronized (entries) {
+            writeCount++;
+            for (Long id : ids) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    private void removeIf(Predicate<Todo> filter) {
+        synchronized (entries) {
+            writeCount++;
+            Iterator<Todo> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (filter.test(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a todo including the recurrence state that has no public setter.
+     */
+    static Todo copyOf(Todo todo) {
+        Todo copy;
+        if (todo instanceof RecurringTodo recurringTodo) {
+            RecurringTodo recurringCopy = new RecurringTodo();
+            recurringCopy.setRecurringInterval(recurringTodo.getRecurringInterval());
+            recurringCopy.setMaxOccurrences(recurringTodo.getMaxOccurrences());
+            RecurringTodoAccess.restore(recurringCopy, recurringTodo.getCurrentOccurrence(),
+                    recurringTodo.getNextDueDate());
+            copy = recurringCopy;
+        } else {
+            copy = new Todo();
+        }
+        copy.setId(todo.getId());
+        copy.setTitle(todo.getTitle());
+        copy.setDescription(todo.getDescription());
+        copy.setDueDate(todo.getDueDate());
+        copy.setPriority(todo.getPriority());
+        copy.setStatus(todo.getStatus());
+        copy.setProjectId(todo.getProjectId());
+        copy.setUserId(todo.getUserId());
+        return copy;
+    }
+
+    // Queries below are not cached
+
+    @Override
+    public List<Todo> findAll() throws DatabaseException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public TodoPage findAllPage(String pageToken, int pageSize) throws DatabaseException {
+        return delegate.findAllPage(pageToken, pageSize);
+    }
+
+    @Override
+    public TodoPage findByStatusPage(TodoStatus status, String pageToken, int pageSize) throws DatabaseException {
+        return delegate.findByStatusPage(status, pageToken, pageSize);
+    }
+
+    @Override
+    public TodoPage findByPriorityPage(Priority priority, String pageToken, int pageSize) throws DatabaseException {
+        return delegate.findByPriorityPage(priority, pageToken, pageSize);
+    }
+
+    @Override
+    public Stream<Todo> streamAll() throws DatabaseException {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Todo> streamByStatus(TodoStatus status) throws DatabaseException {
+        return delegate.streamByStatus(status);
+    }
+
+    @Override
+    public Stream<Todo> streamByPriority(Priority priority) throws DatabaseException {
+        return delegate.streamByPriority(priority);
+    }
+
+    @Override
+    public List<TodoSearchResult> search(String query, int limit) throws DatabaseException {
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public List<Todo> findByProjectId(Long projectId) throws DatabaseException {
+        return delegate.findByProjectId(projectId);
+    }
+
+    @Override
+    public List<Todo> findByStatus(TodoStatus status) throws DatabaseException {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public List<Todo> findByPriority(Priority priority) throws DatabaseException {
+        return delegate.findByPriority(priority);
+    }
+
+    @Override
+    public List<Todo> findDueBefore(LocalDate date) throws DatabaseException {
+        return delegate.findDueBefore(date);
+    }
+
+    @Override
+    public List<Todo> findOverdue() throws DatabaseException {
+        return delegate.findOverdue();
+    }
+    
+    @Override
+    public List<Todo> findDueBetween(LocalDate from, LocalDate to) throws DatabaseException {
+        return delegate.findDueBetween(from, to);
+    }
+
+    @Override
+    public List<Todo> findAllForUser(Long userId) throws DatabaseException {
+        return delegate.findAllForUser(userId);
+    }
+
+    @Override
+    public List<Todo> findByProjectIdForUser(Long userId, Long projectId) throws DatabaseException {
+        return delegate.findByProjectIdForUser(userId, projectId);
+    }
+
+    @Override
+    public List<Todo> findByStatusForUser(Long userId, TodoStatus status) throws DatabaseException {
+        return delegate.findByStatusForUser(userId, status);
+    }
+
+    @Override
+    public List<Todo> findByPriorityForUser(Long userId, Priority priority) throws DatabaseException {
+        return delegate.findByPriorityForUser(userId, priority);
+    }
+
+    @Override
+    public List<Todo> findDueBeforeForUser(Long userId, LocalDate date) throws DatabaseException {
+        return delegate.findDueBeforeForUser(userId, date);
+    }
+
+    @Override
+    public List<Todo> findOverdueForUser(Long userId) throws DatabaseException {
+        return delegate.findOverdueForUser(userId);
+    }
+    
+    @Override
+    public List<Todo> findDueBetweenForUser(Long userId, LocalDate from, LocalDate to) throws DatabaseException {
+        return delegate.findDueBetweenForUser(userId, from, to);
+    }
+
+    @Override
+    public List<TodoSearchResult> searchForUser(Long userId, String query, int limit) throws DatabaseException {
+        return delegate.searchForUser(userId, query, limit);
+    }
+    
+    @Override
+    public TodoQueryResult query(TodoQuery query) throws DatabaseException {
+        return delegate.query(query);
+    }
+
+    @Override
+    public long count() throws DatabaseException {
+        return delegate.count();
+    }
+
+    @Override
+    public long countByStatus(TodoStatus status) throws DatabaseException {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public TodoCountSummary countSummary() throws DatabaseException {
+        return delegate.countSummary();
+    }
+
+    @Override
+    public TodoCountSummary countSummaryForUser(Long userId) throws DatabaseException {
+        return delegate.countSummaryForUser(userId);
+    }
+
+    @Override
+    public Map<Long, TodoCountSummary> countSummaryByProject(Collection<Long> projectIds) throws DatabaseException {
+        return delegate.countSummaryByProject(projectIds);
+    }
+
+    /**
+     * Snapshot of the todo cache counters.
+     */
+    public static class CacheStats {
+        private long hits;
+        private long misses;
+        private long evictions;
+        private int size;
+        private int maxSize;
+
+        public long getHits() { return hits; }
+        public void setHits(long hits) { this.hits = hits; }
+
+        public long getMisses() { return misses; }
+        public void setMisses(long misses) { this.misses = misses; }
+
+        public long getEvictions() { return evictions; }
+        public void setEvictions(long evictions) { this.evictions = evictions; }
+
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        /**
+         * Fraction of {@code findById} calls served from the cache.
+         *
+         * @return the hit rate between 0 and 1, or 0 if there were no lookups
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.2f}",
+                    size, maxSize, hits, misses, evictions, getHitRate());
+        }
+    }
+}
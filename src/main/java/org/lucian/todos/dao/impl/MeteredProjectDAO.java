@@ -0,0 +1,155 @@
+package org.lucian.todos.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.lucian.todos.dao.ProjectDAO;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.metrics.MetricsRegistry;
+import org.lucian.todos.metrics.Timer;
+import org.lucian.todos.model.Project;
+
+/**
+ * Records the latency, throughput and failures of every call to another
+ * {@link ProjectDAO} in a {@link MetricsRegistry}, one timer per method named
+ * {@code ProjectDAO.<method>}. A call that throws counts as an error.
+ */
+public class MeteredProjectDAO implements ProjectDAO {
+
+    private final ProjectDAO delegate;
+    private final Timer createTimer;
+    private final Timer findByIdTimer;
+    private final Timer findByIdWithTodosTimer;
+    private final Timer findAllTimer;
+    private final Timer findByNameTimer;
+    private final Timer findCompletedTimer;
+    private final Timer findActiveTimer;
+    private final Timer findAllForUserTimer;
+    private final Timer findByNameForUserTimer;
+    private final Timer findCompletedForUserTimer;
+    private final Timer findActiveForUserTimer;
+    private final Timer countForUserTimer;
+    private final Timer findOwnedIdsTimer;
+    private final Timer updateTimer;
+    private final Timer deleteTimer;
+    private final Timer countTimer;
+    private final Timer existsTimer;
+
+    /**
+     * Creates a metered DAO.
+     *
+     * @param delegate the DAO to measure
+     * @param metrics the registry to record in
+     */
+    public MeteredProjectDAO(ProjectDAO delegate, MetricsRegistry metrics) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate DAO cannot be null");
+        }
+        this.delegate = delegate;
+        String prefix = "ProjectDAO.";
+        this.createTimer = metrics.timer(prefix + "create");
+        this.findByIdTimer = metrics.timer(prefix + "findById");
+        this.findByIdWithTodosTimer = metrics.timer(prefix + "findByIdWithTodos");
+        this.findAllTimer = metrics.timer(prefix + "findAll");
+        this.findByNameTimer = metrics.timer(prefix + "findByName");
+        this.findCompletedTimer = metrics.timer(prefix + "findCompleted");
+        this.findActiveTimer = metrics.timer(prefix + "findActive");
+        this.findAllForUserTimer = metrics.timer(prefix + "findAllForUser");
+        this.findByNameForUserTimer = metrics.timer(prefix + "findByNameForUser");
+        this.findCompletedForUserTimer = metrics.timer(prefix + "findCompletedForUser");
+        this.findActiveForUserTimer = metrics.timer(prefix + "findActiveForUser");
+        this.countForUserTimer = metrics.timer(prefix + "countForUser");
+        this.findOwnedIdsTimer = metrics.timer(prefix + "findOwnedIds");
+        this.updateTimer = metrics.timer(prefix + "update");
+        this.deleteTimer = metrics.timer(prefix + "delete");
+        this.countTimer = metrics.timer(prefix + "count");
+        this.existsTimer = metrics.timer(prefix + "exists");
+    }
+
+    @Override
+    public Project create(Project project) throws DatabaseException {
+        return createTimer.time(() -> delegate.create(project));
+    }
+
+    @Override
+    public Optional<Project> findById(Long id) throws DatabaseException {
+        return findByIdTimer.time(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<Project> findByIdWithTodos(Long id) throws DatabaseException {
+        return findByIdWithTodosTimer.time(() -> delegate.findByIdWithTodos(id));
+    }
+
+    @Override
+    public List<Project> findAll() throws DatabaseException {
+        return findAllTimer.time(() -> delegate.findAll());
+    }
+
+    @Override
+    public List<Project> findByName(String name) throws DatabaseException {
+        return findByNameTimer.time(() -> delegate.findByName(name));
+    }
+
+    @Override
+    public List<Project> findCompleted() throws DatabaseException {
+        return findCompletedTimer.time(() -> delegate.findCompleted());
+    }
+
+    @Override
+    public List<Project> findActive() throws DatabaseException {
+        return findActiveTimer.time(() -> delegate.findActive());
+    }
+
+    @Override
+    public List<Project> findAllForUser(Long userId) throws DatabaseException {
+        return findAllForUserTimer.time(() -> delegate.findAllForUser(userId));
+    }
+
+    @Override
+    public List<Project> findByNameForUser(Long userId, String name) throws DatabaseException {
+        return findByNameForUserTimer.time(() -> delegate.findByNameForUser(userId, name));
+    }
+
+    @Override
+    public List<Project> findCompletedForUser(Long userId) throws DatabaseException {
+        return findCompletedForUserTimer.time(() -> delegate.findCompletedForUser(userId));
+    }
+
+    @Override
+    public List<Project> findActiveForUser(Long userId) throws DatabaseException {
+        return findActiveForUserTimer.time(() -> delegate.findActiveForUser(userId));
+    }
+
+    @Override
+    public long countForUser(Long userId) throws DatabaseException {
+        return countForUserTimer.time(() -> delegate.countForUser(userId));
+    }
+
+    @Override
+    public Set<Long> findOwnedIds(Long userId, Collection<Long> ids) throws DatabaseException {
+        return findOwnedIdsTimer.time(() -> delegate.findOwnedIds(userId, ids));
+    }
+
+    @Override
+    public Project update(Project project) throws DatabaseException {
+        return updateTimer.time(() -> delegate.update(project));
+    }
+
+    @Override
+    public boolean delete(Long id) throws DatabaseException {
+        return deleteTimer.time(() -> delegate.delete(id));
+    }
+
+    @Override
+    public long count() throws DatabaseException {
+        return countTimer.time(() -> delegate.count());
+    }
+
+    @Override
+    public boolean exists(Long id) throws DatabaseException {
+        return existsTimer.time(() -> delegate.exists(id));
+    }
+}
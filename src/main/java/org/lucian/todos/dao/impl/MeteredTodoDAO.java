@@ -0,0 +1,306 @@
+package org.lucian.todos.dao.impl;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.lucian.todos.dao.TodoCountSummary;
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.TodoPage;
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.dao.TodoSearchResult;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.metrics.MetricsRegistry;
+import org.lucian.todos.metrics.Timer;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+
+/**
+ * Records the latency, throughput and failures of every call to another
+ * {@link TodoDAO} in a {@link MetricsRegistry}, one timer per method named
+ * {@code TodoDAO.<method>}. A call that throws counts as an error. The streaming
+ * methods are timed until the stream is open, not while it is consumed.
+ */
+public class MeteredTodoDAO implements TodoDAO {
+
+    private final TodoDAO delegate;
+    private final Timer createTimer;
+    private final Timer createAllTimer;
+    private final Timer findByIdTimer;
+    private final Timer findAllTimer;
+    private final Timer findAllPageTimer;
+    private final Timer findByStatusPageTimer;
+    private final Timer findByPriorityPageTimer;
+    private final Timer streamAllTimer;
+    private final Timer streamByStatusTimer;
+    private final Timer streamByPriorityTimer;
+    private final Timer searchTimer;
+    private final Timer findByProjectIdTimer;
+    private final Timer findByStatusTimer;
+    private final Timer findByPriorityTimer;
+    private final Timer findDueBeforeTimer;
+    private final Timer findOverdueTimer;
+    private final Timer findDueBetweenTimer;
+    private final Timer findAllForUserTimer;
+    private final Timer findByProjectIdForUserTimer;
+    private final Timer findByStatusForUserTimer;
+    private final Timer findByPriorityForUserTimer;
+    private final Timer findDueBeforeForUserTimer;
+    private final Timer findOverdueForUserTimer;
+    private final Timer findDueBetweenForUserTimer;
+    private final Timer searchForUserTimer;
+    private final Timer queryTimer;
+    private final Timer updateTimer;
+    private final Timer updateAllTimer;
+    private final Timer deleteTimer;
+    private final Timer deleteAllTimer;
+    private final Timer countTimer;
+    private final Timer countByStatusTimer;
+    private final Timer countSummaryTimer;
+    private final Timer countSummaryForUserTimer;
+    private final Timer countSummaryByProjectTimer;
+
+    /**
+     * Creates a metered DAO.
+     *
+     * @param delegate the DAO to measure
+     * @param metrics the registry to record in
+     */
+    public MeteredTodoDAO(TodoDAO delegate, MetricsRegistry metrics) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate DAO cannot be null");
+        }
+        this.delegate = delegate;
+        String prefix = "TodoDAO.";
+        this.createTimer = metrics.timer(prefix + "create");
+        this.createAllTimer = metrics.timer(prefix + "createAll");
+        this.findByIdTimer = metrics.timer(prefix + "findById");
+        this.findAllTimer = metrics.timer(prefix + "findAll");
+        this.findAllPageTimer = metrics.timer(prefix + "findAllPage");
+        this.findByStatusPageTimer = metrics.timer(prefix + "findByStatusPage");
+        this.findByPriorityPageTimer = metrics.timer(prefix + "findByPriorityPage");
+        this.streamAllTimer = metrics.timer(prefix + "streamAll");
+        this.streamByStatusTimer = metrics.timer(prefix + "streamByStatus");
+        this.streamByPriorityTimer = metrics.timer(prefix + "streamByPriority");
+        this.searchTimer = metrics.timer(prefix + "search");
+        this.findByProjectIdTimer = metrics.timer(prefix + "findByProjectId");
+        this.findByStatusTimer = metrics.timer(prefix + "findByStatus");
+        this.findByPriorityTimer = metrics.timer(prefix + "findByPriority");
+        this.findDueBeforeTimer = metrics.timer(prefix + "findDueBefore");
+        this.findOverdueTimer = metrics.timer(prefix + "findOverdue");
+        this.findDueBetweenTimer = metrics.timer(prefix + "findDueBetween");
+        this.findAllForUserTimer = metrics.timer(prefix + "findAllForUser");
+        this.findByProjectIdForUserTimer = metrics.timer(prefix + "findByProjectIdForUser");
+        this.findByStatusForUserTimer = metrics.timer(prefix + "findByStatusForUser");
+        this.findByPriorityForUserTimer = metrics.timer(prefix + "findByPriorityForUser");
+        this.findDueBeforeForUserTimer = metrics.timer(prefix + "findDueBeforeForUser");
+        this.findOverdueForUserTimer = metrics.timer(prefix + "findOverdueForUser");
+        this.findDueBetweenForUserTimer = metrics.timer(prefix + "findDueBetweenForUser");
+        this.searchForUserTimer = metrics.timer(prefix + "searchForUser");
+        this.queryTimer = metrics.timer(prefix + "query");
+        this.updateTimer = metrics.timer(prefix + "update");
+        this.updateAllTimer = metrics.timer(prefix + "updateAll");
+        this.deleteTimer = metrics.timer(prefix + "delete");
+        this.deleteAllTimer = metrics.timer(prefix + "deleteAll");
+        this.countTimer = metrics.timer(prefix + "count");
+        this.countByStatusTimer = metrics.timer(prefix + "countByStatus");
+        this.countSummaryTimer = metrics.timer(prefix + "countSummary");
+        this.countSummaryForUserTimer = metrics.timer(prefix + "countSummaryForUser");
+        this.countSummaryByProjectTimer = metrics.timer(prefix + "countSummaryByProject");
+    }
+
+    @Override
+    public Todo create(Todo todo) throws DatabaseException {
+        return createTimer.time(() -> delegate.create(todo));
+    }
+
+    @Override
+    public List<Todo> createAll(List<? extends Todo> todos) throws DatabaseException {
+        return createAllTimer.time(() -> delegate.createAll(todos));
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) throws DatabaseException {
+        return findByIdTimer.time(() -> delegate.findById(id));
+    }
+
+    @Override
+    public List<Todo> findAll() throws DatabaseException {
+        return findAllTimer.time(() -> delegate.findAll());
+    }
+
+    @Override
+    public TodoPage findAllPage(String pageToken, int pageSize) throws DatabaseException {
+        return findAllPageTimer.time(() -> delegate.findAllPage(pageToken, pageSize));
+    }
+
+    @Override
+    public TodoPage findByStatusPage(TodoStatus status, String pageToken, int pageSize) throws DatabaseException {
+        return findByStatusPageTimer.time(() -> delegate.findByStatusPage(status, pageToken, pageSize));
+    }
+
+    @Override
+    public TodoPage findByPriorityPage(Priority priority, String pageToken, int pageSize) throws DatabaseException {
+        return findByPriorityPageTimer.time(() -> delegate.findByPriorityPage(priority, pageToken, pageSize));
+    }
+
+    @Override
+    public Stream<Todo> streamAll() throws DatabaseException {
+        return streamAllTimer.time(() -> delegate.streamAll());
+    }
+
+    @Override
+    public Stream<Todo> streamByStatus(TodoStatus status) throws DatabaseException {
+        return streamByStatusTimer.time(() -> delegate.streamByStatus(status));
+    }
+
+    @Override
+    public Stream<Todo> streamByPriority(Priority priority) throws DatabaseException {
+        return streamByPriorityTimer.time(() -> delegate.streamByPriority(priority));
+    }
+
+    @Override
+    public List<TodoSearchResult> search(String query, int limit) throws DatabaseException {
+        return searchTimer.time(() -> delegate.search(query, limit));
+    }
+
+    @Override
+    public List<Todo> findByProjectId(Long projectId) throws DatabaseException {
+        return findByProjectIdTimer.time(() -> delegate.findByProjectId(projectId));
+    }
+
+    @Override
+    public List<Todo> findByStatus(TodoStatus status) throws DatabaseException {
+        return findByStatusTimer.time(() -> delegate.findByStatus(status));
+    }
+
+    @Override
+    public List<Todo> findByPriority(Priority priority) throws DatabaseException {
+        return findByPriorityTimer.time(() -> delegate.findByPriority(priority));
+    }
+
+    @Override
+    public List<Todo> findDueBefore(LocalDate date) throws DatabaseException {
+        return findDueBeforeTimer.time(() -> delegate.findDueBefore(date));
+    }
+
+    @Override
+    public List<Todo> findOverdue() throws DatabaseException {
+        return findOverdueTimer.time(() -> delegate.findOverdue());
+    }
+    
+    @Override
+    public List<Todo> findDueBetween(LocalDate from, LocalDate to) throws DatabaseException {
+        return findDueBetweenTimer.time(() -> delegate.findDueBetween(from, to));
+    }
+
+    @Override
+    public List<Todo> findAllForUser(Long userId) throws DatabaseException {
+        return findAllForUserTimer.time(() -> delegate.findAllForUser(userId));
+    }
+
+    @Override
+    public List<Todo> findByProjectIdForUser(Long userId, Long projectId) throws DatabaseException {
+        return findByProjectIdForUserTimer.time(() -> delegate.findByProjectIdForUser(userId, projectId));
+    }
+
+    @Override
+    public List<Todo> findByStatusForUser(Long userId, TodoStatus status) throws DatabaseException {
+        return findByStatusForUserTimer.time(() -> delegate.findByStatusForUser(userId, status));
+    }
+
+    @Override
+    public List<Todo> findByPriorityForUser(Long userId, Priority priority) throws DatabaseException {
+        return findByPriorityForUserTimer.time(() -> delegate.findByPriorityForUser(userId, priority));
+    }
+
+    @Override
+    public List<Todo> findDueBeforeForUser(Long userId, LocalDate date) throws DatabaseException {
+        return findDueBeforeForUserTimer.time(() -> delegate.findDueBeforeForUser(userId, date));
+    }
+
+    @Override
+    public List<Todo> findOverdueForUser(Long userId) throws DatabaseException {
+        return findOverdueForUserTimer.time(() -> delegate.findOverdueForUser(userId));
+    }
+    
+    @Override
+    public List<Todo> findDueBetweenForUser(Long userId, LocalDate from, LocalDate to) throws DatabaseException {
+        return findDueBetweenForUserTimer.time(() -> delegate.findDueBetweenForUser(userId, from, to));
+    }
+
+    @Override
+    public List<TodoSearchResult> searchForUser(Long userId, String query, int limit) throws DatabaseException {
+        return searchForUserTimer.time(() -> delegate.searchForUser(userId, query, limit));
+    }
+    
+    @Override
+    public TodoQueryResult query(TodoQuery query) throws DatabaseException {
+        return queryTimer.time(() -> delegate.query(query));
+    }
+
+    @Override
+    public Todo update(Todo todo) throws DatabaseException {
+        return updateTimer.time(() -> delegate.update(todo));
+    }
+
+    @Override
+    public List<Todo> updateAll(List<? extends Todo> todos) throws DatabaseException {
+        return updateAllTimer.time(() -> delegate.updateAll(todos));
+    }
+
+    @Override
+    public boolean delete(Long id) throws DatabaseException {
+        return deleteTimer.time(() -> delegate.delete(id));
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) throws DatabaseException {
+        return deleteAllTimer.time(() -> delegate.deleteAll(ids));
+    }
+
+    @Override
+    public long count() throws DatabaseException {
+        return countTimer.time(() -> delegate.count());
+    }
+
+    @Override
+    public long countByStatus(TodoStatus status) throws DatabaseException {
+        return countByStatusTimer.time(() -> delegate.countByStatus(status));
+    }
+
+    @Override
+    public TodoCountSummary countSummary() throws DatabaseException {
+        return countSummaryTimer.time(() -> delegate.countSummary());
+    }
+
+    @Override
+    public TodoCountSummary countSummaryForUser(Long userId) throws DatabaseException {
+        return countSummaryForUserTimer.time(() -> delegate.countSummaryForUser(userId));
+    }
+
+    @Override
+    public Map<Long, TodoCountSummary> countSummaryByProject(Collection<Long> projectIds) throws DatabaseException {
+        return countSummaryByProjectTimer.time(() -> delegate.countSummaryByProject(projectIds));
+    }
+
+    @Override
+    public void invalidateProject(Long projectId) {
+        delegate.invalidateProject(projectId);
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        delegate.invalidateUser(userId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        delegate.invalidateAll();
+    }
+}
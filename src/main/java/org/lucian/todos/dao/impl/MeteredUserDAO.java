@@ -0,0 +1,149 @@
+package org.lucian.todos.dao.impl;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.lucian.todos.dao.UserDAO;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.metrics.MetricsRegistry;
+import org.lucian.todos.metrics.Timer;
+import org.lucian.todos.model.User;
+
+/**
+ * Records the latency, throughput and failures of every call to another
+ * {@link UserDAO} in a {@link MetricsRegistry}, one timer per method named
+ * {@code UserDAO.<method>}. A call that throws counts as an error.
+ */
+public class MeteredUserDAO implements UserDAO {
+
+    private final UserDAO delegate;
+    private final Timer createTimer;
+    private final Timer findByIdTimer;
+    private final Timer findByUsernameTimer;
+    private final Timer findByEmailTimer;
+    private final Timer findAllTimer;
+    private final Timer findAllActiveTimer;
+    private final Timer updateTimer;
+    private final Timer updateLastLoginTimer;
+    private final Timer deleteTimer;
+    private final Timer deactivateTimer;
+    private final Timer reactivateTimer;
+    private final Timer existsTimer;
+    private final Timer usernameExistsTimer;
+    private final Timer emailExistsTimer;
+    private final Timer countTimer;
+    private final Timer countActiveTimer;
+
+    /**
+     * Creates a metered DAO.
+     *
+     * @param delegate the DAO to measure
+     * @param metrics the registry to record in
+     */
+    public MeteredUserDAO(UserDAO delegate, MetricsRegistry metrics) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate DAO cannot be null");
+        }
+        this.delegate = delegate;
+        String prefix = "UserDAO.";
+        this.createTimer = metrics.timer(prefix + "create");
+        this.findByIdTimer = metrics.timer(prefix + "findById");
+        this.findByUsernameTimer = metrics.timer(prefix + "findByUsername");
+        this.findByEmailTimer = metrics.timer(prefix + "findByEmail");
+        this.findAllTimer = metrics.timer(prefix + "findAll");
+        this.findAllActiveTimer = metrics.timer(prefix + "findAllActive");
+        this.updateTimer = metrics.timer(prefix + "update");
+        this.updateLastLoginTimer = metrics.timer(prefix + "updateLastLogin");
+        this.deleteTimer = metrics.timer(prefix + "delete");
+        this.deactivateTimer = metrics.timer(prefix + "deactivate");
+        this.reactivateTimer = metrics.timer(prefix + "reactivate");
+        this.existsTimer = metrics.timer(prefix + "exists");
+        this.usernameExistsTimer = metrics.timer(prefix + "usernameExists");
+        this.emailExistsTimer = metrics.timer(prefix + "emailExists");
+        this.countTimer = metrics.timer(prefix + "count");
+        this.countActiveTimer = metrics.timer(prefix + "countActive");
+    }
+
+    @Override
+    public User create(User user) throws DatabaseException {
+        return createTimer.time(() -> delegate.create(user));
+    }
+
+    @Override
+    public Optional<User> findById(Long id) throws DatabaseException {
+        return findByIdTimer.time(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) throws DatabaseException {
+        return findByUsernameTimer.time(() -> delegate.findByUsername(username));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) throws DatabaseException {
+        return findByEmailTimer.time(() -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public List<User> findAll() throws DatabaseException {
+        return findAllTimer.time(() -> delegate.findAll());
+    }
+
+    @Override
+    public List<User> findAllActive() throws DatabaseException {
+        return findAllActiveTimer.time(() -> delegate.findAllActive());
+    }
+
+    @Override
+    public User update(User user) throws DatabaseException {
+        return updateTimer.time(() -> delegate.update(user));
+    }
+
+    @Override
+    public void updateLastLogin(Long userId) throws DatabaseException {
+        updateLastLoginTimer.time(() -> {
+            delegate.updateLastLogin(userId);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean delete(Long id) throws DatabaseException {
+        return deleteTimer.time(() -> delegate.delete(id));
+    }
+
+    @Override
+    public boolean deactivate(Long id) throws DatabaseException {
+        return deactivateTimer.time(() -> delegate.deactivate(id));
+    }
+
+    @Override
+    public boolean reactivate(Long id) throws DatabaseException {
+        return reactivateTimer.time(() -> delegate.reactivate(id));
+    }
+
+    @Override
+    public boolean exists(Long id) throws DatabaseException {
+        return existsTimer.time(() -> delegate.exists(id));
+    }
+
+    @Override
+    public boolean usernameExists(String username) throws DatabaseException {
+        return usernameExistsTimer.time(() -> delegate.usernameExists(username));
+    }
+
+    @Override
+    public boolean emailExists(String email) throws DatabaseException {
+        return emailExistsTimer.time(() -> delegate.emailExists(email));
+    }
+
+    @Override
+    public long count() throws DatabaseException {
+        return countTimer.time(() -> delegate.count());
+    }
+
+    @Override
+    public long countActive() throws DatabaseException {
+        return countActiveTimer.time(() -> delegate.countActive());
+    }
+}
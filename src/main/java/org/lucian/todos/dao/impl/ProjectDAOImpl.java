@@ -1,21 +1,26 @@
 package org.lucian.todos.dao.impl;
 
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.lucian.todos.dao.ProjectDAO;
 import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.database.SqlDates;
 import org.lucian.todos.exceptions.DatabaseException;
 import org.lucian.todos.model.Project;
+import org.lucian.todos.model.Todo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +34,9 @@ public class ProjectDAOImpl implements ProjectDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectDAOImpl.class);
     
+    /** Maximum number of IDs bound in one {@code IN} list. */
+    private static final int BATCH_SIZE = 500;
+    
     private final DatabaseManager databaseManager;
     
     public ProjectDAOImpl(DatabaseManager databaseManager) {
@@ -55,8 +63,8 @@ public class ProjectDAOImpl implements ProjectDAO {
             
             statement.setString(1, project.getName());
             statement.setString(2, project.getDescription());
-            statement.setDate(3, project.getStartDate() != null ? Date.valueOf(project.getStartDate()) : null);
-            statement.setDate(4, project.getEndDate() != null ? Date.valueOf(project.getEndDate()) : null);
+            SqlDates.setDate(statement, 3, project.getStartDate());
+            SqlDates.setDate(statement, 4, project.getEndDate());
             statement.setLong(5, project.getUserId());
             statement.setTimestamp(6, Timestamp.valueOf(now));
             statement.setTimestamp(7, Timestamp.valueOf(now));
@@ -94,7 +102,7 @@ public class ProjectDAOImpl implements ProjectDAO {
         logger.debug("Finding project by ID: {}", id);
         
         String sql = """
-            SELECT id, name, description, start_date, end_date, created_at, updated_at
+            SELECT id, name, description, start_date, end_date, user_id, created_at, updated_at
             FROM projects 
             WHERE id = ?
         """;
@@ -106,7 +114,7 @@ public class ProjectDAOImpl implements ProjectDAO {
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return Optional.of(mapResultSetToProject(resultSet));
+                    return Optional.of(mapResultSetToProject(resultSet, ""));
                 }
                 return Optional.empty();
             }
@@ -117,12 +125,62 @@ public class ProjectDAOImpl implements ProjectDAO {
         }
     }
     
+    @Override
+    public Optional<Project> findByIdWithTodos(Long id) throws DatabaseException {
+        if (id == null) {
+            return Optional.empty();
+        }
+        
+        logger.debug("Finding project with todos by ID: {}", id);
+        
+        // Project columns are aliased so the todo columns keep the names TodoRowMapper expects
+        String sql = """
+            SELECT p.id AS p_id, p.name AS p_name, p.description AS p_description,
+                   p.start_date AS p_start_date, p.end_date AS p_end_date, p.user_id AS p_user_id,
+                   t.*, rt.recurring_interval_days, rt.max_occurrences, rt.current_occurrence, rt.next_due_date
+            FROM projects p
+            LEFT JOIN todos t ON t.project_id = p.id
+            LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
+            WHERE p.id = ?
+            ORDER BY t.created_at DESC
+        """;
+        
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            statement.setLong(1, id);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return Optional.empty();
+                }
+                Project project = mapResultSetToProject(resultSet, "p_");
+                TodoRowMapper todoMapper = new TodoRowMapper(resultSet);
+                int todoIdColumn = resultSet.findColumn("id");
+                List<Todo> todos = new ArrayList<>();
+                do {
+                    // A project without todos comes back as one row with NULL todo columns
+                    resultSet.getLong(todoIdColumn);
+                    if (!resultSet.wasNull()) {
+                        todos.add(todoMapper.map(resultSet));
+                    }
+                } while (resultSet.next());
+                project.loadTodos(todos);
+                return Optional.of(project);
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Failed to find project with todos by ID: {}", id, e);
+            throw new DatabaseException("Failed to find project", e);
+        }
+    }
+    
     @Override
     public List<Project> findAll() throws DatabaseException {
         logger.debug("Finding all projects");
         
         String sql = """
-            SELECT id, name, description, start_date, end_date, created_at, updated_at
+            SELECT id, name, description, start_date, end_date, user_id, created_at, updated_at
             FROM projects 
             ORDER BY created_at DESC
         """;
@@ -139,7 +197,7 @@ public class ProjectDAOImpl implements ProjectDAO {
         logger.debug("Finding projects by name: {}", name);
         
         String sql = """
-            SELECT id, name, description, start_date, end_date, created_at, updated_at
+            SELECT id, name, description, start_date, end_date, user_id, created_at, updated_at
             FROM projects 
             WHERE LOWER(name) LIKE LOWER(?)
             ORDER BY name ASC
@@ -153,7 +211,7 @@ public class ProjectDAOImpl implements ProjectDAO {
         logger.debug("Finding completed projects");
         
         String sql = """
-            SELECT p.id, p.name, p.description, p.start_date, p.end_date, p.created_at, p.updated_at
+            SELECT p.id, p.name, p.description, p.start_date, p.end_date, p.user_id, p.created_at, p.updated_at
             FROM projects p
             WHERE NOT EXISTS (
                 SELECT 1 FROM todos t 
@@ -173,7 +231,7 @@ public class ProjectDAOImpl implements ProjectDAO {
         logger.debug("Finding active projects");
         
         String sql = """
-            SELECT DISTINCT p.id, p.name, p.description, p.start_date, p.end_date, p.created_at, p.updated_at
+            SELECT DISTINCT p.id, p.name, p.description, p.start_date, p.end_date, p.user_id, p.created_at, p.updated_at
             FROM projects p
             INNER JOIN todos t ON p.id = t.project_id
             WHERE t.status NOT IN ('COMPLETED', 'CANCELLED')
@@ -183,6 +241,81 @@ public class ProjectDAOImpl implements ProjectDAO {
         return executeQueryForProjectList(sql);
     }
     
+    @Override
+    public List<Project> findAllForUser(Long userId) throws DatabaseException {
+        requireUserId(userId);
+        logger.debug("Finding all projects for user: {}", userId);
+        
+        String sql = """
+            SELECT id, name, description, start_date, end_date, user_id, created_at, updated_at
+            FROM projects 
+            WHERE user_id = ?
+            ORDER BY created_at DESC
+        """;
+        
+        return executeQueryForProjectList(sql, userId);
+    }
+    
+    @Override
+    public List<Project> findByNameForUser(Long userId, String name) throws DatabaseException {
+        requireUserId(userId);
+        if (name == null || name.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        logger.debug("Finding projects by name: {} for user: {}", name, userId);
+        
+        String sql = """
+            SELECT id, name, description, start_date, end_date, user_id, created_at, updated_at
+            FROM projects 
+            WHERE user_id = ? AND LOWER(name) LIKE LOWER(?)
+            ORDER BY name ASC
+        """;
+        
+        return executeQueryForProjectList(sql, userId, "%" + name.trim() + "%");
+    }
+    
+    @Override
+    public List<Project> findCompletedForUser(Long userId) throws DatabaseException {
+        requireUserId(userId);
+        logger.debug("Finding completed projects for user: {}", userId);
+        
+        String sql = """
+            SELECT p.id, p.name, p.description, p.start_date, p.end_date, p.user_id, p.created_at, p.updated_at
+            FROM projects p
+            WHERE p.user_id = ?
+            AND NOT EXISTS (
+                SELECT 1 FROM todos t 
+                WHERE t.project_id = p.id AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+            )
+            AND EXISTS (
+                SELECT 1 FROM todos t WHERE t.project_id = p.id
+            )
+            ORDER BY p.created_at DESC
+        """;
+        
+        return executeQueryForProjectList(sql, userId);
+    }
+    
+    @Override
+    public List<Project> findActiveForUser(Long userId) throws DatabaseException {
+        requireUserId(userId);
+        logger.debug("Finding active projects for user: {}", userId);
+        
+        String sql = """
+            SELECT p.id, p.name, p.description, p.start_date, p.end_date, p.user_id, p.created_at, p.updated_at
+            FROM projects p
+            WHERE p.user_id = ?
+            AND EXISTS (
+                SELECT 1 FROM todos t 
+                WHERE t.project_id = p.id AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+            )
+            ORDER BY p.created_at DESC
+        """;
+        
+        return executeQueryForProjectList(sql, userId);
+    }
+    
     @Override
     public Project update(Project project) throws DatabaseException {
         if (project == null || project.getId() == null) {
@@ -204,8 +337,8 @@ public class ProjectDAOImpl implements ProjectDAO {
             
             statement.setString(1, project.getName());
             statement.setString(2, project.getDescription());
-            statement.setDate(3, project.getStartDate() != null ? Date.valueOf(project.getStartDate()) : null);
-            statement.setDate(4, project.getEndDate() != null ? Date.valueOf(project.getEndDate()) : null);
+            SqlDates.setDate(statement, 3, project.getStartDate());
+            SqlDates.setDate(statement, 4, project.getEndDate());
             statement.setTimestamp(5, Timestamp.valueOf(now));
             statement.setLong(6, project.getId());
             
@@ -281,8 +414,8 @@ public class ProjectDAOImpl implements ProjectDAO {
         String sql = "SELECT COUNT(*) FROM projects";
         
         try (Connection connection = databaseManager.getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
             
             if (resultSet.next()) {
                 return resultSet.getLong(1);
@@ -295,6 +428,69 @@ public class ProjectDAOImpl implements ProjectDAO {
         }
     }
     
+    @Override
+    public long countForUser(Long userId) throws DatabaseException {
+        requireUserId(userId);
+        logger.debug("Counting projects for user: {}", userId);
+        
+        String sql = "SELECT COUNT(*) FROM projects WHERE user_id = ?";
+        
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            statement.setLong(1, userId);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getLong(1);
+                }
+                return 0;
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Failed to count projects for user: {}", userId, e);
+            throw new DatabaseException("Failed to count projects", e);
+        }
+    }
+    
+    @Override
+    public Set<Long> findOwnedIds(Long userId, Collection<Long> ids) throws DatabaseException {
+        requireUserId(userId);
+        Set<Long> owned = new HashSet<>();
+        if (ids == null || ids.isEmpty()) {
+            return owned;
+        }
+        
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        logger.debug("Checking ownership of {} projects for user: {}", distinctIds.size(), userId);
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            for (int start = 0; start < distinctIds.size(); start += BATCH_SIZE) {
+                List<Long> chunk = distinctIds.subList(start, Math.min(start + BATCH_SIZE, distinctIds.size()));
+                String sql = "SELECT id FROM projects WHERE user_id = ? AND id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setLong(1, userId);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setLong(i + 2, chunk.get(i));
+                    }
+                    
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            owned.add(resultSet.getLong(1));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to check project ownership for user: {}", userId, e);
+            throw new DatabaseException("Failed to check project ownership", e);
+        }
+        
+        return owned;
+    }
+    
     @Override
     public boolean exists(Long id) throws DatabaseException {
         if (id == null) {
@@ -325,6 +521,12 @@ public class ProjectDAOImpl implements ProjectDAO {
     
     // Helper methods
     
+    private static void requireUserId(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+    }
+    
     private List<Project> executeQueryForProjectList(String sql, Object... parameters) throws DatabaseException {
         List<Project> projects = new ArrayList<>();
         
@@ -337,7 +539,7 @@ public class ProjectDAOImpl implements ProjectDAO {
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    projects.add(mapResultSetToProject(resultSet));
+                    projects.add(mapResultSetToProject(resultSet, ""));
                 }
             }
             
@@ -349,22 +551,24 @@ public class ProjectDAOImpl implements ProjectDAO {
         return projects;
     }
     
-    private Project mapResultSetToProject(ResultSet resultSet) throws SQLException {
+    /**
+     * Maps the project columns of the current row.
+     * 
+     * @param resultSet the result set
+     * @param prefix the prefix of the project column names, empty if they are not aliased
+     */
+    private Project mapResultSetToProject(ResultSet resultSet, String prefix) throws SQLException {
         Project project = new Project();
         
-        project.setId(resultSet.getLong("id"));
-        project.setName(resultSet.getString("name"));
-        project.setDescription(resultSet.getString("description"));
+        project.setId(resultSet.getLong(prefix + "id"));
+        project.setName(resultSet.getString(prefix + "name"));
+        project.setDescription(resultSet.getString(prefix + "description"));
         
-        Date startDate = resultSet.getDate("start_date");
-        if (startDate != null) {
-            project.setStartDate(startDate.toLocalDate());
-        }
+        project.setStartDate(SqlDates.getDate(resultSet, prefix + "start_date"));
+        project.setEndDate(SqlDates.getDate(resultSet, prefix + "end_date"));
         
-        Date endDate = resultSet.getDate("end_date");
-        if (endDate != null) {
-            project.setEndDate(endDate.toLocalDate());
-        }
+        long userId = resultSet.getLong(prefix + "user_id");
+        project.setUserId(resultSet.wasNull() ? null : userId);
         
         return project;
     }
@@ -0,0 +1,43 @@
+package org.lucian.todos.dao.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+
+import org.lucian.todos.model.RecurringTodo;
+
+/**
+ * Restores the persisted recurrence state of a {@link RecurringTodo} that the
+ * public API only changes through {@link RecurringTodo#moveToNextOccurrence()}.
+ * The field handles are looked up once, so restoring a row costs two plain writes.
+ */
+final class RecurringTodoAccess {
+
+    private static final VarHandle CURRENT_OCCURRENCE;
+    private static final VarHandle NEXT_DUE_DATE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(RecurringTodo.class, MethodHandles.lookup());
+            CURRENT_OCCURRENCE = lookup.findVarHandle(RecurringTodo.class, "currentOccurrence", int.class);
+            NEXT_DUE_DATE = lookup.findVarHandle(RecurringTodo.class, "nextDueDate", LocalDate.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private RecurringTodoAccess() {
+    }
+
+    /**
+     * Sets the occurrence counter and next due date, bypassing validation.
+     *
+     * @param recurringTodo the todo to restore
+     * @param currentOccurrence the stored occurrence number
+     * @param nextDueDate the stored next due date, may be null
+     */
+    static void restore(RecurringTodo recurringTodo, int currentOccurrence, LocalDate nextDueDate) {
+        CURRENT_OCCURRENCE.set(recurringTodo, currentOccurrence);
+        NEXT_DUE_DATE.set(recurringTodo, nextDueDate);
+    }
+}
@@ -1,21 +1,34 @@
 package org.lucian.todos.dao.impl;
 
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Period;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.lucian.todos.dao.TodoCountSummary;
 import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.TodoPage;
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.dao.TodoSearchResult;
 import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.database.SqlDates;
 import org.lucian.todos.exceptions.DatabaseException;
 import org.lucian.todos.model.Priority;
 import org.lucian.todos.model.RecurringTodo;
@@ -32,6 +45,50 @@ public class TodoDAOImpl implements TodoDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(TodoDAOImpl.class);
     
+    private static final String SELECT_TODO_SQL = """
+        SELECT t.*, rt.recurring_interval_days, rt.max_occurrences, rt.current_occurrence, rt.next_due_date
+        FROM todos t
+        LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
+    """;
+    
+    private static final String INSERT_TODO_SQL = """
+        INSERT INTO todos (title, description, due_date, priority, status, project_id, user_id, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+    
+    private static final String UPDATE_TODO_SQL = """
+        UPDATE todos 
+        SET title = ?, description = ?, due_date = ?, priority = ?, status = ?, 
+            project_id = ?, updated_at = ?
+        WHERE id = ?
+    """;
+    
+    private static final String UPSERT_RECURRING_SQL = """
+        INSERT INTO recurring_todos (todo_id, recurring_interval_days, max_occurrences, 
+                                   current_occurrence, next_due_date)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT(todo_id) DO UPDATE SET
+            recurring_interval_days = excluded.recurring_interval_days,
+            max_occurrences = excluded.max_occurrences,
+            current_occurrence = excluded.current_occurrence,
+            next_due_date = excluded.next_due_date
+    """;
+    
+    private static final String SEARCH_TODO_SQL = """
+        SELECT t.*, rt.recurring_interval_days, rt.max_occurrences, rt.current_occurrence, rt.next_due_date,
+               snippet(todos_fts, -1, ?, ?, '...', 12) AS search_snippet,
+               bm25(todos_fts, 10.0, 1.0) AS search_score
+        FROM todos_fts
+        JOIN todos t ON t.id = todos_fts.rowid
+        LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
+        WHERE todos_fts MATCH ? %s
+        ORDER BY search_score, t.id DESC
+        LIMIT ?
+    """;
+    
+    /** Rows sent per executeBatch call, keeping driver-side buffers bounded. */
+    private static final int BATCH_SIZE = 500;
+    
     private final DatabaseManager databaseManager;
     
     public TodoDAOImpl(DatabaseManager databaseManager) {
@@ -46,25 +103,10 @@ public class TodoDAOImpl implements TodoDAO {
         
         logger.debug("Creating todo: {}", todo.getTitle());
         
-        String sql = """
-            INSERT INTO todos (title, description, due_date, priority, status, project_id, user_id, created_at, updated_at)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-        
         try (Connection connection = databaseManager.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = connection.prepareStatement(INSERT_TODO_SQL)) {
             
-            LocalDateTime now = LocalDateTime.now();
-            
-            statement.setString(1, todo.getTitle());
-            statement.setString(2, todo.getDescription());
-            statement.setDate(3, todo.getDueDate() != null ? Date.valueOf(todo.getDueDate()) : null);
-            statement.setString(4, todo.getPriority().name());
-            statement.setString(5, todo.getStatus().name());
-            statement.setObject(6, todo.getProjectId());
-            statement.setObject(7, todo.getUserId());
-            statement.setTimestamp(8, Timestamp.valueOf(now));
-            statement.setTimestamp(9, Timestamp.valueOf(now));
+            bindInsertParameters(statement, todo, Timestamp.valueOf(LocalDateTime.now()));
             
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -95,6 +137,94 @@ public class TodoDAOImpl implements TodoDAO {
         }
     }
     
+    @Override
+    public List<Todo> createAll(List<? extends Todo> todos) throws DatabaseException {
+        if (todos == null) {
+            throw new IllegalArgumentException("Todos cannot be null");
+        }
+        for (Todo todo : todos) {
+            if (todo == null) {
+                throw new IllegalArgumentException("Todo cannot be null");
+            }
+        }
+        if (todos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Creating {} todos in batch", todos.size());
+        }
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<RecurringTodo> recurringTodos = new ArrayList<>();
+                
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TODO_SQL);
+                     PreparedStatement idStatement = connection.prepareStatement("SELECT last_insert_rowid()")) {
+                    for (int start = 0; start < todos.size(); start += BATCH_SIZE) {
+                        List<? extends Todo> chunk = todos.subList(start, Math.min(start + BATCH_SIZE, todos.size()));
+                        for (Todo todo : chunk) {
+                            bindInsertParameters(statement, todo, now);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                        
+                        // The transaction holds the write lock, so the AUTOINCREMENT ids of
+                        // this chunk are consecutive and end at last_insert_rowid()
+                        long lastId;
+                        try (ResultSet rs = idStatement.executeQuery()) {
+                            if (!rs.next()) {
+                                throw new DatabaseException("Creating todos failed, no ID obtained");
+                            }
+                            lastId = rs.getLong(1);
+                        }
+                        long id = lastId - chunk.size() + 1;
+                        for (Todo todo : chunk) {
+                            todo.setId(id++);
+                            if (todo instanceof RecurringTodo recurringTodo) {
+                                recurringTodos.add(recurringTodo);
+                            }
+                        }
+                    }
+                }
+                
+                upsertRecurringTodoData(connection, recurringTodos);
+                connection.commit();
+                
+            } catch (SQLException | DatabaseException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            // The rows are gone, so the todos must not claim their IDs
+            clearIds(todos);
+            logger.error("Failed to create {} todos", todos.size(), e);
+            throw new DatabaseException("Failed to create todos", e);
+        } catch (DatabaseException | RuntimeException e) {
+            clearIds(todos);
+            throw e;
+        }
+        // Inside an outer transaction the rows only exist once it commits
+        databaseManager.afterRollback(() -> clearIds(todos));
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Created {} todos in batch", todos.size());
+        }
+        return new ArrayList<>(todos);
+    }
+    
+    private static void clearIds(List<? extends Todo> todos) {
+        for (Todo todo : todos) {
+            todo.setId(null);
+        }
+    }
+    
     @Override
     public Optional<Todo> findById(Long id) throws DatabaseException {
         if (id == null) {
@@ -117,7 +247,7 @@ public class TodoDAOImpl implements TodoDAO {
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return Optional.of(mapResultSetToTodo(resultSet));
+                    return Optional.of(new TodoRowMapper(resultSet).map(resultSet));
                 }
                 return Optional.empty();
             }
@@ -142,6 +272,158 @@ public class TodoDAOImpl implements TodoDAO {
         return executeQueryForTodoList(sql);
     }
     
+    @Override
+    public TodoPage findAllPage(String pageToken, int pageSize) throws DatabaseException {
+        logger.debug("Finding page of todos after token: {}", pageToken);
+        return executeQueryForTodoPage(null, null, pageToken, pageSize);
+    }
+    
+    @Override
+    public TodoPage findByStatusPage(TodoStatus status, String pageToken, int pageSize) throws DatabaseException {
+        if (status == null) {
+            return new TodoPage(new ArrayList<>(), null);
+        }
+        logger.debug("Finding page of todos by status: {} after token: {}", status, pageToken);
+        return executeQueryForTodoPage("t.status = ?", status.name(), pageToken, pageSize);
+    }
+    
+    @Override
+    public TodoPage findByPriorityPage(Priority priority, String pageToken, int pageSize) throws DatabaseException {
+        if (priority == null) {
+            return new TodoPage(new ArrayList<>(), null);
+        }
+        logger.debug("Finding page of todos by priority: {} after token: {}", priority, pageToken);
+        return executeQueryForTodoPage("t.priority = ?", priority.name(), pageToken, pageSize);
+    }
+    
+    @Override
+    public Stream<Todo> streamAll() throws DatabaseException {
+        logger.debug("Streaming all todos");
+        return executeQueryForTodoStream(SELECT_TODO_SQL + "ORDER BY t.created_at DESC, t.id DESC");
+    }
+    
+    @Override
+    public Stream<Todo> streamByStatus(TodoStatus status) throws DatabaseException {
+        if (status == null) {
+            return Stream.empty();
+        }
+        logger.debug("Streaming todos by status: {}", status);
+        return executeQueryForTodoStream(SELECT_TODO_SQL + "WHERE t.status = ? ORDER BY t.created_at DESC, t.id DESC",
+                status.name());
+    }
+    
+    @Override
+    public Stream<Todo> streamByPriority(Priority priority) throws DatabaseException {
+        if (priority == null) {
+            return Stream.empty();
+        }
+        logger.debug("Streaming todos by priority: {}", priority);
+        return executeQueryForTodoStream(SELECT_TODO_SQL + "WHERE t.priority = ? ORDER BY t.created_at DESC, t.id DESC",
+                priority.name());
+    }
+    
+    @Override
+    public List<TodoSearchResult> search(String query, int limit) throws DatabaseException {
+        return executeSearch(null, query, limit);
+    }
+    
+    @Override
+    public List<TodoSearchResult> searchForUser(Long userId, String query, int limit) throws DatabaseException {
+        requireUserId(userId);
+        return executeSearch(userId, query, limit);
+    }
+    
+    @Override
+    public TodoQueryResult query(TodoQuery query) throws DatabaseException {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        
+        logger.debug("Running todo query: {}", query);
+        
+        TodoQuerySql sql = TodoQuerySql.compile(query);
+        if (sql.isEmpty()) {
+            return new TodoQueryResult(new ArrayList<>(), 0, sql.getOffset());
+        }
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            List<Todo> todos = new ArrayList<>();
+            long totalCount = 0;
+            try (PreparedStatement statement = connection.prepareStatement(sql.selectSql())) {
+                bindParameters(statement, sql.selectParameters());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    TodoRowMapper mapper = new TodoRowMapper(resultSet);
+                    while (resultSet.next()) {
+                        totalCount = resultSet.getLong("total_count");
+                        todos.add(mapper.map(resultSet));
+                    }
+                }
+            }
+            
+            // A page past the end has no row to carry the count
+            if (todos.isEmpty() && sql.getOffset() > 0) {
+                try (PreparedStatement statement = connection.prepareStatement(sql.countSql())) {
+                    bindParameters(statement, sql.countParameters());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        totalCount = resultSet.next() ? resultSet.getLong(1) : 0;
+                    }
+                }
+            }
+            
+            return new TodoQueryResult(todos, totalCount, sql.getOffset());
+            
+        } catch (SQLException e) {
+            logger.error("Failed to run todo query: {}", query, e);
+            throw new DatabaseException("Failed to query todos", e);
+        }
+    }
+    
+    private static void bindParameters(PreparedStatement statement, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+    }
+    
+    private List<TodoSearchResult> executeSearch(Long userId, String query, int limit) throws DatabaseException {
+        String matchExpression = toMatchExpression(query);
+        if (matchExpression.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        logger.debug("Searching todos with match expression: {}", matchExpression);
+        
+        List<TodoSearchResult> results = new ArrayList<>();
+        String sql = SEARCH_TODO_SQL.formatted(userId != null ? "AND t.user_id = ?" : "");
+        
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            int index = 1;
+            statement.setString(index++, TodoSearchResult.HIGHLIGHT_START);
+            statement.setString(index++, TodoSearchResult.HIGHLIGHT_END);
+            statement.setString(index++, matchExpression);
+            if (userId != null) {
+                statement.setLong(index++, userId);
+            }
+            statement.setInt(index, limit > 0 ? limit : -1);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                TodoRowMapper mapper = new TodoRowMapper(resultSet);
+                while (resultSet.next()) {
+                    results.add(new TodoSearchResult(mapper.map(resultSet),
+                            resultSet.getString("search_snippet"),
+                            resultSet.getDouble("search_score")));
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Failed to search todos: {}", query, e);
+            throw new DatabaseException("Failed to search todos", e);
+        }
+        
+        return results;
+    }
+    
     @Override
     public List<Todo> findByProjectId(Long projectId) throws DatabaseException {
         logger.debug("Finding todos by project ID: {}", projectId);
@@ -211,7 +493,7 @@ public class TodoDAOImpl implements TodoDAO {
             ORDER BY t.due_date ASC
         """;
         
-        return executeQueryForTodoList(sql, Date.valueOf(date));
+        return executeQueryForTodoList(sql, SqlDates.toSql(date));
     }
     
     @Override
@@ -222,11 +504,89 @@ public class TodoDAOImpl implements TodoDAO {
             SELECT t.*, rt.recurring_interval_days, rt.max_occurrences, rt.current_occurrence, rt.next_due_date
             FROM todos t
             LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
-            WHERE t.due_date < ? AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+            WHERE t.status IN ('TODO', 'IN_PROGRESS') AND t.due_date < ?
             ORDER BY t.due_date ASC
         """;
         
-        return executeQueryForTodoList(sql, Date.valueOf(LocalDate.now()));
+        // The status condition matches the partial index idx_todos_open_due
+        return executeQueryForTodoList(sql, SqlDates.toSql(LocalDate.now()));
+    }
+    
+    @Override
+    public List<Todo> findDueBetween(LocalDate from, LocalDate to) throws DatabaseException {
+        if (from == null || to == null) {
+            return new ArrayList<>();
+        }
+        
+        logger.debug("Finding todos due between: {} and {}", from, to);
+        
+        String sql = """
+            SELECT t.*, rt.recurring_interval_days, rt.max_occurrences, rt.current_occurrence, rt.next_due_date
+            FROM todos t
+            LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
+            WHERE t.due_date BETWEEN ? AND ?
+            ORDER BY t.due_date ASC, t.id ASC
+        """;
+        
+        return executeQueryForTodoList(sql, SqlDates.toSql(from), SqlDates.toSql(to));
+    }
+    
+    @Override
+    public List<Todo> findAllForUser(Long userId) throws DatabaseException {
+        logger.debug("Finding all todos for user: {}", userId);
+        return executeQueryForUserTodoList(userId, null, "t.created_at DESC");
+    }
+    
+    @Override
+    public List<Todo> findByProjectIdForUser(Long userId, Long projectId) throws DatabaseException {
+        logger.debug("Finding todos by project ID: {} for user: {}", projectId, userId);
+        return executeQueryForUserTodoList(userId, "t.project_id = ?", "t.created_at DESC", projectId);
+    }
+    
+    @Override
+    public List<Todo> findByStatusForUser(Long userId, TodoStatus status) throws DatabaseException {
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        logger.debug("Finding todos by status: {} for user: {}", status, userId);
+        return executeQueryForUserTodoList(userId, "t.status = ?", "t.created_at DESC", status.name());
+    }
+    
+    @Override
+    public List<Todo> findByPriorityForUser(Long userId, Priority priority) throws DatabaseException {
+        if (priority == null) {
+            return new ArrayList<>();
+        }
+        logger.debug("Finding todos by priority: {} for user: {}", priority, userId);
+        return executeQueryForUserTodoList(userId, "t.priority = ?", "t.created_at DESC", priority.name());
+    }
+    
+    @Override
+    public List<Todo> findDueBeforeForUser(Long userId, LocalDate date) throws DatabaseException {
+        if (date == null) {
+            return new ArrayList<>();
+        }
+        logger.debug("Finding todos due before: {} for user: {}", date, userId);
+        return executeQueryForUserTodoList(userId, "t.due_date <= ?", "t.due_date ASC", SqlDates.toSql(date));
+    }
+    
+    @Override
+    public List<Todo> findOverdueForUser(Long userId) throws DatabaseException {
+        logger.debug("Finding overdue todos for user: {}", userId);
+        // Open statuses listed explicitly so each is a range scan on (user_id, status, due_date)
+        return executeQueryForUserTodoList(userId,
+                "t.status IN ('TODO', 'IN_PROGRESS') AND t.due_date < ?", "t.due_date ASC",
+                SqlDates.toSql(LocalDate.now()));
+    }
+    
+    @Override
+    public List<Todo> findDueBetweenForUser(Long userId, LocalDate from, LocalDate to) throws DatabaseException {
+        if (from == null || to == null) {
+            return new ArrayList<>();
+        }
+        logger.debug("Finding todos due between: {} and {} for user: {}", from, to, userId);
+        return executeQueryForUserTodoList(userId, "t.due_date BETWEEN ? AND ?", "t.due_date ASC, t.id ASC",
+                SqlDates.toSql(from), SqlDates.toSql(to));
     }
     
     @Override
@@ -237,26 +597,10 @@ public class TodoDAOImpl implements TodoDAO {
         
         logger.debug("Updating todo: {} (ID: {})", todo.getTitle(), todo.getId());
         
-        String sql = """
-            UPDATE todos 
-            SET title = ?, description = ?, due_date = ?, priority = ?, status = ?, 
-                project_id = ?, updated_at = ?
-            WHERE id = ?
-        """;
-        
         try (Connection connection = databaseManager.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
-            LocalDateTime now = LocalDateTime.now();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_TODO_SQL)) {
             
-            statement.setString(1, todo.getTitle());
-            statement.setString(2, todo.getDescription());
-            statement.setDate(3, todo.getDueDate() != null ? Date.valueOf(todo.getDueDate()) : null);
-            statement.setString(4, todo.getPriority().name());
-            statement.setString(5, todo.getStatus().name());
-            statement.setObject(6, todo.getProjectId());
-            statement.setTimestamp(7, Timestamp.valueOf(now));
-            statement.setLong(8, todo.getId());
+            bindUpdateParameters(statement, todo, Timestamp.valueOf(LocalDateTime.now()));
             
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -277,6 +621,71 @@ public class TodoDAOImpl implements TodoDAO {
         }
     }
     
+    @Override
+    public List<Todo> updateAll(List<? extends Todo> todos) throws DatabaseException {
+        if (todos == null) {
+            throw new IllegalArgumentException("Todos cannot be null");
+        }
+        for (Todo todo : todos) {
+            if (todo == null || todo.getId() == null) {
+                throw new IllegalArgumentException("Todo and todo ID cannot be null");
+            }
+        }
+        if (todos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updating {} todos in batch", todos.size());
+        }
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<RecurringTodo> recurringTodos = new ArrayList<>();
+                
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_TODO_SQL)) {
+                    for (int start = 0; start < todos.size(); start += BATCH_SIZE) {
+                        List<? extends Todo> chunk = todos.subList(start, Math.min(start + BATCH_SIZE, todos.size()));
+                        for (Todo todo : chunk) {
+                            bindUpdateParameters(statement, todo, now);
+                            statement.addBatch();
+                            if (todo instanceof RecurringTodo recurringTodo) {
+                                recurringTodos.add(recurringTodo);
+                            }
+                        }
+                        int[] results = statement.executeBatch();
+                        for (int i = 0; i < results.length; i++) {
+                            if (results[i] == 0) {
+                                throw new DatabaseException("Updating todos failed, todo not found: " + chunk.get(i).getId());
+                            }
+                        }
+                    }
+                }
+                
+                upsertRecurringTodoData(connection, recurringTodos);
+                connection.commit();
+                
+            } catch (SQLException | DatabaseException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Failed to update {} todos", todos.size(), e);
+            throw new DatabaseException("Failed to update todos", e);
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updated {} todos in batch", todos.size());
+        }
+        return new ArrayList<>(todos);
+    }
+    
     @Override
     public boolean delete(Long id) throws DatabaseException {
         if (id == null) {
@@ -309,6 +718,56 @@ public class TodoDAOImpl implements TodoDAO {
         }
     }
     
+    @Override
+    public int deleteAll(Collection<Long> ids) throws DatabaseException {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deleting {} todos in batch", ids.size());
+        }
+        
+        String sql = "DELETE FROM todos WHERE id = ?";
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int deleted = 0;
+                int pending = 0;
+                for (Long id : ids) {
+                    if (id == null) {
+                        continue;
+                    }
+                    statement.setLong(1, id);
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        deleted += sum(statement.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    deleted += sum(statement.executeBatch());
+                }
+                
+                connection.commit();
+                logger.debug("Deleted {} todos in batch", deleted);
+                return deleted;
+                
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Failed to delete {} todos", ids.size(), e);
+            throw new DatabaseException("Failed to delete todos", e);
+        }
+    }
+    
     @Override
     public long count() throws DatabaseException {
         logger.debug("Counting all todos");
@@ -316,8 +775,8 @@ public class TodoDAOImpl implements TodoDAO {
         String sql = "SELECT COUNT(*) FROM todos";
         
         try (Connection connection = databaseManager.getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
             
             if (resultSet.next()) {
                 return resultSet.getLong(1);
@@ -358,8 +817,174 @@ public class TodoDAOImpl implements TodoDAO {
         }
     }
     
+    @Override
+    public TodoCountSummary countSummary() throws DatabaseException {
+        logger.debug("Counting todos by status and priority");
+        return executeCountSummary(null);
+    }
+    
+    @Override
+    public TodoCountSummary countSummaryForUser(Long userId) throws DatabaseException {
+        requireUserId(userId);
+        logger.debug("Counting todos by status and priority for user: {}", userId);
+        return executeCountSummary(userId);
+    }
+    
+    private TodoCountSummary executeCountSummary(Long userId) throws DatabaseException {
+        String sql = """
+            SELECT status, priority, COUNT(*) AS total,
+                   SUM(CASE WHEN due_date < ? AND status NOT IN ('COMPLETED', 'CANCELLED') THEN 1 ELSE 0 END) AS overdue
+            FROM todos
+            %s
+            GROUP BY status, priority
+        """.formatted(userId != null ? "WHERE user_id = ?" : "");
+        
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            SqlDates.setDate(statement, 1, LocalDate.now());
+            if (userId != null) {
+                statement.setLong(2, userId);
+            }
+            
+            TodoCountSummary summary = new TodoCountSummary();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    summary.addGroup(TodoStatus.valueOf(resultSet.getString("status")),
+                                     Priority.valueOf(resultSet.getString("priority")),
+                                     resultSet.getLong("total"),
+                                     resultSet.getLong("overdue"));
+                }
+            }
+            return summary;
+            
+        } catch (SQLException e) {
+            logger.error("Failed to count todo summary", e);
+            throw new DatabaseException("Failed to count todos", e);
+        }
+    }
+    
+    @Override
+    public Map<Long, TodoCountSummary> countSummaryByProject(Collection<Long> projectIds) throws DatabaseException {
+        Map<Long, TodoCountSummary> summaries = new HashMap<>();
+        if (projectIds != null && projectIds.isEmpty()) {
+            return summaries;
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Counting todos by project for {} projects", projectIds == null ? "all" : projectIds.size());
+        }
+        
+        List<Long> ids = projectIds == null ? null : projectIds.stream().filter(id -> id != null).distinct().toList();
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            if (ids == null) {
+                collectProjectSummaries(connection, null, summaries);
+            } else {
+                for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+                    collectProjectSummaries(connection, ids.subList(start, Math.min(start + BATCH_SIZE, ids.size())), summaries);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to count todos by project", e);
+            throw new DatabaseException("Failed to count todos by project", e);
+        }
+        
+        return summaries;
+    }
+    
     // Helper methods
     
+    private void collectProjectSummaries(Connection connection, List<Long> projectIds,
+                                         Map<Long, TodoCountSummary> summaries) throws SQLException {
+        String filter = projectIds == null
+                ? "project_id IS NOT NULL"
+                : "project_id IN (" + String.join(", ", Collections.nCopies(projectIds.size(), "?")) + ")";
+        String sql = """
+            SELECT project_id, status, priority, COUNT(*) AS total,
+                   SUM(CASE WHEN due_date < ? AND status NOT IN ('COMPLETED', 'CANCELLED') THEN 1 ELSE 0 END) AS overdue
+            FROM todos
+            WHERE %s
+            GROUP BY project_id, status, priority
+        """.formatted(filter);
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            SqlDates.setDate(statement, 1, LocalDate.now());
+            if (projectIds != null) {
+                for (int i = 0; i < projectIds.size(); i++) {
+                    statement.setLong(i + 2, projectIds.get(i));
+                }
+            }
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    summaries.computeIfAbsent(resultSet.getLong("project_id"), id -> new TodoCountSummary())
+                             .addGroup(TodoStatus.valueOf(resultSet.getString("status")),
+                                       Priority.valueOf(resultSet.getString("priority")),
+                                       resultSet.getLong("total"),
+                                       resultSet.getLong("overdue"));
+                }
+            }
+        }
+    }
+    
+    private void bindInsertParameters(PreparedStatement statement, Todo todo, Timestamp now) throws SQLException {
+        statement.setString(1, todo.getTitle());
+        statement.setString(2, todo.getDescription());
+        SqlDates.setDate(statement, 3, todo.getDueDate());
+        statement.setString(4, todo.getPriority().name());
+        statement.setString(5, todo.getStatus().name());
+        statement.setObject(6, todo.getProjectId());
+        statement.setObject(7, todo.getUserId());
+        statement.setTimestamp(8, now);
+        statement.setTimestamp(9, now);
+    }
+    
+    private void bindUpdateParameters(PreparedStatement statement, Todo todo, Timestamp now) throws SQLException {
+        statement.setString(1, todo.getTitle());
+        statement.setString(2, todo.getDescription());
+        SqlDates.setDate(statement, 3, todo.getDueDate());
+        statement.setString(4, todo.getPriority().name());
+        statement.setString(5, todo.getStatus().name());
+        statement.setObject(6, todo.getProjectId());
+        statement.setTimestamp(7, now);
+        statement.setLong(8, todo.getId());
+    }
+    
+    private void upsertRecurringTodoData(Connection connection, List<RecurringTodo> recurringTodos) throws SQLException {
+        if (recurringTodos.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_RECURRING_SQL)) {
+            int pending = 0;
+            for (RecurringTodo recurringTodo : recurringTodos) {
+                statement.setLong(1, recurringTodo.getId());
+                statement.setInt(2, recurringTodo.getRecurringInterval().getDays());
+                statement.setInt(3, recurringTodo.getMaxOccurrences());
+                statement.setInt(4, recurringTodo.getCurrentOccurrence());
+                SqlDates.setDate(statement, 5, recurringTodo.getNextDueDate());
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+    
+    private static int sum(int[] updateCounts) {
+        int total = 0;
+        for (int count : updateCounts) {
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+    
     private List<Todo> executeQueryForTodoList(String sql, Object... parameters) throws DatabaseException {
         List<Todo> todos = new ArrayList<>();
         
@@ -371,8 +996,9 @@ public class TodoDAOImpl implements TodoDAO {
             }
             
             try (ResultSet resultSet = statement.executeQuery()) {
+                TodoRowMapper mapper = new TodoRowMapper(resultSet);
                 while (resultSet.next()) {
-                    todos.add(mapResultSetToTodo(resultSet));
+                    todos.add(mapper.map(resultSet));
                 }
             }
             
@@ -384,62 +1010,174 @@ public class TodoDAOImpl implements TodoDAO {
         return todos;
     }
     
-    private Todo mapResultSetToTodo(ResultSet resultSet) throws SQLException {
-        Todo todo;
+    /**
+     * Runs a todo query restricted to one user's rows, so SQLite can use the
+     * composite indexes that lead with user_id.
+     */
+    private List<Todo> executeQueryForUserTodoList(Long userId, String condition, String orderBy, Object... parameters)
+            throws DatabaseException {
+        requireUserId(userId);
         
-        // Check if this is a recurring todo
-        if (resultSet.getObject("recurring_interval_days") != null) {
-            RecurringTodo recurringTodo = new RecurringTodo();
-            
-            int intervalDays = resultSet.getInt("recurring_interval_days");
-            recurringTodo.setRecurringInterval(Period.ofDays(intervalDays));
-            recurringTodo.setMaxOccurrences(resultSet.getInt("max_occurrences"));
+        StringBuilder sql = new StringBuilder(SELECT_TODO_SQL).append("WHERE t.user_id = ?");
+        if (condition != null) {
+            sql.append(" AND ").append(condition);
+        }
+        sql.append("\nORDER BY ").append(orderBy);
+        
+        Object[] allParameters = new Object[parameters.length + 1];
+        allParameters[0] = userId;
+        System.arraycopy(parameters, 0, allParameters, 1, parameters.length);
+        return executeQueryForTodoList(sql.toString(), allParameters);
+    }
+    
+    private static void requireUserId(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+    }
+    
+    /**
+     * Runs a keyset-paginated query ordered by (created_at, id) descending.
+     * One extra row is fetched to decide whether a next page exists.
+     */
+    private TodoPage executeQueryForTodoPage(String filter, Object filterValue, String pageToken, int pageSize)
+            throws DatabaseException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        TodoPage.Cursor after = pageToken != null ? TodoPage.Cursor.decode(pageToken) : null;
+        
+        StringBuilder sql = new StringBuilder(SELECT_TODO_SQL);
+        List<Object> parameters = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            conditions.add(filter);
+            parameters.add(filterValue);
+        }
+        if (after != null) {
+            conditions.add("(t.created_at < ? OR (t.created_at = ? AND t.id < ?))");
+            parameters.add(after.getCreatedAt());
+            parameters.add(after.getCreatedAt());
+            parameters.add(after.getId());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        sql.append("ORDER BY t.created_at DESC, t.id DESC LIMIT ?");
+        parameters.add(pageSize + 1);
+        
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
             
-            // Set current occurrence using reflection to bypass validation
-            try {
-                var field = RecurringTodo.class.getDeclaredField("currentOccurrence");
-                field.setAccessible(true);
-                field.setInt(recurringTodo, resultSet.getInt("current_occurrence"));
-            } catch (IllegalAccessException | IllegalArgumentException | NoSuchFieldException | SecurityException | SQLException e) {
-                logger.warn("Failed to set current occurrence", e);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
             }
             
-            Date nextDueDate = resultSet.getDate("next_due_date");
-            if (nextDueDate != null) {
-                // Set next due date using reflection
-                try {
-                    var field = RecurringTodo.class.getDeclaredField("nextDueDate");
-                    field.setAccessible(true);
-                    field.set(recurringTodo, nextDueDate.toLocalDate());
-                } catch (IllegalAccessException | IllegalArgumentException | NoSuchFieldException | SecurityException e) {
-                    logger.warn("Failed to set next due date", e);
+            List<Todo> todos = new ArrayList<>(pageSize);
+            TodoPage.Cursor last = null;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                TodoRowMapper mapper = new TodoRowMapper(resultSet);
+                int createdAtColumn = resultSet.findColumn("created_at");
+                while (resultSet.next()) {
+                    if (todos.size() == pageSize) {
+                        return new TodoPage(todos, last.encode());
+                    }
+                    Todo todo = mapper.map(resultSet);
+                    todos.add(todo);
+                    last = new TodoPage.Cursor(resultSet.getObject(createdAtColumn), todo.getId());
                 }
             }
+            return new TodoPage(todos, null);
             
-            todo = recurringTodo;
-        } else {
-            todo = new Todo();
+        } catch (SQLException e) {
+            logger.error("Failed to execute query for todo page", e);
+            throw new DatabaseException("Failed to query todos", e);
         }
-        
-        // Set common todo properties
-        todo.setId(resultSet.getLong("id"));
-        todo.setTitle(resultSet.getString("title"));
-        todo.setDescription(resultSet.getString("description"));
-        
-        Date dueDate = resultSet.getDate("due_date");
-        if (dueDate != null) {
-            todo.setDueDate(dueDate.toLocalDate());
+    }
+    
+    /**
+     * Opens a query whose rows are mapped on demand. The connection, statement and
+     * result set stay open until the returned stream is closed.
+     */
+    private Stream<Todo> executeQueryForTodoStream(String sql, Object... parameters) throws DatabaseException {
+        Connection connection = databaseManager.getConnection();
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(sql);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            resultSet = statement.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(resultSet, statement, connection);
+            logger.error("Failed to open todo stream", e);
+            throw new DatabaseException("Failed to query todos", e);
         }
         
-        todo.setPriority(Priority.valueOf(resultSet.getString("priority")));
-        todo.setStatus(TodoStatus.valueOf(resultSet.getString("status")));
-        
-        // Handle NULL project_id safely
-        Object projectIdObj = resultSet.getObject("project_id");
-        Long projectId = (projectIdObj != null) ? ((Number) projectIdObj).longValue() : null;
-        todo.setProjectId(projectId);
+        ResultSet rows = resultSet;
+        TodoRowMapper mapper;
+        try {
+            mapper = new TodoRowMapper(rows);
+        } catch (SQLException e) {
+            closeQuietly(rows, statement, connection);
+            logger.error("Failed to open todo stream", e);
+            throw new DatabaseException("Failed to query todos", e);
+        }
+        Spliterator<Todo> spliterator = new Spliterators.AbstractSpliterator<Todo>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Todo> action) {
+                try {
+                    if (!rows.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rows));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to read todo",
+                            new DatabaseException("Failed to stream todos", e));
+                }
+            }
+        };
         
-        return todo;
+        PreparedStatement openStatement = statement;
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeQuietly(rows, openStatement, connection));
+    }
+    
+    /**
+     * Turns free text into an FTS5 query: every word must match, as a prefix.
+     * Words are quoted so FTS5 operators in user input are treated as text.
+     */
+    static String toMatchExpression(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder expression = new StringBuilder();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append('"').append(word).append("\"*");
+        }
+        return expression.toString();
+    }
+    
+    private void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.debug("Error closing stream resource: {}", e.getMessage());
+            }
+        }
     }
     
     private void createRecurringTodoData(Connection connection, RecurringTodo recurringTodo) 
@@ -455,8 +1193,7 @@ public class TodoDAOImpl implements TodoDAO {
             statement.setInt(2, recurringTodo.getRecurringInterval().getDays());
             statement.setInt(3, recurringTodo.getMaxOccurrences());
             statement.setInt(4, recurringTodo.getCurrentOccurrence());
-            statement.setDate(5, recurringTodo.getNextDueDate() != null ? 
-                Date.valueOf(recurringTodo.getNextDueDate()) : null);
+            SqlDates.setDate(statement, 5, recurringTodo.getNextDueDate());
             
             statement.executeUpdate();
         }
@@ -475,8 +1212,7 @@ public class TodoDAOImpl implements TodoDAO {
             statement.setInt(1, recurringTodo.getRecurringInterval().getDays());
             statement.setInt(2, recurringTodo.getMaxOccurrences());
             statement.setInt(3, recurringTodo.getCurrentOccurrence());
-            statement.setDate(4, recurringTodo.getNextDueDate() != null ? 
-                Date.valueOf(recurringTodo.getNextDueDate()) : null);
+            SqlDates.setDate(statement, 4, recurringTodo.getNextDueDate());
             statement.setLong(5, recurringTodo.getId());
             
             int affectedRows = statement.executeUpdate();
@@ -0,0 +1,174 @@
+package org.lucian.todos.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.database.SqlDates;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.TodoStatus;
+
+/**
+ * Compiles a {@link TodoQuery} into one SELECT over todos and recurring_todos.
+ * The page's rows and the number of matching rows come back together: every row
+ * carries a {@code total_count} column computed by a window function before LIMIT
+ * applies. User input is always bound as a parameter; status and priority sets are
+ * written as enum-name literals so that {@code t.status IN ('TODO', 'IN_PROGRESS')}
+ * matches the partial index over open todos.
+ */
+final class TodoQuerySql {
+
+    private static final String SELECT_SQL = """
+        SELECT t.*, rt.recurring_interval_days, rt.max_occurrences, rt.current_occurrence, rt.next_due_date,
+               COUNT(*) OVER () AS total_count
+        FROM todos t
+        LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
+    """;
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM todos t\n";
+
+    private final String where;
+    private final String orderBy;
+    private final List<Object> parameters;
+    private final int limit;
+    private final int offset;
+    private final boolean empty;
+
+    private TodoQuerySql(String where, String orderBy, List<Object> parameters, int limit, int offset,
+                         boolean empty) {
+        this.where = where;
+        this.orderBy = orderBy;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.limit = limit;
+        this.offset = offset;
+        this.empty = empty;
+    }
+
+    /**
+     * Compiles a query.
+     *
+     * @param query the query
+     * @return the compiled statement
+     */
+    static TodoQuerySql compile(TodoQuery query) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        boolean empty = false;
+
+        if (query.getUserId() != null) {
+            conditions.add("t.user_id = ?");
+            parameters.add(query.getUserId());
+        }
+        if (!query.getStatuses().isEmpty() && query.getStatuses().size() < TodoStatus.values().length) {
+            conditions.add("t.status IN (" + literals(query.getStatuses()) + ")");
+        }
+        if (!query.getPriorities().isEmpty() && query.getPriorities().size() < Priority.values().length) {
+            conditions.add("t.priority IN (" + literals(query.getPriorities()) + ")");
+        }
+        if (query.getProjectId() != null) {
+            conditions.add("t.project_id = ?");
+            parameters.add(query.getProjectId());
+        }
+        if (query.getDueFrom() != null && query.getDueTo() != null) {
+            conditions.add("t.due_date BETWEEN ? AND ?");
+            parameters.add(SqlDates.toSql(query.getDueFrom()));
+            parameters.add(SqlDates.toSql(query.getDueTo()));
+        } else if (query.getDueFrom() != null) {
+            conditions.add("t.due_date >= ?");
+            parameters.add(SqlDates.toSql(query.getDueFrom()));
+        } else if (query.getDueTo() != null) {
+            conditions.add("t.due_date <= ?");
+            parameters.add(SqlDates.toSql(query.getDueTo()));
+        }
+        if (query.getText() != null) {
+            String matchExpression = TodoDAOImpl.toMatchExpression(query.getText());
+            // Text without any word, such as punctuation only, matches nothing, as in search()
+            empty = matchExpression.isEmpty();
+            conditions.add("t.id IN (SELECT rowid FROM todos_fts WHERE todos_fts MATCH ?)");
+            parameters.add(matchExpression);
+        }
+
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n";
+        return new TodoQuerySql(where, orderBy(query.getOrders()), parameters, query.getLimit(), query.getOffset(),
+                empty);
+    }
+
+    private static String orderBy(List<TodoQuery.Order> orders) {
+        if (orders.isEmpty()) {
+            return "ORDER BY t.created_at DESC, t.id DESC";
+        }
+        StringBuilder orderBy = new StringBuilder("ORDER BY ");
+        for (TodoQuery.Order order : orders) {
+            String direction = order.descending() ? " DESC" : " ASC";
+            switch (order.key()) {
+                case CREATED_AT -> orderBy.append("t.created_at").append(direction);
+                case DUE_DATE -> orderBy.append("t.due_date IS NULL, t.due_date").append(direction);
+                case PRIORITY -> orderBy.append(rank("t.priority", Priority.values())).append(direction);
+                case STATUS -> orderBy.append(rank("t.status", TodoStatus.values())).append(direction);
+                case TITLE -> orderBy.append("t.title COLLATE NOCASE").append(direction);
+            }
+            orderBy.append(", ");
+        }
+        return orderBy.append("t.id DESC").toString();
+    }
+
+    /** Maps stored enum names to their declaration order, so sorting follows the enum rather than the alphabet. */
+    private static String rank(String column, Enum<?>[] values) {
+        StringBuilder expression = new StringBuilder("CASE ").append(column);
+        for (Enum<?> value : values) {
+            expression.append(" WHEN '").append(value.name()).append("' THEN ").append(value.ordinal());
+        }
+        return expression.append(" END").toString();
+    }
+
+    private static String literals(Set<? extends Enum<?>> values) {
+        return values.stream().map(value -> "'" + value.name() + "'").collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Gets the statement selecting one page of todos with the total_count column.
+     */
+    String selectSql() {
+        return SELECT_SQL + where + orderBy + "\nLIMIT ? OFFSET ?";
+    }
+
+    /**
+     * Gets the parameters of {@link #selectSql()} in order.
+     */
+    List<Object> selectParameters() {
+        List<Object> all = new ArrayList<>(parameters.size() + 2);
+        all.addAll(parameters);
+        all.add(limit > 0 ? limit : -1);
+        all.add(offset);
+        return all;
+    }
+
+    /**
+     * Gets the statement counting the matching todos. Only needed when the page is
+     * empty, which leaves no row to read total_count from.
+     */
+    String countSql() {
+        return COUNT_SQL + where;
+    }
+
+    /**
+     * Gets the parameters of {@link #countSql()} in order.
+     */
+    List<Object> countParameters() {
+        return parameters;
+    }
+
+    /**
+     * Tells whether the query cannot match any todo, so it need not run.
+     */
+    boolean isEmpty() {
+        return empty;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+}
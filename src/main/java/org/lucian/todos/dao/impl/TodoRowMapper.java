@@ -0,0 +1,96 @@
+package org.lucian.todos.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Period;
+
+import org.lucian.todos.database.SqlDates;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+
+/**
+ * Maps rows of a todo query (todos joined with recurring_todos) to {@link Todo}
+ * and {@link RecurringTodo} instances.
+ * Column indexes are resolved once per result set, and the recurring state that
+ * has no setter is restored through {@link RecurringTodoAccess} instead of
+ * reflective field lookups on every row.
+ */
+class TodoRowMapper {
+
+    private final int idColumn;
+    private final int titleColumn;
+    private final int descriptionColumn;
+    private final int dueDateColumn;
+    private final int priorityColumn;
+    private final int statusColumn;
+    private final int projectIdColumn;
+    private final int userIdColumn;
+    private final int intervalDaysColumn;
+    private final int maxOccurrencesColumn;
+    private final int currentOccurrenceColumn;
+    private final int nextDueDateColumn;
+
+    /**
+     * Creates a mapper for the given result set, resolving its column indexes.
+     *
+     * @param resultSet a result set selecting the todo and recurring_todos columns
+     * @throws SQLException if a required column is missing
+     */
+    TodoRowMapper(ResultSet resultSet) throws SQLException {
+        this.idColumn = resultSet.findColumn("id");
+        this.titleColumn = resultSet.findColumn("title");
+        this.descriptionColumn = resultSet.findColumn("description");
+        this.dueDateColumn = resultSet.findColumn("due_date");
+        this.priorityColumn = resultSet.findColumn("priority");
+        this.statusColumn = resultSet.findColumn("status");
+        this.projectIdColumn = resultSet.findColumn("project_id");
+        this.userIdColumn = resultSet.findColumn("user_id");
+        this.intervalDaysColumn = resultSet.findColumn("recurring_interval_days");
+        this.maxOccurrencesColumn = resultSet.findColumn("max_occurrences");
+        this.currentOccurrenceColumn = resultSet.findColumn("current_occurrence");
+        this.nextDueDateColumn = resultSet.findColumn("next_due_date");
+    }
+
+    /**
+     * Maps the current row of the result set.
+     *
+     * @param resultSet the result set this mapper was created for
+     * @return the todo, a {@link RecurringTodo} if the row has recurring data
+     * @throws SQLException if a column cannot be read
+     */
+    Todo map(ResultSet resultSet) throws SQLException {
+        Todo todo;
+
+        int intervalDays = resultSet.getInt(intervalDaysColumn);
+        if (!resultSet.wasNull()) {
+            RecurringTodo recurringTodo = new RecurringTodo();
+            recurringTodo.setRecurringInterval(Period.ofDays(intervalDays));
+            recurringTodo.setMaxOccurrences(resultSet.getInt(maxOccurrencesColumn));
+
+            // Stored recurrence state bypasses the validation of the public API
+            RecurringTodoAccess.restore(recurringTodo, resultSet.getInt(currentOccurrenceColumn),
+                    SqlDates.getDate(resultSet, nextDueDateColumn));
+
+            todo = recurringTodo;
+        } else {
+            todo = new Todo();
+        }
+
+        todo.setId(resultSet.getLong(idColumn));
+        todo.setTitle(resultSet.getString(titleColumn));
+        todo.setDescription(resultSet.getString(descriptionColumn));
+        todo.setDueDate(SqlDates.getDate(resultSet, dueDateColumn));
+        todo.setPriority(Priority.valueOf(resultSet.getString(priorityColumn)));
+        todo.setStatus(TodoStatus.valueOf(resultSet.getString(statusColumn)));
+
+        long projectId = resultSet.getLong(projectIdColumn);
+        todo.setProjectId(resultSet.wasNull() ? null : projectId);
+
+        long userId = resultSet.getLong(userIdColumn);
+        todo.setUserId(resultSet.wasNull() ? null : userId);
+
+        return todo;
+    }
+}
@@ -204,7 +204,9 @@ public class UserDAOImpl implements UserDAO {
                 users.add(mapResultSetToUser(resultSet));
             }
             
-            logger.debug("Found {} users", users.size());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Found {} users", users.size());
+            }
             return users;
             
         } catch (SQLException e) {
@@ -232,7 +234,9 @@ public class UserDAOImpl implements UserDAO {
                 users.add(mapResultSetToUser(resultSet));
             }
             
-            logger.debug("Found {} active users", users.size());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Found {} active users", users.size());
+            }
             return users;
             
         } catch (SQLException e) {
@@ -0,0 +1,524 @@
+package org.lucian.todos.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of physical SQLite connections.
+ * Connections handed out are proxies whose {@code close()} returns the
+ * physical connection to the pool instead of closing it. Each physical
+ * connection keeps an LRU cache of prepared statements keyed by SQL text.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /**
+     * Callback applied once to every new physical connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionInitializer {
+        void initialize(Connection connection) throws SQLException;
+    }
+
+    private final String url;
+    private final ConnectionPoolConfig config;
+    private final ConnectionInitializer initializer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private int totalConnections;
+    private int activeConnections;
+    private boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    /**
+     * Creates a new pool and opens the configured minimum of idle connections.
+     *
+     * @param url the JDBC URL of the database
+     * @param config the pool configuration
+     * @param initializer callback applied to each new physical connection, may be null
+     * @throws SQLException if the initial connections cannot be opened
+     */
+    public ConnectionPool(String url, ConnectionPoolConfig config, ConnectionInitializer initializer) throws SQLException {
+        config.validate();
+        this.url = url;
+        this.config = config;
+        this.initializer = initializer;
+
+        for (int i = 0; i < config.getMinIdle(); i++) {
+            PhysicalConnection physical = openPhysicalConnection();
+            idle.push(new IdleConnection(physical, System.nanoTime()));
+            totalConnections++;
+        }
+
+        if (config.getEvictionIntervalMillis() > 0) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sqlite-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+                    config.getEvictionIntervalMillis(), config.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+
+        logger.debug("Connection pool started for {} with {}", url, config);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the configured timeout
+     * when all connections are in use.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the wait times out or a connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis());
+
+        while (true) {
+            PhysicalConnection physical = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is shut down");
+                    }
+                    IdleConnection candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        physical = candidate.connection();
+                        activeConnections++;
+                        break;
+                    }
+                    if (totalConnections < config.getMaxSize()) {
+                        totalConnections++;
+                        activeConnections++;
+                        create = true;
+                        break;
+                    }
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                                + "ms waiting for a database connection");
+                    }
+                    try {
+                        remaining = available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    physical = openPhysicalConnection();
+                } catch (SQLException | RuntimeException e) {
+                    discardSlot();
+                    throw e;
+                }
+            } else if (config.isValidateOnBorrow() && !isUsable(physical)) {
+                logger.debug("Discarding invalid pooled connection");
+                closeQuietly(physical);
+                discardSlot();
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return wrap(physical);
+        }
+    }
+
+    /**
+     * Returns a physical connection to the pool, resetting its transaction state.
+     */
+    private void release(PhysicalConnection physical) {
+        boolean reusable = isResettable(physical);
+
+        lock.lock();
+        try {
+            activeConnections--;
+            if (reusable && !closed) {
+                idle.offerFirst(new IdleConnection(physical, System.nanoTime()));
+            } else {
+                totalConnections--;
+                destroyedCount.incrementAndGet();
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!reusable || isClosed()) {
+            closeQuietly(physical);
+        }
+    }
+
+    /**
+     * Closes idle connections that have exceeded the idle timeout while
+     * keeping at least the configured minimum of idle connections.
+     */
+    void evictIdleConnections() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        Deque<PhysicalConnection> evicted = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            Iterator<IdleConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && idle.size() > config.getMinIdle()) {
+                IdleConnection candidate = iterator.next();
+                if (candidate.idleSince() < cutoff) {
+                    iterator.remove();
+                    totalConnections--;
+                    destroyedCount.incrementAndGet();
+                    evicted.add(candidate.connection());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!evicted.isEmpty()) {
+            logger.debug("Evicting {} idle connections", evicted.size());
+            evicted.forEach(this::closeQuietly);
+        }
+    }
+
+    /**
+     * Shuts the pool down, closing every idle connection. Connections still
+     * borrowed are closed as soon as they are returned.
+     */
+    public void shutdown() {
+        Deque<PhysicalConnection> toClose = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (IdleConnection connection : idle) {
+                toClose.add(connection.connection());
+            }
+            totalConnections -= idle.size();
+            destroyedCount.addAndGet(idle.size());
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        toClose.forEach(this::closeQuietly);
+        logger.debug("Connection pool for {} shut down, {} connections closed", url, toClose.size());
+    }
+
+    /**
+     * Checks whether the pool has been shut down.
+     *
+     * @return true if the pool no longer hands out connections
+     */
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the pool metrics.
+     *
+     * @return the current pool statistics
+     */
+    public PoolStats getStats() {
+        PoolStats stats = new PoolStats();
+        lock.lock();
+        try {
+            stats.setActiveConnections(activeConnections);
+            stats.setIdleConnections(idle.size());
+            stats.setTotalConnections(totalConnections);
+        } finally {
+            lock.unlock();
+        }
+        stats.setMaxSize(config.getMaxSize());
+        stats.setBorrowCount(borrowCount.get());
+        stats.setCreatedCount(createdCount.get());
+        stats.setDestroyedCount(destroyedCount.get());
+        stats.setTimeoutCount(timeoutCount.get());
+        stats.setTotalWaitNanos(totalWaitNanos.get());
+        stats.setMaxWaitNanos(maxWaitNanos.get());
+        stats.setStatementCacheHits(statementCacheHits.get());
+        stats.setStatementCacheMisses(statementCacheMisses.get());
+        stats.setStatementCacheEvictions(statementCacheEvictions.get());
+        return stats;
+    }
+
+    // Helper methods
+
+    private PhysicalConnection openPhysicalConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try {
+            connection.setAutoCommit(true);
+            if (initializer != null) {
+                initializer.initialize(connection);
+            }
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.close();
+            } catch (SQLException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+        createdCount.incrementAndGet();
+        StatementCache statementCache = config.getStatementCacheSize() > 0
+                ? new StatementCache(connection, config.getStatementCacheSize(),
+                                     statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                : null;
+        return new PhysicalConnection(connection, statementCache);
+    }
+
+    private boolean isUsable(PhysicalConnection physical) {
+        try {
+            Connection connection = physical.connection();
+            return !connection.isClosed() && connection.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isResettable(PhysicalConnection physical) {
+        try {
+            Connection connection = physical.connection();
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Failed to reset pooled connection, discarding it", e);
+            return false;
+        }
+    }
+
+    private void discardSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            activeConnections--;
+            destroyedCount.incrementAndGet();
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void closeQuietly(PhysicalConnection physical) {
+        try {
+            if (physical.statementCache() != null) {
+                physical.statementCache().closeAll();
+            }
+            physical.connection().close();
+        } catch (SQLException e) {
+            logger.debug("Error closing pooled connection: {}", e.getMessage());
+        }
+    }
+
+    private Connection wrap(PhysicalConnection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new PooledConnectionHandler(physical));
+    }
+
+    /**
+     * Physical connection together with its statement cache (null when caching is disabled).
+     */
+    private record PhysicalConnection(Connection connection, StatementCache statementCache) {
+    }
+
+    /**
+     * Idle pool entry with the time it was returned.
+     */
+    private record IdleConnection(PhysicalConnection connection, long idleSince) {
+    }
+
+    /**
+     * Proxy handler that turns {@code close()} into a return to the pool and
+     * serves single-argument {@code prepareStatement(String)} calls from the statement cache.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private boolean returned;
+
+        private PooledConnectionHandler(PhysicalConnection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || physical.connection().isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + physical.connection() + "]";
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                }
+            }
+
+            if (physical.statementCache() != null && "prepareStatement".equals(method.getName())
+                    && args != null && args.length == 1) {
+                return physical.statementCache().prepare((String) args[0]);
+            }
+
+            try {
+                return method.invoke(physical.connection(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Snapshot of pool metrics.
+     */
+    public static class PoolStats {
+        private int activeConnections;
+        private int idleConnections;
+        private int totalConnections;
+        private int maxSize;
+        private long borrowCount;
+        private long createdCount;
+        private long destroyedCount;
+        private long timeoutCount;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+        private long statementCacheHits;
+        private long statementCacheMisses;
+        private long statementCacheEvictions;
+
+        // Getters and setters
+        public int getActiveConnections() { return activeConnections; }
+        public void setActiveConnections(int activeConnections) { this.activeConnections = activeConnections; }
+
+        public int getIdleConnections() { return idleConnections; }
+        public void setIdleConnections(int idleConnections) { this.idleConnections = idleConnections; }
+
+        public int getTotalConnections() { return totalConnections; }
+        public void setTotalConnections(int totalConnections) { this.totalConnections = totalConnections; }
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public long getBorrowCount() { return borrowCount; }
+        public void setBorrowCount(long borrowCount) { this.borrowCount = borrowCount; }
+
+        public long getCreatedCount() { return createdCount; }
+        public void setCreatedCount(long createdCount) { this.createdCount = createdCount; }
+
+        public long getDestroyedCount() { return destroyedCount; }
+        public void setDestroyedCount(long destroyedCount) { this.destroyedCount = destroyedCount; }
+
+        public long getTimeoutCount() { return timeoutCount; }
+        public void setTimeoutCount(long timeoutCount) { this.timeoutCount = timeoutCount; }
+
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+        public void setTotalWaitNanos(long totalWaitNanos) { this.totalWaitNanos = totalWaitNanos; }
+
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+        public void setMaxWaitNanos(long maxWaitNanos) { this.maxWaitNanos = maxWaitNanos; }
+
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public void setStatementCacheHits(long statementCacheHits) { this.statementCacheHits = statementCacheHits; }
+
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public void setStatementCacheMisses(long statementCacheMisses) { this.statementCacheMisses = statementCacheMisses; }
+
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+        public void setStatementCacheEvictions(long statementCacheEvictions) { this.statementCacheEvictions = statementCacheEvictions; }
+
+        public double getStatementCacheHitRate() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (statementCacheHits * 100.0) / lookups;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0.0 : (totalWaitNanos / (double) borrowCount) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "PoolStats{active=%d, idle=%d, total=%d/%d, borrows=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms, stmtCacheHitRate=%.1f%%}",
+                activeConnections, idleConnections, totalConnections, maxSize, borrowCount, timeoutCount,
+                getAverageWaitMillis(), maxWaitNanos / 1_000_000.0, getStatementCacheHitRate()
+            );
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.lucian.todos.database;
+
+/**
+ * Configuration for the built-in SQLite connection pool.
+ * Values can be overridden at startup through system properties
+ * (e.g. {@code -Dtodos.pool.maxSize=8}).
+ */
+public class ConnectionPoolConfig {
+
+    private static final String PROPERTY_PREFIX = "todos.pool.";
+
+    private int minIdle = 1;
+    private int maxSize = 4;
+    private long borrowTimeoutMillis = 5_000;
+    private long idleTimeoutMillis = 60_000;
+    private long evictionIntervalMillis = 30_000;
+    private boolean validateOnBorrow = true;
+    private int validationTimeoutSeconds = 1;
+    private int statementCacheSize = 64;
+
+    /**
+     * Creates a configuration with default values.
+     */
+    public ConnectionPoolConfig() {
+    }
+
+    /**
+     * Creates a configuration from the {@code todos.pool.*} system properties,
+     * falling back to the defaults for anything that is not set.
+     *
+     * @return the pool configuration
+     */
+    public static ConnectionPoolConfig fromSystemProperties() {
+        ConnectionPoolConfig config = new ConnectionPoolConfig();
+        config.setMinIdle(Integer.getInteger(PROPERTY_PREFIX + "minIdle", config.getMinIdle()));
+        config.setMaxSize(Integer.getInteger(PROPERTY_PREFIX + "maxSize", config.getMaxSize()));
+        config.setBorrowTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "borrowTimeoutMillis", config.getBorrowTimeoutMillis()));
+        config.setIdleTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "idleTimeoutMillis", config.getIdleTimeoutMillis()));
+        config.setEvictionIntervalMillis(Long.getLong(PROPERTY_PREFIX + "evictionIntervalMillis", config.getEvictionIntervalMillis()));
+        config.setStatementCacheSize(Integer.getInteger(PROPERTY_PREFIX + "statementCacheSize", config.getStatementCacheSize()));
+        String validate = System.getProperty(PROPERTY_PREFIX + "validateOnBorrow");
+        if (validate != null) {
+            config.setValidateOnBorrow(Boolean.parseBoolean(validate));
+        }
+        return config;
+    }
+
+    /**
+     * Validates the configuration values.
+     *
+     * @throws IllegalStateException if the configuration is inconsistent
+     */
+    public void validate() {
+        if (maxSize < 1) {
+            throw new IllegalStateException("Pool max size must be at least 1");
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalStateException("Pool min idle must be between 0 and max size");
+        }
+        if (borrowTimeoutMillis < 0) {
+            throw new IllegalStateException("Pool borrow timeout cannot be negative");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalStateException("Statement cache size cannot be negative");
+        }
+    }
+
+    //GET;SET;
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getEvictionIntervalMillis() {
+        return evictionIntervalMillis;
+    }
+
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    public void setValidateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * Gets the per-connection prepared statement cache size; 0 disables caching.
+     *
+     * @return the statement cache size
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPoolConfig{minIdle=%d, maxSize=%d, borrowTimeout=%dms, idleTimeout=%dms, statementCacheSize=%d}",
+                minIdle, maxSize, borrowTimeoutMillis, idleTimeoutMillis, statementCacheSize);
+    }
+}
@@ -1,13 +1,21 @@
 package org.lucian.todos.database;
 
-import java.security.NoSuchAlgorithmException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.metrics.MetricsRegistry;
+import org.lucian.todos.metrics.Timer;
+import org.lucian.todos.security.PasswordEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,21 +24,47 @@ public class DatabaseManager {
 
     private static final String DEFAULT_DATABASE_URL = "jdbc:sqlite:todos.db";
     private static final String TEST_DATABASE_URL = "jdbc:sqlite::memory:";
+    private static final AtomicInteger MEMORY_DATABASE_COUNTER = new AtomicInteger();
+    /** {@code PRAGMA user_version} of a database whose dates are stored as ISO-8601 text, see {@link SqlDates}. */
+    private static final int ISO_DATES_VERSION = 1;
 
     private final String databaseUrl;
+    private final PragmaProfile pragmaProfile;
+    private final ConnectionPool connectionPool;
+    /** Times {@link #getConnection()}, or null when metrics are disabled. */
+    private final Timer connectionTimer;
+    /**
+     * Transaction the current thread is running in, if any. Shared by all managers so
+     * {@link #afterCommit(Runnable)} can be reached without one; a thread runs at most
+     * one transaction at a time.
+     */
+    private static final ThreadLocal<Transaction> CURRENT_TRANSACTION = new ThreadLocal<>();
     private static DatabaseManager instance;
 
     /**
      * Private constructor for singleton pattern.
      *
      * @param databaseUrl the database URL to connect to
+     * @param poolConfig the connection pool configuration
+     * @param pragmaProfile the PRAGMA settings applied to every connection
      */
-    private DatabaseManager(String databaseUrl) {
+    private DatabaseManager(String databaseUrl, ConnectionPoolConfig poolConfig, PragmaProfile pragmaProfile) {
         this.databaseUrl = databaseUrl;
+        this.pragmaProfile = pragmaProfile;
+        this.connectionTimer = MetricsRegistry.isEnabled()
+                ? MetricsRegistry.getDefault().timer("DatabaseManager.getConnection") : null;
+        try {
+            this.connectionPool = new ConnectionPool(resolveConnectionUrl(databaseUrl, poolConfig), poolConfig,
+                    this::configureConnection);
+        } catch (SQLException e) {
+            logger.error("Failed to create connection pool in constructor", e);
+            throw new RuntimeException("Database initialization failed", e);
+        }
         try {
             initializeDatabase();
         } catch (DatabaseException e) {
             logger.error("Failed to initialize database in constructor", e);
+            connectionPool.shutdown();
             throw new RuntimeException("Database initialization failed", e);
         }
     }
@@ -42,7 +76,8 @@ public class DatabaseManager {
      */
     public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
-            instance = new DatabaseManager(DEFAULT_DATABASE_URL);
+            instance = new DatabaseManager(DEFAULT_DATABASE_URL, ConnectionPoolConfig.fromSystemProperties(),
+                    PragmaProfile.fromSystemProperties());
         }
         return instance;
     }
@@ -52,26 +87,272 @@ public class DatabaseManager {
      * @return the test database manager instance
      */
     public static synchronized DatabaseManager getTestInstance() {
-        return new DatabaseManager(TEST_DATABASE_URL);
+        return new DatabaseManager(TEST_DATABASE_URL, ConnectionPoolConfig.fromSystemProperties(),
+                PragmaProfile.fromSystemProperties());
+    }
+
+    /**
+     * Creates a database manager for an arbitrary SQLite URL with its own connection pool.
+     * The caller is responsible for calling {@link #shutdown()} when done.
+     *
+     * @param databaseUrl the database URL to connect to
+     * @param poolConfig the connection pool configuration
+     * @return a new database manager
+     */
+    public static DatabaseManager create(String databaseUrl, ConnectionPoolConfig poolConfig) {
+        return new DatabaseManager(databaseUrl, poolConfig, PragmaProfile.fromSystemProperties());
+    }
+
+    /**
+     * Creates a database manager for an arbitrary SQLite URL with an explicit PRAGMA profile.
+     * The caller is responsible for calling {@link #shutdown()} when done.
+     *
+     * @param databaseUrl the database URL to connect to
+     * @param poolConfig the connection pool configuration
+     * @param pragmaProfile the PRAGMA settings applied to every connection
+     * @return a new database manager
+     */
+    public static DatabaseManager create(String databaseUrl, ConnectionPoolConfig poolConfig,
+                                         PragmaProfile pragmaProfile) {
+        return new DatabaseManager(databaseUrl, poolConfig, pragmaProfile);
     }
 
     /**
-     * Gets a database connection.
+     * Resolves the URL used for physical connections. A plain {@code :memory:} database
+     * is private to a single connection, so it is mapped to a uniquely named shared-cache
+     * in-memory database that every pooled connection can see. At least one idle
+     * connection is kept open so the in-memory data survives idle eviction.
+     *
+     * @param databaseUrl the configured database URL
+     * @param poolConfig the pool configuration, adjusted for in-memory databases
+     * @return the URL to open physical connections with
+     */
+    private static String resolveConnectionUrl(String databaseUrl, ConnectionPoolConfig poolConfig) {
+        if (!databaseUrl.endsWith(":memory:")) {
+            return databaseUrl;
+        }
+        poolConfig.setMinIdle(Math.max(1, poolConfig.getMinIdle()));
+        return "jdbc:sqlite:file:todos-memdb-" + MEMORY_DATABASE_COUNTER.incrementAndGet()
+                + "?mode=memory&cache=shared";
+    }
+
+    /**
+     * Gets a pooled database connection.
+     * Closing the returned connection hands it back to the pool. Inside
+     * {@link #inTransaction(TransactionWork)} this is the transaction's connection.
      *
      * @return a database connection
      * @throws DatabaseException if connection cannot be established
      */
     public Connection getConnection() throws DatabaseException {
+        Transaction transaction = CURRENT_TRANSACTION.get();
+        if (transaction != null && transaction.manager == this) {
+            return joinTransaction(transaction.connection);
+        }
+        long start = connectionTimer != null ? System.nanoTime() : 0;
+        boolean failed = true;
         try {
-            Connection connection = DriverManager.getConnection(databaseUrl);
-            connection.setAutoCommit(true);
+            Connection connection = connectionPool.borrow();
+            failed = false;
             return connection;
         } catch (SQLException e) {
             logger.error("Failed to get database connection", e);
             throw new DatabaseException("Unable to connect to database", e);
+        } finally {
+            if (connectionTimer != null) {
+                connectionTimer.record(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * Runs work in a single database transaction. Every connection the current thread
+     * gets from this manager while the work runs is the transaction's connection, so
+     * DAO calls made by the work, directly or through services, commit or roll back
+     * together. The DAOs' own commit, rollback, auto-commit and close calls are ignored
+     * on that connection, and a nested call joins the outer transaction.
+     * Actions registered with {@link #afterCommit(Runnable)} run once the commit succeeds.
+     *
+     * @param <T> the result type
+     * @param <E> the checked exception thrown by the work
+     * @param work the work to run
+     * @return the work's result
+     * @throws E if the work fails; the transaction is rolled back
+     * @throws DatabaseException if the transaction cannot be started or committed
+     * @throws IllegalStateException if the thread is in another manager's transaction
+     */
+    public <T, E extends Exception> T inTransaction(TransactionWork<T, E> work) throws E, DatabaseException {
+        Transaction outer = CURRENT_TRANSACTION.get();
+        if (outer != null) {
+            if (outer.manager != this) {
+                throw new IllegalStateException("The current thread is already in another database's transaction");
+            }
+            return work.execute();
+        }
+
+        Connection connection = getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new DatabaseException("Failed to begin transaction", e);
+        }
+
+        Transaction transaction = new Transaction(this, connection);
+        CURRENT_TRANSACTION.set(transaction);
+        T result;
+        try {
+            try {
+                result = work.execute();
+            } catch (Throwable t) {
+                rollbackQuietly(transaction);
+                throw t;
+            }
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                rollbackQuietly(transaction);
+                throw new DatabaseException("Failed to commit transaction", e);
+            }
+        } finally {
+            CURRENT_TRANSACTION.remove();
+            closeQuietly(connection);
+        }
+        runQuietly(transaction.afterCommit, "Commit action failed");
+        return result;
+    }
+
+    /**
+     * Registers an action to run once the current thread's transaction commits, for side
+     * effects that only hold if its changes are kept, such as audit records. The action is
+     * dropped if the transaction rolls back, and runs at once outside a transaction.
+     *
+     * @param action the action, run on the committing thread after the commit
+     */
+    public static void afterCommit(Runnable action) {
+        Transaction transaction = CURRENT_TRANSACTION.get();
+        if (transaction != null) {
+            transaction.afterCommit.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Registers an action to run if the current thread's transaction rolls back, to undo
+     * in-memory changes that only hold if the transaction commits, such as generated IDs
+     * assigned to model objects. Outside {@link #inTransaction(TransactionWork)} there is
+     * nothing left to roll back, so the action is dropped.
+     *
+     * @param action the action, run on the rolling-back thread after the rollback
+     */
+    public void afterRollback(Runnable action) {
+        Transaction transaction = CURRENT_TRANSACTION.get();
+        if (transaction != null && transaction.manager == this) {
+            transaction.afterRollback.add(action);
         }
     }
 
+    /**
+     * Work run by {@link #inTransaction(TransactionWork)}.
+     *
+     * @param <T> the result type
+     * @param <E> the checked exception thrown by the work
+     */
+    @FunctionalInterface
+    public interface TransactionWork<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    /**
+     * Wraps the transaction's connection so DAO code written for auto-commit connections
+     * joins the transaction instead of committing, rolling back or returning it early.
+     */
+    private static Connection joinTransaction(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close", "setAutoCommit", "commit" -> {
+                            return null;
+                        }
+                        case "rollback" -> {
+                            if (args == null) {
+                                return null;
+                            }
+                        }
+                        case "getAutoCommit" -> {
+                            return false;
+                        }
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void rollbackQuietly(Transaction transaction) {
+        try {
+            transaction.connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Failed to roll back transaction", e);
+        }
+        runQuietly(transaction.afterRollback, "Rollback action failed");
+    }
+
+    private static void runQuietly(List<Runnable> actions, String failureMessage) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.warn(failureMessage, e);
+            }
+        }
+    }
+
+    /**
+     * A transaction run by {@link #inTransaction(TransactionWork)}: its manager, its
+     * connection and the actions registered to run when it ends.
+     */
+    private static final class Transaction {
+        private final DatabaseManager manager;
+        private final Connection connection;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final List<Runnable> afterRollback = new ArrayList<>();
+
+        private Transaction(DatabaseManager manager, Connection connection) {
+            this.manager = manager;
+            this.connection = connection;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to release transaction connection", e);
+        }
+    }
+
+    /**
+     * Applies per-connection settings to a newly opened physical connection.
+     * SQLite PRAGMAs are connection scoped, so this runs for every pooled connection.
+     *
+     * @param connection the new physical connection
+     * @throws SQLException if a setting cannot be applied
+     */
+    private void configureConnection(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA foreign_keys = ON");
+        }
+        pragmaProfile.apply(connection);
+    }
+
     /**
      * Checks if the database needs migration from old schema to new schema.
      *
@@ -108,13 +389,9 @@ public class DatabaseManager {
      * @throws DatabaseException if schema creation fails
      */
     private void initializeDatabase() throws DatabaseException {
-        logger.info("Initializing database with URL: {}", databaseUrl);
+        logger.info("Initializing database with URL: {} using {}", databaseUrl, pragmaProfile);
 
-        try (Connection connection = DriverManager.getConnection(databaseUrl);
-             Statement statement = connection.createStatement()) {
-
-            // Enable foreign key constraints
-            statement.execute("PRAGMA foreign_keys = ON");
+        try (Connection connection = connectionPool.borrow()) {
 
             // Check if this is a fresh database or needs migration
             boolean needsMigration = checkIfMigrationNeeded(connection);
@@ -127,6 +404,8 @@ public class DatabaseManager {
                 createFreshSchema(connection);
             }
 
+            convertLegacyDates(connection);
+
             logger.info("Database schema initialized successfully");
 
         } catch (SQLException e) {
@@ -246,6 +525,9 @@ public class DatabaseManager {
             // Create indexes
             createIndexes(statement);
 
+            // Migrated rows bypassed the sync triggers, so always rebuild the search index
+            createSearchIndex(statement, true);
+
             logger.info("Database migration completed successfully");
         }
     }
@@ -324,11 +606,72 @@ public class DatabaseManager {
             // Create indexes
             createIndexes(statement);
 
+            // Create full-text search index
+            createSearchIndex(statement, false);
+
             // Create default admin user for fresh installations
             createDefaultAdminUser(statement);
         }
     }
 
+    /**
+     * Rewrites dates stored by earlier versions, which bound {@link java.sql.Date} parameters
+     * and so left epoch milliseconds of local midnight in the DATE columns, as ISO-8601 text.
+     * Runs once per database; {@code PRAGMA user_version} records that it is done.
+     *
+     * @param connection the database connection
+     * @throws SQLException if the conversion fails
+     */
+    private void convertLegacyDates(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+                if (resultSet.next() && resultSet.getInt(1) >= ISO_DATES_VERSION) {
+                    return;
+                }
+            }
+
+            connection.setAutoCommit(false);
+            try {
+                int converted = convertLegacyDates(connection, "todos", "due_date")
+                        + convertLegacyDates(connection, "recurring_todos", "next_due_date")
+                        + convertLegacyDates(connection, "projects", "start_date")
+                        + convertLegacyDates(connection, "projects", "end_date");
+                statement.execute("PRAGMA user_version = " + ISO_DATES_VERSION);
+                connection.commit();
+                if (converted > 0) {
+                    logger.info("Converted {} stored dates to ISO-8601 text", converted);
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private int convertLegacyDates(Connection connection, String table, String column) throws SQLException {
+        String select = "SELECT rowid, " + column + " FROM " + table
+                + " WHERE typeof(" + column + ") IN ('integer', 'real')";
+        String update = "UPDATE " + table + " SET " + column + " = ? WHERE rowid = ?";
+        int converted = 0;
+        try (PreparedStatement query = connection.prepareStatement(select);
+             PreparedStatement statement = connection.prepareStatement(update);
+             ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                LocalDate date = new java.sql.Date(resultSet.getLong(2)).toLocalDate();
+                statement.setString(1, SqlDates.toSql(date));
+                statement.setLong(2, resultSet.getLong(1));
+                statement.addBatch();
+                converted++;
+            }
+            if (converted > 0) {
+                statement.executeBatch();
+            }
+        }
+        return converted;
+    }
+
     /**
      * Creates database indexes for better performance.
      *
@@ -339,26 +682,95 @@ public class DatabaseManager {
         statement.execute("CREATE INDEX IF NOT EXISTS idx_users_username ON users(username)");
         statement.execute("CREATE INDEX IF NOT EXISTS idx_users_email ON users(email)");
         statement.execute("CREATE INDEX IF NOT EXISTS idx_users_active ON users(active)");
-        statement.execute("CREATE INDEX IF NOT EXISTS idx_projects_user_id ON projects(user_id)");
         statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_project_id ON todos(project_id)");
-        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_id ON todos(user_id)");
         statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_status ON todos(status)");
         statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_priority ON todos(priority)");
         statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_due_date ON todos(due_date)");
+        // Partial index over open todos only: overdue lookups never read finished rows.
+        // Queries must repeat the status condition verbatim for SQLite to use it; status
+        // leads so that the condition is an equality seek, which the planner prefers to idx_todos_status.
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_open_due ON todos(status, due_date) "
+                + "WHERE status IN ('TODO', 'IN_PROGRESS')");
+        // Implicitly (created_at, id): backs keyset pagination without a sort step
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_created_at ON todos(created_at)");
+
+        // Per-user listings: user_id leads so a query only touches that user's rows
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_status_due ON todos(user_id, status, due_date)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_due ON todos(user_id, due_date)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_project_created ON todos(user_id, project_id, created_at)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_priority_created ON todos(user_id, priority, created_at)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_user_created ON todos(user_id, created_at)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_projects_user_created ON projects(user_id, created_at)");
+        // Superseded by the composite indexes above
+        statement.execute("DROP INDEX IF EXISTS idx_todos_user_id");
+        statement.execute("DROP INDEX IF EXISTS idx_projects_user_id");
+    }
+
+    /**
+     * Creates the FTS5 index over todo titles and descriptions and the triggers
+     * that keep it in sync with the todos table. The index is external-content,
+     * so it stores only the tokens and reads the text back from todos.
+     *
+     * @param statement the SQL statement executor
+     * @param rebuild whether to rebuild the index from the todos table even if it already exists
+     * @throws SQLException if index creation fails
+     */
+    private void createSearchIndex(Statement statement, boolean rebuild) throws SQLException {
+        boolean exists = tableExists(statement.getConnection(), "todos_fts");
+
+        statement.execute("""
+                    CREATE VIRTUAL TABLE IF NOT EXISTS todos_fts USING fts5(
+                        title, description,
+                        content='todos', content_rowid='id',
+                        tokenize='unicode61 remove_diacritics 2'
+                    )
+                """);
+        statement.execute("""
+                    CREATE TRIGGER IF NOT EXISTS todos_fts_insert AFTER INSERT ON todos BEGIN
+                        INSERT INTO todos_fts(rowid, title, description) VALUES (new.id, new.title, new.description);
+                    END
+                """);
+        statement.execute("""
+                    CREATE TRIGGER IF NOT EXISTS todos_fts_delete AFTER DELETE ON todos BEGIN
+                        INSERT INTO todos_fts(todos_fts, rowid, title, description)
+                        VALUES ('delete', old.id, old.title, old.description);
+                    END
+                """);
+        statement.execute("""
+                    CREATE TRIGGER IF NOT EXISTS todos_fts_update AFTER UPDATE OF title, description ON todos BEGIN
+                        INSERT INTO todos_fts(todos_fts, rowid, title, description)
+                        VALUES ('delete', old.id, old.title, old.description);
+                        INSERT INTO todos_fts(rowid, title, description) VALUES (new.id, new.title, new.description);
+                    END
+                """);
+
+        if (rebuild || !exists) {
+            logger.info("Rebuilding full-text search index");
+            statement.execute("INSERT INTO todos_fts(todos_fts) VALUES ('rebuild')");
+        }
     }
 
     /**
      * Creates a default admin user for fresh database installations.
      * This ensures there's always an admin user available for initial setup.
+     * When the admin already exists, nothing is hashed or written.
      *
      * @param statement the SQL statement executor
      * @throws SQLException if user creation fails
      */
     private void createDefaultAdminUser(Statement statement) throws SQLException {
+        // Runs on every startup; only pay for hashing the password when the admin is missing
+        try (ResultSet existing = statement.executeQuery(
+                "SELECT 1 FROM users WHERE id = 1 OR username = 'admin' LIMIT 1")) {
+            if (existing.next()) {
+                logger.debug("Default admin user already exists");
+                return;
+            }
+        }
+
         logger.info("Creating default admin user for fresh installation...");
 
-        // Generate password hash using the same logic as AuthenticationService
-        String adminPasswordHash = generateAdminPasswordHash("admin");
+        String adminPasswordHash = PasswordEncoder.getDefault().getHasher().hash("admin");
 
         statement.execute(String.format("""
                     INSERT OR IGNORE INTO users (id, username, email, password_hash, first_name, last_name, active)
@@ -369,28 +781,6 @@ public class DatabaseManager {
         logger.warn("SECURITY WARNING: Please change the default admin password immediately after first login!");
     }
 
-    /**
-     * Generates a password hash for the admin user using SHA-256 + salt, base64-encoded.
-     * This duplicates AuthenticationService.hashPassword logic for DB bootstrapping.
-     */
-    private String generateAdminPasswordHash(String password) {
-        try {
-            java.security.SecureRandom random = new java.security.SecureRandom();
-            byte[] salt = new byte[32];
-            random.nextBytes(salt);
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes());
-            byte[] saltAndHash = new byte[salt.length + hashedPassword.length];
-            System.arraycopy(salt, 0, saltAndHash, 0, salt.length);
-            System.arraycopy(hashedPassword, 0, saltAndHash, salt.length, hashedPassword.length);
-            return java.util.Base64.getEncoder().encodeToString(saltAndHash);
-        } catch (NoSuchAlgorithmException e) {
-            logger.error("Failed to generate admin password hash", e);
-            throw new RuntimeException("Failed to generate admin password hash", e);
-        }
-    }
-
     /**
      * Checks if a table exists in the database.
      *
@@ -415,7 +805,25 @@ public class DatabaseManager {
      */
     public void shutdown() {
         logger.info("Shutting down database manager");
-        // SQLite doesn't require explicit shutdown
+        connectionPool.shutdown();
+    }
+
+    /**
+     * Gets the PRAGMA profile applied to every connection.
+     *
+     * @return the PRAGMA profile
+     */
+    public PragmaProfile getPragmaProfile() {
+        return pragmaProfile;
+    }
+
+    /**
+     * Gets a snapshot of the connection pool metrics.
+     *
+     * @return the pool statistics
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return connectionPool.getStats();
     }
 
     /**
@@ -0,0 +1,201 @@
+package org.lucian.todos.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Set of SQLite PRAGMA settings applied to every pooled connection.
+ * Comes with the named presets "durable", "balanced" and "bulk-load";
+ * the preset is selected with {@code -Dtodos.db.profile=<name>} and single
+ * settings can be overridden with {@code -Dtodos.db.pragma.<setting>=<value>}.
+ */
+public class PragmaProfile {
+
+    private static final String PROFILE_PROPERTY = "todos.db.profile";
+    private static final String PRAGMA_PROPERTY_PREFIX = "todos.db.pragma.";
+
+    private String name;
+    private String journalMode;
+    private String synchronous;
+    private int cacheSize;
+    private long mmapSize;
+    private String tempStore;
+    private int busyTimeoutMillis;
+
+    /**
+     * Creates a profile with explicit settings.
+     *
+     * @param name the profile name
+     * @param journalMode the journal mode (e.g. WAL, DELETE)
+     * @param synchronous the synchronous level (OFF, NORMAL, FULL, EXTRA)
+     * @param cacheSize the page cache size; negative values are in KiB
+     * @param mmapSize the maximum memory-mapped I/O size in bytes
+     * @param tempStore where temporary tables live (DEFAULT, FILE, MEMORY)
+     * @param busyTimeoutMillis how long to wait on a locked database
+     */
+    public PragmaProfile(String name, String journalMode, String synchronous, int cacheSize,
+                         long mmapSize, String tempStore, int busyTimeoutMillis) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    /**
+     * Full fsync on every commit. Safest against power loss.
+     *
+     * @return the durable profile
+     */
+    public static PragmaProfile durable() {
+        return new PragmaProfile("durable", "WAL", "FULL", -2_000, 0, "DEFAULT", 5_000);
+    }
+
+    /**
+     * WAL with NORMAL sync: commits survive application crashes, and only the
+     * last transactions may be lost on power failure. Default profile.
+     *
+     * @return the balanced profile
+     */
+    public static PragmaProfile balanced() {
+        return new PragmaProfile("balanced", "WAL", "NORMAL", -16_000, 268_435_456L, "MEMORY", 5_000);
+    }
+
+    /**
+     * No fsync and large caches, for imports that can be re-run from the source data.
+     *
+     * @return the bulk-load profile
+     */
+    public static PragmaProfile bulkLoad() {
+        return new PragmaProfile("bulk-load", "WAL", "OFF", -64_000, 1_073_741_824L, "MEMORY", 10_000);
+    }
+
+    /**
+     * Looks up a preset by name.
+     *
+     * @param name the preset name (durable, balanced, bulk-load)
+     * @return the matching profile
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static PragmaProfile forName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return balanced();
+        }
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "durable" -> durable();
+            case "balanced" -> balanced();
+            case "bulk-load", "bulk_load", "bulkload" -> bulkLoad();
+            default -> throw new IllegalArgumentException("Unknown database profile: " + name);
+        };
+    }
+
+    /**
+     * Builds the profile selected through system properties, applying any
+     * per-setting overrides on top of the preset.
+     *
+     * @return the configured profile
+     */
+    public static PragmaProfile fromSystemProperties() {
+        PragmaProfile profile = forName(System.getProperty(PROFILE_PROPERTY));
+        profile.setJournalMode(System.getProperty(PRAGMA_PROPERTY_PREFIX + "journal_mode", profile.getJournalMode()));
+        profile.setSynchronous(System.getProperty(PRAGMA_PROPERTY_PREFIX + "synchronous", profile.getSynchronous()));
+        profile.setCacheSize(Integer.getInteger(PRAGMA_PROPERTY_PREFIX + "cache_size", profile.getCacheSize()));
+        profile.setMmapSize(Long.getLong(PRAGMA_PROPERTY_PREFIX + "mmap_size", profile.getMmapSize()));
+        profile.setTempStore(System.getProperty(PRAGMA_PROPERTY_PREFIX + "temp_store", profile.getTempStore()));
+        profile.setBusyTimeoutMillis(Integer.getInteger(PRAGMA_PROPERTY_PREFIX + "busy_timeout", profile.getBusyTimeoutMillis()));
+        return profile;
+    }
+
+    /**
+     * Applies this profile to a connection.
+     * busy_timeout goes first so the journal mode switch can wait on other connections.
+     *
+     * @param connection the connection to configure
+     * @throws SQLException if a PRAGMA cannot be applied
+     */
+    public void apply(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            statement.execute("PRAGMA journal_mode = " + keyword(journalMode));
+            statement.execute("PRAGMA synchronous = " + keyword(synchronous));
+            statement.execute("PRAGMA cache_size = " + cacheSize);
+            statement.execute("PRAGMA mmap_size = " + mmapSize);
+            statement.execute("PRAGMA temp_store = " + keyword(tempStore));
+        }
+    }
+
+    /**
+     * Guards against injecting arbitrary SQL through PRAGMA keyword values.
+     */
+    private static String keyword(String value) {
+        if (value == null || !value.matches("[A-Za-z]+")) {
+            throw new IllegalArgumentException("Invalid PRAGMA value: " + value);
+        }
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    //GET;SET;
+    public String getName() {
+        return name;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public void setJournalMode(String journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public void setSynchronous(String synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void setMmapSize(long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public void setTempStore(String tempStore) {
+        this.tempStore = tempStore;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    public void setBusyTimeoutMillis(int busyTimeoutMillis) {
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "PragmaProfile{name=%s, journal_mode=%s, synchronous=%s, cache_size=%d, mmap_size=%d, temp_store=%s, busy_timeout=%d}",
+            name, journalMode, synchronous, cacheSize, mmapSize, tempStore, busyTimeoutMillis
+        );
+    }
+}
@@ -0,0 +1,90 @@
+package org.lucian.todos.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads and writes DATE columns as ISO-8601 text ({@code yyyy-MM-dd}).
+ * The text sorts in date order and does not depend on the JVM time zone, so
+ * range conditions such as {@code due_date BETWEEN ? AND ?} compare correctly
+ * and can use the date indexes. Always bind dates through this class: a
+ * {@link java.sql.Date} parameter is stored by the driver as epoch milliseconds,
+ * which never compares equal to the stored text.
+ */
+public final class SqlDates {
+
+    private SqlDates() {
+    }
+
+    /**
+     * Encodes a date for a query parameter.
+     *
+     * @param date the date, may be null
+     * @return the stored form of the date, or null
+     */
+    public static String toSql(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+
+    /**
+     * Decodes a stored date.
+     *
+     * @param value the stored form, may be null
+     * @return the date, or null
+     * @throws SQLException if the value is not a stored date
+     */
+    public static LocalDate fromSql(String value) throws SQLException {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new SQLException("Invalid stored date: " + value, e);
+        }
+    }
+
+    /**
+     * Binds a date parameter.
+     *
+     * @param statement the statement
+     * @param index the 1-based parameter index
+     * @param date the date, may be null
+     * @throws SQLException if the parameter cannot be set
+     */
+    public static void setDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            statement.setString(index, toSql(date));
+        } else {
+            statement.setNull(index, Types.VARCHAR);
+        }
+    }
+
+    /**
+     * Reads a date column.
+     *
+     * @param resultSet the result set, positioned on a row
+     * @param column the 1-based column index
+     * @return the date, or null
+     * @throws SQLException if the column cannot be read
+     */
+    public static LocalDate getDate(ResultSet resultSet, int column) throws SQLException {
+        return fromSql(resultSet.getString(column));
+    }
+
+    /**
+     * Reads a date column by label.
+     *
+     * @param resultSet the result set, positioned on a row
+     * @param column the column label
+     * @return the date, or null
+     * @throws SQLException if the column cannot be read
+     */
+    public static LocalDate getDate(ResultSet resultSet, String column) throws SQLException {
+        return fromSql(resultSet.getString(column));
+    }
+}
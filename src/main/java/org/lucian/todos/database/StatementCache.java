@@ -0,0 +1,181 @@
+package org.lucian.todos.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LRU cache of prepared statements for a single physical connection, keyed by SQL text.
+ * A physical connection is only ever used by one borrower at a time, so the cache
+ * itself is not synchronized. Counters are shared across the whole pool.
+ */
+class StatementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private final Connection connection;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * Creates a statement cache for a physical connection.
+     *
+     * @param connection the physical connection statements are prepared on
+     * @param maxSize the maximum number of cached statements
+     * @param hits shared hit counter
+     * @param misses shared miss counter
+     * @param evictions shared eviction counter
+     */
+    StatementCache(Connection connection, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing it on a miss.
+     * If the cached statement is still in use (nested use of the same SQL on one
+     * connection), an uncached statement is prepared instead.
+     *
+     * @param sql the SQL text
+     * @return a prepared statement whose {@code close()} returns it to the cache
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (cached != null) {
+            // Same SQL already checked out on this connection; hand out a private copy
+            return statement;
+        }
+
+        CachedStatement entry = new CachedStatement(statement);
+        entry.inUse = true;
+        statements.put(sql, entry);
+        evictOverflow();
+        return entry.proxy;
+    }
+
+    /**
+     * Closes every cached statement. Called when the physical connection is closed.
+     */
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+    }
+
+    /**
+     * Gets the number of statements currently cached.
+     *
+     * @return the cache size
+     */
+    int size() {
+        return statements.size();
+    }
+
+    private void evictOverflow() {
+        if (statements.size() <= maxSize) {
+            return;
+        }
+        List<CachedStatement> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, CachedStatement>> iterator = statements.entrySet().iterator();
+        while (iterator.hasNext() && statements.size() > maxSize) {
+            CachedStatement candidate = iterator.next().getValue();
+            if (!candidate.inUse) {
+                iterator.remove();
+                evicted.add(candidate);
+            }
+        }
+        for (CachedStatement cached : evicted) {
+            evictions.incrementAndGet();
+            closeQuietly(cached.statement);
+        }
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cached statement: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cache entry holding the physical statement and the proxy handed to callers.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (inUse) {
+                        inUse = false;
+                        statement.clearParameters();
+                        statement.clearBatch();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return !inUse || statement.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    if (!inUse) {
+                        throw new SQLException("Statement has already been closed");
+                    }
+                }
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
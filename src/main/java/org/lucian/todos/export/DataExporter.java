@@ -0,0 +1,265 @@
+package org.lucian.todos.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.export.ExportColumn.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports todos, projects and users as NDJSON or CSV, optionally gzip-compressed.
+ * <p>
+ * Rows are copied field by field from a forward-only result set into a buffered writer,
+ * so memory use does not grow with the number of rows and no model objects are created.
+ * Rows are written in ID order. Password hashes are never exported.
+ */
+public class DataExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExporter.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static final List<ExportColumn> TODO_COLUMNS = List.of(
+            new ExportColumn("id", "t.id", Type.INTEGER),
+            new ExportColumn("title", "t.title", Type.TEXT),
+            new ExportColumn("description", "t.description", Type.TEXT),
+            new ExportColumn("dueDate", "t.due_date", Type.DATE),
+            new ExportColumn("priority", "t.priority", Type.TEXT),
+            new ExportColumn("status", "t.status", Type.TEXT),
+            new ExportColumn("projectId", "t.project_id", Type.INTEGER),
+            new ExportColumn("userId", "t.user_id", Type.INTEGER),
+            new ExportColumn("createdAt", "t.created_at", Type.TIMESTAMP),
+            new ExportColumn("updatedAt", "t.updated_at", Type.TIMESTAMP),
+            new ExportColumn("recurringIntervalDays", "rt.recurring_interval_days", Type.INTEGER),
+            new ExportColumn("maxOccurrences", "rt.max_occurrences", Type.INTEGER),
+            new ExportColumn("currentOccurrence", "rt.current_occurrence", Type.INTEGER),
+            new ExportColumn("nextDueDate", "rt.next_due_date", Type.DATE));
+
+    static final List<ExportColumn> PROJECT_COLUMNS = List.of(
+            new ExportColumn("id", "p.id", Type.INTEGER),
+            new ExportColumn("name", "p.name", Type.TEXT),
+            new ExportColumn("description", "p.description", Type.TEXT),
+            new ExportColumn("startDate", "p.start_date", Type.DATE),
+            new ExportColumn("endDate", "p.end_date", Type.DATE),
+            new ExportColumn("userId", "p.user_id", Type.INTEGER),
+            new ExportColumn("createdAt", "p.created_at", Type.TIMESTAMP),
+            new ExportColumn("updatedAt", "p.updated_at", Type.TIMESTAMP));
+
+    static final List<ExportColumn> USER_COLUMNS = List.of(
+            new ExportColumn("id", "u.id", Type.INTEGER),
+            new ExportColumn("username", "u.username", Type.TEXT),
+            new ExportColumn("email", "u.email", Type.TEXT),
+            new ExportColumn("firstName", "u.first_name", Type.TEXT),
+            new ExportColumn("lastName", "u.last_name", Type.TEXT),
+            new ExportColumn("active", "u.active", Type.BOOLEAN),
+            new ExportColumn("createdAt", "u.created_at", Type.TIMESTAMP),
+            new ExportColumn("updatedAt", "u.updated_at", Type.TIMESTAMP),
+            new ExportColumn("lastLoginAt", "u.last_login_at", Type.TIMESTAMP));
+
+    private final DatabaseManager databaseManager;
+
+    public DataExporter(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Exports the todos matching a filter to a stream. The stream is flushed but not closed.
+     *
+     * @param filter which todos to export
+     * @param format the output format
+     * @param out the destination
+     * @param gzip whether to gzip-compress the output
+     * @return the number of todos exported
+     * @throws DatabaseException if reading fails
+     * @throws IOException if writing fails
+     */
+    public long exportTodos(TodoExportFilter filter, ExportFormat format, OutputStream out, boolean gzip)
+            throws DatabaseException, IOException {
+        String sql = select(TODO_COLUMNS) + """
+            FROM todos t
+            LEFT JOIN recurring_todos rt ON t.id = rt.todo_id
+            """ + filter.whereClause() + "ORDER BY t.id";
+        return export("todos (" + filter + ")", sql, filter.whereParameters(), TODO_COLUMNS, format, out, gzip);
+    }
+
+    /**
+     * Exports the todos matching a filter to a file. The file is only replaced once the export is complete.
+     *
+     * @param filter which todos to export
+     * @param format the output format
+     * @param file the destination file, gzip-compressed if its name ends in {@code .gz}
+     * @return the number of todos exported
+     * @throws DatabaseException if reading fails
+     * @throws IOException if writing fails
+     */
+    public long exportTodos(TodoExportFilter filter, ExportFormat format, Path file)
+            throws DatabaseException, IOException {
+        return exportToFile(file, (out, gzip) -> exportTodos(filter, format, out, gzip));
+    }
+
+    /**
+     * Exports projects to a stream. The stream is flushed but not closed.
+     *
+     * @param userId the owning user's ID, or null to export every user's projects
+     * @param format the output format
+     * @param out the destination
+     * @param gzip whether to gzip-compress the output
+     * @return the number of projects exported
+     * @throws DatabaseException if reading fails
+     * @throws IOException if writing fails
+     */
+    public long exportProjects(Long userId, ExportFormat format, OutputStream out, boolean gzip)
+            throws DatabaseException, IOException {
+        String sql = select(PROJECT_COLUMNS) + "FROM projects p\n"
+                + (userId != null ? "WHERE p.user_id = ?\n" : "") + "ORDER BY p.id";
+        List<Object> parameters = userId != null ? List.of(userId) : List.of();
+        String what = userId != null ? "projects (user=" + userId + ")" : "projects (all)";
+        return export(what, sql, parameters, PROJECT_COLUMNS, format, out, gzip);
+    }
+
+    /**
+     * Exports projects to a file. The file is only replaced once the export is complete.
+     *
+     * @param userId the owning user's ID, or null to export every user's projects
+     * @param format the output format
+     * @param file the destination file, gzip-compressed if its name ends in {@code .gz}
+     * @return the number of projects exported
+     * @throws DatabaseException if reading fails
+     * @throws IOException if writing fails
+     */
+    public long exportProjects(Long userId, ExportFormat format, Path file) throws DatabaseException, IOException {
+        return exportToFile(file, (out, gzip) -> exportProjects(userId, format, out, gzip));
+    }
+
+    /**
+     * Exports all user accounts, without their password hashes, to a stream.
+     * The stream is flushed but not closed.
+     *
+     * @param format the output format
+     * @param out the destination
+     * @param gzip whether to gzip-compress the output
+     * @return the number of users exported
+     * @throws DatabaseException if reading fails
+     * @throws IOException if writing fails
+     */
+    public long exportUsers(ExportFormat format, OutputStream out, boolean gzip) throws DatabaseException, IOException {
+        String sql = select(USER_COLUMNS) + "FROM users u\nORDER BY u.id";
+        return export("users", sql, List.of(), USER_COLUMNS, format, out, gzip);
+    }
+
+    /**
+     * Exports all user accounts to a file. The file is only replaced once the export is complete.
+     *
+     * @param format the output format
+     * @param file the destination file, gzip-compressed if its name ends in {@code .gz}
+     * @return the number of users exported
+     * @throws DatabaseException if reading fails
+     * @throws IOException if writing fails
+     */
+    public long exportUsers(ExportFormat format, Path file) throws DatabaseException, IOException {
+        return exportToFile(file, (out, gzip) -> exportUsers(format, out, gzip));
+    }
+
+    /** An export writing to a stream. */
+    @FunctionalInterface
+    private interface FileExport {
+        long writeTo(OutputStream out, boolean gzip) throws DatabaseException, IOException;
+    }
+
+    /**
+     * Writes an export to a temporary file next to the destination and moves it into place
+     * once complete, so a failed or interrupted export never leaves a truncated file behind.
+     */
+    private static long exportToFile(Path file, FileExport export) throws DatabaseException, IOException {
+        Path target = file.toAbsolutePath();
+        boolean gzip = target.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        try {
+            long rows;
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                rows = export.writeTo(out, gzip);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return rows;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private long export(String what, String sql, List<Object> parameters, List<ExportColumn> columns,
+            ExportFormat format, OutputStream out, boolean gzip) throws DatabaseException, IOException {
+        logger.debug("Exporting {} as {}", what, format);
+        long start = System.nanoTime();
+        long rows = 0;
+
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        // Flushed and finished, never closed: the caller owns the stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+
+            RecordWriter records = RecordWriter.create(format, writer, columns);
+            records.begin();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columnCount = columns.size();
+                while (resultSet.next()) {
+                    records.beginRecord();
+                    for (int i = 0; i < columnCount; i++) {
+                        columns.get(i).copy(resultSet, i + 1, records);
+                    }
+                    records.endRecord();
+                    rows++;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to export {}", what, e);
+            throw new DatabaseException("Failed to export " + what, e);
+        } finally {
+            writer.flush();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            out.flush();
+        }
+
+        logger.info("Exported {} {} as {} in {} ms", rows, what, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private static String select(List<ExportColumn> columns) {
+        return columns.stream()
+                .map(ExportColumn::expression)
+                .collect(Collectors.joining(", ", "SELECT ", "\n"));
+    }
+}
@@ -0,0 +1,57 @@
+package org.lucian.todos.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import org.lucian.todos.database.SqlDates;
+
+/**
+ * One exported column: its output name, the SQL expression selecting it and how its
+ * value is read. Values are copied from the result set straight into the record writer.
+ */
+record ExportColumn(String name, String expression, Type type) {
+
+    enum Type {
+        INTEGER, TEXT, BOOLEAN, DATE, TIMESTAMP
+    }
+
+    /**
+     * Copies this column's value of the current row to the writer.
+     *
+     * @param resultSet the result set positioned on a row
+     * @param index the column index in the result set
+     * @param writer the record writer
+     */
+    void copy(ResultSet resultSet, int index, RecordWriter writer) throws SQLException, IOException {
+        switch (type) {
+            case INTEGER -> {
+                long value = resultSet.getLong(index);
+                if (resultSet.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeNumber(value);
+                }
+            }
+            case BOOLEAN -> {
+                boolean value = resultSet.getBoolean(index);
+                if (resultSet.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeBoolean(value);
+                }
+            }
+            case DATE -> {
+                LocalDate value = SqlDates.getDate(resultSet, index);
+                writer.writeText(value != null ? value.toString() : null);
+            }
+            case TIMESTAMP -> {
+                Timestamp value = resultSet.getTimestamp(index);
+                writer.writeText(value != null ? value.toLocalDateTime().toString() : null);
+            }
+            case TEXT -> writer.writeText(resultSet.getString(index));
+        }
+    }
+}
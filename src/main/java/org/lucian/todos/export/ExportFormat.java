@@ -0,0 +1,47 @@
+package org.lucian.todos.export;
+
+import java.util.Locale;
+
+/**
+ * File formats written by the {@link DataExporter} and read by the
+ * {@link org.lucian.todos.importer.TodoImporter}.
+ */
+public enum ExportFormat {
+    /** Newline-delimited JSON: one compact object per row. */
+    NDJSON("ndjson"),
+    /** RFC 4180 comma-separated values with a header row. */
+    CSV("csv");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Gets the usual file extension for this format, without the dot.
+     *
+     * @return the file extension
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Looks up a format by name, ignoring case.
+     *
+     * @param name the format name, {@code ndjson} or {@code csv}
+     * @return the format
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static ExportFormat fromName(String name) {
+        if (name != null) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equals(name.trim().toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name + " (expected ndjson or csv)");
+    }
+}
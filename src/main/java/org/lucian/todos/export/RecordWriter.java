@@ -0,0 +1,188 @@
+package org.lucian.todos.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.lucian.todos.util.JsonWriter;
+
+/**
+ * Writes exported rows one field at a time, so no row is ever held as an object.
+ * Fields are written in column order between {@link #beginRecord()} and {@link #endRecord()}.
+ */
+abstract class RecordWriter {
+
+    protected final Writer out;
+    protected final List<ExportColumn> columns;
+
+    protected RecordWriter(Writer out, List<ExportColumn> columns) {
+        this.out = out;
+        this.columns = columns;
+    }
+
+    static RecordWriter create(ExportFormat format, Writer out, List<ExportColumn> columns) {
+        return switch (format) {
+            case NDJSON -> new NdjsonRecordWriter(out, columns);
+            case CSV -> new CsvRecordWriter(out, columns);
+        };
+    }
+
+    /** Writes anything that precedes the first record. */
+    abstract void begin() throws IOException;
+
+    abstract void beginRecord() throws IOException;
+
+    abstract void writeNull() throws IOException;
+
+    abstract void writeNumber(long value) throws IOException;
+
+    abstract void writeBoolean(boolean value) throws IOException;
+
+    /** Writes a text value, or null. */
+    abstract void writeText(String value) throws IOException;
+
+    abstract void endRecord() throws IOException;
+
+    /**
+     * One JSON object per line, with the column names as member names.
+     */
+    static final class NdjsonRecordWriter extends RecordWriter {
+
+        private final JsonWriter json;
+        private int column;
+
+        NdjsonRecordWriter(Writer out, List<ExportColumn> columns) {
+            super(out, columns);
+            this.json = new JsonWriter(out);
+        }
+
+        @Override
+        void begin() {
+            // NDJSON has no header
+        }
+
+        @Override
+        void beginRecord() throws IOException {
+            json.beginObject();
+            column = 0;
+        }
+
+        private JsonWriter next() throws IOException {
+            return json.name(columns.get(column++).name());
+        }
+
+        @Override
+        void writeNull() throws IOException {
+            next().value((String) null);
+        }
+
+        @Override
+        void writeNumber(long value) throws IOException {
+            next().value(value);
+        }
+
+        @Override
+        void writeBoolean(boolean value) throws IOException {
+            next().value(value);
+        }
+
+        @Override
+        void writeText(String value) throws IOException {
+            next().value(value);
+        }
+
+        @Override
+        void endRecord() throws IOException {
+            json.endObject();
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Comma-separated values with a header row. Null is written as an empty field and
+     * fields containing separators, quotes or line breaks are quoted.
+     */
+    static final class CsvRecordWriter extends RecordWriter {
+
+        private boolean firstField;
+
+        CsvRecordWriter(Writer out, List<ExportColumn> columns) {
+            super(out, columns);
+        }
+
+        @Override
+        void begin() throws IOException {
+            beginRecord();
+            for (ExportColumn column : columns) {
+                writeText(column.name());
+            }
+            endRecord();
+        }
+
+        @Override
+        void beginRecord() {
+            firstField = true;
+        }
+
+        private void separate() throws IOException {
+            if (firstField) {
+                firstField = false;
+            } else {
+                out.write(',');
+            }
+        }
+
+        @Override
+        void writeNull() throws IOException {
+            separate();
+        }
+
+        @Override
+        void writeNumber(long value) throws IOException {
+            separate();
+            out.write(Long.toString(value));
+        }
+
+        @Override
+        void writeBoolean(boolean value) throws IOException {
+            separate();
+            out.write(value ? "true" : "false");
+        }
+
+        @Override
+        void writeText(String value) throws IOException {
+            separate();
+            if (value == null) {
+                return;
+            }
+            if (needsQuotes(value)) {
+                out.write('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == '"') {
+                        out.write('"');
+                    }
+                    out.write(c);
+                }
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void endRecord() throws IOException {
+            out.write("\r\n");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.lucian.todos.export;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.lucian.todos.database.SqlDates;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.TodoStatus;
+
+/**
+ * Selects the todos to export. Each filter matches the rows of the {@link org.lucian.todos.dao.TodoDAO}
+ * finder of the same name; {@link #forUser(Long)} narrows any of them to one user's todos
+ * like the {@code ...ForUser} finders.
+ */
+public final class TodoExportFilter {
+
+    private final String condition;
+    private final List<Object> parameters;
+    private final Long userId;
+    private final String description;
+
+    private TodoExportFilter(String condition, List<Object> parameters, Long userId, String description) {
+        this.condition = condition;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.userId = userId;
+        this.description = description;
+    }
+
+    private static TodoExportFilter of(String condition, String description, Object... parameters) {
+        return new TodoExportFilter(condition, List.of(parameters), null, description);
+    }
+
+    /** Matches {@code findAll()}. */
+    public static TodoExportFilter all() {
+        return of(null, "all");
+    }
+
+    /** Matches {@code findByStatus(status)}. */
+    public static TodoExportFilter byStatus(TodoStatus status) {
+        requireValue(status, "Status");
+        return of("t.status = ?", "status=" + status, status.name());
+    }
+
+    /** Matches {@code findByPriority(priority)}. */
+    public static TodoExportFilter byPriority(Priority priority) {
+        requireValue(priority, "Priority");
+        return of("t.priority = ?", "priority=" + priority, priority.name());
+    }
+
+    /** Matches {@code findByProjectId(projectId)}. */
+    public static TodoExportFilter byProject(Long projectId) {
+        requireValue(projectId, "Project ID");
+        return of("t.project_id = ?", "project=" + projectId, projectId);
+    }
+
+    /** Matches {@code findDueBefore(date)}: todos due on or before the date. */
+    public static TodoExportFilter dueBefore(LocalDate date) {
+        requireValue(date, "Date");
+        return of("t.due_date <= ?", "dueBefore=" + date, SqlDates.toSql(date));
+    }
+
+    /** Matches {@code findOverdue()}: open todos due before today. */
+    public static TodoExportFilter overdue() {
+        return of("t.status IN ('TODO', 'IN_PROGRESS') AND t.due_date < ?", "overdue",
+                SqlDates.toSql(LocalDate.now()));
+    }
+
+    /**
+     * Restricts this filter to one user's todos.
+     *
+     * @param userId the owning user's ID
+     * @return the restricted filter
+     */
+    public TodoExportFilter forUser(Long userId) {
+        requireValue(userId, "User ID");
+        return new TodoExportFilter(condition, new ArrayList<>(parameters), userId, description);
+    }
+
+    private static void requireValue(Object value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " cannot be null");
+        }
+    }
+
+    /**
+     * Builds the WHERE clause, or an empty string when everything matches.
+     */
+    String whereClause() {
+        if (userId == null) {
+            return condition != null ? "WHERE " + condition + "\n" : "";
+        }
+        return "WHERE t.user_id = ?" + (condition != null ? " AND " + condition : "") + "\n";
+    }
+
+    /**
+     * Gets the parameters of the WHERE clause in order.
+     */
+    List<Object> whereParameters() {
+        if (userId == null) {
+            return parameters;
+        }
+        List<Object> all = new ArrayList<>(parameters.size() + 1);
+        all.add(userId);
+        all.addAll(parameters);
+        return all;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return userId != null ? description + ", user=" + userId : description;
+    }
+}
@@ -0,0 +1,99 @@
+package org.lucian.todos.importer;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration for a {@link TodoImporter} run.
+ */
+public class ImportConfig {
+
+    private int batchSize = 2_000;
+    private int queueCapacity = 16;
+    private int chunkSize = 256;
+    private Path checkpointFile;
+    private Path quarantineFile;
+
+    /**
+     * Creates a configuration with default values, without checkpoint or quarantine file.
+     */
+    public ImportConfig() {
+    }
+
+    /**
+     * Creates a configuration that keeps its checkpoint and rejected rows next to the input
+     * file, as {@code <input>.checkpoint} and {@code <input>.rejected.ndjson}.
+     *
+     * @param input the input file
+     * @return the import configuration
+     */
+    public static ImportConfig forInput(Path input) {
+        ImportConfig config = new ImportConfig();
+        Path file = input.toAbsolutePath();
+        config.setCheckpointFile(file.resolveSibling(file.getFileName() + ".checkpoint"));
+        config.setQuarantineFile(file.resolveSibling(file.getFileName() + ".rejected.ndjson"));
+        return config;
+    }
+
+    /**
+     * Validates the configuration values.
+     *
+     * @throws IllegalStateException if the configuration is inconsistent
+     */
+    public void validate() {
+        if (batchSize < 1) {
+            throw new IllegalStateException("Import batch size must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalStateException("Import queue capacity must be at least 1");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalStateException("Import chunk size must be at least 1");
+        }
+    }
+
+    //GET;SET;
+    /** Rows inserted per transaction. */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /** Parsed chunks the reader may run ahead of the writer. */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /** Rows handed from the reader to the writer at a time. */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /** The file recording the last committed record, or null to disable resuming. */
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /** The file rejected rows are appended to, or null to only count them. */
+    public Path getQuarantineFile() {
+        return quarantineFile;
+    }
+
+    public void setQuarantineFile(Path quarantineFile) {
+        this.quarantineFile = quarantineFile;
+    }
+}
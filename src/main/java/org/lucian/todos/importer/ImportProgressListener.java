@@ -0,0 +1,16 @@
+package org.lucian.todos.importer;
+
+/**
+ * Receives progress of a {@link TodoImporter} run after every committed batch and once at the end.
+ * Called on the importing thread, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /**
+     * Called with the counters as of the last committed batch.
+     *
+     * @param stats the current counters
+     */
+    void onProgress(ImportStats stats);
+}
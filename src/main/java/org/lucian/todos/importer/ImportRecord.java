@@ -0,0 +1,19 @@
+package org.lucian.todos.importer;
+
+import java.util.Map;
+
+/**
+ * One input record: its 1-based position in the input, its fields keyed by normalized
+ * column name and its source text for the quarantine file. A record that could not be
+ * parsed has no fields and carries the parse error instead.
+ */
+record ImportRecord(long number, Map<String, String> fields, String source, String error) {
+
+    static ImportRecord parsed(long number, Map<String, String> fields, String source) {
+        return new ImportRecord(number, fields, source, null);
+    }
+
+    static ImportRecord malformed(long number, String source, String error) {
+        return new ImportRecord(number, Map.of(), source, error);
+    }
+}
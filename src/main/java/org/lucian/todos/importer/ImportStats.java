@@ -0,0 +1,67 @@
+package org.lucian.todos.importer;
+
+/**
+ * Counters of an import run, reported as progress and returned as its result.
+ * Counts include the records committed by earlier runs when the import was resumed.
+ */
+public class ImportStats {
+
+    private final long records;
+    private final long imported;
+    private final long quarantined;
+    private final long resumedAt;
+    private final long elapsedMillis;
+    private final boolean complete;
+
+    ImportStats(long records, long imported, long quarantined, long resumedAt, long elapsedMillis,
+            boolean complete) {
+        this.records = records;
+        this.imported = imported;
+        this.quarantined = quarantined;
+        this.resumedAt = resumedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.complete = complete;
+    }
+
+    /** Input records committed so far, imported or quarantined. */
+    public long getRecords() {
+        return records;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getQuarantined() {
+        return quarantined;
+    }
+
+    /** The number of records skipped because an earlier run had committed them. */
+    public long getResumedAt() {
+        return resumedAt;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Gets the throughput of this run, excluding records committed by earlier runs.
+     *
+     * @return records per second
+     */
+    public double getRecordsPerSecond() {
+        return elapsedMillis > 0 ? (records - resumedAt) * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportStats{records=%d, imported=%d, quarantined=%d, resumedAt=%d, elapsed=%dms, rate=%.0f/s%s}",
+                records, imported, quarantined, resumedAt, elapsedMillis, getRecordsPerSecond(),
+                complete ? ", complete" : "");
+    }
+}
@@ -0,0 +1,232 @@
+package org.lucian.todos.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.lucian.todos.export.ExportFormat;
+import org.lucian.todos.util.FlatJsonParser;
+
+/**
+ * Reads import records one at a time. A malformed record does not stop the reader:
+ * it is returned with its error so it can be quarantined.
+ */
+abstract class RecordReader implements Closeable {
+
+    protected long recordNumber;
+
+    static RecordReader create(ExportFormat format, Reader in) {
+        return switch (format) {
+            case NDJSON -> new NdjsonRecordReader(in);
+            case CSV -> new CsvRecordReader(in);
+        };
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null at the end of the input
+     * @throws IOException if reading fails
+     */
+    abstract ImportRecord next() throws IOException;
+
+    /**
+     * Normalizes a column or member name so that {@code dueDate}, {@code due_date}
+     * and {@code Due Date} all match.
+     */
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '_' && c != '-' && !Character.isWhitespace(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * RFC 4180 CSV with a header row naming the columns. Quoted fields may contain
+     * separators, doubled quotes and line breaks. Blank lines are skipped.
+     */
+    static final class CsvRecordReader extends RecordReader {
+
+        private final Reader in;
+        private final char[] buffer = new char[16 * 1024];
+        private int position;
+        private int limit;
+        private List<String> header;
+        private final StringBuilder source = new StringBuilder();
+        private final StringBuilder field = new StringBuilder();
+
+        CsvRecordReader(Reader in) {
+            this.in = in;
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            char c = buffer[position++];
+            source.append(c);
+            return c;
+        }
+
+        /**
+         * Reads the fields of one line, or null at the end of the input.
+         *
+         * @throws IllegalArgumentException if a quoted field is not closed
+         */
+        private List<String> readFields() throws IOException {
+            List<String> fields = new ArrayList<>();
+            source.setLength(0);
+            field.setLength(0);
+            boolean quoted = false;
+            boolean empty = true;
+            int c;
+            while ((c = read()) != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                            continue;
+                        }
+                        quoted = false;
+                        if (next == -1) {
+                            break;
+                        }
+                        c = next;
+                    } else {
+                        field.append((char) c);
+                        continue;
+                    }
+                }
+                if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                    empty = false;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    empty = false;
+                } else if (c == '\n') {
+                    if (empty && field.isEmpty()) {
+                        source.setLength(0);
+                        continue;
+                    }
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                    empty = false;
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            if (c == -1 && empty && field.isEmpty()) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private String sourceText() {
+            int end = source.length();
+            while (end > 0 && (source.charAt(end - 1) == '\n' || source.charAt(end - 1) == '\r')) {
+                end--;
+            }
+            return source.substring(0, end);
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            if (header == null) {
+                List<String> names = readFields();
+                if (names == null) {
+                    return null;
+                }
+                header = new ArrayList<>(names.size());
+                for (String name : names) {
+                    header.add(normalize(name));
+                }
+            }
+
+            List<String> fields;
+            try {
+                fields = readFields();
+            } catch (IllegalArgumentException e) {
+                return ImportRecord.malformed(++recordNumber, sourceText(), e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            recordNumber++;
+            if (fields.size() != header.size()) {
+                return ImportRecord.malformed(recordNumber, sourceText(),
+                        "Expected " + header.size() + " fields but found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>(header.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                // CSV cannot tell null from empty; both mean "not set"
+                String value = fields.get(i);
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return ImportRecord.parsed(recordNumber, values, sourceText());
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * One flat JSON object per line, as written by the exporter. Member values must be
+     * strings, numbers, booleans or null; blank lines are skipped.
+     */
+    static final class NdjsonRecordReader extends RecordReader {
+
+        private final BufferedReader in;
+
+        NdjsonRecordReader(Reader in) {
+            this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in, 16 * 1024);
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            recordNumber++;
+            try {
+                Map<String, String> members = FlatJsonParser.parse(line);
+                Map<String, String> fields = new HashMap<>(members.size() * 2);
+                members.forEach((name, value) -> fields.put(normalize(name), value));
+                return ImportRecord.parsed(recordNumber, fields, line);
+            } catch (IllegalArgumentException e) {
+                return ImportRecord.malformed(recordNumber, line, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
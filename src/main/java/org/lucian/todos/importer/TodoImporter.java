@@ -0,0 +1,464 @@
+package org.lucian.todos.importer;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+import org.lucian.todos.dao.ProjectDAO;
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.export.ExportFormat;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.util.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk imports todos from CSV or NDJSON, such as the files written by the exporter.
+ * <p>
+ * A reader thread parses, maps and validates records with the same rules as
+ * {@link org.lucian.todos.service.TodoService}, and hands them in chunks through a bounded
+ * queue to the calling thread, which inserts them with {@link TodoDAO#createAll(List)}
+ * in one transaction per batch. Records that fail to parse or validate, or that reference
+ * a project the importing user does not own (checked with one query per batch), are
+ * appended to the quarantine file with their error instead of stopping the import. If a
+ * batch still violates a constraint, e.g. an oversized value, its rows are retried one by
+ * one so only the offending rows are quarantined.
+ * <p>
+ * After each committed batch the checkpoint file records how far the input was read.
+ * A later run over the same input skips the committed records and continues from there;
+ * a crash between a commit and its checkpoint replays at most that one batch.
+ * The checkpoint is deleted once the import completes.
+ */
+public class TodoImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoImporter.class);
+
+    private static final String CHECKPOINT_RECORDS = "records";
+    private static final String CHECKPOINT_IMPORTED = "imported";
+    private static final String CHECKPOINT_QUARANTINED = "quarantined";
+
+    // SQLite primary result codes of errors caused by a single row
+    private static final int SQLITE_TOOBIG = 18;
+    private static final int SQLITE_CONSTRAINT = 19;
+    private static final int SQLITE_MISMATCH = 20;
+
+    /** Marks the end of the input in the queue. */
+    private static final List<Row> END = List.of();
+
+    private final TodoDAO todoDAO;
+    private final ProjectDAO projectDAO;
+    private final ImportConfig config;
+
+    public TodoImporter(TodoDAO todoDAO, ProjectDAO projectDAO, ImportConfig config) {
+        config.validate();
+        this.todoDAO = todoDAO;
+        this.projectDAO = projectDAO;
+        this.config = config;
+    }
+
+    /**
+     * Imports todos from a file, gzip-compressed if its name ends in {@code .gz}.
+     *
+     * @param input the input file
+     * @param format the input format
+     * @param userId the user the imported todos will belong to
+     * @param listener receives progress, or null
+     * @return the final counters
+     * @throws IOException if the input, checkpoint or quarantine file cannot be read or written
+     * @throws DatabaseException if inserting fails for reasons other than individual bad rows
+     */
+    public ImportStats importTodos(Path input, ExportFormat format, Long userId, ImportProgressListener listener)
+            throws IOException, DatabaseException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(input), 64 * 1024);
+        try {
+            if (input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                in = new GZIPInputStream(in, 64 * 1024);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return importTodos(new InputStreamReader(in, StandardCharsets.UTF_8), format, userId, listener);
+    }
+
+    /**
+     * Imports todos from a reader, which is closed when the import ends.
+     *
+     * @param input the input
+     * @param format the input format
+     * @param userId the user the imported todos will belong to
+     * @param listener receives progress, or null
+     * @return the final counters
+     * @throws IOException if the input, checkpoint or quarantine file cannot be read or written
+     * @throws DatabaseException if inserting fails for reasons other than individual bad rows
+     */
+    public ImportStats importTodos(Reader input, ExportFormat format, Long userId, ImportProgressListener listener)
+            throws IOException, DatabaseException {
+        if (userId == null) {
+            input.close();
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        Properties checkpoint = readCheckpoint();
+        long resumeAt = Long.parseLong(checkpoint.getProperty(CHECKPOINT_RECORDS, "0"));
+        if (resumeAt > 0) {
+            logger.info("Resuming todo import after record {}", resumeAt);
+        }
+
+        long imported = Long.parseLong(checkpoint.getProperty(CHECKPOINT_IMPORTED, "0"));
+        long quarantined = Long.parseLong(checkpoint.getProperty(CHECKPOINT_QUARANTINED, "0"));
+        BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        ReaderTask readerTask = new ReaderTask(RecordReader.create(format, input), queue, userId, resumeAt);
+        Thread reader = new Thread(readerTask, "todo-import-reader");
+        reader.setDaemon(true);
+
+        ImportRun run;
+        try (Writer quarantine = openQuarantine(resumeAt > 0)) {
+            run = new ImportRun(userId, resumeAt, imported, quarantined, quarantine, listener);
+            reader.start();
+            while (true) {
+                List<Row> chunk = queue.take();
+                if (chunk == END) {
+                    break;
+                }
+                for (Row row : chunk) {
+                    run.accept(row);
+                }
+            }
+            rethrow(readerTask.failure);
+            run.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } finally {
+            reader.interrupt();
+        }
+
+        if (config.getCheckpointFile() != null) {
+            Files.deleteIfExists(config.getCheckpointFile());
+        }
+        ImportStats stats = run.stats(true);
+        logger.info("Imported todos: {}", stats);
+        run.report(stats);
+        return stats;
+    }
+
+    /**
+     * Rethrows a failure of the reader thread on the importing thread.
+     */
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        throw new IOException("Reading the import failed", failure);
+    }
+
+    private Properties readCheckpoint() throws IOException {
+        Properties checkpoint = new Properties();
+        Path file = config.getCheckpointFile();
+        if (file != null && Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                checkpoint.load(reader);
+            }
+        }
+        return checkpoint;
+    }
+
+    private void writeCheckpoint(long records, long imported, long quarantined) throws IOException {
+        Path file = config.getCheckpointFile();
+        if (file == null) {
+            return;
+        }
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty(CHECKPOINT_RECORDS, Long.toString(records));
+        checkpoint.setProperty(CHECKPOINT_IMPORTED, Long.toString(imported));
+        checkpoint.setProperty(CHECKPOINT_QUARANTINED, Long.toString(quarantined));
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, "Todo import checkpoint");
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Writer openQuarantine(boolean append) throws IOException {
+        Path file = config.getQuarantineFile();
+        if (file == null) {
+            return Writer.nullWriter();
+        }
+        return append
+                ? Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    /** A mapped todo, or the source and error of a rejected record. */
+    private record Row(long number, Todo todo, String source, String error) {
+    }
+
+    /**
+     * Parses, maps and validates records on the reader thread.
+     */
+    private final class ReaderTask implements Runnable {
+
+        private final RecordReader records;
+        private final BlockingQueue<List<Row>> queue;
+        private final Long userId;
+        private final long resumeAt;
+        private volatile Throwable failure;
+
+        ReaderTask(RecordReader records, BlockingQueue<List<Row>> queue, Long userId, long resumeAt) {
+            this.records = records;
+            this.queue = queue;
+            this.userId = userId;
+            this.resumeAt = resumeAt;
+        }
+
+        @Override
+        public void run() {
+            boolean writerWaiting = true;
+            try {
+                readAll();
+            } catch (InterruptedException e) {
+                // The writer gave up; nobody is waiting for the end marker
+                writerWaiting = false;
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                // Always end the stream, or the writer would wait for it forever
+                if (writerWaiting) {
+                    try {
+                        queue.put(END);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        private void readAll() throws IOException, InterruptedException {
+            try (RecordReader reader = records) {
+                List<Row> chunk = new ArrayList<>(config.getChunkSize());
+                ImportRecord record;
+                while ((record = reader.next()) != null) {
+                    if (record.number() <= resumeAt) {
+                        continue;
+                    }
+                    chunk.add(toRow(record));
+                    if (chunk.size() == config.getChunkSize()) {
+                        queue.put(chunk);
+                        chunk = new ArrayList<>(config.getChunkSize());
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    queue.put(chunk);
+                }
+            }
+        }
+
+        private Row toRow(ImportRecord record) {
+            if (record.error() != null) {
+                return new Row(record.number(), null, record.source(), record.error());
+            }
+            try {
+                return new Row(record.number(), TodoRecordMapper.map(record.fields(), userId), record.source(), null);
+            } catch (IllegalArgumentException e) {
+                return new Row(record.number(), null, record.source(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Batches rows and tracks the counters on the importing thread.
+     */
+    private final class ImportRun {
+
+        private final Long userId;
+        private final long resumeAt;
+        private final ImportProgressListener listener;
+        private final long start = System.nanoTime();
+        private final List<Row> batch = new ArrayList<>();
+        private final Writer quarantine;
+        private long lastRecord;
+        private long imported;
+        private long quarantined;
+
+        ImportRun(Long userId, long resumeAt, long imported, long quarantined, Writer quarantine,
+                ImportProgressListener listener) {
+            this.userId = userId;
+            this.resumeAt = resumeAt;
+            this.quarantine = quarantine;
+            this.lastRecord = resumeAt;
+            this.imported = imported;
+            this.quarantined = quarantined;
+            this.listener = listener;
+        }
+
+        void accept(Row row) throws IOException, DatabaseException {
+            batch.add(row);
+            if (batch.size() >= config.getBatchSize()) {
+                flush();
+            }
+        }
+
+        /**
+         * Inserts the pending batch in one transaction, quarantines its rejected rows and
+         * records the checkpoint.
+         */
+        void flush() throws IOException, DatabaseException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            rejectForeignProjects();
+            List<Todo> todos = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                if (row.todo() != null) {
+                    todos.add(row.todo());
+                }
+            }
+            try {
+                todoDAO.createAll(todos);
+                imported += todos.size();
+                for (Row row : batch) {
+                    if (row.todo() == null) {
+                        reject(row, row.error());
+                    }
+                }
+            } catch (DatabaseException e) {
+                if (!isRowError(e)) {
+                    throw e;
+                }
+                logger.warn("Import batch ending at record {} was rejected, retrying row by row: {}",
+                        batch.get(batch.size() - 1).number(), rootMessage(e));
+                insertRowByRow();
+            }
+            quarantine.flush();
+
+            lastRecord = batch.get(batch.size() - 1).number();
+            batch.clear();
+            writeCheckpoint(lastRecord, imported, quarantined);
+            report(stats(false));
+        }
+
+        /**
+         * Turns the rows whose project is missing or belongs to another user into rejected
+         * rows, checking the whole batch's project IDs in one query.
+         */
+        private void rejectForeignProjects() throws DatabaseException {
+            Set<Long> projectIds = new HashSet<>();
+            for (Row row : batch) {
+                if (row.todo() != null && row.todo().getProjectId() != null) {
+                    projectIds.add(row.todo().getProjectId());
+                }
+            }
+            if (projectIds.isEmpty()) {
+                return;
+            }
+            Set<Long> owned = projectDAO.findOwnedIds(userId, projectIds);
+            for (int i = 0; i < batch.size(); i++) {
+                Row row = batch.get(i);
+                if (row.todo() != null && row.todo().getProjectId() != null
+                        && !owned.contains(row.todo().getProjectId())) {
+                    batch.set(i, new Row(row.number(), null, row.source(),
+                            "Project not found with ID: " + row.todo().getProjectId()));
+                }
+            }
+        }
+
+        private void insertRowByRow() throws IOException, DatabaseException {
+            for (Row row : batch) {
+                if (row.todo() == null) {
+                    reject(row, row.error());
+                    continue;
+                }
+                try {
+                    todoDAO.create(row.todo());
+                    imported++;
+                } catch (DatabaseException e) {
+                    if (!isRowError(e)) {
+                        throw e;
+                    }
+                    reject(row, rootMessage(e));
+                }
+            }
+        }
+
+        private void reject(Row row, String error) throws IOException {
+            quarantined++;
+            JsonWriter json = new JsonWriter(quarantine);
+            json.beginObject()
+                .name("record").value(row.number())
+                .name("error").value(error)
+                .name("source").value(row.source())
+                .endObject();
+            quarantine.write('\n');
+        }
+
+        ImportStats stats(boolean complete) {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            return new ImportStats(lastRecord, imported, quarantined, resumeAt, elapsedMillis, complete);
+        }
+
+        void report(ImportStats stats) {
+            logger.debug("Import progress: {}", stats);
+            if (listener != null) {
+                listener.onProgress(stats);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a failed insert was caused by the row itself (a constraint such as a
+     * missing project, or an oversized value) rather than by the database.
+     */
+    private static boolean isRowError(DatabaseException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                int primaryCode = sqlException.getErrorCode() & 0xff;
+                return primaryCode == SQLITE_TOOBIG || primaryCode == SQLITE_CONSTRAINT
+                        || primaryCode == SQLITE_MISMATCH;
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : throwable.getMessage();
+    }
+}
@@ -0,0 +1,108 @@
+package org.lucian.todos.importer;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+import org.lucian.todos.factory.TodoFactory;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.lucian.todos.service.TodoService;
+
+/**
+ * Builds todos from import records using the exporter's column names: title, description,
+ * dueDate, priority, status, projectId, and recurringIntervalDays and maxOccurrences for
+ * recurring todos. Other columns, such as id, userId or timestamps, are ignored: imported
+ * todos get new IDs, belong to the importing user and start their recurrence afresh.
+ * The projectId is taken as-is; {@link TodoImporter} checks that the user owns it.
+ */
+final class TodoRecordMapper {
+
+    private TodoRecordMapper() {
+    }
+
+    /**
+     * Maps and validates a record.
+     *
+     * @param fields the record's fields by normalized name
+     * @param userId the owner of the imported todo
+     * @return the todo, ready to insert
+     * @throws IllegalArgumentException if the record is not a valid todo
+     */
+    static Todo map(Map<String, String> fields, Long userId) {
+        String title = fields.get("title");
+        String description = fields.get("description");
+        LocalDate dueDate = parseDate(fields.get("duedate"), "dueDate");
+        Priority priority = parseEnum(Priority.class, fields.get("priority"), Priority.MEDIUM);
+        TodoStatus status = parseEnum(TodoStatus.class, fields.get("status"), TodoStatus.TODO);
+        Integer intervalDays = parseInteger(fields.get("recurringintervaldays"), "recurringIntervalDays");
+
+        Todo todo;
+        if (intervalDays != null) {
+            if (intervalDays < 1) {
+                throw new IllegalArgumentException("recurringIntervalDays must be at least 1");
+            }
+            Integer maxOccurrences = parseInteger(fields.get("maxoccurrences"), "maxOccurrences");
+            todo = maxOccurrences != null
+                    ? TodoFactory.createRecurringTodo(title, description, dueDate, priority,
+                            Period.ofDays(intervalDays), maxOccurrences)
+                    : TodoFactory.createRecurringTodo(title, description, dueDate, priority,
+                            Period.ofDays(intervalDays));
+        } else {
+            todo = TodoFactory.createSimpleTodo(title, description, dueDate, priority);
+        }
+        todo.setStatus(status);
+        todo.setProjectId(parseLong(fields.get("projectid"), "projectId"));
+        todo.setUserId(userId);
+
+        TodoService.validateTodo(todo);
+        return todo;
+    }
+
+    private static LocalDate parseDate(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + field + " (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static Integer parseInteger(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static Long parseLong(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String value, T defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.lucian.todos.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets: each power of two
+ * is split into 64 equal sub-buckets, so any recorded value is reported within
+ * about 1.6% of its true value, from 1 ns up to {@link #HIGHEST_TRACKABLE_NANOS}
+ * (larger values fall in the last bucket). Recording is a single atomic increment
+ * and never allocates.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+
+    /** Values from this one up, about 68.7 seconds, share the last bucket. */
+    public static final long HIGHEST_TRACKABLE_NANOS = (1L << MAX_EXPONENT) - 1;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a value.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketIndex(nanos));
+    }
+
+    /**
+     * Computes several percentiles from one consistent pass over the buckets.
+     * Each result is the highest value of the bucket holding that percentile.
+     *
+     * @param percentiles the percentiles, each between 0 and 100, in ascending order
+     * @return the values in nanoseconds, all 0 if nothing was recorded
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        int bucket = 0;
+        long seen = snapshot[0];
+        for (int p = 0; p < percentiles.length; p++) {
+            if (percentiles[p] < 0 || percentiles[p] > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentiles[p]);
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentiles[p] / 100.0 * total));
+            while (seen < rank && bucket < BUCKET_COUNT - 1) {
+                seen += snapshot[++bucket];
+            }
+            values[p] = bucketUpperBound(bucket);
+        }
+        return values;
+    }
+
+    /**
+     * Clears all buckets. Values recorded while the reset runs may be lost or kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    static int bucketIndex(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_NANOS);
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,179 @@
+package org.lucian.todos.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Named {@link Timer}s for the application's hot paths: every DAO method (named
+ * {@code TodoDAO.findById} and so on) and {@code DatabaseManager.getConnection},
+ * plus gauges such as the todo cache's hit rate, read when the report is written.
+ * Metrics are on by default; {@code -Dtodos.metrics.enabled=false} turns the
+ * instrumentation off entirely, and {@code -Dtodos.metrics.dumpFile=<path>} writes
+ * the report to a file when the process exits.
+ */
+public class MetricsRegistry {
+
+    /** System property switching metrics collection on or off (default on). */
+    public static final String ENABLED_PROPERTY = "todos.metrics.enabled";
+    /** System property naming a file the default registry's report is written to on exit. */
+    public static final String DUMP_FILE_PROPERTY = "todos.metrics.dumpFile";
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static MetricsRegistry defaultRegistry;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Supplier<String>> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the process-wide registry.
+     *
+     * @return the default registry
+     */
+    public static synchronized MetricsRegistry getDefault() {
+        if (defaultRegistry == null) {
+            defaultRegistry = new MetricsRegistry();
+        }
+        return defaultRegistry;
+    }
+
+    /**
+     * Checks whether metrics collection is enabled.
+     *
+     * @return false if {@value #ENABLED_PROPERTY} is set to false
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * Gets the timer with a name, creating it on first use. Callers on hot paths
+     * should look their timers up once and keep them.
+     *
+     * @param name the metric name
+     * @return the timer
+     */
+    public Timer timer(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Metric name cannot be null or empty");
+        }
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Registers a gauge, a value read each time the report is written, such as a
+     * cache's hit counts. Registering a name again replaces the earlier gauge.
+     * Gauges report their source's own counters, so {@link #reset()} leaves them alone.
+     *
+     * @param name the metric name
+     * @param value supplies the current value
+     */
+    public void gauge(String name, Supplier<String> value) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Metric name cannot be null or empty");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Gauge value cannot be null");
+        }
+        gauges.put(name, value);
+    }
+
+    /**
+     * Gets the statistics of every timer that has recorded something, by name.
+     *
+     * @return the statistics
+     */
+    public List<Timer.Stats> getStats() {
+        return timers.values().stream()
+                .map(Timer::getStats)
+                .filter(stats -> stats.getCount() > 0)
+                .sorted(Comparator.comparing(Timer.Stats::getName))
+                .toList();
+    }
+
+    /**
+     * Clears every timer.
+     */
+    public void reset() {
+        timers.values().forEach(Timer::reset);
+    }
+
+    /**
+     * Writes the statistics as a plain-text table.
+     *
+     * @param out where to write
+     * @throws IOException if writing fails
+     */
+    public void writeReport(Appendable out) throws IOException {
+        List<Timer.Stats> stats = getStats();
+        int width = stats.stream().mapToInt(s -> s.getName().length()).max().orElse(0);
+        width = Math.max(width, "Operation".length());
+        String row = "%-" + width + "s %10s %8s %10s %9s %9s %9s %9s %9s%n";
+
+        out.append(String.format(Locale.ROOT, row, "Operation", "Count", "Errors", "Ops/s",
+                "Mean", "p50", "p99", "p99.9", "Max"));
+        for (Timer.Stats s : stats) {
+            out.append(String.format(Locale.ROOT, row, s.getName(), s.getCount(), s.getErrorCount(),
+                    String.format(Locale.ROOT, "%.1f", s.getThroughputPerSecond()),
+                    formatNanos(s.getMeanNanos()), formatNanos(s.getP50Nanos()), formatNanos(s.getP99Nanos()),
+                    formatNanos(s.getP999Nanos()), formatNanos(s.getMaxNanos())));
+        }
+        if (stats.isEmpty()) {
+            out.append("No operations recorded").append(System.lineSeparator());
+        }
+        if (!gauges.isEmpty()) {
+            out.append(System.lineSeparator());
+            for (String name : gauges.keySet().stream().sorted().toList()) {
+                out.append(String.format(Locale.ROOT, "%-" + width + "s %s%n", name, gauges.get(name).get()));
+            }
+        }
+    }
+
+    /**
+     * Writes the report to a file, replacing it, with a timestamp header.
+     *
+     * @param file the file to write
+     * @throws IOException if writing fails
+     */
+    public void dump(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Todo Management System metrics, " + LocalDateTime.now().format(TIMESTAMP)
+                    + System.lineSeparator());
+            writeReport(writer);
+        }
+    }
+
+    /**
+     * Formats a duration with a unit suited to its size, such as {@code 850ns},
+     * {@code 12.3us}, {@code 4.56ms} or {@code 1.20s}.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the formatted duration
+     */
+    public static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+}
@@ -0,0 +1,13 @@
+package org.lucian.todos.metrics;
+
+/**
+ * A call timed by {@link Timer#time(TimedCall)}.
+ *
+ * @param <T> the result type
+ * @param <E> the checked exception the call may throw
+ */
+@FunctionalInterface
+public interface TimedCall<T, E extends Exception> {
+
+    T call() throws E;
+}
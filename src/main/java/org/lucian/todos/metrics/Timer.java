@@ -0,0 +1,143 @@
+package org.lucian.todos.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, throughput and error count of one operation. All updates are lock-free:
+ * counters are {@link LongAdder}s, so threads recording at the same time do not
+ * contend on a shared word.
+ */
+public final class Timer {
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private volatile long startedAtNanos = System.nanoTime();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs a call and records how long it took; a call that throws is also
+     * counted as an error.
+     *
+     * @param call the call to time
+     * @return the call's result
+     * @throws E if the call throws it
+     */
+    public <T, E extends Exception> T time(TimedCall<T, E> call) throws E {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = false;
+            return result;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Records one completed operation.
+     *
+     * @param nanos how long it took
+     * @param failed whether it failed
+     */
+    public void record(long nanos, boolean failed) {
+        histogram.record(nanos);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the current statistics. Throughput is averaged over the time since the
+     * timer was created or last reset.
+     *
+     * @return the statistics
+     */
+    public Stats getStats() {
+        long[] percentiles = histogram.getValuesAtPercentiles(50, 99, 99.9);
+        long max = maxNanos.get();
+        Stats stats = new Stats();
+        stats.setName(name);
+        stats.setCount(count.sum());
+        stats.setErrorCount(errors.sum());
+        stats.setMeanNanos(stats.getCount() > 0 ? totalNanos.sum() / stats.getCount() : 0);
+        // Bucket bounds can overshoot the largest value actually seen
+        stats.setP50Nanos(Math.min(percentiles[0], max));
+        stats.setP99Nanos(Math.min(percentiles[1], max));
+        stats.setP999Nanos(Math.min(percentiles[2], max));
+        stats.setMaxNanos(max);
+        double seconds = (System.nanoTime() - startedAtNanos) / 1e9;
+        stats.setThroughputPerSecond(seconds > 0 ? stats.getCount() / seconds : 0);
+        return stats;
+    }
+
+    /**
+     * Clears all recorded values and restarts the throughput window.
+     */
+    public void reset() {
+        histogram.reset();
+        count.reset();
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        startedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Statistics of a timer at one point in time.
+     */
+    public static class Stats {
+        private String name;
+        private long count;
+        private long errorCount;
+        private long meanNanos;
+        private long p50Nanos;
+        private long p99Nanos;
+        private long p999Nanos;
+        private long maxNanos;
+        private double throughputPerSecond;
+
+        // Getters and setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+
+        public long getErrorCount() { return errorCount; }
+        public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+        public long getMeanNanos() { return meanNanos; }
+        public void setMeanNanos(long meanNanos) { this.meanNanos = meanNanos; }
+
+        public long getP50Nanos() { return p50Nanos; }
+        public void setP50Nanos(long p50Nanos) { this.p50Nanos = p50Nanos; }
+
+        public long getP99Nanos() { return p99Nanos; }
+        public void setP99Nanos(long p99Nanos) { this.p99Nanos = p99Nanos; }
+
+        public long getP999Nanos() { return p999Nanos; }
+        public void setP999Nanos(long p999Nanos) { this.p999Nanos = p999Nanos; }
+
+        public long getMaxNanos() { return maxNanos; }
+        public void setMaxNanos(long maxNanos) { this.maxNanos = maxNanos; }
+
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+        public void setThroughputPerSecond(double throughputPerSecond) { this.throughputPerSecond = throughputPerSecond; }
+    }
+}
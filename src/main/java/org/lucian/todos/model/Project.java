@@ -3,6 +3,7 @@ package org.lucian.todos.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -143,6 +144,22 @@ public final class Project {
         this.updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * Replaces this project's todos with ones loaded from storage, which already
+     * belong to it. Unlike {@link #addTodo(Todo)}, this neither reassigns the
+     * todos nor changes {@code updatedAt}.
+     * 
+     * @param loaded the project's todos
+     * @throws IllegalArgumentException if a todo is null
+     */
+    public void loadTodos(Collection<? extends Todo> loaded) {
+        if (loaded.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Todo cannot be null");
+        }
+        todos.clear();
+        todos.addAll(loaded);
+    }
+    
     /**
      * Removes a todo from this project.
      * 
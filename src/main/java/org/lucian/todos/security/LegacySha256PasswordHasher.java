@@ -0,0 +1,71 @@
+package org.lucian.todos.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * The original scheme: one salted SHA-256 pass, stored as Base64 of the 32-byte salt
+ * followed by the digest. It is far too cheap to brute-force safely and is kept only
+ * so that existing accounts can still log in; every hash it supports needs a rehash.
+ */
+public class LegacySha256PasswordHasher implements PasswordHasher {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int SALT_LENGTH = 32;
+    private static final Pattern BASE64 = Pattern.compile("^[A-Za-z0-9+/]+={0,2}$");
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        byte[] digest = digest(salt, password);
+
+        byte[] saltAndHash = new byte[salt.length + digest.length];
+        System.arraycopy(salt, 0, saltAndHash, 0, salt.length);
+        System.arraycopy(digest, 0, saltAndHash, salt.length, digest.length);
+        return Base64.getEncoder().encodeToString(saltAndHash);
+    }
+
+    @Override
+    public boolean verify(String password, String encodedHash) {
+        if (!supports(encodedHash)) {
+            return false;
+        }
+        byte[] saltAndHash = Base64.getDecoder().decode(encodedHash);
+        if (saltAndHash.length <= SALT_LENGTH) {
+            return false;
+        }
+        byte[] salt = new byte[SALT_LENGTH];
+        System.arraycopy(saltAndHash, 0, salt, 0, SALT_LENGTH);
+        byte[] storedDigest = new byte[saltAndHash.length - SALT_LENGTH];
+        System.arraycopy(saltAndHash, SALT_LENGTH, storedDigest, 0, storedDigest.length);
+
+        return MessageDigest.isEqual(storedDigest, digest(salt, password));
+    }
+
+    @Override
+    public boolean supports(String encodedHash) {
+        return encodedHash != null && encodedHash.length() % 4 == 0 && BASE64.matcher(encodedHash).matches();
+    }
+
+    @Override
+    public boolean needsRehash(String encodedHash) {
+        return true;
+    }
+
+    private static byte[] digest(byte[] salt, String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
+            md.update(salt);
+            return md.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Password hashing algorithm not available: " + HASH_ALGORITHM, e);
+        }
+    }
+}
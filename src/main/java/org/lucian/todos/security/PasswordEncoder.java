@@ -0,0 +1,306 @@
+package org.lucian.todos.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashes and verifies passwords on a small, bounded thread pool.
+ * New hashes always use the current {@link PasswordHasher}; stored hashes are verified
+ * by whichever configured scheme recognizes them, and {@link Verification#needsRehash()}
+ * tells the caller when a hash should be replaced.
+ * <p>
+ * Deliberately slow hashes make a burst of logins expensive, so the work is capped at
+ * {@link PasswordHashingConfig#getThreads()} threads with a bounded queue in front.
+ * When the queue is full, or a request waits longer than the configured timeout, the
+ * caller gets an {@link AuthenticationException} instead of piling up more CPU work.
+ */
+public class PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoder.class);
+
+    private static PasswordEncoder defaultEncoder;
+
+    private final PasswordHasher hasher;
+    private final List<PasswordHasher> hashers;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    /** A hash no password is checked against, for {@link #verifyDummy(String)}; computed on first use. */
+    private volatile String dummyHash;
+
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong totalWorkNanos = new AtomicLong();
+    private final AtomicLong maxWorkNanos = new AtomicLong();
+
+    /**
+     * Creates an encoder that writes PBKDF2 hashes and still accepts legacy SHA-256 ones.
+     *
+     * @param config the hashing configuration
+     */
+    public PasswordEncoder(PasswordHashingConfig config) {
+        this(config, new Pbkdf2PasswordHasher(config.getIterations()), new LegacySha256PasswordHasher());
+    }
+
+    /**
+     * Creates an encoder with explicit schemes.
+     *
+     * @param config the executor configuration
+     * @param hasher the scheme for new hashes
+     * @param legacyHashers older schemes that are only used to verify existing hashes
+     */
+    public PasswordEncoder(PasswordHashingConfig config, PasswordHasher hasher, PasswordHasher... legacyHashers) {
+        config.validate();
+        this.hasher = hasher;
+        this.hashers = new ArrayList<>(List.of(legacyHashers));
+        this.hashers.add(0, hasher);
+        this.timeoutMillis = config.getTimeoutMillis();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Gets the shared encoder, configured from the {@code todos.password.*} system properties.
+     *
+     * @return the default encoder
+     */
+    public static synchronized PasswordEncoder getDefault() {
+        if (defaultEncoder == null) {
+            PasswordHashingConfig config = PasswordHashingConfig.fromSystemProperties();
+            defaultEncoder = new PasswordEncoder(config);
+            logger.debug("Password encoder initialized with {}", config);
+        }
+        return defaultEncoder;
+    }
+
+    /**
+     * Gets the scheme used for new hashes, for callers that must hash synchronously,
+     * such as database bootstrapping.
+     *
+     * @return the current hasher
+     */
+    public PasswordHasher getHasher() {
+        return hasher;
+    }
+
+    /**
+     * Hashes a password with the current scheme.
+     *
+     * @param password the password (plain text)
+     * @return the encoded hash
+     * @throws AuthenticationException if the hashing executor is saturated or times out
+     */
+    public String hash(String password) throws AuthenticationException {
+        return execute(() -> hasher.hash(password));
+    }
+
+    /**
+     * Verifies a password against a stored hash in any supported format.
+     *
+     * @param password the password (plain text)
+     * @param storedHash the stored hash
+     * @return whether the password matches and whether the hash should be upgraded
+     * @throws AuthenticationException if the hashing executor is saturated or times out
+     */
+    public Verification verify(String password, String storedHash) throws AuthenticationException {
+        PasswordHasher owner = findHasher(storedHash);
+        if (owner == null) {
+            logger.error("Stored password hash is missing or in an unknown format");
+            return new Verification(false, false);
+        }
+        boolean matches = execute(() -> owner.verify(password, storedHash));
+        boolean needsRehash = matches && (owner != hasher || hasher.needsRehash(storedHash));
+        return new Verification(matches, needsRehash);
+    }
+
+    /**
+     * Runs a verification that cannot succeed, so that a login for an unknown
+     * username costs as much as one with a wrong password.
+     *
+     * @param password the password (plain text)
+     * @throws AuthenticationException if the hashing executor is saturated or times out
+     */
+    public void verifyDummy(String password) throws AuthenticationException {
+        execute(() -> hasher.verify(password, dummyHash()));
+    }
+
+    /**
+     * Gets the dummy hash, computing it once on the executor the first time an unknown
+     * user logs in, so starting up (every batch CLI run included) costs no hashing.
+     */
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            synchronized (this) {
+                hash = dummyHash;
+                if (hash == null) {
+                    hash = hasher.hash("dummy-password-for-timing");
+                    dummyHash = hash;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Takes a snapshot of the hashing metrics.
+     *
+     * @return the current hashing statistics
+     */
+    public HashingStats getStats() {
+        HashingStats stats = new HashingStats();
+        stats.setActiveThreads(executor.getActiveCount());
+        stats.setQueuedRequests(executor.getQueue().size());
+        stats.setCompletedCount(completedCount.get());
+        stats.setRejectedCount(rejectedCount.get());
+        stats.setTimeoutCount(timeoutCount.get());
+        stats.setTotalQueueNanos(totalQueueNanos.get());
+        stats.setTotalWorkNanos(totalWorkNanos.get());
+        stats.setMaxWorkNanos(maxWorkNanos.get());
+        return stats;
+    }
+
+    /**
+     * Stops the hashing threads; later requests are refused.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PasswordHasher findHasher(String storedHash) {
+        if (storedHash == null || storedHash.isEmpty()) {
+            return null;
+        }
+        for (PasswordHasher candidate : hashers) {
+            if (candidate.supports(storedHash)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private <T> T execute(Callable<T> work) throws AuthenticationException {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueNanos.addAndGet(startedAt - submittedAt);
+                try {
+                    return work.call();
+                } finally {
+                    long workNanos = System.nanoTime() - startedAt;
+                    totalWorkNanos.addAndGet(workNanos);
+                    maxWorkNanos.accumulateAndGet(workNanos, Math::max);
+                    completedCount.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            logger.warn("Password hashing request refused; {} requests already waiting", executor.getQueue().size());
+            throw new AuthenticationException("Too many logins in progress. Please try again shortly.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCount.incrementAndGet();
+            logger.warn("Password hashing request timed out after {} ms", timeoutMillis);
+            throw new AuthenticationException("Login timed out. Please try again shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationException("Login was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationException("Password check failed due to system error", e.getCause());
+        }
+    }
+
+    /**
+     * Outcome of a password verification.
+     *
+     * @param matches true if the password is correct
+     * @param needsRehash true if the password is correct but its hash uses an outdated
+     *                    scheme or cost and should be replaced with a fresh one
+     */
+    public record Verification(boolean matches, boolean needsRehash) {
+    }
+
+    /**
+     * Snapshot of password hashing metrics.
+     */
+    public static class HashingStats {
+        private int activeThreads;
+        private int queuedRequests;
+        private long completedCount;
+        private long rejectedCount;
+        private long timeoutCount;
+        private long totalQueueNanos;
+        private long totalWorkNanos;
+        private long maxWorkNanos;
+
+        // Getters and setters
+        public int getActiveThreads() { return activeThreads; }
+        public void setActiveThreads(int activeThreads) { this.activeThreads = activeThreads; }
+
+        public int getQueuedRequests() { return queuedRequests; }
+        public void setQueuedRequests(int queuedRequests) { this.queuedRequests = queuedRequests; }
+
+        public long getCompletedCount() { return completedCount; }
+        public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+
+        public long getRejectedCount() { return rejectedCount; }
+        public void setRejectedCount(long rejectedCount) { this.rejectedCount = rejectedCount; }
+
+        public long getTimeoutCount() { return timeoutCount; }
+        public void setTimeoutCount(long timeoutCount) { this.timeoutCount = timeoutCount; }
+
+        public long getTotalQueueNanos() { return totalQueueNanos; }
+        public void setTotalQueueNanos(long totalQueueNanos) { this.totalQueueNanos = totalQueueNanos; }
+
+        public long getTotalWorkNanos() { return totalWorkNanos; }
+        public void setTotalWorkNanos(long totalWorkNanos) { this.totalWorkNanos = totalWorkNanos; }
+
+        public long getMaxWorkNanos() { return maxWorkNanos; }
+        public void setMaxWorkNanos(long maxWorkNanos) { this.maxWorkNanos = maxWorkNanos; }
+
+        public double getAverageQueueMillis() {
+            return completedCount == 0 ? 0.0 : (totalQueueNanos / (double) completedCount) / 1_000_000.0;
+        }
+
+        public double getAverageWorkMillis() {
+            return completedCount == 0 ? 0.0 : (totalWorkNanos / (double) completedCount) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "HashingStats{active=%d, queued=%d, completed=%d, rejected=%d, timeouts=%d, avgQueue=%.3fms, avgWork=%.3fms, maxWork=%.3fms}",
+                activeThreads, queuedRequests, completedCount, rejectedCount, timeoutCount,
+                getAverageQueueMillis(), getAverageWorkMillis(), maxWorkNanos / 1_000_000.0
+            );
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.lucian.todos.security;
+
+/**
+ * A password hashing scheme. Each scheme writes hashes in its own self-describing
+ * format, so hashes from several schemes (or several cost settings of one scheme)
+ * can live side by side in the users table and be recognized when verified.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password the password (plain text)
+     * @return the encoded hash, including the scheme, cost and salt
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against an encoded hash in this scheme's format.
+     *
+     * @param password the password (plain text)
+     * @param encodedHash the stored hash
+     * @return true if the password matches, false otherwise or if the hash is malformed
+     */
+    boolean verify(String password, String encodedHash);
+
+    /**
+     * Tells whether this scheme recognizes the format of an encoded hash.
+     *
+     * @param encodedHash the stored hash
+     * @return true if {@link #verify(String, String)} can check it
+     */
+    boolean supports(String encodedHash);
+
+    /**
+     * Tells whether a hash this scheme supports was made with weaker settings than the
+     * current ones and should be replaced the next time the password is known.
+     *
+     * @param encodedHash the stored hash
+     * @return true if the hash should be upgraded
+     */
+    boolean needsRehash(String encodedHash);
+}
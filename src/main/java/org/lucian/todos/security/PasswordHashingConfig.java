@@ -0,0 +1,120 @@
+package org.lucian.todos.security;
+
+/**
+ * Configuration for password hashing: the cost of new hashes and the bounded
+ * executor that runs hash and verify work. Values can be overridden at startup
+ * through system properties (e.g. {@code -Dtodos.password.iterations=300000}).
+ */
+public class PasswordHashingConfig {
+
+    private static final String PROPERTY_PREFIX = "todos.password.";
+
+    /** Lowest iteration count accepted; anything cheaper is not worth the name. */
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private int iterations = 600_000;
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 32;
+    private long timeoutMillis = 10_000;
+
+    /**
+     * Creates a configuration with default values.
+     */
+    public PasswordHashingConfig() {
+    }
+
+    /**
+     * Creates a configuration from the {@code todos.password.*} system properties,
+     * falling back to the defaults for anything that is not set.
+     *
+     * @return the password hashing configuration
+     */
+    public static PasswordHashingConfig fromSystemProperties() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setIterations(Integer.getInteger(PROPERTY_PREFIX + "iterations", config.getIterations()));
+        config.setThreads(Integer.getInteger(PROPERTY_PREFIX + "threads", config.getThreads()));
+        config.setQueueCapacity(Integer.getInteger(PROPERTY_PREFIX + "queueCapacity", config.getQueueCapacity()));
+        config.setTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "timeoutMillis", config.getTimeoutMillis()));
+        return config;
+    }
+
+    /**
+     * Validates the configuration values.
+     *
+     * @throws IllegalStateException if the configuration is inconsistent
+     */
+    public void validate() {
+        if (iterations < MIN_ITERATIONS) {
+            throw new IllegalStateException("Password hash iterations must be at least " + MIN_ITERATIONS);
+        }
+        if (threads < 1) {
+            throw new IllegalStateException("Password hashing threads must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalStateException("Password hashing queue capacity must be at least 1");
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalStateException("Password hashing timeout must be positive");
+        }
+    }
+
+    //GET;SET;
+    /**
+     * Gets the PBKDF2 iteration count for new hashes. Stored hashes with fewer
+     * iterations are upgraded on the next successful login.
+     *
+     * @return the iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Gets the number of threads hashing at once; this caps the CPU that logins can take.
+     *
+     * @return the thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the number of requests that may wait for a thread before new ones are refused.
+     *
+     * @return the queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets how long a caller waits for a hash or verify, queueing included.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PasswordHashingConfig{iterations=%d, threads=%d, queueCapacity=%d, timeout=%dms}",
+                iterations, threads, queueCapacity, timeoutMillis);
+    }
+}
@@ -0,0 +1,119 @@
+package org.lucian.todos.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2-HMAC-SHA256 with a tunable iteration count. Hashes are encoded as
+ * {@code $pbkdf2-sha256$v=1$i=<iterations>$<salt>$<hash>} with unpadded Base64
+ * salt and hash, so the cost travels with every hash and can be raised later
+ * without invalidating existing passwords.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    /** Scheme identifier used as the first field of the encoded hash. */
+    public static final String ID = "pbkdf2-sha256";
+
+    private static final String PREFIX = "$" + ID + "$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int VERSION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+
+    /**
+     * Creates a hasher that writes new hashes with the given iteration count.
+     *
+     * @param iterations the PBKDF2 iteration count
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("PBKDF2 iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, HASH_LENGTH);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "v=" + VERSION + "$i=" + iterations + "$"
+                + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String encodedHash) {
+        ParsedHash parsed = parse(encodedHash);
+        if (parsed == null) {
+            return false;
+        }
+        byte[] actual = derive(password, parsed.salt(), parsed.iterations(), parsed.hash().length);
+        return MessageDigest.isEqual(parsed.hash(), actual);
+    }
+
+    @Override
+    public boolean supports(String encodedHash) {
+        return encodedHash != null && encodedHash.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean needsRehash(String encodedHash) {
+        ParsedHash parsed = parse(encodedHash);
+        return parsed == null || parsed.version() < VERSION || parsed.iterations() < iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing algorithm not available: " + ALGORITHM, e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Splits an encoded hash into its fields, or returns null if it is not a
+     * well-formed hash of this scheme.
+     */
+    private static ParsedHash parse(String encodedHash) {
+        if (encodedHash == null || !encodedHash.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] fields = encodedHash.substring(PREFIX.length()).split("\\$", -1);
+        if (fields.length != 4 || !fields[0].startsWith("v=") || !fields[1].startsWith("i=")) {
+            return null;
+        }
+        try {
+            int version = Integer.parseInt(fields[0].substring(2));
+            int iterations = Integer.parseInt(fields[1].substring(2));
+            byte[] salt = Base64.getDecoder().decode(fields[2].getBytes(StandardCharsets.US_ASCII));
+            byte[] hash = Base64.getDecoder().decode(fields[3].getBytes(StandardCharsets.US_ASCII));
+            if (iterations < 1 || salt.length == 0 || hash.length == 0) {
+                return null;
+            }
+            return new ParsedHash(version, iterations, salt, hash);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record ParsedHash(int version, int iterations, byte[] salt, byte[] hash) {
+    }
+}
@@ -0,0 +1,28 @@
+package org.lucian.todos.server;
+
+/**
+ * An error answered with a specific HTTP status and a message for the client.
+ */
+class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    static ApiException badRequest(String message) {
+        return new ApiException(400, message);
+    }
+
+    static ApiException notFound(String message) {
+        return new ApiException(404, message);
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
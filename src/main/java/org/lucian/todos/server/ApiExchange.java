@@ -0,0 +1,301 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.lucian.todos.util.FlatJsonParser;
+import org.lucian.todos.util.JsonWriter;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * One API request and its response. Responses are JSON; successful GET responses
+ * carry a weak ETag over the body so clients can revalidate with
+ * {@code If-None-Match}, and larger bodies are gzip-compressed for clients that
+ * accept it.
+ */
+class ApiExchange {
+
+    private final HttpExchange exchange;
+    private final ServerConfig config;
+    private final List<String> pathSegments;
+    private RequestFields query;
+    private boolean responded;
+
+    ApiExchange(HttpExchange exchange, ServerConfig config) {
+        this.exchange = exchange;
+        this.config = config;
+        String path = exchange.getRequestURI().getRawPath();
+        String rest = path.substring(Math.min(path.length(), exchange.getHttpContext().getPath().length()));
+        List<String> segments = new ArrayList<>();
+        for (String segment : rest.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        this.pathSegments = Collections.unmodifiableList(segments);
+    }
+
+    String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    /**
+     * Gets the decoded path segments after the handler's context path,
+     * e.g. {@code ["12"]} for {@code /api/todos/12}.
+     */
+    List<String> getPathSegments() {
+        return pathSegments;
+    }
+
+    RequestFields getQuery() {
+        if (query == null) {
+            Map<String, String> values = new HashMap<>();
+            String raw = exchange.getRequestURI().getRawQuery();
+            if (raw != null) {
+                for (String pair : raw.split("&")) {
+                    if (pair.isEmpty()) {
+                        continue;
+                    }
+                    int equals = pair.indexOf('=');
+                    String name = equals < 0 ? pair : pair.substring(0, equals);
+                    String value = equals < 0 ? "" : pair.substring(equals + 1);
+                    values.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                            URLDecoder.decode(value, StandardCharsets.UTF_8));
+                }
+            }
+            query = new RequestFields(values);
+        }
+        return query;
+    }
+
+    /**
+     * Reads the request body as a flat JSON object.
+     *
+     * @throws ApiException with 413 if the body is too large, or 400 if it is not a flat JSON object
+     */
+    RequestFields readBody() throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(config.getMaxRequestBytes() + 1);
+        }
+        if (body.length > config.getMaxRequestBytes()) {
+            throw new ApiException(413, "Request body exceeds " + config.getMaxRequestBytes() + " bytes");
+        }
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (text.isBlank()) {
+            throw ApiException.badRequest("Request body must be a JSON object");
+        }
+        try {
+            return new RequestFields(FlatJsonParser.parse(text));
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the token of an {@code Authorization: Bearer} header.
+     *
+     * @return the token, or null if there is none
+     */
+    String getBearerToken() {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || authorization.length() < 7
+                || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        String token = authorization.substring(7).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    void setHeader(String name, String value) {
+        exchange.getResponseHeaders().set(name, value);
+    }
+
+    boolean hasResponded() {
+        return responded;
+    }
+
+    void sendJson(int status, JsonBody body) throws IOException {
+        boolean conditional = status == 200 && "GET".equals(getMethod());
+        send(status, render(body), conditional);
+    }
+
+    /**
+     * Gets the requested page number from the {@code page} query parameter (1-based).
+     */
+    int getPage() {
+        int page = getQuery().getInt("page", 1);
+        if (page < 1) {
+            throw ApiException.badRequest("page must be at least 1");
+        }
+        return page;
+    }
+
+    /**
+     * Gets the requested page size from the {@code size} query parameter.
+     */
+    int getPageSize() {
+        int size = getQuery().getInt("size", config.getDefaultPageSize());
+        if (size < 1 || size > config.getMaxPageSize()) {
+            throw ApiException.badRequest("size must be between 1 and " + config.getMaxPageSize());
+        }
+        return size;
+    }
+
+    /**
+     * Sends one page of a list, selected by the {@code page} (1-based) and {@code size}
+     * query parameters, wrapped with the paging details.
+     */
+    <T> void sendPage(List<T> items, ItemWriter<T> itemWriter) throws IOException {
+        int page = getPage();
+        int size = getPageSize();
+        long from = Math.min((long) (page - 1) * size, items.size());
+        List<T> pageItems = items.subList((int) from, (int) Math.min(from + size, items.size()));
+        sendPage(pageItems, page, size, items.size(), itemWriter);
+    }
+
+    /**
+     * Sends a page the caller has already selected, wrapped with the paging details.
+     *
+     * @param pageItems the items on the page
+     * @param page the page number, 1-based
+     * @param size the page size
+     * @param totalItems the number of items across all pages
+     */
+    <T> void sendPage(List<T> pageItems, int page, int size, long totalItems, ItemWriter<T> itemWriter)
+            throws IOException {
+        long totalPages = (totalItems + size - 1) / size;
+        sendJson(200, writer -> {
+            writer.beginObject().name("items").beginArray();
+            for (T item : pageItems) {
+                itemWriter.write(writer, item);
+            }
+            writer.endArray()
+                .name("page").value(page)
+                .name("size").value(size)
+                .name("totalItems").value(totalItems)
+                .name("totalPages").value(totalPages)
+                .endObject();
+        });
+    }
+
+    void sendNoContent() throws IOException {
+        responded = true;
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    void sendError(int status, String message) throws IOException {
+        send(status, render(writer -> writer.beginObject()
+                .name("error").beginObject()
+                    .name("status").value(status)
+                    .name("message").value(message)
+                .endObject()
+            .endObject()), false);
+    }
+
+    private void send(int status, byte[] body, boolean conditional) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        if (conditional) {
+            String etag = etag(body);
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", "private, no-cache");
+            if (matchesIfNoneMatch(etag)) {
+                responded = true;
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        headers.set("Vary", "Accept-Encoding");
+        responded = true;
+        if (body.length >= config.getGzipMinBytes() && acceptsGzip()) {
+            headers.set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody(), 8 * 1024)) {
+                out.write(body);
+            }
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] render(JsonBody body) throws IOException {
+        StringBuilder text = new StringBuilder(256);
+        body.write(new JsonWriter(text));
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Weak ETag over the uncompressed body: the gzip and identity encodings
+     * of a response are semantically equal, so they share the tag.
+     */
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private boolean matchesIfNoneMatch(String etag) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acceptsGzip() {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equals("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
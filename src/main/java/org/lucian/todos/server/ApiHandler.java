@@ -0,0 +1,108 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.exceptions.ProjectNotFoundException;
+import org.lucian.todos.exceptions.TodoManagementException;
+import org.lucian.todos.exceptions.TodoNotFoundException;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Base class for the API endpoints. Translates exceptions into JSON error responses:
+ * invalid input is 400, failed authentication 401, missing entities 404, operations
+ * not allowed in the entity's current state 409, and anything else 500.
+ */
+abstract class ApiHandler implements HttpHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiHandler.class);
+
+    protected final AuthenticationService authService;
+    private final ServerConfig config;
+
+    protected ApiHandler(AuthenticationService authService, ServerConfig config) {
+        this.authService = authService;
+        this.config = config;
+    }
+
+    /**
+     * Handles one request.
+     *
+     * @param exchange the request and its response
+     */
+    protected abstract void handle(ApiExchange exchange)
+            throws IOException, TodoManagementException, AuthenticationException;
+
+    @Override
+    public final void handle(HttpExchange httpExchange) throws IOException {
+        ApiExchange exchange = new ApiExchange(httpExchange, config);
+        try {
+            handle(exchange);
+        } catch (ApiException e) {
+            fail(exchange, e.getStatus(), e.getMessage());
+        } catch (AuthenticationException e) {
+            exchange.setHeader("WWW-Authenticate", "Bearer");
+            fail(exchange, 401, e.getMessage());
+        } catch (TodoNotFoundException | ProjectNotFoundException e) {
+            fail(exchange, 404, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            fail(exchange, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            fail(exchange, 409, e.getMessage());
+        } catch (TodoManagementException e) {
+            logger.error("Failed handling {} {}", httpExchange.getRequestMethod(), httpExchange.getRequestURI(), e);
+            fail(exchange, 500, "Internal server error");
+        } catch (IOException e) {
+            logger.debug("I/O error handling {} {}: {}", httpExchange.getRequestMethod(), httpExchange.getRequestURI(),
+                    e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error handling {} {}", httpExchange.getRequestMethod(), httpExchange.getRequestURI(), e);
+            fail(exchange, 500, "Internal server error");
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    /**
+     * Resolves the session of the request's bearer token.
+     *
+     * @throws AuthenticationException if the token is missing, unknown or expired
+     */
+    protected Session requireSession(ApiExchange exchange) throws AuthenticationException {
+        String token = exchange.getBearerToken();
+        if (token == null) {
+            throw new AuthenticationException("Missing bearer token. Log in at POST /api/auth/login.");
+        }
+        return authService.requireSession(token);
+    }
+
+    protected static ApiException methodNotAllowed(ApiExchange exchange, String allowed) {
+        exchange.setHeader("Allow", allowed);
+        return new ApiException(405, "Method " + exchange.getMethod() + " not allowed");
+    }
+
+    protected static Long parseId(String value) {
+        try {
+            long id = Long.parseLong(value);
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw ApiException.notFound("No such resource: " + value);
+    }
+
+    private static void fail(ApiExchange exchange, int status, String message) throws IOException {
+        if (exchange.hasResponded()) {
+            return;
+        }
+        exchange.sendError(status, message);
+    }
+}
@@ -0,0 +1,77 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.model.User;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.session.Session;
+import org.lucian.todos.util.TodoJson;
+
+/**
+ * {@code /api/auth}: {@code POST login} returns a session token to send as
+ * {@code Authorization: Bearer <token>}, {@code POST logout} ends the session,
+ * {@code POST register} creates an account and {@code GET me} returns the
+ * session's user.
+ */
+class AuthHandler extends ApiHandler {
+
+    AuthHandler(AuthenticationService authService, ServerConfig config) {
+        super(authService, config);
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException, AuthenticationException {
+        List<String> path = exchange.getPathSegments();
+        String action = path.size() == 1 ? path.get(0) : "";
+        switch (action) {
+            case "login" -> {
+                requirePost(exchange);
+                login(exchange);
+            }
+            case "logout" -> {
+                requirePost(exchange);
+                authService.logout(requireSession(exchange));
+                exchange.sendNoContent();
+            }
+            case "register" -> {
+                requirePost(exchange);
+                register(exchange);
+            }
+            case "me" -> {
+                if (!"GET".equals(exchange.getMethod())) {
+                    throw methodNotAllowed(exchange, "GET");
+                }
+                User user = requireSession(exchange).getUser();
+                exchange.sendJson(200, writer -> TodoJson.writeUser(writer, user));
+            }
+            default -> throw ApiException.notFound("No such resource: " + String.join("/", path));
+        }
+    }
+
+    private void login(ApiExchange exchange) throws IOException, AuthenticationException {
+        RequestFields body = exchange.readBody();
+        Session session = authService.authenticate(body.require("username"), body.require("password"));
+        exchange.sendJson(200, writer -> {
+            writer.beginObject()
+                .name("token").value(session.getToken())
+                .name("user");
+            TodoJson.writeUser(writer, session.getUser());
+            writer.endObject();
+        });
+    }
+
+    private void register(ApiExchange exchange) throws IOException, AuthenticationException {
+        RequestFields body = exchange.readBody();
+        User user = authService.register(body.get("username"), body.get("email"), body.get("password"),
+                body.get("firstName"), body.get("lastName"));
+        exchange.sendJson(201, writer -> TodoJson.writeUser(writer, user));
+    }
+
+    private static void requirePost(ApiExchange exchange) {
+        if (!"POST".equals(exchange.getMethod())) {
+            throw methodNotAllowed(exchange, "POST");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.session.SessionRegistry;
+
+/**
+ * {@code GET /api/health}: an unauthenticated liveness check with the number
+ * of active sessions.
+ */
+class HealthHandler extends ApiHandler {
+
+    private final SessionRegistry sessionRegistry;
+
+    HealthHandler(AuthenticationService authService, SessionRegistry sessionRegistry, ServerConfig config) {
+        super(authService, config);
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException {
+        if (!exchange.getPathSegments().isEmpty()) {
+            throw ApiException.notFound("No such resource");
+        }
+        if (!"GET".equals(exchange.getMethod())) {
+            throw methodNotAllowed(exchange, "GET");
+        }
+        exchange.sendJson(200, writer -> writer.beginObject()
+                .name("status").value("UP")
+                .name("activeSessions").value(sessionRegistry.getActiveSessionCount())
+                .endObject());
+    }
+}
@@ -0,0 +1,16 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+
+import org.lucian.todos.util.JsonWriter;
+
+/**
+ * Writes one element of a paginated list, e.g. {@code TodoJson::writeTodo}.
+ *
+ * @param <T> the element type
+ */
+@FunctionalInterface
+interface ItemWriter<T> {
+
+    void write(JsonWriter writer, T item) throws IOException;
+}
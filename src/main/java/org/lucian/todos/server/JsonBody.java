@@ -0,0 +1,14 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+
+import org.lucian.todos.util.JsonWriter;
+
+/**
+ * Writes a response body.
+ */
+@FunctionalInterface
+interface JsonBody {
+
+    void write(JsonWriter writer) throws IOException;
+}
@@ -0,0 +1,122 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.exceptions.TodoManagementException;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.service.ProjectService;
+import org.lucian.todos.session.Session;
+import org.lucian.todos.util.TodoJson;
+
+/**
+ * {@code /api/projects}: list (paginated, optionally filtered by {@code name}),
+ * create, and {@code /{id}} to read, update or delete one project, with
+ * {@code /{id}/todos} and {@code /{id}/stats} for its todos and completion.
+ * Projects of other users are reported as not found.
+ */
+class ProjectHandler extends ApiHandler {
+
+    private final ProjectService projectService;
+
+    ProjectHandler(AuthenticationService authService, ProjectService projectService, ServerConfig config) {
+        super(authService, config);
+        this.projectService = projectService;
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException, TodoManagementException, AuthenticationException {
+        Session session = requireSession(exchange);
+        ProjectService projects = projectService.withUserContext(session);
+        List<String> path = exchange.getPathSegments();
+
+        if (path.isEmpty()) {
+            switch (exchange.getMethod()) {
+                case "GET" -> {
+                    String name = exchange.getQuery().get("name");
+                    List<Project> result = name != null ? projects.findProjectsByName(name) : projects.getAllProjects();
+                    exchange.sendPage(result, TodoJson::writeProject);
+                }
+                case "POST" -> create(exchange, projects);
+                default -> throw methodNotAllowed(exchange, "GET, POST");
+            }
+            return;
+        }
+        if (path.size() > 2) {
+            throw ApiException.notFound("No such resource: " + String.join("/", path));
+        }
+
+        Long id = parseId(path.get(0));
+        String child = path.size() == 2 ? path.get(1) : "";
+        // Only the todo listing needs the project's todos
+        Project project = child.equals("todos") ? projects.getProjectWithTodos(id) : projects.findProjectById(id);
+        switch (child) {
+            case "" -> {
+                switch (exchange.getMethod()) {
+                    case "GET" -> exchange.sendJson(200, writer -> TodoJson.writeProject(writer, project));
+                    case "PUT" -> update(exchange, projects, project);
+                    case "DELETE" -> {
+                        projects.deleteProject(project.getId());
+                        exchange.sendNoContent();
+                    }
+                    default -> throw methodNotAllowed(exchange, "GET, PUT, DELETE");
+                }
+            }
+            case "todos" -> {
+                requireGet(exchange);
+                exchange.sendPage(project.getTodos(), TodoJson::writeTodo);
+            }
+            case "stats" -> {
+                requireGet(exchange);
+                ProjectService.ProjectCompletionStats stats = projects.getProjectCompletionStats(project.getId());
+                exchange.sendJson(200, writer -> writer.beginObject()
+                        .name("projectId").value(project.getId())
+                        .name("totalTodos").value(stats.getTotalTodos())
+                        .name("todo").value(stats.getTodoTodos())
+                        .name("inProgress").value(stats.getInProgressTodos())
+                        .name("completed").value(stats.getCompletedTodos())
+                        .name("cancelled").value(stats.getCancelledTodos())
+                        .name("overdue").value(stats.getOverdueTodos())
+                        .name("completionPercentage").value(stats.getCompletionPercentage())
+                        .endObject());
+            }
+            default -> throw ApiException.notFound("No such resource: " + String.join("/", path));
+        }
+    }
+
+    private void create(ApiExchange exchange, ProjectService projects) throws IOException, TodoManagementException {
+        RequestFields body = exchange.readBody();
+        Project project = new Project(body.get("name"), body.get("description"),
+                body.getDate("startDate"), body.getDate("endDate"));
+        Project created = projects.createProject(project);
+        exchange.setHeader("Location", "/api/projects/" + created.getId());
+        exchange.sendJson(201, writer -> TodoJson.writeProject(writer, created));
+    }
+
+    private void update(ApiExchange exchange, ProjectService projects, Project project)
+            throws IOException, TodoManagementException {
+        RequestFields body = exchange.readBody();
+        if (body.has("name")) {
+            project.setName(body.get("name"));
+        }
+        if (body.has("description")) {
+            project.setDescription(body.get("description"));
+        }
+        if (body.has("startDate")) {
+            project.setStartDate(body.getDate("startDate"));
+        }
+        if (body.has("endDate")) {
+            project.setEndDate(body.getDate("endDate"));
+        }
+        Project updated = projects.updateProject(project);
+        exchange.sendJson(200, writer -> TodoJson.writeProject(writer, updated));
+    }
+
+    private static void requireGet(ApiExchange exchange) {
+        if (!"GET".equals(exchange.getMethod())) {
+            throw methodNotAllowed(exchange, "GET");
+        }
+    }
+}
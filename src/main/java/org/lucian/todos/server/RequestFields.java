@@ -0,0 +1,93 @@
+package org.lucian.todos.server;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typed access to the query parameters or JSON body members of a request.
+ * A value that does not parse is the client's fault and fails with 400.
+ */
+class RequestFields {
+
+    private final Map<String, String> values;
+
+    RequestFields(Map<String, String> values) {
+        this.values = values;
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String get(String name) {
+        return values.get(name);
+    }
+
+    String require(String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            throw ApiException.badRequest("Missing required field: " + name);
+        }
+        return value;
+    }
+
+    Long getLong(String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Invalid " + name + ": " + value);
+        }
+    }
+
+    int getInt(String name, int defaultValue) {
+        Long value = getLong(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw ApiException.badRequest("Invalid " + name + ": " + value);
+        }
+        return value.intValue();
+    }
+
+    boolean getBoolean(String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return false;
+        }
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw ApiException.badRequest("Invalid " + name + ": " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    LocalDate getDate(String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest("Invalid " + name + " (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    <E extends Enum<E>> E getEnum(Class<E> type, String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Invalid " + name + ": " + value);
+        }
+    }
+}
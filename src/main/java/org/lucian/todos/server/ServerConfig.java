@@ -0,0 +1,153 @@
+package org.lucian.todos.server;
+
+/**
+ * Configuration for the embedded HTTP API server. Values can be overridden at startup
+ * through system properties (e.g. {@code -Dtodos.server.port=9090}).
+ */
+public class ServerConfig {
+
+    private static final String PROPERTY_PREFIX = "todos.server.";
+
+    private String host = "127.0.0.1";
+    private int port = 8080;
+    private int backlog = 128;
+    private int defaultPageSize = 50;
+    private int maxPageSize = 500;
+    private int gzipMinBytes = 1024;
+    private int maxRequestBytes = 64 * 1024;
+    private int shutdownDelaySeconds = 2;
+
+    /**
+     * Creates a configuration with default values.
+     */
+    public ServerConfig() {
+    }
+
+    /**
+     * Creates a configuration from the {@code todos.server.*} system properties,
+     * falling back to the defaults for anything that is not set.
+     *
+     * @return the server configuration
+     */
+    public static ServerConfig fromSystemProperties() {
+        ServerConfig config = new ServerConfig();
+        config.setHost(System.getProperty(PROPERTY_PREFIX + "host", config.getHost()));
+        config.setPort(Integer.getInteger(PROPERTY_PREFIX + "port", config.getPort()));
+        config.setBacklog(Integer.getInteger(PROPERTY_PREFIX + "backlog", config.getBacklog()));
+        config.setDefaultPageSize(Integer.getInteger(PROPERTY_PREFIX + "defaultPageSize", config.getDefaultPageSize()));
+        config.setMaxPageSize(Integer.getInteger(PROPERTY_PREFIX + "maxPageSize", config.getMaxPageSize()));
+        config.setGzipMinBytes(Integer.getInteger(PROPERTY_PREFIX + "gzipMinBytes", config.getGzipMinBytes()));
+        config.setMaxRequestBytes(Integer.getInteger(PROPERTY_PREFIX + "maxRequestBytes", config.getMaxRequestBytes()));
+        config.setShutdownDelaySeconds(Integer.getInteger(PROPERTY_PREFIX + "shutdownDelaySeconds", config.getShutdownDelaySeconds()));
+        return config;
+    }
+
+    /**
+     * Validates the configuration values.
+     *
+     * @throws IllegalStateException if the configuration is inconsistent
+     */
+    public void validate() {
+        if (host == null || host.isBlank()) {
+            throw new IllegalStateException("Server host cannot be empty");
+        }
+        if (port < 0 || port > 65_535) {
+            throw new IllegalStateException("Server port must be between 0 and 65535");
+        }
+        if (defaultPageSize < 1 || defaultPageSize > maxPageSize) {
+            throw new IllegalStateException("Default page size must be between 1 and the max page size");
+        }
+        if (gzipMinBytes < 0) {
+            throw new IllegalStateException("Gzip threshold cannot be negative");
+        }
+        if (maxRequestBytes < 1) {
+            throw new IllegalStateException("Max request size must be positive");
+        }
+    }
+
+    //GET;SET;
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * Gets the port to listen on; 0 picks a free port.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Gets the smallest response body that is gzip-compressed for clients that accept it.
+     *
+     * @return the threshold in bytes
+     */
+    public int getGzipMinBytes() {
+        return gzipMinBytes;
+    }
+
+    public void setGzipMinBytes(int gzipMinBytes) {
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    public int getMaxRequestBytes() {
+        return maxRequestBytes;
+    }
+
+    public void setMaxRequestBytes(int maxRequestBytes) {
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    /**
+     * Gets how long {@link TodoServer#stop()} waits for in-flight requests.
+     *
+     * @return the delay in seconds
+     */
+    public int getShutdownDelaySeconds() {
+        return shutdownDelaySeconds;
+    }
+
+    public void setShutdownDelaySeconds(int shutdownDelaySeconds) {
+        this.shutdownDelaySeconds = shutdownDelaySeconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ServerConfig{host=%s, port=%d, pageSize=%d/%d, gzipMinBytes=%d}",
+                host, port, defaultPageSize, maxPageSize, gzipMinBytes);
+    }
+}
@@ -0,0 +1,206 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.exceptions.TodoManagementException;
+import org.lucian.todos.factory.TodoFactory;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.service.TodoService;
+import org.lucian.todos.session.Session;
+import org.lucian.todos.util.TodoJson;
+
+/**
+ * {@code /api/todos}: list (paginated, filtered by any of {@code status}, {@code priority},
+ * {@code projectId}, {@code overdue=true} and a search {@code q}, and sorted by a
+ * comma-separated {@code sort} such as {@code status,-due_date}), create, and
+ * {@code /{id}} to read, update or delete one todo.
+ * {@code /statistics} returns the session user's todo counts.
+ * Todos of other users are reported as not found.
+ */
+class TodoHandler extends ApiHandler {
+
+    private final TodoService todoService;
+
+    TodoHandler(AuthenticationService authService, TodoService todoService, ServerConfig config) {
+        super(authService, config);
+        this.todoService = todoService;
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException, TodoManagementException, AuthenticationException {
+        Session session = requireSession(exchange);
+        TodoService todos = todoService.withUserContext(session);
+        List<String> path = exchange.getPathSegments();
+
+        if (path.isEmpty()) {
+            switch (exchange.getMethod()) {
+                case "GET" -> list(exchange, todos);
+                case "POST" -> create(exchange, todos);
+                default -> throw methodNotAllowed(exchange, "GET, POST");
+            }
+        } else if (path.size() == 1 && path.get(0).equals("statistics")) {
+            if (!"GET".equals(exchange.getMethod())) {
+                throw methodNotAllowed(exchange, "GET");
+            }
+            statistics(exchange, todos);
+        } else if (path.size() == 1) {
+            Todo todo = todos.findTodoById(parseId(path.get(0)));
+            switch (exchange.getMethod()) {
+                case "GET" -> exchange.sendJson(200, writer -> TodoJson.writeTodo(writer, todo));
+                case "PUT" -> update(exchange, todos, todo);
+                case "DELETE" -> {
+                    todos.deleteTodo(todo.getId());
+                    exchange.sendNoContent();
+                }
+                default -> throw methodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+        } else {
+            throw ApiException.notFound("No such resource: " + String.join("/", path));
+        }
+    }
+
+    /**
+     * Lists one page of todos. The filters, sort and page become a single {@link TodoQuery},
+     * so only the requested page is read and the total comes from the query's count.
+     */
+    private void list(ApiExchange exchange, TodoService todos) throws IOException, DatabaseException {
+        RequestFields params = exchange.getQuery();
+        int page = exchange.getPage();
+        int size = exchange.getPageSize();
+
+        TodoQuery query = TodoQuery.all();
+        TodoStatus status = params.getEnum(TodoStatus.class, "status");
+        if (params.getBoolean("overdue")) {
+            if (status != null) {
+                throw ApiException.badRequest("overdue cannot be combined with status");
+            }
+            query = query.withStatus(TodoStatus.TODO, TodoStatus.IN_PROGRESS)
+                    .withDueBetween(null, LocalDate.now().minusDays(1));
+        } else if (status != null) {
+            query = query.withStatus(status);
+        }
+        Priority priority = params.getEnum(Priority.class, "priority");
+        if (priority != null) {
+            query = query.withPriority(priority);
+        }
+        Long projectId = params.getLong("projectId");
+        if (projectId != null) {
+            query = query.withProject(projectId);
+        }
+        if (params.has("q")) {
+            query = query.withText(params.get("q"));
+        }
+        if (params.has("sort")) {
+            for (String field : params.get("sort").split(",")) {
+                query = sortedBy(query, field.trim());
+            }
+        }
+
+        TodoQueryResult result = todos.queryTodos(query.pageAt(page - 1, size));
+        exchange.sendPage(result.getTodos(), page, size, result.getTotalCount(), TodoJson::writeTodo);
+    }
+
+    /**
+     * Adds a {@code sort} field such as {@code due_date}, or {@code -priority} for descending.
+     */
+    private static TodoQuery sortedBy(TodoQuery query, String field) {
+        boolean descending = field.startsWith("-");
+        String name = descending ? field.substring(1) : field;
+        try {
+            return query.sortedBy(TodoQuery.SortKey.valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_')),
+                    descending);
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Invalid sort: " + field);
+        }
+    }
+
+    private void create(ApiExchange exchange, TodoService todos)
+            throws IOException, TodoManagementException {
+        RequestFields body = exchange.readBody();
+        String title = body.get("title");
+        String description = body.get("description");
+        LocalDate dueDate = body.getDate("dueDate");
+        Priority priority = Objects.requireNonNullElse(body.getEnum(Priority.class, "priority"), Priority.MEDIUM);
+        Long intervalDays = body.getLong("recurringIntervalDays");
+
+        Todo todo;
+        if (intervalDays != null) {
+            if (intervalDays < 1 || intervalDays > Integer.MAX_VALUE) {
+                throw ApiException.badRequest("recurringIntervalDays must be at least 1");
+            }
+            Period interval = Period.ofDays(intervalDays.intValue());
+            todo = body.has("maxOccurrences")
+                    ? TodoFactory.createRecurringTodo(title, description, dueDate, priority, interval,
+                            body.getInt("maxOccurrences", 0))
+                    : TodoFactory.createRecurringTodo(title, description, dueDate, priority, interval);
+        } else {
+            todo = TodoFactory.createSimpleTodo(title, description, dueDate, priority);
+        }
+        todo.setProjectId(body.getLong("projectId"));
+
+        Todo created = todos.createTodo(todo);
+        exchange.setHeader("Location", "/api/todos/" + created.getId());
+        exchange.sendJson(201, writer -> TodoJson.writeTodo(writer, created));
+    }
+
+    private void update(ApiExchange exchange, TodoService todos, Todo todo)
+            throws IOException, TodoManagementException {
+        RequestFields body = exchange.readBody();
+        if (body.has("title")) {
+            todo.setTitle(body.get("title"));
+        }
+        if (body.has("description")) {
+            todo.setDescription(body.get("description"));
+        }
+        if (body.has("dueDate")) {
+            todo.setDueDate(body.getDate("dueDate"));
+        }
+        if (body.has("priority")) {
+            todo.setPriority(Objects.requireNonNull(body.getEnum(Priority.class, "priority"), "priority cannot be null"));
+        }
+        if (body.has("projectId")) {
+            todo.setProjectId(body.getLong("projectId"));
+        }
+        Todo updated = todos.updateTodo(todo);
+
+        TodoStatus status = body.getEnum(TodoStatus.class, "status");
+        if (status != null && status != updated.getStatus()) {
+            updated = switch (status) {
+                case COMPLETED -> todos.markTodoCompleted(updated.getId());
+                case IN_PROGRESS -> todos.markTodoInProgress(updated.getId());
+                case CANCELLED -> todos.markTodoCancelled(updated.getId());
+                default -> todos.updateTodoStatus(updated.getId(), status);
+            };
+        }
+        Todo result = updated;
+        exchange.sendJson(200, writer -> TodoJson.writeTodo(writer, result));
+    }
+
+    private void statistics(ApiExchange exchange, TodoService todos) throws IOException, DatabaseException {
+        TodoService.TodoStatistics stats = todos.getTodoStatistics();
+        exchange.sendJson(200, writer -> writer.beginObject()
+                .name("total").value(stats.getTotalTodos())
+                .name("todo").value(stats.getTodoTodos())
+                .name("inProgress").value(stats.getInProgressTodos())
+                .name("completed").value(stats.getCompletedTodos())
+                .name("cancelled").value(stats.getCancelledTodos())
+                .name("overdue").value(stats.getOverdueTodos())
+                .name("urgent").value(stats.getUrgentTodos())
+                .name("high").value(stats.getHighPriorityTodos())
+                .name("medium").value(stats.getMediumPriorityTodos())
+                .name("low").value(stats.getLowPriorityTodos())
+                .endObject());
+    }
+}
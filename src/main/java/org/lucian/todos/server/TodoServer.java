@@ -0,0 +1,129 @@
+package org.lucian.todos.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.security.PasswordEncoder;
+import org.lucian.todos.service.AuthenticationService;
+import org.lucian.todos.service.ProjectService;
+import org.lucian.todos.service.TodoService;
+import org.lucian.todos.session.SessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the todo, project and authentication services as a JSON API over HTTP.
+ * Every request runs on its own virtual thread, so a request blocked on the
+ * database or on password hashing does not hold up the others. Clients log in
+ * at {@code POST /api/auth/login} and send the returned token as
+ * {@code Authorization: Bearer <token>}.
+ */
+public class TodoServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoServer.class);
+
+    private final ServerConfig config;
+    private final SessionRegistry sessionRegistry;
+    private final AuthenticationService authService;
+    private final TodoService todoService;
+    private final ProjectService projectService;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server over the given DAOs using the default session registry.
+     *
+     * @param daoFactory the DAOs to serve
+     * @param config the server configuration
+     */
+    public TodoServer(DAOFactory daoFactory, ServerConfig config) {
+        this(daoFactory, config, SessionRegistry.getDefault());
+    }
+
+    /**
+     * Creates a server over the given DAOs and session registry.
+     *
+     * @param daoFactory the DAOs to serve
+     * @param config the server configuration
+     * @param sessionRegistry the registry holding API sessions
+     */
+    public TodoServer(DAOFactory daoFactory, ServerConfig config, SessionRegistry sessionRegistry) {
+        config.validate();
+        this.config = config;
+        this.sessionRegistry = sessionRegistry;
+        this.authService = new AuthenticationService(daoFactory.getUserDAO(), PasswordEncoder.getDefault(),
+                sessionRegistry);
+        // Handlers bind each request's session with withUserContext(); the base services have no user
+        this.todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), () -> null);
+        this.projectService = new ProjectService(daoFactory.getProjectDAO(), daoFactory.getTodoDAO(), () -> null);
+    }
+
+    /**
+     * Binds the listening socket and starts serving.
+     *
+     * @throws IOException if the socket cannot be bound
+     * @throws IllegalStateException if the server is already running
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server is already running");
+        }
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(config.getHost(), config.getPort()),
+                config.getBacklog());
+        httpServer.createContext("/api/auth", new AuthHandler(authService, config));
+        httpServer.createContext("/api/todos", new TodoHandler(authService, todoService, config));
+        httpServer.createContext("/api/projects", new ProjectHandler(authService, projectService, config));
+        httpServer.createContext("/api/health", new HealthHandler(authService, sessionRegistry, config));
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        server = httpServer;
+        logger.info("Todo API server listening on {}", getAddress());
+    }
+
+    /**
+     * Stops accepting connections and waits up to the configured delay for
+     * in-flight requests to finish. Does nothing if the server is not running.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(config.getShutdownDelaySeconds());
+        executor.shutdown();
+        server = null;
+        executor = null;
+        logger.info("Todo API server stopped");
+    }
+
+    /**
+     * Gets the bound address, which carries the actual port when port 0 was configured.
+     *
+     * @return the address
+     * @throws IllegalStateException if the server is not running
+     */
+    public synchronized InetSocketAddress getAddress() {
+        if (server == null) {
+            throw new IllegalStateException("Server is not running");
+        }
+        return server.getAddress();
+    }
+
+    public int getPort() {
+        return getAddress().getPort();
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public AuthenticationService getAuthenticationService() {
+        return authService;
+    }
+}
@@ -1,39 +1,75 @@
 package org.lucian.todos.service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.lucian.todos.audit.AuditLog;
 import org.lucian.todos.dao.UserDAO;
 import org.lucian.todos.exceptions.AuthenticationException;
 import org.lucian.todos.exceptions.DatabaseException;
 import org.lucian.todos.model.User;
+import org.lucian.todos.security.PasswordEncoder;
+import org.lucian.todos.session.Session;
+import org.lucian.todos.session.SessionRegistry;
+import org.lucian.todos.session.UserContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Service class for handling user authentication and authorization.
  * Provides secure user registration, login, logout, and session management.
+ * <p>
+ * Sessions live in a shared {@link SessionRegistry}, so one service can serve many
+ * users at once: {@link #authenticate(String, String)} opens a session and callers
+ * pass it (or its token) to the session-scoped methods and to the other services.
+ * Single-user front ends such as the CLI use {@link #login(String, String)} and the
+ * other no-session methods, which act on this service's own current session.
  * 
  * @author Lucian Diaconu
  */
-public class AuthenticationService {
+public class AuthenticationService implements UserContext {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
     
-    private static final String HASH_ALGORITHM = "SHA-256";
-    private static final int SALT_LENGTH = 32;
+    /** System property with the comma-separated usernames allowed to act on every user's data. */
+    public static final String ADMIN_USERS_PROPERTY = "todos.auth.admins";
+    /** The account created with the database. */
+    private static final String DEFAULT_ADMIN_USERS = "admin";
     
     private final UserDAO userDAO;
-    private User currentUser;
-    private LocalDateTime sessionStartTime;
+    private final PasswordEncoder passwordEncoder;
+    private final SessionRegistry sessionRegistry;
+    private volatile Session currentSession;
     
     public AuthenticationService(UserDAO userDAO) {
+        this(userDAO, PasswordEncoder.getDefault(), SessionRegistry.getDefault());
+    }
+    
+    /**
+     * Creates the service with a specific password encoder, e.g. one with a
+     * different work factor or executor size.
+     * 
+     * @param userDAO the user data access object
+     * @param passwordEncoder the encoder used to hash and verify passwords
+     */
+    public AuthenticationService(UserDAO userDAO, PasswordEncoder passwordEncoder) {
+        this(userDAO, passwordEncoder, SessionRegistry.getDefault());
+    }
+    
+    /**
+     * Creates the service with a specific password encoder and session registry.
+     * 
+     * @param userDAO the user data access object
+     * @param passwordEncoder the encoder used to hash and verify passwords
+     * @param sessionRegistry the registry holding the sessions this service opens
+     */
+    public AuthenticationService(UserDAO userDAO, PasswordEncoder passwordEncoder, SessionRegistry sessionRegistry) {
         this.userDAO = userDAO;
+        this.passwordEncoder = passwordEncoder;
+        this.sessionRegistry = sessionRegistry;
     }
     
     /**
@@ -78,11 +114,12 @@ public class AuthenticationService {
             
             // Create new user
             User user = new User(username, email, firstName, lastName);
-            String passwordHash = hashPassword(password);
+            String passwordHash = passwordEncoder.hash(password);
             user.setPasswordHash(passwordHash);
             
             User createdUser = userDAO.create(user);
             logger.info("Successfully registered user: {}", username);
+            AuditLog.record("user.register", createdUser.getId(), createdUser.getId());
             
             return createdUser;
             
@@ -93,14 +130,16 @@ public class AuthenticationService {
     }
     
     /**
-     * Authenticates a user with username and password.
+     * Authenticates a user with username and password and opens a new session.
+     * A password stored with an outdated hash scheme or cost is rehashed
+     * with the current one once it has been verified.
      * 
      * @param username the username
      * @param password the password (plain text)
-     * @return the authenticated user
+     * @return the new session
      * @throws AuthenticationException if authentication fails
      */
-    public User login(String username, String password) throws AuthenticationException {
+    public Session authenticate(String username, String password) throws AuthenticationException {
         if (username == null || username.trim().isEmpty()) {
             throw new AuthenticationException("Username cannot be empty");
         }
@@ -113,8 +152,10 @@ public class AuthenticationService {
         try {
             Optional<User> userOpt = userDAO.findByUsername(username);
             if (userOpt.isEmpty()) {
-                // Don't reveal that username doesn't exist
+                // Don't reveal that username doesn't exist, not even through timing
+                passwordEncoder.verifyDummy(password);
                 logger.warn("Login attempt with non-existent username: {}", username);
+                AuditLog.record("user.login-failed", null, null, username);
                 throw new AuthenticationException("Invalid username or password");
             }
             
@@ -123,25 +164,30 @@ public class AuthenticationService {
             // Check if user is active
             if (!user.isActive()) {
                 logger.warn("Login attempt with deactivated account: {}", username);
+                AuditLog.record("user.login-failed", user.getId(), user.getId(), "deactivated");
                 throw new AuthenticationException("Account is deactivated. Please contact support.");
             }
             
             // Verify password
-            if (!verifyPassword(password, user.getPasswordHash())) {
+            PasswordEncoder.Verification verification = passwordEncoder.verify(password, user.getPasswordHash());
+            if (!verification.matches()) {
                 logger.warn("Invalid password for user: {}", username);
+                AuditLog.record("user.login-failed", user.getId(), user.getId(), "password");
                 throw new AuthenticationException("Invalid username or password");
             }
+            if (verification.needsRehash()) {
+                upgradePasswordHash(user, password);
+            }
             
             // Update last login time
             userDAO.updateLastLogin(user.getId());
             user.setLastLoginAt(LocalDateTime.now());
             
-            // Set current session
-            this.currentUser = user;
-            this.sessionStartTime = LocalDateTime.now();
+            Session session = sessionRegistry.create(user);
             
             logger.info("Successfully logged in user: {}", username);
-            return user;
+            AuditLog.record("user.login", user.getId(), user.getId());
+            return session;
             
         } catch (DatabaseException e) {
             logger.error("Database error during login", e);
@@ -149,15 +195,68 @@ public class AuthenticationService {
         }
     }
     
+    /**
+     * Authenticates a user and makes the new session this service's current one,
+     * ending any previous current session.
+     * 
+     * @param username the username
+     * @param password the password (plain text)
+     * @return the authenticated user
+     * @throws AuthenticationException if authentication fails
+     */
+    public User login(String username, String password) throws AuthenticationException {
+        Session session = authenticate(username, password);
+        Session previous = currentSession;
+        currentSession = session;
+        if (previous != null) {
+            sessionRegistry.invalidate(previous.getToken());
+        }
+        return session.getUser();
+    }
+    
+    /**
+     * Looks up a live session by token, extending its idle deadline.
+     * 
+     * @param token the session token
+     * @return the session, or empty if the token is unknown, logged out or expired
+     */
+    public Optional<Session> findSession(String token) {
+        return sessionRegistry.find(token);
+    }
+    
+    /**
+     * Looks up a live session by token.
+     * 
+     * @param token the session token
+     * @return the session
+     * @throws AuthenticationException if there is no live session for the token
+     */
+    public Session requireSession(String token) throws AuthenticationException {
+        return findSession(token).orElseThrow(
+                () -> new AuthenticationException("Session is invalid or has expired. Please log in again."));
+    }
+    
+    /**
+     * Ends a session.
+     * 
+     * @param session the session to end
+     */
+    public void logout(Session session) {
+        if (session != null && sessionRegistry.invalidate(session.getToken())) {
+            User user = session.getUser();
+            logger.info("Logging out user: {}", user != null ? user.getUsername() : null);
+            AuditLog.record("user.logout", session.getCurrentUserId(), session.getCurrentUserId());
+        }
+        if (session != null && session == currentSession) {
+            currentSession = null;
+        }
+    }
+    
     /**
      * Logs out the current user.
      */
     public void logout() {
-        if (currentUser != null) {
-            logger.info("Logging out user: {}", currentUser.getUsername());
-            this.currentUser = null;
-            this.sessionStartTime = null;
-        }
+        logout(currentSession);
     }
     
     /**
@@ -166,7 +265,25 @@ public class AuthenticationService {
      * @return true if a user is logged in, false otherwise
      */
     public boolean isLoggedIn() {
-        return currentUser != null;
+        return getCurrentSession() != null;
+    }
+    
+    /**
+     * Gets this service's current session, if it is still live.
+     * 
+     * @return the current session, or null if nobody is logged in or it expired
+     */
+    public Session getCurrentSession() {
+        Session session = currentSession;
+        if (session == null) {
+            return null;
+        }
+        if (sessionRegistry.find(session.getToken()).isEmpty()) {
+            logger.info("Session of user {} has expired", session.getUser().getUsername());
+            currentSession = null;
+            return null;
+        }
+        return session;
     }
     
     /**
@@ -174,8 +291,10 @@ public class AuthenticationService {
      * 
      * @return the current user, or null if no user is logged in
      */
+    @Override
     public User getCurrentUser() {
-        return currentUser;
+        Session session = getCurrentSession();
+        return session != null ? session.getUser() : null;
     }
     
     /**
@@ -184,7 +303,8 @@ public class AuthenticationService {
      * @return the session start time, or null if no session is active
      */
     public LocalDateTime getSessionStartTime() {
-        return sessionStartTime;
+        Session session = getCurrentSession();
+        return session != null ? session.getStartTime() : null;
     }
     
     /**
@@ -195,9 +315,19 @@ public class AuthenticationService {
      * @throws AuthenticationException if password change fails
      */
     public void changePassword(String oldPassword, String newPassword) throws AuthenticationException {
-        if (!isLoggedIn()) {
-            throw new AuthenticationException("No user is currently logged in");
-        }
+        changePassword(requireCurrentSession(), oldPassword, newPassword);
+    }
+    
+    /**
+     * Changes the password of a session's user and ends that user's other sessions.
+     * 
+     * @param session the session of the user changing their password
+     * @param oldPassword the current password
+     * @param newPassword the new password
+     * @throws AuthenticationException if password change fails
+     */
+    public void changePassword(Session session, String oldPassword, String newPassword) throws AuthenticationException {
+        User currentUser = requireLive(session).getUser();
         
         if (oldPassword == null || oldPassword.trim().isEmpty()) {
             throw new AuthenticationException("Current password cannot be empty");
@@ -216,16 +346,20 @@ public class AuthenticationService {
         
         try {
             // Verify current password
-            if (!verifyPassword(oldPassword, currentUser.getPasswordHash())) {
+            if (!passwordEncoder.verify(oldPassword, currentUser.getPasswordHash()).matches()) {
                 throw new AuthenticationException("Current password is incorrect");
             }
             
             // Update password
-            String newPasswordHash = hashPassword(newPassword);
+            String newPasswordHash = passwordEncoder.hash(newPassword);
             currentUser.setPasswordHash(newPasswordHash);
             userDAO.update(currentUser);
             
-            logger.info("Successfully changed password for user: {}", currentUser.getUsername());
+            int ended = sessionRegistry.invalidateUser(currentUser.getId(), session);
+            
+            logger.info("Successfully changed password for user: {} ({} other sessions ended)",
+                    currentUser.getUsername(), ended);
+            AuditLog.record("user.password", currentUser.getId(), currentUser.getId());
             
         } catch (DatabaseException e) {
             logger.error("Database error during password change", e);
@@ -242,9 +376,21 @@ public class AuthenticationService {
      * @throws AuthenticationException if update fails
      */
     public void updateProfile(String firstName, String lastName, String email) throws AuthenticationException {
-        if (!isLoggedIn()) {
-            throw new AuthenticationException("No user is currently logged in");
-        }
+        updateProfile(requireCurrentSession(), firstName, lastName, email);
+    }
+    
+    /**
+     * Updates the profile of a session's user.
+     * 
+     * @param session the session of the user updating their profile
+     * @param firstName the new first name
+     * @param lastName the new last name
+     * @param email the new email address
+     * @throws AuthenticationException if update fails
+     */
+    public void updateProfile(Session session, String firstName, String lastName, String email)
+            throws AuthenticationException {
+        User currentUser = requireLive(session).getUser();
         
         logger.debug("Updating profile for user: {}", currentUser.getUsername());
         
@@ -268,8 +414,10 @@ public class AuthenticationService {
             }
             
             userDAO.update(currentUser);
+            sessionRegistry.updateUser(currentUser);
             
             logger.info("Successfully updated profile for user: {}", currentUser.getUsername());
+            AuditLog.record("user.profile", currentUser.getId(), currentUser.getId());
             
         } catch (DatabaseException e) {
             logger.error("Database error during profile update", e);
@@ -277,6 +425,24 @@ public class AuthenticationService {
         }
     }
     
+    /**
+     * Tells whether the logged-in user is an administrator, i.e. listed in the
+     * {@code todos.auth.admins} system property ({@code admin} by default).
+     * 
+     * @return true if an administrator is logged in
+     */
+    public boolean isAdmin() {
+        User user = getCurrentUser();
+        return user != null && adminUsernames().contains(user.getUsername());
+    }
+    
+    private static Set<String> adminUsernames() {
+        return Arrays.stream(System.getProperty(ADMIN_USERS_PROPERTY, DEFAULT_ADMIN_USERS).split(","))
+                .map(String::trim)
+                .filter(username -> !username.isEmpty())
+                .collect(Collectors.toSet());
+    }
+    
     /**
      * Requires that a user is logged in.
      * 
@@ -288,102 +454,37 @@ public class AuthenticationService {
         }
     }
     
-    /**
-     * Hashes a password using SHA-256 with a random salt.
-     * 
-     * @param password the password to hash
-     * @return the hashed password with salt
-     */
-    private String hashPassword(String password) {
-        try {
-            // Generate salt
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[SALT_LENGTH];
-            random.nextBytes(salt);
-            
-            // Hash password with salt
-            MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes(StandardCharsets.UTF_8));
-            
-            // Combine salt and hash
-            byte[] saltAndHash = new byte[salt.length + hashedPassword.length];
-            System.arraycopy(salt, 0, saltAndHash, 0, salt.length);
-            System.arraycopy(hashedPassword, 0, saltAndHash, salt.length, hashedPassword.length);
-            
-            return Base64.getEncoder().encodeToString(saltAndHash);
-            
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Password hashing algorithm not available", e);
+    private Session requireCurrentSession() throws AuthenticationException {
+        Session session = getCurrentSession();
+        if (session == null) {
+            throw new AuthenticationException("No user is currently logged in");
         }
+        return session;
     }
-
-    /**
-     * Checks if a string contains only valid Base64 characters.
-     *
-     * @param input the string to check
-     * @return true if the string contains only valid Base64 characters, false otherwise
-     */
-    private boolean isValidBase64(String input) {
-        if (input == null) {
-            return false;
+    
+    private Session requireLive(Session session) throws AuthenticationException {
+        if (session == null || session.isInvalidated()) {
+            throw new AuthenticationException("No user is currently logged in");
         }
-
-        // Standard Base64 alphabet characters
-        String base64Pattern = "^[A-Za-z0-9+/]*={0,2}$";
-        return input.matches(base64Pattern);
+        return session;
     }
-
-
+    
     /**
-     * Verifies a password against a stored hash.
+     * Replaces a user's password hash with one from the current scheme. The login
+     * has already succeeded, so a failure here is logged and retried next time.
      * 
-     * @param password the password to verify
-     * @param storedHash the stored hash to verify against
-     * @return true if password matches, false otherwise
+     * @param user the user who just logged in
+     * @param password the verified password
      */
-    private boolean verifyPassword(String password, String storedHash) {
+    private void upgradePasswordHash(User user, String password) {
+        String previousHash = user.getPasswordHash();
         try {
-            // Validate the stored hash
-            if (storedHash == null || storedHash.isEmpty()) {
-                logger.error("Stored password hash is null or empty");
-                return false;
-            }
-
-            // Check if the stored hash contains valid Base64 characters
-            if (!isValidBase64(storedHash)) {
-                logger.error("Stored password hash is not valid Base64");
-                return false;
-            }
-
-            // Decode stored hash
-            byte[] saltAndHash = Base64.getDecoder().decode(storedHash);
-
-            // Validate decoded data length
-            if (saltAndHash.length <= SALT_LENGTH) {
-                logger.error("Decoded hash data is too short");
-                return false;
-            }
-
-            // Extract salt
-            byte[] salt = new byte[SALT_LENGTH];
-            System.arraycopy(saltAndHash, 0, salt, 0, SALT_LENGTH);
-
-            // Extract hash
-            byte[] storedPasswordHash = new byte[saltAndHash.length - SALT_LENGTH];
-            System.arraycopy(saltAndHash, SALT_LENGTH, storedPasswordHash, 0, storedPasswordHash.length);
-
-            // Hash provided password with extracted salt
-            MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes(StandardCharsets.UTF_8));
-
-            // Compare hashes
-            return MessageDigest.isEqual(storedPasswordHash, hashedPassword);
-
-        } catch (Exception e) {
-            logger.error("Error verifying password: {}", e.getMessage());
-            return false;
+            user.setPasswordHash(passwordEncoder.hash(password));
+            userDAO.update(user);
+            logger.info("Upgraded password hash for user: {}", user.getUsername());
+        } catch (AuthenticationException | DatabaseException e) {
+            user.setPasswordHash(previousHash);
+            logger.warn("Could not upgrade password hash for user {}: {}", user.getUsername(), e.getMessage());
         }
     }
 }
@@ -1,10 +1,15 @@
 package org.lucian.todos.service;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.lucian.todos.audit.AuditLog;
 import org.lucian.todos.dao.ProjectDAO;
+import org.lucian.todos.dao.TodoCountSummary;
 import org.lucian.todos.dao.TodoDAO;
 import org.lucian.todos.exceptions.AuthenticationException;
 import org.lucian.todos.exceptions.DatabaseException;
@@ -13,6 +18,7 @@ import org.lucian.todos.model.Project;
 import org.lucian.todos.model.Todo;
 import org.lucian.todos.model.TodoStatus;
 import org.lucian.todos.model.User;
+import org.lucian.todos.session.UserContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,12 +34,31 @@ public class ProjectService {
     
     private final ProjectDAO projectDAO;
     private final TodoDAO todoDAO;
-    private final AuthenticationService authService;
+    private final UserContext userContext;
     
-    public ProjectService(ProjectDAO projectDAO, TodoDAO todoDAO, AuthenticationService authService) {
+    /**
+     * Creates the service for a user context. An {@link AuthenticationService} is the
+     * context of its current session; a shared service passes each request's
+     * {@link org.lucian.todos.session.Session} instead.
+     * 
+     * @param projectDAO the project data access object
+     * @param todoDAO the todo data access object
+     * @param userContext the user the calls run on behalf of
+     */
+    public ProjectService(ProjectDAO projectDAO, TodoDAO todoDAO, UserContext userContext) {
         this.projectDAO = projectDAO;
         this.todoDAO = todoDAO;
-        this.authService = authService;
+        this.userContext = userContext;
+    }
+    
+    /**
+     * Gets a service for another user context that shares this one's DAOs.
+     * 
+     * @param userContext the user the calls run on behalf of
+     * @return the service for that user
+     */
+    public ProjectService withUserContext(UserContext userContext) {
+        return new ProjectService(projectDAO, todoDAO, userContext);
     }
     
     /**
@@ -49,7 +74,7 @@ public class ProjectService {
         
         // Set the user_id to the current authenticated user
         try {
-            User currentUser = authService.getCurrentUser();
+            User currentUser = userContext.getCurrentUser();
             if (currentUser == null) {
                 throw new AuthenticationException("No user is currently authenticated");
             }
@@ -59,42 +84,49 @@ public class ProjectService {
             throw new DatabaseException("Cannot create project: user not authenticated", e);
         }
         
-        logger.info("Creating new project: {} for user: {}", project.getName(), project.getUserId());
+        logger.debug("Creating new project: {} for user: {}", project.getName(), project.getUserId());
         
-        return projectDAO.create(project);
+        Project created = projectDAO.create(project);
+        AuditLog.record("project.create", created.getUserId(), created.getId());
+        return created;
     }
     
     /**
-     * Finds a project by ID and loads its todos.
+     * Finds a project by ID, without its todos. When a user is logged in, another
+     * user's project is reported as not found, like every other by-ID operation of
+     * this service.
      * 
      * @param id the project ID
-     * @return the project with loaded todos
-     * @throws ProjectNotFoundException if project is not found
+     * @return the project
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
      * @throws DatabaseException if query fails
      */
     public Project findProjectById(Long id) throws ProjectNotFoundException, DatabaseException {
+        logger.debug("Finding project by ID: {}", id);
+        return requireOwnedProject(id);
+    }
+    
+    /**
+     * Finds a project by ID together with its todos, read in a single query.
+     * Only views that show the todos need this; callers should then use
+     * {@link Project#getTodos()} rather than querying them again.
+     * 
+     * @param id the project ID
+     * @return the project with loaded todos
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
+     * @throws DatabaseException if query fails
+     */
+    public Project getProjectWithTodos(Long id) throws ProjectNotFoundException, DatabaseException {
         if (id == null) {
             throw new IllegalArgumentException("Project ID cannot be null");
         }
         
-        logger.debug("Finding project by ID: {}", id);
-        
-        Optional<Project> project = projectDAO.findById(id);
-        if (project.isEmpty()) {
-            throw new ProjectNotFoundException("Project not found with ID: " + id, id);
-        }
-        
-        // Load todos for the project
-        Project foundProject = project.get();
-        List<Todo> todos = todoDAO.findByProjectId(id);
-        
-        // Set todos for the project without trying to clear the unmodifiable list
-        // Since getTodos() returns an unmodifiable list, we need to set todos directly
-        for (Todo todo : todos) {
-            foundProject.addTodo(todo);
-        }
+        logger.debug("Finding project with todos by ID: {}", id);
         
-        return foundProject;
+        Long userId = currentUserId();
+        return projectDAO.findByIdWithTodos(id)
+                .filter(project -> isOwnedBy(project, userId))
+                .orElseThrow(() -> notFound(id));
     }
     
     /**
@@ -105,7 +137,8 @@ public class ProjectService {
      */
     public List<Project> getAllProjects() throws DatabaseException {
         logger.debug("Retrieving all projects");
-        return projectDAO.findAll();
+        Long userId = currentUserId();
+        return userId != null ? projectDAO.findAllForUser(userId) : projectDAO.findAll();
     }
     
     /**
@@ -121,7 +154,8 @@ public class ProjectService {
         }
         
         logger.debug("Finding projects by name: {}", name);
-        return projectDAO.findByName(name);
+        Long userId = currentUserId();
+        return userId != null ? projectDAO.findByNameForUser(userId, name) : projectDAO.findByName(name);
     }
     
     /**
@@ -132,7 +166,8 @@ public class ProjectService {
      */
     public List<Project> getCompletedProjects() throws DatabaseException {
         logger.debug("Finding completed projects");
-        return projectDAO.findCompleted();
+        Long userId = currentUserId();
+        return userId != null ? projectDAO.findCompletedForUser(userId) : projectDAO.findCompleted();
     }
     
     /**
@@ -143,7 +178,8 @@ public class ProjectService {
      */
     public List<Project> getActiveProjects() throws DatabaseException {
         logger.debug("Finding active projects");
-        return projectDAO.findActive();
+        Long userId = currentUserId();
+        return userId != null ? projectDAO.findActiveForUser(userId) : projectDAO.findActive();
     }
     
     /**
@@ -151,7 +187,7 @@ public class ProjectService {
      * 
      * @param project the project to update
      * @return the updated project
-     * @throws ProjectNotFoundException if project is not found
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
      * @throws DatabaseException if update fails
      * @throws IllegalArgumentException if project data is invalid
      */
@@ -162,13 +198,13 @@ public class ProjectService {
             throw new IllegalArgumentException("Project ID cannot be null for update");
         }
         
-        // Verify project exists
-        if (!projectDAO.exists(project.getId())) {
-            throw new ProjectNotFoundException("Project not found with ID: " + project.getId(), project.getId());
-        }
+        // Verify project exists and belongs to the user
+        requireOwnedProject(project.getId());
         
-        logger.info("Updating project: {} (ID: {})", project.getName(), project.getId());
-        return projectDAO.update(project);
+        logger.debug("Updating project: {} (ID: {})", project.getName(), project.getId());
+        Project updated = projectDAO.update(project);
+        AuditLog.record("project.update", currentUserId(), project.getId());
+        return updated;
     }
     
     /**
@@ -177,26 +213,30 @@ public class ProjectService {
      * @param projectId the project ID
      * @param todo the todo to add
      * @return the updated todo with project assignment
-     * @throws ProjectNotFoundException if project is not found
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
      * @throws DatabaseException if operation fails
      */
     public Todo addTodoToProject(Long projectId, Todo todo) 
             throws ProjectNotFoundException, DatabaseException {
-        if (!projectDAO.exists(projectId)) {
-            throw new ProjectNotFoundException("Project not found with ID: " + projectId, projectId);
+        requireOwnedProject(projectId);
+        if (todo.getId() != null && findOwnedTodo(todo.getId()).isEmpty()) {
+            throw new IllegalArgumentException("Todo not found with ID: " + todo.getId());
         }
         
-        logger.info("Adding todo '{}' to project {}", todo.getTitle(), projectId);
+        logger.debug("Adding todo '{}' to project {}", todo.getTitle(), projectId);
         
         todo.setProjectId(projectId);
         
+        Todo saved;
         if (todo.getId() == null) {
             // Create new todo
-            return todoDAO.create(todo);
+            saved = todoDAO.create(todo);
         } else {
             // Update existing todo
-            return todoDAO.update(todo);
+            saved = todoDAO.update(todo);
         }
+        AuditLog.record("todo.assign", currentUserId(), saved.getId(), projectId);
+        return saved;
     }
     
     /**
@@ -205,16 +245,14 @@ public class ProjectService {
      * @param projectId the project ID
      * @param todoId the todo ID
      * @return the updated todo
-     * @throws ProjectNotFoundException if project is not found
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
      * @throws DatabaseException if operation fails
      */
     public Todo removeTodoFromProject(Long projectId, Long todoId) 
             throws ProjectNotFoundException, DatabaseException {
-        if (!projectDAO.exists(projectId)) {
-            throw new ProjectNotFoundException("Project not found with ID: " + projectId, projectId);
-        }
+        requireOwnedProject(projectId);
         
-        Optional<Todo> todoOpt = todoDAO.findById(todoId);
+        Optional<Todo> todoOpt = findOwnedTodo(todoId);
         if (todoOpt.isEmpty()) {
             throw new IllegalArgumentException("Todo not found with ID: " + todoId);
         }
@@ -224,10 +262,12 @@ public class ProjectService {
             throw new IllegalArgumentException("Todo " + todoId + " is not assigned to project " + projectId);
         }
         
-        logger.info("Removing todo {} from project {}", todoId, projectId);
+        logger.debug("Removing todo {} from project {}", todoId, projectId);
         
         todo.setProjectId(null);
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.unassign", currentUserId(), todoId, projectId);
+        return updated;
     }
     
     /**
@@ -235,62 +275,140 @@ public class ProjectService {
      * 
      * @param projectId the project ID
      * @return completion statistics
-     * @throws ProjectNotFoundException if project is not found
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
      * @throws DatabaseException if query fails
      */
     public ProjectCompletionStats getProjectCompletionStats(Long projectId) 
             throws ProjectNotFoundException, DatabaseException {
-        if (!projectDAO.exists(projectId)) {
-            throw new ProjectNotFoundException("Project not found with ID: " + projectId, projectId);
-        }
+        requireOwnedProject(projectId);
         
         logger.debug("Calculating completion stats for project: {}", projectId);
         
-        List<Todo> todos = todoDAO.findByProjectId(projectId);
+        TodoCountSummary summary = todoDAO.countSummaryByProject(List.of(projectId)).get(projectId);
+        return toCompletionStats(projectId, summary);
+    }
+    
+    /**
+     * Gets completion statistics for several projects with a single grouped query.
+     * Every requested project gets an entry; unknown projects and projects without
+     * todos report zero todos.
+     * 
+     * @param projectIds the project IDs
+     * @return completion statistics keyed by project ID, in request order
+     * @throws DatabaseException if query fails
+     */
+    public Map<Long, ProjectCompletionStats> getProjectCompletionStats(Collection<Long> projectIds) 
+            throws DatabaseException {
+        if (projectIds == null) {
+            throw new IllegalArgumentException("Project IDs cannot be null");
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Calculating completion stats for {} projects", projectIds.size());
+        }
         
+        Map<Long, TodoCountSummary> summaries = todoDAO.countSummaryByProject(projectIds);
+        Map<Long, ProjectCompletionStats> result = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            result.put(projectId, toCompletionStats(projectId, summaries.get(projectId)));
+        }
+        return result;
+    }
+    
+    /**
+     * Gets completion statistics for every project of the logged-in user that has todos,
+     * with a single grouped query. Without a user context it covers every user's projects.
+     * 
+     * @return completion statistics keyed by project ID
+     * @throws DatabaseException if query fails
+     */
+    public Map<Long, ProjectCompletionStats> getAllProjectCompletionStats() throws DatabaseException {
+        logger.debug("Calculating completion stats for all projects");
+        
+        Long userId = currentUserId();
+        List<Long> projectIds = userId != null
+                ? projectDAO.findAllForUser(userId).stream().map(Project::getId).toList()
+                : null;
+        Map<Long, ProjectCompletionStats> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, TodoCountSummary> entry : todoDAO.countSummaryByProject(projectIds).entrySet()) {
+            result.put(entry.getKey(), toCompletionStats(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the ID of the logged-in user, which scopes all listings.
+     * Without a user context, listings cover every user's projects; a context
+     * whose user has gone (e.g. an expired session) is an error instead.
+     * 
+     * @return the current user's ID, or null if the service has no user context
+     * @throws IllegalStateException if the user context has no logged-in user
+     */
+    private Long currentUserId() {
+        if (userContext == null) {
+            return null;
+        }
+        Long userId = userContext.getCurrentUserId();
+        if (userId == null) {
+            throw new IllegalStateException("No user is currently authenticated. Please log in again.");
+        }
+        return userId;
+    }
+    
+    /**
+     * Loads a project if the logged-in user owns it, or if the service has no user context.
+     */
+    private Optional<Project> findOwnedProject(Long id) throws DatabaseException {
+        if (id == null) {
+            throw new IllegalArgumentException("Project ID cannot be null");
+        }
+        Long userId = currentUserId();
+        return projectDAO.findById(id).filter(project -> isOwnedBy(project, userId));
+    }
+    
+    private Project requireOwnedProject(Long id) throws ProjectNotFoundException, DatabaseException {
+        return findOwnedProject(id).orElseThrow(() -> notFound(id));
+    }
+    
+    /**
+     * Loads a todo if the logged-in user owns it, or if the service has no user context.
+     */
+    private Optional<Todo> findOwnedTodo(Long id) throws DatabaseException {
+        Long userId = currentUserId();
+        return todoDAO.findById(id).filter(todo -> userId == null || userId.equals(todo.getUserId()));
+    }
+    
+    private static boolean isOwnedBy(Project project, Long userId) {
+        return userId == null || userId.equals(project.getUserId());
+    }
+    
+    private static ProjectNotFoundException notFound(Long id) {
+        return new ProjectNotFoundException("Project not found with ID: " + id, id);
+    }
+    
+    private ProjectCompletionStats toCompletionStats(Long projectId, TodoCountSummary summary) {
         ProjectCompletionStats stats = new ProjectCompletionStats();
         stats.setProjectId(projectId);
-        stats.setTotalTodos(todos.size());
-        
-        if (todos.isEmpty()) {
+        if (summary == null || summary.getTotal() == 0) {
             return stats;
         }
         
-        long completedTodos = todos.stream()
-                                   .mapToLong(todo -> todo.getStatus() == TodoStatus.COMPLETED ? 1 : 0)
-                                   .sum();
-        
-        long todoTodos = todos.stream()
-                              .mapToLong(todo -> todo.getStatus() == TodoStatus.TODO ? 1 : 0)
-                              .sum();
-        
-        long inProgressTodos = todos.stream()
-                                    .mapToLong(todo -> todo.getStatus() == TodoStatus.IN_PROGRESS ? 1 : 0)
-                                    .sum();
-        
-        long cancelledTodos = todos.stream()
-                                   .mapToLong(todo -> todo.getStatus() == TodoStatus.CANCELLED ? 1 : 0)
-                                   .sum();
-        
-        long overdueTodos = todos.stream()
-                                 .mapToLong(todo -> todo.isOverdue() ? 1 : 0)
-                                 .sum();
-        
-        stats.setCompletedTodos(completedTodos);
-        stats.setTodoTodos(todoTodos);
-        stats.setInProgressTodos(inProgressTodos);
-        stats.setCancelledTodos(cancelledTodos);
-        stats.setOverdueTodos(overdueTodos);
-        stats.setCompletionPercentage((completedTodos * 100.0) / todos.size());
+        stats.setTotalTodos((int) summary.getTotal());
+        stats.setCompletedTodos(summary.getCount(TodoStatus.COMPLETED));
+        stats.setTodoTodos(summary.getCount(TodoStatus.TODO));
+        stats.setInProgressTodos(summary.getCount(TodoStatus.IN_PROGRESS));
+        stats.setCancelledTodos(summary.getCount(TodoStatus.CANCELLED));
+        stats.setOverdueTodos(summary.getOverdue());
+        stats.setCompletionPercentage((summary.getCount(TodoStatus.COMPLETED) * 100.0) / summary.getTotal());
         
         return stats;
     }
     
     /**
-     * Deletes a project and all its todos.
+     * Deletes a project. Its todos are kept and no longer belong to a project.
      * 
      * @param projectId the project ID
-     * @return true if project was deleted, false if not found
+     * @return true if project was deleted, false if not found or owned by another user
      * @throws DatabaseException if deletion fails
      */
     public boolean deleteProject(Long projectId) throws DatabaseException {
@@ -298,8 +416,21 @@ public class ProjectService {
             throw new IllegalArgumentException("Project ID cannot be null");
         }
         
-        logger.info("Deleting project: {}", projectId);
-        return projectDAO.delete(projectId);
+        if (currentUserId() != null && findOwnedProject(projectId).isEmpty()) {
+            return false;
+        }
+        
+        logger.debug("Deleting project: {}", projectId);
+        try {
+            boolean deleted = projectDAO.delete(projectId);
+            if (deleted) {
+                AuditLog.record("project.delete", currentUserId(), projectId);
+            }
+            return deleted;
+        } finally {
+            // Deleting the project sets project_id to NULL on its todos
+            todoDAO.invalidateProject(projectId);
+        }
     }
     
     /**
@@ -311,10 +442,11 @@ public class ProjectService {
     public ProjectStatistics getProjectStatistics() throws DatabaseException {
         logger.debug("Calculating project statistics");
         
+        Long userId = currentUserId();
         ProjectStatistics stats = new ProjectStatistics();
-        stats.setTotalProjects(projectDAO.count());
-        stats.setActiveProjects(projectDAO.findActive().size());
-        stats.setCompletedProjects(projectDAO.findCompleted().size());
+        stats.setTotalProjects(userId != null ? projectDAO.countForUser(userId) : projectDAO.count());
+        stats.setActiveProjects(getActiveProjects().size());
+        stats.setCompletedProjects(getCompletedProjects().size());
         
         return stats;
     }
@@ -323,7 +455,7 @@ public class ProjectService {
      * Gets a project by ID (alias for findProjectById for CLI compatibility).
      * 
      * @param id the project ID
-     * @return the project with loaded todos
+     * @return the project, without its todos
      * @throws ProjectNotFoundException if project is not found
      * @throws DatabaseException if query fails
      */
@@ -2,16 +2,25 @@ package org.lucian.todos.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.lucian.todos.audit.AuditLog;
+import org.lucian.todos.dao.ProjectDAO;
+import org.lucian.todos.dao.TodoCountSummary;
 import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.dao.TodoSearchResult;
 import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.exceptions.ProjectNotFoundException;
 import org.lucian.todos.exceptions.TodoNotFoundException;
 import org.lucian.todos.model.Priority;
 import org.lucian.todos.model.RecurringTodo;
 import org.lucian.todos.model.Todo;
 import org.lucian.todos.model.TodoStatus;
 import org.lucian.todos.model.User;
+import org.lucian.todos.session.UserContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,11 +33,32 @@ public class TodoService {
     private static final Logger logger = LoggerFactory.getLogger(TodoService.class);
     
     private final TodoDAO todoDAO;
-    private final AuthenticationService authService;
+    private final ProjectDAO projectDAO;
+    private final UserContext userContext;
     
-    public TodoService(TodoDAO todoDAO, AuthenticationService authService) {
+    /**
+     * Creates the service for a user context. An {@link AuthenticationService} is the
+     * context of its current session; a shared service passes each request's
+     * {@link org.lucian.todos.session.Session} instead.
+     * 
+     * @param todoDAO the todo data access object
+     * @param projectDAO the project data access object, used to check project assignments
+     * @param userContext the user the calls run on behalf of
+     */
+    public TodoService(TodoDAO todoDAO, ProjectDAO projectDAO, UserContext userContext) {
         this.todoDAO = todoDAO;
-        this.authService = authService;
+        this.projectDAO = projectDAO;
+        this.userContext = userContext;
+    }
+    
+    /**
+     * Gets a service for another user context that shares this one's DAOs.
+     * 
+     * @param userContext the user the calls run on behalf of
+     * @return the service for that user
+     */
+    public TodoService withUserContext(UserContext userContext) {
+        return new TodoService(todoDAO, projectDAO, userContext);
     }
     
     /**
@@ -36,14 +66,15 @@ public class TodoService {
      * 
      * @param todo the todo to create
      * @return the created todo with generated ID
+     * @throws ProjectNotFoundException if the todo's project is not found or belongs to another user
      * @throws DatabaseException if creation fails
      * @throws IllegalArgumentException if todo data is invalid
      */
-    public Todo createTodo(Todo todo) throws DatabaseException {
+    public Todo createTodo(Todo todo) throws ProjectNotFoundException, DatabaseException {
         try {
             validateTodo(todo);
             
-            logger.info("Creating new todo: {}", todo.getTitle());
+            logger.debug("Creating new todo: {}", todo.getTitle());
             
             // Ensure proper defaults
             if (todo.getPriority() == null) {
@@ -54,7 +85,7 @@ public class TodoService {
             }
             
             // Set the current user ID to the todo
-            User currentUser = authService.getCurrentUser();
+            User currentUser = userContext.getCurrentUser();
             if (currentUser != null) {
                 todo.setUserId(currentUser.getId());
                 logger.debug("Setting user ID {} for todo {}", currentUser.getId(), todo.getTitle());
@@ -62,9 +93,12 @@ public class TodoService {
                 logger.error("No user is currently authenticated");
                 throw new IllegalStateException("No user is currently authenticated. Cannot create todo.");
             }
+            requireOwnedProject(todo.getProjectId());
             
-            return todoDAO.create(todo);
-        } catch (IllegalArgumentException | IllegalStateException e) {
+            Todo created = todoDAO.create(todo);
+            AuditLog.record("todo.create", created.getUserId(), created.getId());
+            return created;
+        } catch (IllegalArgumentException | IllegalStateException | ProjectNotFoundException e) {
             // Rethrow application-level exceptions with clear messages
             logger.warn("Error creating todo: {}", e.getMessage());
             throw e;
@@ -80,11 +114,12 @@ public class TodoService {
     }
     
     /**
-     * Finds a todo by ID.
+     * Finds a todo by ID. When a user is logged in, another user's todo is reported
+     * as not found, so every front end gets the same ownership check.
      * 
      * @param id the todo ID
      * @return the todo if found
-     * @throws TodoNotFoundException if todo is not found
+     * @throws TodoNotFoundException if todo is not found or belongs to another user
      * @throws DatabaseException if query fails
      */
     public Todo findTodoById(Long id) throws TodoNotFoundException, DatabaseException {
@@ -94,7 +129,7 @@ public class TodoService {
         
         logger.debug("Finding todo by ID: {}", id);
         
-        Optional<Todo> todo = todoDAO.findById(id);
+        Optional<Todo> todo = findOwnedTodo(id);
         if (todo.isEmpty()) {
             throw new TodoNotFoundException("Todo not found with ID: " + id, id);
         }
@@ -110,7 +145,8 @@ public class TodoService {
      */
     public List<Todo> getAllTodos() throws DatabaseException {
         logger.debug("Retrieving all todos");
-        return todoDAO.findAll();
+        Long userId = currentUserId();
+        return userId != null ? todoDAO.findAllForUser(userId) : todoDAO.findAll();
     }
     
     /**
@@ -126,7 +162,8 @@ public class TodoService {
         }
         
         logger.debug("Finding todos for project: {}", projectId);
-        return todoDAO.findByProjectId(projectId);
+        Long userId = currentUserId();
+        return userId != null ? todoDAO.findByProjectIdForUser(userId, projectId) : todoDAO.findByProjectId(projectId);
     }
     
     /**
@@ -142,7 +179,8 @@ public class TodoService {
         }
         
         logger.debug("Finding todos by status: {}", status);
-        return todoDAO.findByStatus(status);
+        Long userId = currentUserId();
+        return userId != null ? todoDAO.findByStatusForUser(userId, status) : todoDAO.findByStatus(status);
     }
     
     /**
@@ -158,7 +196,8 @@ public class TodoService {
         }
         
         logger.debug("Finding todos by priority: {}", priority);
-        return todoDAO.findByPriority(priority);
+        Long userId = currentUserId();
+        return userId != null ? todoDAO.findByPriorityForUser(userId, priority) : todoDAO.findByPriority(priority);
     }
     
     /**
@@ -169,7 +208,8 @@ public class TodoService {
      */
     public List<Todo> getOverdueTodos() throws DatabaseException {
         logger.debug("Finding overdue todos");
-        return todoDAO.findOverdue();
+        Long userId = currentUserId();
+        return userId != null ? todoDAO.findOverdueForUser(userId) : todoDAO.findOverdue();
     }
     
     /**
@@ -180,11 +220,9 @@ public class TodoService {
      */
     public List<Todo> getTodosDueToday() throws DatabaseException {
         logger.debug("Finding todos due today");
-        return todoDAO.findDueBefore(LocalDate.now().plusDays(1))
-                      .stream()
-                      .filter(todo -> todo.getDueDate() != null && 
-                                    todo.getDueDate().equals(LocalDate.now()))
-                      .toList();
+        Long userId = currentUserId();
+        LocalDate today = LocalDate.now();
+        return userId != null ? todoDAO.findDueOnForUser(userId, today) : todoDAO.findDueOn(today);
     }
     
     /**
@@ -193,21 +231,27 @@ public class TodoService {
      * @param todo the todo to update
      * @return the updated todo
      * @throws TodoNotFoundException if todo is not found
+     * @throws ProjectNotFoundException if a newly set project is not found or belongs to another user
      * @throws DatabaseException if update fails
      * @throws IllegalArgumentException if todo data is invalid
      */
-    public Todo updateTodo(Todo todo) throws TodoNotFoundException, DatabaseException {
+    public Todo updateTodo(Todo todo) throws TodoNotFoundException, ProjectNotFoundException, DatabaseException {
         validateTodo(todo);
         
         if (todo.getId() == null) {
             throw new IllegalArgumentException("Todo ID cannot be null for update");
         }
         
-        // Verify todo exists
-        findTodoById(todo.getId());
+        // Verify todo exists, and that a newly set project belongs to the user
+        Todo existing = findTodoById(todo.getId());
+        if (!Objects.equals(existing.getProjectId(), todo.getProjectId())) {
+            requireOwnedProject(todo.getProjectId());
+        }
         
-        logger.info("Updating todo: {} (ID: {})", todo.getTitle(), todo.getId());
-        return todoDAO.update(todo);
+        logger.debug("Updating todo: {} (ID: {})", todo.getTitle(), todo.getId());
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.update", currentUserId(), todo.getId());
+        return updated;
     }
     
     /**
@@ -222,21 +266,23 @@ public class TodoService {
         Todo todo = findTodoById(todoId);
         
         if (todo.getStatus() == TodoStatus.COMPLETED) {
-            logger.info("Todo {} is already completed", todoId);
+            logger.debug("Todo {} is already completed", todoId);
             return todo;
         }
         
-        logger.info("Marking todo as completed: {} (ID: {})", todo.getTitle(), todoId);
+        logger.debug("Marking todo as completed: {} (ID: {})", todo.getTitle(), todoId);
         
         todo.markCompleted();
         
         // Handle recurring todo progression
         if (todo instanceof RecurringTodo recurringTodo && recurringTodo.hasMoreOccurrences()) {
-            logger.info("Moving recurring todo to next occurrence: {}", todoId);
+            logger.debug("Moving recurring todo to next occurrence: {}", todoId);
             recurringTodo.moveToNextOccurrence();
         }
         
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.complete", currentUserId(), todoId);
+        return updated;
     }
     
     /**
@@ -254,10 +300,12 @@ public class TodoService {
             throw new IllegalStateException("Cannot modify todo in status: " + todo.getStatus());
         }
         
-        logger.info("Marking todo as in progress: {} (ID: {})", todo.getTitle(), todoId);
+        logger.debug("Marking todo as in progress: {} (ID: {})", todo.getTitle(), todoId);
         
         todo.markInProgress();
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.start", currentUserId(), todoId);
+        return updated;
     }
     
     /**
@@ -275,10 +323,12 @@ public class TodoService {
             throw new IllegalStateException("Cannot modify todo in status: " + todo.getStatus());
         }
         
-        logger.info("Marking todo as cancelled: {} (ID: {})", todo.getTitle(), todoId);
+        logger.debug("Marking todo as cancelled: {} (ID: {})", todo.getTitle(), todoId);
         
         todo.markCancelled();
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.cancel", currentUserId(), todoId);
+        return updated;
     }
     
     /**
@@ -288,16 +338,20 @@ public class TodoService {
      * @param projectId the project ID
      * @return the updated todo
      * @throws TodoNotFoundException if todo is not found
+     * @throws ProjectNotFoundException if project is not found or belongs to another user
      * @throws DatabaseException if update fails
      */
     public Todo assignTodoToProject(Long todoId, Long projectId) 
-            throws TodoNotFoundException, DatabaseException {
+            throws TodoNotFoundException, ProjectNotFoundException, DatabaseException {
         Todo todo = findTodoById(todoId);
+        requireOwnedProject(projectId);
         
-        logger.info("Assigning todo {} to project {}", todoId, projectId);
+        logger.debug("Assigning todo {} to project {}", todoId, projectId);
         
         todo.setProjectId(projectId);
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.assign", currentUserId(), todoId, projectId);
+        return updated;
     }
     
     /**
@@ -311,26 +365,35 @@ public class TodoService {
     public Todo removeTodoFromProject(Long todoId) throws TodoNotFoundException, DatabaseException {
         Todo todo = findTodoById(todoId);
         
-        logger.info("Removing todo {} from project", todoId);
+        logger.debug("Removing todo {} from project", todoId);
         
         todo.setProjectId(null);
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.unassign", currentUserId(), todoId);
+        return updated;
     }
     
     /**
      * Deletes a todo.
      * 
      * @param todoId the todo ID
-     * @return true if todo was deleted, false if not found
+     * @return true if todo was deleted, false if not found or owned by another user
      * @throws DatabaseException if deletion fails
      */
     public boolean deleteTodo(Long todoId) throws DatabaseException {
         if (todoId == null) {
             throw new IllegalArgumentException("Todo ID cannot be null");
         }
+        if (currentUserId() != null && findOwnedTodo(todoId).isEmpty()) {
+            return false;
+        }
         
-        logger.info("Deleting todo: {}", todoId);
-        return todoDAO.delete(todoId);
+        logger.debug("Deleting todo: {}", todoId);
+        boolean deleted = todoDAO.delete(todoId);
+        if (deleted) {
+            AuditLog.record("todo.delete", currentUserId(), todoId);
+        }
+        return deleted;
     }
     
     /**
@@ -342,13 +405,20 @@ public class TodoService {
     public TodoStatistics getTodoStatistics() throws DatabaseException {
         logger.debug("Calculating todo statistics");
         
+        Long userId = currentUserId();
+        TodoCountSummary summary = userId != null ? todoDAO.countSummaryForUser(userId) : todoDAO.countSummary();
+        
         TodoStatistics stats = new TodoStatistics();
-        stats.setTotalTodos(todoDAO.count());
-        stats.setTodoTodos(todoDAO.countByStatus(TodoStatus.TODO));
-        stats.setInProgressTodos(todoDAO.countByStatus(TodoStatus.IN_PROGRESS));
-        stats.setCompletedTodos(todoDAO.countByStatus(TodoStatus.COMPLETED));
-        stats.setCancelledTodos(todoDAO.countByStatus(TodoStatus.CANCELLED));
-        stats.setOverdueTodos(todoDAO.findOverdue().size());
+        stats.setTotalTodos(summary.getTotal());
+        stats.setTodoTodos(summary.getCount(TodoStatus.TODO));
+        stats.setInProgressTodos(summary.getCount(TodoStatus.IN_PROGRESS));
+        stats.setCompletedTodos(summary.getCount(TodoStatus.COMPLETED));
+        stats.setCancelledTodos(summary.getCount(TodoStatus.CANCELLED));
+        stats.setOverdueTodos(summary.getOverdue());
+        stats.setUrgentTodos(summary.getCount(Priority.URGENT));
+        stats.setHighPriorityTodos(summary.getCount(Priority.HIGH));
+        stats.setMediumPriorityTodos(summary.getCount(Priority.MEDIUM));
+        stats.setLowPriorityTodos(summary.getCount(Priority.LOW));
         
         return stats;
     }
@@ -381,43 +451,117 @@ public class TodoService {
             throw new IllegalStateException("Cannot modify todo in status: " + todo.getStatus());
         }
         
-        logger.info("Updating todo status: {} (ID: {}) to {}", todo.getTitle(), todoId, newStatus);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updating todo status: {} (ID: {}) to {}", todo.getTitle(), todoId, newStatus);
+        }
         
         todo.setStatus(newStatus);
-        return todoDAO.update(todo);
+        Todo updated = todoDAO.update(todo);
+        AuditLog.record("todo.status", currentUserId(), todoId, newStatus);
+        return updated;
     }
     
     /**
-     * Searches for todos by title or description containing the search term.
+     * Searches for todos whose title or description contains every word of the
+     * search term (as a word or word prefix), best matches first.
      * 
      * @param searchTerm the search term
      * @return list of matching todos
      * @throws DatabaseException if query fails
      */
     public List<Todo> searchTodos(String searchTerm) throws DatabaseException {
+        return searchTodosRanked(searchTerm, 0).stream()
+                .map(TodoSearchResult::getTodo)
+                .toList();
+    }
+    
+    /**
+     * Searches for todos using the full-text index, returning ranked results
+     * with highlighted snippets of the matching text.
+     * 
+     * @param searchTerm the search term
+     * @param limit the maximum number of results; 0 returns all matches
+     * @return ranked search results
+     * @throws DatabaseException if query fails
+     */
+    public List<TodoSearchResult> searchTodosRanked(String searchTerm, int limit) throws DatabaseException {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             throw new IllegalArgumentException("Search term cannot be null or empty");
         }
         
         logger.debug("Searching todos with term: {}", searchTerm);
         
-        // Get all todos and filter in memory for simplicity
-        // In a real application, this should be done at the database level
-        return todoDAO.findAll().stream()
-                .filter(todo -> 
-                    (todo.getTitle() != null && todo.getTitle().toLowerCase().contains(searchTerm.toLowerCase())) ||
-                    (todo.getDescription() != null && todo.getDescription().toLowerCase().contains(searchTerm.toLowerCase()))
-                )
-                .toList();
+        Long userId = currentUserId();
+        return userId != null ? todoDAO.searchForUser(userId, searchTerm, limit) : todoDAO.search(searchTerm, limit);
     }
     
     /**
-     * Validates todo data.
+     * Runs a filtered, sorted and paginated listing, restricted to the logged-in
+     * user's todos like the other listings.
+     * 
+     * @param query the query
+     * @return the page of todos and the total count
+     * @throws DatabaseException if query fails
+     */
+    public TodoQueryResult queryTodos(TodoQuery query) throws DatabaseException {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        
+        Long userId = currentUserId();
+        return todoDAO.query(userId != null ? query.forUser(userId) : query);
+    }
+    
+    /**
+     * Loads a todo if the logged-in user owns it, or if nobody is logged in.
+     */
+    private Optional<Todo> findOwnedTodo(Long id) throws DatabaseException {
+        Long userId = currentUserId();
+        return todoDAO.findById(id).filter(todo -> userId == null || userId.equals(todo.getUserId()));
+    }
+    
+    /**
+     * Checks that a project the user assigns a todo to exists and, when a user is
+     * logged in, belongs to them. A null project ID means no project and passes.
+     */
+    private void requireOwnedProject(Long projectId) throws ProjectNotFoundException, DatabaseException {
+        if (projectId == null) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (projectDAO.findById(projectId).filter(project -> userId == null || userId.equals(project.getUserId()))
+                .isEmpty()) {
+            throw new ProjectNotFoundException("Project not found with ID: " + projectId, projectId);
+        }
+    }
+    
+    /**
+     * Gets the ID of the logged-in user, which scopes all listings.
+     * Without a user context, listings cover every user's todos; a context
+     * whose user has gone (e.g. an expired session) is an error instead.
+     * 
+     * @return the current user's ID, or null if the service has no user context
+     * @throws IllegalStateException if the user context has no logged-in user
+     */
+    private Long currentUserId() {
+        if (userContext == null) {
+            return null;
+        }
+        Long userId = userContext.getCurrentUserId();
+        if (userId == null) {
+            throw new IllegalStateException("No user is currently authenticated. Please log in again.");
+        }
+        return userId;
+    }
+    
+    /**
+     * Validates todo data. Also applied by the bulk importer, so imported rows
+     * follow the same rules as todos created through this service.
      * 
      * @param todo the todo to validate
      * @throws IllegalArgumentException if todo data is invalid
      */
-    private void validateTodo(Todo todo) {
+    public static void validateTodo(Todo todo) {
         if (todo == null) {
             throw new IllegalArgumentException("Todo cannot be null");
         }
@@ -472,6 +616,10 @@ public class TodoService {
         private long completedTodos;
         private long cancelledTodos;
         private long overdueTodos;
+        private long urgentTodos;
+        private long highPriorityTodos;
+        private long mediumPriorityTodos;
+        private long lowPriorityTodos;
         
         // Getters and setters
         public long getTotalTodos() { return totalTodos; }
@@ -492,33 +640,26 @@ public class TodoService {
         public long getOverdueTodos() { return overdueTodos; }
         public void setOverdueTodos(long overdueTodos) { this.overdueTodos = overdueTodos; }
         
-        // Priority-based todo counts for CLI compatibility
-        public long getUrgentTodos() {
-            // This would typically be calculated by counting todos with URGENT priority
-            // For now, we'll return 0 as this requires additional DAO methods
-            return 0;
-        }
+        // Priority-based todo counts
+        public long getUrgentTodos() { return urgentTodos; }
+        public void setUrgentTodos(long urgentTodos) { this.urgentTodos = urgentTodos; }
         
-        public long getHighPriorityTodos() {
-            // This would typically be calculated by counting todos with HIGH priority
-            return 0;
-        }
+        public long getHighPriorityTodos() { return highPriorityTodos; }
+        public void setHighPriorityTodos(long highPriorityTodos) { this.highPriorityTodos = highPriorityTodos; }
         
-        public long getMediumPriorityTodos() {
-            // This would typically be calculated by counting todos with MEDIUM priority
-            return 0;
-        }
+        public long getMediumPriorityTodos() { return mediumPriorityTodos; }
+        public void setMediumPriorityTodos(long mediumPriorityTodos) { this.mediumPriorityTodos = mediumPriorityTodos; }
         
-        public long getLowPriorityTodos() {
-            // This would typically be calculated by counting todos with LOW priority
-            return 0;
-        }
+        public long getLowPriorityTodos() { return lowPriorityTodos; }
+        public void setLowPriorityTodos(long lowPriorityTodos) { this.lowPriorityTodos = lowPriorityTodos; }
         
         @Override
         public String toString() {
             return String.format(
-                "TodoStatistics{total=%d, todo=%d, inProgress=%d, completed=%d, cancelled=%d, overdue=%d}",
-                totalTodos, todoTodos, inProgressTodos, completedTodos, cancelledTodos, overdueTodos
+                "TodoStatistics{total=%d, todo=%d, inProgress=%d, completed=%d, cancelled=%d, overdue=%d, " +
+                "urgent=%d, high=%d, medium=%d, low=%d}",
+                totalTodos, todoTodos, inProgressTodos, completedTodos, cancelledTodos, overdueTodos,
+                urgentTodos, highPriorityTodos, mediumPriorityTodos, lowPriorityTodos
             );
         }
     }
@@ -0,0 +1,98 @@
+package org.lucian.todos.session;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.lucian.todos.model.User;
+
+/**
+ * A logged-in user's session, identified by an opaque random token.
+ * A session expires after {@link SessionConfig#getIdleTimeoutMillis()} without use,
+ * or {@link SessionConfig#getAbsoluteTimeoutMillis()} after login, whichever comes first.
+ */
+public class Session implements UserContext {
+
+    private final String token;
+    private final long createdAtMillis;
+    private volatile User user;
+    private volatile long lastAccessMillis;
+    private volatile boolean invalidated;
+
+    Session(String token, User user, long nowMillis) {
+        this.token = token;
+        this.user = user;
+        this.createdAtMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
+    }
+
+    /**
+     * Gets the token that identifies this session. It is a bearer credential and
+     * should not be logged.
+     *
+     * @return the session token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public User getCurrentUser() {
+        return invalidated ? null : user;
+    }
+
+    public LocalDateTime getStartTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAtMillis), ZoneId.systemDefault());
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    /**
+     * Tells whether the session has been logged out or expired.
+     *
+     * @return true if the session can no longer be used
+     */
+    public boolean isInvalidated() {
+        return invalidated;
+    }
+
+    void setUser(User user) {
+        this.user = user;
+    }
+
+    void touch(long nowMillis) {
+        // Plain volatile write: a lost race only keeps the older of two nearly equal times
+        if (nowMillis > lastAccessMillis) {
+            lastAccessMillis = nowMillis;
+        }
+    }
+
+    void invalidate() {
+        invalidated = true;
+    }
+
+    /**
+     * Computes when this session expires if it is not used again.
+     */
+    long expiresAtMillis(SessionConfig config) {
+        return Math.min(lastAccessMillis + config.getIdleTimeoutMillis(),
+                createdAtMillis + config.getAbsoluteTimeoutMillis());
+    }
+
+    @Override
+    public String toString() {
+        User current = user;
+        return "Session{user=" + (current != null ? current.getUsername() : null)
+                + ", started=" + getStartTime() + ", invalidated=" + invalidated + "}";
+    }
+}
@@ -0,0 +1,125 @@
+package org.lucian.todos.session;
+
+/**
+ * Configuration for the session registry: expiry timeouts, the granularity of the
+ * expiry timer wheel and a cap on live sessions. Values can be overridden at startup
+ * through system properties (e.g. {@code -Dtodos.session.idleTimeoutMillis=600000}).
+ */
+public class SessionConfig {
+
+    private static final String PROPERTY_PREFIX = "todos.session.";
+
+    private long idleTimeoutMillis = 30 * 60_000L;
+    private long absoluteTimeoutMillis = 12 * 60 * 60_000L;
+    private long tickMillis = 1_000;
+    private int wheelSize = 512;
+    private int maxSessions = 10_000;
+
+    /**
+     * Creates a configuration with default values.
+     */
+    public SessionConfig() {
+    }
+
+    /**
+     * Creates a configuration from the {@code todos.session.*} system properties,
+     * falling back to the defaults for anything that is not set.
+     *
+     * @return the session configuration
+     */
+    public static SessionConfig fromSystemProperties() {
+        SessionConfig config = new SessionConfig();
+        config.setIdleTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "idleTimeoutMillis", config.getIdleTimeoutMillis()));
+        config.setAbsoluteTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "absoluteTimeoutMillis", config.getAbsoluteTimeoutMillis()));
+        config.setTickMillis(Long.getLong(PROPERTY_PREFIX + "tickMillis", config.getTickMillis()));
+        config.setWheelSize(Integer.getInteger(PROPERTY_PREFIX + "wheelSize", config.getWheelSize()));
+        config.setMaxSessions(Integer.getInteger(PROPERTY_PREFIX + "maxSessions", config.getMaxSessions()));
+        return config;
+    }
+
+    /**
+     * Validates the configuration values.
+     *
+     * @throws IllegalStateException if the configuration is inconsistent
+     */
+    public void validate() {
+        if (idleTimeoutMillis < 1) {
+            throw new IllegalStateException("Session idle timeout must be positive");
+        }
+        if (absoluteTimeoutMillis < idleTimeoutMillis) {
+            throw new IllegalStateException("Session absolute timeout cannot be shorter than the idle timeout");
+        }
+        if (tickMillis < 1) {
+            throw new IllegalStateException("Session timer tick must be positive");
+        }
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalStateException("Session timer wheel size must be a power of two");
+        }
+        if (maxSessions < 1) {
+            throw new IllegalStateException("Maximum sessions must be at least 1");
+        }
+    }
+
+    //GET;SET;
+    /**
+     * Gets how long a session may go unused before it expires.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Gets how long a session may last after login, however often it is used.
+     *
+     * @return the absolute timeout in milliseconds
+     */
+    public long getAbsoluteTimeoutMillis() {
+        return absoluteTimeoutMillis;
+    }
+
+    public void setAbsoluteTimeoutMillis(long absoluteTimeoutMillis) {
+        this.absoluteTimeoutMillis = absoluteTimeoutMillis;
+    }
+
+    /**
+     * Gets the resolution of the expiry timer; expired sessions are reclaimed
+     * within one tick of their deadline.
+     *
+     * @return the tick length in milliseconds
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SessionConfig{idleTimeout=%dms, absoluteTimeout=%dms, tick=%dms, wheelSize=%d, maxSessions=%d}",
+                idleTimeoutMillis, absoluteTimeoutMillis, tickMillis, wheelSize, maxSessions);
+    }
+}
@@ -0,0 +1,258 @@
+package org.lucian.todos.session;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent registry of live sessions keyed by token. Lookups are a single
+ * {@link ConcurrentHashMap} read plus an expiry check, so any number of request
+ * threads can resolve sessions without contending on a lock.
+ * <p>
+ * Expiry is enforced on every lookup; a {@link TimerWheel} additionally reclaims
+ * sessions that are never looked up again, so abandoned logins do not accumulate.
+ */
+public class SessionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static SessionRegistry defaultRegistry;
+
+    private final SessionConfig config;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final TimerWheel wheel;
+    private final ScheduledExecutorService expiryTimer;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+
+    /**
+     * Creates a registry that reclaims expired sessions on a background timer.
+     *
+     * @param config the session configuration
+     */
+    public SessionRegistry(SessionConfig config) {
+        this(config, System::currentTimeMillis, true);
+    }
+
+    /**
+     * Creates a registry on a custom clock without a background timer; expired
+     * sessions are reclaimed on lookup and by {@link #expireSessions()}.
+     *
+     * @param config the session configuration
+     * @param clock the time source in epoch milliseconds
+     */
+    public SessionRegistry(SessionConfig config, LongSupplier clock) {
+        this(config, clock, false);
+    }
+
+    private SessionRegistry(SessionConfig config, LongSupplier clock, boolean startTimer) {
+        config.validate();
+        this.config = config;
+        this.clock = clock;
+        this.wheel = new TimerWheel(config.getWheelSize(), config.getTickMillis(), clock.getAsLong());
+        if (startTimer) {
+            this.expiryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            expiryTimer.scheduleWithFixedDelay(this::expireQuietly, config.getTickMillis(), config.getTickMillis(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.expiryTimer = null;
+        }
+    }
+
+    /**
+     * Gets the shared registry, configured from the {@code todos.session.*} system properties.
+     *
+     * @return the default registry
+     */
+    public static synchronized SessionRegistry getDefault() {
+        if (defaultRegistry == null) {
+            SessionConfig config = SessionConfig.fromSystemProperties();
+            defaultRegistry = new SessionRegistry(config);
+            logger.debug("Session registry initialized with {}", config);
+        }
+        return defaultRegistry;
+    }
+
+    /**
+     * Opens a new session for an authenticated user.
+     *
+     * @param user the user
+     * @return the new session
+     * @throws AuthenticationException if the registry is full
+     */
+    public Session create(User user) throws AuthenticationException {
+        if (sessions.size() >= config.getMaxSessions()) {
+            expireSessions();
+            if (sessions.size() >= config.getMaxSessions()) {
+                logger.warn("Session limit of {} reached", config.getMaxSessions());
+                throw new AuthenticationException("Too many active sessions. Please try again later.");
+            }
+        }
+        long now = clock.getAsLong();
+        Session session = new Session(newToken(), user, now);
+        sessions.put(session.getToken(), session);
+        wheel.schedule(session, session.expiresAtMillis(config));
+        createdCount.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Looks up a live session and records the access, which extends its idle deadline.
+     *
+     * @param token the session token
+     * @return the session, or empty if the token is unknown, logged out or expired
+     */
+    public Optional<Session> find(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        long now = clock.getAsLong();
+        if (session.expiresAtMillis(config) <= now) {
+            if (remove(session)) {
+                expiredCount.incrementAndGet();
+            }
+            return Optional.empty();
+        }
+        session.touch(now);
+        return Optional.of(session);
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token
+     * @return true if a live session was ended
+     */
+    public boolean invalidate(String token) {
+        Session session = token != null ? sessions.get(token) : null;
+        return session != null && remove(session);
+    }
+
+    /**
+     * Ends every session of a user, e.g. after a password change.
+     *
+     * @param userId the user ID
+     * @param keep a session to leave open, or null
+     * @return the number of sessions ended
+     */
+    public int invalidateUser(Long userId, Session keep) {
+        int ended = 0;
+        for (Session session : sessions.values()) {
+            if (session != keep && userId.equals(session.getCurrentUserId()) && remove(session)) {
+                ended++;
+            }
+        }
+        return ended;
+    }
+
+    /**
+     * Replaces the user details held by every session of that user, so that a
+     * profile change made in one session is seen by the others.
+     *
+     * @param user the updated user
+     */
+    public void updateUser(User user) {
+        for (Session session : sessions.values()) {
+            if (user.getId().equals(session.getCurrentUserId())) {
+                session.setUser(user);
+            }
+        }
+    }
+
+    /**
+     * Advances the expiry timer to now and removes sessions past their deadline.
+     *
+     * @return the number of sessions removed
+     */
+    public int expireSessions() {
+        long now = clock.getAsLong();
+        int[] expired = new int[1];
+        wheel.advance(now, session -> {
+            if (sessions.get(session.getToken()) != session) {
+                return;
+            }
+            long deadline = session.expiresAtMillis(config);
+            if (deadline > now) {
+                wheel.schedule(session, deadline);
+            } else if (remove(session)) {
+                expired[0]++;
+            }
+        });
+        if (expired[0] > 0) {
+            expiredCount.addAndGet(expired[0]);
+            logger.debug("Expired {} sessions, {} still active", expired[0], sessions.size());
+        }
+        return expired[0];
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    public SessionConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Stops the background expiry timer, if any.
+     */
+    public void shutdown() {
+        if (expiryTimer != null) {
+            expiryTimer.shutdownNow();
+        }
+    }
+
+    private boolean remove(Session session) {
+        if (sessions.remove(session.getToken(), session)) {
+            session.invalidate();
+            return true;
+        }
+        return false;
+    }
+
+    private void expireQuietly() {
+        try {
+            expireSessions();
+        } catch (RuntimeException e) {
+            logger.error("Session expiry failed", e);
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
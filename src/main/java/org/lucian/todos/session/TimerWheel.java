@@ -0,0 +1,73 @@
+package org.lucian.todos.session;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for session deadlines. Time is cut into ticks; a session due at
+ * tick {@code t} sits in bucket {@code t mod size}, so scheduling is one queue append
+ * and each tick only scans one bucket instead of every live session. Deadlines more
+ * than one revolution away share a bucket with nearer ones and are skipped until
+ * their own tick comes round.
+ * <p>
+ * Entries are never moved when a session is used: when an entry comes due the owner
+ * checks the session's real deadline and reschedules it if it was touched meanwhile.
+ * That keeps the request path free of wheel updates at the cost of one extra visit
+ * per idle period.
+ */
+final class TimerWheel {
+
+    private final ConcurrentLinkedQueue<Timeout>[] buckets;
+    private final long tickMillis;
+    private final int mask;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(int size, long tickMillis, long nowMillis) {
+        this.buckets = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a session to come due at or shortly after a deadline. Safe to call
+     * from any thread, including from within {@link #advance}.
+     */
+    void schedule(Session session, long deadlineMillis) {
+        // Round up so an entry never comes due before its deadline
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick);
+        buckets[(int) (tick & mask)].add(new Timeout(session, tick));
+    }
+
+    /**
+     * Moves the wheel up to the current time and hands every entry that has come due
+     * to {@code due}, which may reschedule it.
+     */
+    synchronized void advance(long nowMillis, Consumer<Session> due) {
+        long targetTick = nowMillis / tickMillis;
+        long fromTick = currentTick;
+        if (targetTick < fromTick) {
+            return;
+        }
+        long steps = Math.min(targetTick - fromTick + 1, buckets.length);
+        for (long step = 0; step < steps; step++) {
+            Iterator<Timeout> timeouts = buckets[(int) ((fromTick + step) & mask)].iterator();
+            while (timeouts.hasNext()) {
+                Timeout timeout = timeouts.next();
+                if (timeout.tick() <= targetTick) {
+                    timeouts.remove();
+                    due.accept(timeout.session());
+                }
+            }
+        }
+        currentTick = targetTick + 1;
+    }
+
+    private record Timeout(Session session, long tick) {
+    }
+}
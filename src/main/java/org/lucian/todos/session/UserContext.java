@@ -0,0 +1,29 @@
+package org.lucian.todos.session;
+
+import org.lucian.todos.model.User;
+
+/**
+ * The user on whose behalf a service call runs. Services are handed a context
+ * instead of reading a global "current user", so one process can serve many
+ * users at once: each request passes the {@link Session} it belongs to.
+ */
+@FunctionalInterface
+public interface UserContext {
+
+    /**
+     * Gets the user of this context.
+     *
+     * @return the user, or null if nobody is logged in
+     */
+    User getCurrentUser();
+
+    /**
+     * Gets the ID of the user of this context.
+     *
+     * @return the user ID, or null if nobody is logged in
+     */
+    default Long getCurrentUserId() {
+        User user = getCurrentUser();
+        return user != null ? user.getId() : null;
+    }
+}
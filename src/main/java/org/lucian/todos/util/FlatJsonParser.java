@@ -0,0 +1,148 @@
+package org.lucian.todos.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses a single JSON object whose members are all scalars, such as an NDJSON import
+ * line or an API request body. Values are kept as their text: strings unescaped,
+ * numbers and booleans as written, null as null.
+ */
+public final class FlatJsonParser {
+
+    private final String text;
+    private int index;
+
+    private FlatJsonParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a single JSON object whose members are all scalars.
+     *
+     * @param text the JSON text
+     * @return the members by name, in document order
+     * @throws IllegalArgumentException if the text is not such an object
+     */
+    public static Map<String, String> parse(String text) {
+        return new FlatJsonParser(text).parseObject();
+    }
+
+    private Map<String, String> parseObject() {
+        Map<String, String> members = new LinkedHashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            index++;
+        } else {
+            do {
+                String name = readString();
+                expect(':');
+                members.put(name, readValue());
+            } while (accept(','));
+            expect('}');
+        }
+        if (peek() != -1) {
+            throw error("Unexpected text after object");
+        }
+        return members;
+    }
+
+    private String readValue() {
+        int c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw error("Nested objects and arrays are not supported");
+        }
+        int start = index;
+        while (index < text.length() && "{}[],: \t\"".indexOf(text.charAt(index)) < 0) {
+            index++;
+        }
+        String literal = text.substring(start, index);
+        if (literal.isEmpty()) {
+            throw error("Expected a value");
+        }
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (!literal.equals("true") && !literal.equals("false") && !isNumber(literal)) {
+            throw error("Invalid value '" + literal + "'");
+        }
+        return literal;
+    }
+
+    private static boolean isNumber(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if ("0123456789+-.eE".indexOf(literal.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (index < text.length()) {
+            char c = text.charAt(index++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (index >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(index++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (index + 4 > text.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(index, index + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    index += 4;
+                }
+                default -> throw error("Invalid escape '\\" + escaped + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private int peek() {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index < text.length() ? text.charAt(index) : -1;
+    }
+
+    private boolean accept(char c) {
+        if (peek() == c) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at column " + (index + 1) + ": " + message);
+    }
+}
@@ -0,0 +1,143 @@
+package org.lucian.todos.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming JSON writer producing compact output.
+ * Commas between members and elements are inserted automatically.
+ */
+public class JsonWriter {
+
+    private final Appendable out;
+    /** One entry per open object or array: true once it has a member or element. */
+    private final Deque<Boolean> scopes = new ArrayDeque<>();
+    private boolean afterName;
+
+    /**
+     * Creates a writer appending to the given target.
+     *
+     * @param out a {@link StringBuilder}, {@link java.io.Writer} or other appendable
+     */
+    public JsonWriter(Appendable out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.append('{');
+        scopes.push(false);
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        scopes.pop();
+        out.append('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.append('[');
+        scopes.push(false);
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        scopes.pop();
+        out.append(']');
+        return this;
+    }
+
+    /**
+     * Writes a member name; the next call must write its value.
+     *
+     * @param name the member name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        quote(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(Number value) throws IOException {
+        beforeValue();
+        out.append(value != null ? value.toString() : "null");
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.append(Boolean.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a value as a string using its {@code toString()}, or null.
+     *
+     * @param value the value, e.g. a date or an enum constant's name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter valueOf(Object value) throws IOException {
+        return value(value != null ? (value instanceof Enum<?> constant ? constant.name() : value.toString()) : null);
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else {
+            separate();
+        }
+    }
+
+    private void separate() throws IOException {
+        if (!scopes.isEmpty()) {
+            if (scopes.peek()) {
+                out.append(',');
+            } else {
+                scopes.pop();
+                scopes.push(true);
+            }
+        }
+    }
+
+    private void quote(String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,116 @@
+package org.lucian.todos.util;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.User;
+
+/**
+ * JSON representation of todos, projects and users shared by the machine-readable outputs.
+ * Dates are ISO-8601 strings and enums are written by constant name.
+ */
+public final class TodoJson {
+
+    private TodoJson() {
+    }
+
+    /**
+     * Writes a todo as a JSON object. Recurring todos carry their recurrence state.
+     *
+     * @param json the writer
+     * @param todo the todo
+     * @throws IOException if writing fails
+     */
+    public static void writeTodo(JsonWriter json, Todo todo) throws IOException {
+        json.beginObject()
+            .name("id").value(todo.getId())
+            .name("title").value(todo.getTitle())
+            .name("description").value(todo.getDescription())
+            .name("dueDate").valueOf(todo.getDueDate())
+            .name("priority").valueOf(todo.getPriority())
+            .name("status").valueOf(todo.getStatus())
+            .name("projectId").value(todo.getProjectId())
+            .name("userId").value(todo.getUserId());
+        if (todo instanceof RecurringTodo recurringTodo) {
+            json.name("recurringIntervalDays").value(recurringTodo.getRecurringInterval() != null
+                    ? recurringTodo.getRecurringInterval().getDays() : null)
+                .name("maxOccurrences").value(recurringTodo.getMaxOccurrences())
+                .name("currentOccurrence").value(recurringTodo.getCurrentOccurrence())
+                .name("nextDueDate").valueOf(recurringTodo.getNextDueDate());
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes todos as a JSON array.
+     *
+     * @param json the writer
+     * @param todos the todos
+     * @throws IOException if writing fails
+     */
+    public static void writeTodos(JsonWriter json, List<? extends Todo> todos) throws IOException {
+        json.beginArray();
+        for (Todo todo : todos) {
+            writeTodo(json, todo);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Writes a project as a JSON object, without its todos.
+     *
+     * @param json the writer
+     * @param project the project
+     * @throws IOException if writing fails
+     */
+    public static void writeProject(JsonWriter json, Project project) throws IOException {
+        json.beginObject()
+            .name("id").value(project.getId())
+            .name("name").value(project.getName())
+            .name("description").value(project.getDescription())
+            .name("startDate").valueOf(project.getStartDate())
+            .name("endDate").valueOf(project.getEndDate())
+            .name("userId").value(project.getUserId())
+            .endObject();
+    }
+
+    /**
+     * Writes a user's public profile as a JSON object. The password hash is never written.
+     *
+     * @param json the writer
+     * @param user the user
+     * @throws IOException if writing fails
+     */
+    public static void writeUser(JsonWriter json, User user) throws IOException {
+        json.beginObject()
+            .name("id").value(user.getId())
+            .name("username").value(user.getUsername())
+            .name("email").value(user.getEmail())
+            .name("firstName").value(user.getFirstName())
+            .name("lastName").value(user.getLastName())
+            .name("active").value(user.isActive())
+            .name("createdAt").valueOf(user.getCreatedAt())
+            .name("lastLoginAt").valueOf(user.getLastLoginAt())
+            .endObject();
+    }
+
+    /**
+     * Formats a single todo as a compact JSON string.
+     *
+     * @param todo the todo
+     * @return the JSON text
+     */
+    public static String toJson(Todo todo) {
+        StringBuilder out = new StringBuilder(256);
+        try {
+            writeTodo(new JsonWriter(out), todo);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+}
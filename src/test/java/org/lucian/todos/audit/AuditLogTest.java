@@ -0,0 +1,103 @@
+package org.lucian.todos.audit;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.lucian.todos.model.User;
+import org.lucian.todos.service.TodoService;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class AuditLogTest {
+
+    private final Logger auditLogger = (Logger) LoggerFactory.getLogger(AuditLog.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private DatabaseManager databaseManager;
+
+    @BeforeEach
+    void setUp() {
+        events.start();
+        auditLogger.addAppender(events);
+        databaseManager = DatabaseManager.getTestInstance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditLogger.detachAppender(events);
+        databaseManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test todo mutations are recorded on the audit channel")
+    void testTodoMutationsAudited() throws Exception {
+        User admin = new User("admin", "admin@example.com", null, null);
+        admin.setId(1L);
+        DAOFactory daoFactory = new DAOFactory(databaseManager);
+        TodoService todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), () -> admin);
+
+        Todo todo = todoService.createTodo(new Todo("Audited"));
+        todoService.findTodoById(todo.getId());
+        todoService.updateTodoStatus(todo.getId(), TodoStatus.IN_PROGRESS);
+        todoService.deleteTodo(todo.getId());
+        todoService.deleteTodo(todo.getId());
+
+        long id = todo.getId();
+        assertEquals(List.of(
+                "action=todo.create user=1 id=" + id,
+                "action=todo.status user=1 id=" + id + " detail=IN_PROGRESS",
+                "action=todo.delete user=1 id=" + id),
+                messages(), "Reads and no-op deletes are not audited");
+    }
+
+    @Test
+    @DisplayName("Test changes made in a transaction are audited only if it commits")
+    void testTransactionAudit() throws Exception {
+        User admin = new User("admin", "admin@example.com", null, null);
+        admin.setId(1L);
+        DAOFactory daoFactory = new DAOFactory(databaseManager);
+        TodoService todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), () -> admin);
+
+        assertThrows(IllegalStateException.class, () -> databaseManager.inTransaction(() -> {
+            todoService.createTodo(new Todo("Rolled back"));
+            throw new IllegalStateException("batch failed");
+        }));
+        assertEquals(List.of(), messages(), "Rolled-back changes are not audited");
+
+        Todo todo = databaseManager.inTransaction(() -> {
+            Todo created = todoService.createTodo(new Todo("Committed"));
+            assertEquals(List.of(), messages(), "Events wait for the commit");
+            return created;
+        });
+        assertEquals(List.of("action=todo.create user=1 id=" + todo.getId()), messages());
+    }
+
+    @Test
+    @DisplayName("Test audit details are quoted when needed")
+    void testDetailQuoting() {
+        AuditLog.record("user.login-failed", null, null, "mallory");
+        AuditLog.record("user.login-failed", null, null, "a b=\"c\"\nd");
+        AuditLog.record("user.login-failed", null, null, "");
+
+        assertEquals(List.of(
+                "action=user.login-failed detail=mallory",
+                "action=user.login-failed detail=\"a b=\\\"c\\\"\\nd\"",
+                "action=user.login-failed detail=\"\""),
+                messages());
+    }
+
+    private List<String> messages() {
+        return events.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}
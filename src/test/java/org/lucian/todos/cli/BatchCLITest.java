@@ -0,0 +1,196 @@
+package org.lucian.todos.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucian.todos.cli.batch.BatchCommand;
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.service.AuthenticationService;
+
+public class BatchCLITest {
+
+    private DatabaseManager databaseManager;
+    private DAOFactory daoFactory;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.getTestInstance();
+        daoFactory = new DAOFactory(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    private int run(String stdin, String... args) {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        BatchCLI cli = new BatchCLI(daoFactory,
+                new ByteArrayInputStream(stdin.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+        return cli.run(args);
+    }
+
+    private int runAsAdmin(String... command) {
+        String[] args = new String[command.length + 4];
+        args[0] = "--user";
+        args[1] = "admin";
+        args[2] = "--password";
+        args[3] = "admin";
+        System.arraycopy(command, 0, args, 4, command.length);
+        return run("", args);
+    }
+
+    private String output() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Test script lines are tokenized with quotes, escapes and comments")
+    void testTokenize() {
+        assertEquals(List.of("add", "--title", "Buy milk", "--description", "it's cold"),
+                BatchCommand.tokenize("add --title \"Buy milk\" --description it\\'s\\ cold  # note"));
+        assertEquals(List.of(), BatchCommand.tokenize("   # only a comment"));
+        assertEquals(List.of("a#b", ""), BatchCommand.tokenize("a#b ''"));
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.tokenize("add --title \"open"));
+
+        BatchCommand command = BatchCommand.parse(BatchCommand.tokenize("project add --name=Home --start 2025-01-01"));
+        assertEquals("project add", command.getName());
+        assertEquals("Home", command.getOption("name"));
+        assertEquals("2025-01-01", command.getOption("start"));
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.parse(List.of("list", "--status")));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchCommand.parse(List.of("add", "--title", "a", "--title", "b")));
+    }
+
+    @Test
+    @DisplayName("Test single commands add, complete and list todos")
+    void testSingleCommands() {
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("add", "--title", "Write report", "--priority", "high"));
+        String id = output().trim();
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("complete", id));
+        assertEquals(id + "\tCOMPLETED", output().trim());
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("list", "--status", "completed", "--format", "json"));
+        String json = output().trim();
+        assertTrue(json.startsWith("[{\"id\":" + id + ",\"title\":\"Write report\""), json);
+        assertTrue(json.contains("\"priority\":\"HIGH\",\"status\":\"COMPLETED\""), json);
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("export", "todos", "--format", "csv", "--status", "completed"));
+        assertEquals(2, output().lines().count(), "Export should have a header and one row");
+    }
+
+    @Test
+    @DisplayName("Test a failing script is rolled back as a whole")
+    void testScriptRollback() {
+        String script = """
+            # two todos, then a bad command
+            add --title First
+            todo add --title Second
+            complete 999999
+            """;
+        int exitCode = run(script, "--user", "admin", "--password", "admin", "run", "-");
+        assertEquals(BatchCLI.EXIT_FAILED, exitCode);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("line 4:"), err.toString(StandardCharsets.UTF_8));
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("list"));
+        assertEquals("", output(), "No todo of the failed script should have been saved");
+
+        String valid = "add --title First\nadd --title Second\n";
+        assertEquals(BatchCLI.EXIT_OK, run(valid, "--user", "admin", "--password", "admin", "run", "-"));
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("list"));
+        assertEquals(2, output().lines().count());
+    }
+
+    @Test
+    @DisplayName("Test bulk import runs on its own and reports its counts")
+    void testImport(@TempDir Path tempDir) throws Exception {
+        Path input = tempDir.resolve("todos.csv");
+        Files.writeString(input, "title,priority\nFirst,high\n,low\n");
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("import", "todos", input.toString()));
+        assertEquals("imported\t1\trejected\t1", output().trim());
+        assertTrue(Files.exists(tempDir.resolve("todos.csv.rejected.ndjson")));
+
+        String script = "import todos " + input + "\n";
+        assertEquals(BatchCLI.EXIT_USAGE, run(script, "--user", "admin", "--password", "admin", "run", "-"));
+    }
+
+    @Test
+    @DisplayName("Test only an administrator exports every user's data")
+    void testExportRequiresAdmin() throws Exception {
+        new AuthenticationService(daoFactory.getUserDAO()).register("carol", "carol@example.com", "carol-secret",
+                null, null);
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("add", "--title", "Admin only"));
+
+        String[] carol = {"--user", "carol", "--password", "carol-secret"};
+        assertEquals(BatchCLI.EXIT_FAILED, run("", concat(carol, "export", "users")));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("administrator"));
+        assertEquals("", output());
+        assertEquals(BatchCLI.EXIT_FAILED, run("", concat(carol, "export", "todos", "--all-users")));
+        assertEquals(BatchCLI.EXIT_OK, run("", concat(carol, "export", "todos")));
+        assertEquals("", output(), "A user's own export has none of the administrator's todos");
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("export", "users", "--format", "csv"));
+        assertTrue(output().contains("carol@example.com"), output());
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("export", "todos", "--all-users"));
+        assertTrue(output().contains("Admin only"), output());
+    }
+
+    @Test
+    @DisplayName("Test a user cannot delete or add todos to another user's project")
+    void testProjectOwnership() throws Exception {
+        new AuthenticationService(daoFactory.getUserDAO()).register("carol", "carol@example.com", "carol-secret",
+                null, null);
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("project", "add", "--name", "Launch"));
+        String projectId = output().trim();
+
+        String[] carol = {"--user", "carol", "--password", "carol-secret"};
+        assertEquals(BatchCLI.EXIT_USAGE, run("", concat(carol, "project", "delete", projectId)));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Project not found"));
+        assertEquals(BatchCLI.EXIT_FAILED, run("", concat(carol, "add", "--title", "Hijack", "--project", projectId)));
+        assertEquals(BatchCLI.EXIT_OK, run("", concat(carol, "add", "--title", "Own todo")));
+        String todoId = output().trim();
+        assertEquals(BatchCLI.EXIT_FAILED, run("", concat(carol, "update", todoId, "--project", projectId)));
+
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("project", "list"));
+        assertTrue(output().contains("Launch"), "The project survives: " + output());
+        assertEquals(BatchCLI.EXIT_OK, runAsAdmin("add", "--title", "Kickoff", "--project", projectId));
+    }
+
+    private static String[] concat(String[] first, String... rest) {
+        String[] all = Arrays.copyOf(first, first.length + rest.length);
+        System.arraycopy(rest, 0, all, first.length, rest.length);
+        return all;
+    }
+
+    @Test
+    @DisplayName("Test usage and authentication errors have their own exit codes")
+    void testExitCodes() {
+        assertEquals(BatchCLI.EXIT_AUTHENTICATION, run("", "--user", "admin", "--password", "wrong", "list"));
+        assertEquals(BatchCLI.EXIT_USAGE, runAsAdmin("frobnicate"));
+        assertEquals(BatchCLI.EXIT_USAGE, runAsAdmin("add", "--due", "tomorrow", "--title", "x"));
+        assertEquals(BatchCLI.EXIT_USAGE, run("", "--verbose", "list"));
+        assertEquals(BatchCLI.EXIT_OK, run("", "help"));
+    }
+}
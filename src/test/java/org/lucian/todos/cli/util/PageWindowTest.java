@@ -0,0 +1,99 @@
+package org.lucian.todos.cli.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.exceptions.DatabaseException;
+
+public class PageWindowTest {
+
+    private static final int TOTAL = 95;
+
+    /** Pages of the numbers 1..TOTAL, counting fetches per page. */
+    private static PageSupplier<Integer> numbers(Map<Integer, AtomicInteger> fetches) {
+        return (pageIndex, pageSize) -> {
+            fetches.computeIfAbsent(pageIndex, index -> new AtomicInteger()).incrementAndGet();
+            int from = Math.min(pageIndex * pageSize, TOTAL);
+            int to = Math.min(from + pageSize, TOTAL);
+            return new PageSupplier.Page<>(IntStream.rangeClosed(from + 1, to).boxed().toList(), TOTAL);
+        };
+    }
+
+    @Test
+    @DisplayName("Test pages are fetched once, prefetched in the background and evicted beyond the window")
+    void testWindow() throws Exception {
+        Map<Integer, AtomicInteger> fetches = new ConcurrentHashMap<>();
+        try (PageWindow<Integer> window = new PageWindow<>(numbers(fetches), 10, 3)) {
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), window.get(0).items());
+            window.prefetch(1);
+            assertEquals(11, window.get(1).items().get(0));
+            assertEquals(1, fetches.get(1).get(), "Prefetched page is not fetched again");
+
+            for (int page = 2; page < 10; page++) {
+                window.prefetch(page);
+                window.get(page);
+                assertTrue(window.size() <= 3, "Window holds at most 3 pages");
+            }
+            assertEquals(List.of(91, 92, 93, 94, 95), window.get(9).items());
+            assertEquals(TOTAL, window.get(9).totalCount());
+
+            window.get(0);
+            assertEquals(2, fetches.get(0).get(), "Evicted page is fetched again");
+        }
+    }
+
+    @Test
+    @DisplayName("Test a failed prefetch is retried and a failed fetch is reported")
+    void testFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PageSupplier<Integer> flaky = (pageIndex, pageSize) -> {
+            if (calls.incrementAndGet() == 1 || pageIndex == 5) {
+                throw new DatabaseException("Connection lost");
+            }
+            return new PageSupplier.Page<>(List.of(pageIndex), 10);
+        };
+        try (PageWindow<Integer> window = new PageWindow<>(flaky, 1, 3)) {
+            window.prefetch(0);
+            assertEquals(List.of(0), window.get(0).items());
+            assertEquals(2, calls.get());
+            assertThrows(DatabaseException.class, () -> window.get(5));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PageWindow<>(flaky, 1, 2));
+    }
+
+    @Test
+    @DisplayName("Test the lazy paginated list shows pages as the user navigates")
+    void testDisplayPaginatedList() throws Exception {
+        Map<Integer, AtomicInteger> fetches = new ConcurrentHashMap<>();
+        Scanner scanner = new Scanner(new ByteArrayInputStream("n\nn\np\nq\n".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            CLIUtils.displayPaginatedList(numbers(fetches), "Numbers", "No numbers.", 10, scanner,
+                    number -> "#" + number);
+        } finally {
+            System.setOut(original);
+        }
+
+        String shown = output.toString(StandardCharsets.UTF_8);
+        assertTrue(shown.contains("Numbers (Page 1 of 10)"), shown);
+        assertTrue(shown.contains("Numbers (Page 3 of 10)"), shown);
+        assertTrue(shown.contains("21. #21"), shown);
+        assertTrue(shown.contains("Showing 11-20 of 95 items"), shown);
+        assertTrue(fetches.keySet().stream().allMatch(page -> page <= 3), "Only pages near the screen are fetched");
+    }
+}
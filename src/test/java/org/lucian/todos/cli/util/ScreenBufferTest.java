@@ -0,0 +1,82 @@
+package org.lucian.todos.cli.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ScreenBufferTest {
+
+    /** A stream counting the writes that reach it. */
+    private static final class CountingStream extends ByteArrayOutputStream {
+        int writes;
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            writes++;
+            super.write(bytes, offset, length);
+        }
+
+        @Override
+        public synchronized void write(int value) {
+            writes++;
+            super.write(value);
+        }
+    }
+
+    @Test
+    @DisplayName("Test a whole screen is written in one call and the buffer is reused")
+    void testSingleWrite() {
+        CountingStream output = new CountingStream();
+        ScreenBuffer screen = new ScreenBuffer(new PrintStream(output, false, StandardCharsets.UTF_8));
+
+        for (int round = 0; round < 2; round++) {
+            output.reset();
+            output.writes = 0;
+            screen.clearScreen();
+            for (int i = 1; i <= 500; i++) {
+                screen.append(i).append(". ").padded("Tâche ✓", 10).append('|').format("%3d", i % 7).line();
+            }
+            screen.flush();
+
+            assertEquals(1, output.writes);
+            String shown = output.toString(StandardCharsets.UTF_8);
+            assertEquals(ScreenBuffer.CLEAR_SCREEN, shown.substring(0, ScreenBuffer.CLEAR_SCREEN.length()));
+            assertEquals(500, shown.lines().count());
+            assertEquals("500. Tâche ✓   |  3", shown.lines().toList().get(499));
+            assertEquals(0, screen.length());
+        }
+
+        screen.flush();
+        assertEquals(1, output.writes, "An empty buffer writes nothing");
+    }
+
+    @Test
+    @DisplayName("Test redrawn rows are rendered once")
+    void testRowCache() {
+        AtomicInteger renders = new AtomicInteger();
+        RowCache<Integer> rows = new RowCache<>(3, key -> {
+            renders.incrementAndGet();
+            return "#" + key;
+        });
+
+        for (int redraw = 0; redraw < 3; redraw++) {
+            for (int key = 1; key <= 3; key++) {
+                assertEquals("#" + key, rows.get(key));
+            }
+        }
+        assertEquals(3, renders.get());
+        assertEquals(6, rows.getHits());
+
+        rows.get(4);
+        rows.get(1);
+        assertEquals(5, renders.get(), "Least recently used row is evicted beyond capacity");
+        assertEquals(5, rows.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> new RowCache<Integer>(0, String::valueOf));
+    }
+}
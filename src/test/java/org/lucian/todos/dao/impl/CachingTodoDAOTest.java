@@ -0,0 +1,180 @@
+package org.lucian.todos.dao.impl;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+
+public class CachingTodoDAOTest {
+
+    private DatabaseManager databaseManager;
+    private CachingTodoDAO todoDAO;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.getTestInstance();
+        todoDAO = new CachingTodoDAO(new TodoDAOImpl(databaseManager), databaseManager, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    private Todo newTodo(String title) {
+        Todo todo = new Todo(title, "Description of " + title, LocalDate.now().plusDays(1), Priority.MEDIUM);
+        todo.setUserId(1L);
+        return todo;
+    }
+
+    private void executeSql(String sql) throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    @Test
+    @DisplayName("Test writes go through and reads of cached todos skip the database")
+    void testWriteThrough() throws Exception {
+        Todo todo = todoDAO.create(newTodo("Cached"));
+
+        // Change the row behind the cache's back: a cache hit still sees the written state
+        executeSql("UPDATE todos SET title = 'Changed in database' WHERE id = " + todo.getId());
+        assertEquals("Cached", todoDAO.findById(todo.getId()).orElseThrow().getTitle());
+        assertEquals(1, todoDAO.getStats().getHits());
+        assertEquals(0, todoDAO.getStats().getMisses());
+
+        todo.setStatus(TodoStatus.COMPLETED);
+        todoDAO.update(todo);
+        assertEquals(TodoStatus.COMPLETED, todoDAO.findById(todo.getId()).orElseThrow().getStatus());
+
+        assertTrue(todoDAO.delete(todo.getId()));
+        assertTrue(todoDAO.findById(todo.getId()).isEmpty());
+        assertEquals(1, todoDAO.getStats().getMisses());
+        assertEquals(2.0 / 3.0, todoDAO.getStats().getHitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Test cached todos are copies that callers cannot corrupt")
+    void testCopiesAreIsolated() throws Exception {
+        RecurringTodo recurring = new RecurringTodo("Stretch", null, LocalDate.now(), Priority.LOW, Period.ofDays(1));
+        recurring.setUserId(1L);
+        recurring.setMaxOccurrences(4);
+        assertTrue(recurring.moveToNextOccurrence());
+        todoDAO.create(recurring);
+
+        Todo first = todoDAO.findById(recurring.getId()).orElseThrow();
+        first.setTitle("Modified without saving");
+        ((RecurringTodo) first).moveToNextOccurrence();
+
+        Todo second = todoDAO.findById(recurring.getId()).orElseThrow();
+        assertNotSame(first, second);
+        assertEquals("Stretch", second.getTitle());
+        RecurringTodo reloaded = assertInstanceOf(RecurringTodo.class, second);
+        assertEquals(2, reloaded.getCurrentOccurrence());
+        assertEquals(4, reloaded.getMaxOccurrences());
+        assertEquals(recurring.getNextDueDate(), reloaded.getNextDueDate());
+    }
+
+    @Test
+    @DisplayName("Test least recently used todos are evicted beyond the size bound")
+    void testEviction() throws Exception {
+        List<Todo> todos = todoDAO.createAll(List.of(newTodo("A"), newTodo("B"), newTodo("C")));
+        todoDAO.findById(todos.get(0).getId());
+        todoDAO.create(newTodo("D"));
+
+        assertEquals(3, todoDAO.getStats().getSize());
+        assertEquals(1, todoDAO.getStats().getEvictions());
+
+        long misses = todoDAO.getStats().getMisses();
+        todoDAO.findById(todos.get(0).getId());
+        assertEquals(misses, todoDAO.getStats().getMisses());
+        todoDAO.findById(todos.get(1).getId());
+        assertEquals(misses + 1, todoDAO.getStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Test invalidation by project and failed updates")
+    void testInvalidation() throws Exception {
+        executeSql("INSERT INTO projects (id, name, user_id) VALUES (10, 'Home', 1)");
+        Todo inProject = newTodo("In project");
+        inProject.setProjectId(10L);
+        todoDAO.create(inProject);
+        Todo other = todoDAO.create(newTodo("Other"));
+
+        executeSql("DELETE FROM projects WHERE id = 10");
+        todoDAO.invalidateProject(10L);
+        assertNull(todoDAO.findById(inProject.getId()).orElseThrow().getProjectId());
+        assertEquals(1, todoDAO.getStats().getMisses());
+        todoDAO.findById(other.getId());
+        assertEquals(1, todoDAO.getStats().getMisses());
+
+        Todo missing = newTodo("Never saved");
+        missing.setId(other.getId());
+        executeSql("DELETE FROM todos WHERE id = " + other.getId());
+        assertThrows(DatabaseException.class, () -> todoDAO.update(missing));
+        assertFalse(todoDAO.findById(other.getId()).isPresent());
+
+        // inProject was reloaded from the database above and carries its user ID
+        long misses = todoDAO.getStats().getMisses();
+        todoDAO.invalidateUser(2L);
+        todoDAO.findById(inProject.getId());
+        assertEquals(misses, todoDAO.getStats().getMisses(), "Another user's todos stay cached");
+        todoDAO.invalidateUser(1L);
+        todoDAO.findById(inProject.getId());
+        assertEquals(misses + 1, todoDAO.getStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Test todos cached in a rolled-back transaction are dropped")
+    void testRollback() throws Exception {
+        Todo todo = todoDAO.create(newTodo("Committed"));
+        Todo kept = todoDAO.create(newTodo("Untouched"));
+
+        RuntimeException failure = new RuntimeException("abort");
+        Long[] createdId = new Long[1];
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> databaseManager.inTransaction(() -> {
+            Todo changed = todoDAO.findById(todo.getId()).orElseThrow();
+            changed.setTitle("Rolled back");
+            todoDAO.update(changed);
+            createdId[0] = todoDAO.create(newTodo("Never saved")).getId();
+            throw failure;
+        }));
+        assertEquals(failure, thrown);
+
+        assertEquals("Committed", todoDAO.findById(todo.getId()).orElseThrow().getTitle());
+        assertTrue(todoDAO.findById(createdId[0]).isEmpty(), "Rolled-back create is not served from the cache");
+        long hits = todoDAO.getStats().getHits();
+        todoDAO.findById(kept.getId());
+        assertEquals(hits + 1, todoDAO.getStats().getHits(), "Todos not written in the transaction stay cached");
+    }
+
+    @Test
+    @DisplayName("Test cache rejects invalid configuration")
+    void testConfigurationValidation() {
+        TodoDAOImpl delegate = new TodoDAOImpl(databaseManager);
+        assertThrows(IllegalArgumentException.class, () -> new CachingTodoDAO(delegate, databaseManager, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingTodoDAO(null, databaseManager, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CachingTodoDAO(delegate, null, 10));
+    }
+}
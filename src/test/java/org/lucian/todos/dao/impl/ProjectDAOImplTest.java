@@ -0,0 +1,104 @@
+package org.lucian.todos.dao.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+
+public class ProjectDAOImplTest {
+
+    private DatabaseManager databaseManager;
+    private ProjectDAOImpl projectDAO;
+    private TodoDAOImpl todoDAO;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.getTestInstance();
+        projectDAO = new ProjectDAOImpl(databaseManager);
+        todoDAO = new TodoDAOImpl(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    private Project newProject(String name) throws Exception {
+        Project project = new Project(name, "Description of " + name, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31));
+        project.setUserId(1L);
+        return projectDAO.create(project);
+    }
+
+    @Test
+    @DisplayName("Test a project and its todos load in one query")
+    void testFindByIdWithTodos() throws Exception {
+        Project project = newProject("Launch");
+        Project other = newProject("Other");
+        Todo simple = new Todo("Press release", "Draft it", LocalDate.of(2030, 3, 1), Priority.HIGH);
+        simple.setUserId(1L);
+        simple.setProjectId(project.getId());
+        RecurringTodo recurring = new RecurringTodo("Standup", null, LocalDate.of(2030, 3, 2), Priority.LOW,
+                Period.ofDays(1));
+        recurring.setUserId(1L);
+        recurring.setProjectId(project.getId());
+        Todo elsewhere = new Todo("Elsewhere");
+        elsewhere.setUserId(1L);
+        elsewhere.setProjectId(other.getId());
+        todoDAO.createAll(List.of(simple, recurring, elsewhere));
+
+        Project loaded = projectDAO.findByIdWithTodos(project.getId()).orElseThrow();
+        assertEquals("Launch", loaded.getName());
+        assertEquals("Description of Launch", loaded.getDescription(), "Todo columns must not shadow project columns");
+        assertEquals(LocalDate.of(2030, 12, 31), loaded.getEndDate());
+        assertEquals(1L, loaded.getUserId());
+        assertEquals(List.of("Press release", "Standup"),
+                loaded.getTodos().stream().map(Todo::getTitle).sorted().toList());
+        assertTrue(loaded.getTodos().stream().allMatch(t -> project.getId().equals(t.getProjectId())));
+        Todo loadedRecurring = loaded.getTodos().stream()
+                .filter(t -> t.getTitle().equals("Standup")).findFirst().orElseThrow();
+        assertEquals(Period.ofDays(1), assertInstanceOf(RecurringTodo.class, loadedRecurring).getRecurringInterval());
+        assertEquals(simple.getId(), loaded.getTodos().stream()
+                .filter(t -> t.getTitle().equals("Press release")).findFirst().orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Test a project without todos and a missing project")
+    void testFindByIdWithTodosEdgeCases() throws Exception {
+        Project empty = newProject("Empty");
+        Project loaded = projectDAO.findByIdWithTodos(empty.getId()).orElseThrow();
+        assertEquals("Empty", loaded.getName());
+        assertTrue(loaded.getTodos().isEmpty());
+
+        assertTrue(projectDAO.findByIdWithTodos(424242L).isEmpty());
+        assertTrue(projectDAO.findByIdWithTodos(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test loading todos leaves the project's update time alone")
+    void testLoadTodos() {
+        Project project = new Project("Bulk");
+        project.setId(7L);
+        LocalDateTime updatedAt = project.getUpdatedAt();
+        Todo todo = new Todo("Loaded");
+        todo.setProjectId(7L);
+
+        project.loadTodos(List.of(todo));
+        project.loadTodos(List.of(todo));
+
+        assertEquals(List.of(todo), project.getTodos(), "Loading replaces rather than appends");
+        assertEquals(updatedAt, project.getUpdatedAt());
+    }
+}
@@ -0,0 +1,490 @@
+package org.lucian.todos.dao.impl;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.dao.TodoCountSummary;
+import org.lucian.todos.dao.TodoPage;
+import org.lucian.todos.dao.TodoQuery;
+import org.lucian.todos.dao.TodoQueryResult;
+import org.lucian.todos.dao.TodoSearchResult;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+
+public class TodoDAOImplTest {
+
+    private DatabaseManager databaseManager;
+    private TodoDAOImpl todoDAO;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.getTestInstance();
+        todoDAO = new TodoDAOImpl(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    private Todo newTodo(String title) {
+        Todo todo = new Todo(title, "Description of " + title, LocalDate.now().plusDays(1), Priority.MEDIUM);
+        todo.setUserId(1L);
+        return todo;
+    }
+
+    @Test
+    @DisplayName("Test batch create assigns IDs in order and stores recurring data")
+    void testCreateAll() throws DatabaseException {
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            todos.add(newTodo("Todo " + i));
+        }
+        RecurringTodo recurring = new RecurringTodo("Weekly review", "Every week", LocalDate.now(), Priority.HIGH, Period.ofDays(7));
+        recurring.setUserId(1L);
+        todos.add(recurring);
+
+        List<Todo> created = todoDAO.createAll(todos);
+
+        assertEquals(todos.size(), created.size());
+        assertEquals(todos.size(), todoDAO.count());
+        for (int i = 1; i < created.size(); i++) {
+            assertEquals(created.get(i - 1).getId() + 1, created.get(i).getId(), "Batch IDs should be consecutive");
+        }
+        assertEquals("Todo 42", todoDAO.findById(created.get(42).getId()).orElseThrow().getTitle());
+
+        Todo reloaded = todoDAO.findById(recurring.getId()).orElseThrow();
+        assertInstanceOf(RecurringTodo.class, reloaded);
+        assertEquals(Period.ofDays(7), ((RecurringTodo) reloaded).getRecurringInterval());
+    }
+
+    @Test
+    @DisplayName("Test batch update is applied atomically")
+    void testUpdateAll() throws DatabaseException {
+        List<Todo> created = todoDAO.createAll(List.of(newTodo("First"), newTodo("Second")));
+        created.forEach(todo -> todo.setStatus(TodoStatus.COMPLETED));
+
+        todoDAO.updateAll(created);
+        assertEquals(2, todoDAO.countByStatus(TodoStatus.COMPLETED));
+
+        Todo missing = newTodo("Missing");
+        missing.setId(9_999L);
+        created.get(0).setStatus(TodoStatus.TODO);
+        assertThrows(DatabaseException.class, () -> todoDAO.updateAll(List.of(created.get(0), missing)));
+        assertEquals(2, todoDAO.countByStatus(TodoStatus.COMPLETED), "Failed batch should be rolled back");
+    }
+
+    @Test
+    @DisplayName("Test todos of a rolled back batch keep no IDs")
+    void testCreateAllRollbackClearsIds() throws DatabaseException {
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            todos.add(newTodo("Todo " + i));
+        }
+        todos.get(599).setProjectId(9_999L);
+
+        assertThrows(DatabaseException.class, () -> todoDAO.createAll(todos));
+        assertEquals(0, todoDAO.count());
+        assertTrue(todos.stream().allMatch(todo -> todo.getId() == null), "Failed chunk should clear every ID");
+
+        List<Todo> joined = List.of(newTodo("A"), newTodo("B"));
+        assertThrows(IllegalStateException.class, () -> databaseManager.inTransaction(() -> {
+            todoDAO.createAll(joined);
+            assertNotNull(joined.get(0).getId());
+            throw new IllegalStateException("Later step failed");
+        }));
+        assertEquals(0, todoDAO.count());
+        assertTrue(joined.stream().allMatch(todo -> todo.getId() == null), "Outer rollback should clear every ID");
+    }
+
+    @Test
+    @DisplayName("Test batch delete removes todos and ignores unknown IDs")
+    void testDeleteAll() throws DatabaseException {
+        List<Todo> created = todoDAO.createAll(List.of(newTodo("A"), newTodo("B"), newTodo("C")));
+
+        int deleted = todoDAO.deleteAll(List.of(created.get(0).getId(), created.get(2).getId(), 9_999L));
+
+        assertEquals(2, deleted);
+        assertEquals(1, todoDAO.count());
+        assertTrue(todoDAO.findById(created.get(1).getId()).isPresent());
+        assertFalse(todoDAO.findById(created.get(0).getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test empty and invalid batch input")
+    void testBatchInputValidation() throws DatabaseException {
+        assertNotNull(todoDAO.createAll(List.of()));
+        assertEquals(0, todoDAO.deleteAll(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> todoDAO.createAll(null));
+        assertThrows(IllegalArgumentException.class, () -> todoDAO.updateAll(List.of(newTodo("No ID"))));
+    }
+
+    @Test
+    @DisplayName("Test keyset pagination visits every todo exactly once")
+    void testKeysetPagination() throws DatabaseException {
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Todo todo = newTodo("Paged " + i);
+            todo.setPriority(i % 2 == 0 ? Priority.HIGH : Priority.LOW);
+            todos.add(todo);
+        }
+        todoDAO.createAll(todos);
+
+        Set<Long> seen = new HashSet<>();
+        long previousId = Long.MAX_VALUE;
+        String token = null;
+        int pages = 0;
+        do {
+            TodoPage page = todoDAO.findAllPage(token, 10);
+            for (Todo todo : page.getTodos()) {
+                assertTrue(seen.add(todo.getId()), "Todo returned twice: " + todo.getId());
+                assertTrue(todo.getId() < previousId, "Rows with equal created_at should be ordered by ID");
+                previousId = todo.getId();
+            }
+            token = page.getNextPageToken();
+            pages++;
+        } while (token != null);
+
+        assertEquals(25, seen.size());
+        assertEquals(3, pages);
+
+        TodoPage high = todoDAO.findByPriorityPage(Priority.HIGH, null, 20);
+        assertEquals(13, high.getTodos().size());
+        assertFalse(high.hasNextPage());
+        assertThrows(IllegalArgumentException.class, () -> todoDAO.findAllPage("not-a-token", 10));
+    }
+
+    @Test
+    @DisplayName("Test streaming maps rows lazily and releases the connection on close")
+    void testStreamAll() throws DatabaseException {
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            todos.add(newTodo("Streamed " + i));
+        }
+        todoDAO.createAll(todos);
+
+        try (Stream<Todo> stream = todoDAO.streamAll()) {
+            assertEquals(1, databaseManager.getPoolStats().getActiveConnections());
+            assertEquals(5, stream.limit(5).count());
+        }
+        assertEquals(0, databaseManager.getPoolStats().getActiveConnections());
+
+        try (Stream<Todo> stream = todoDAO.streamByStatus(TodoStatus.TODO)) {
+            assertEquals(50, stream.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test row mapping restores recurring state without setters")
+    void testRecurringRowMapping() throws DatabaseException {
+        LocalDate start = LocalDate.now().plusDays(2);
+        RecurringTodo recurring = new RecurringTodo("Water plants", null, start, Priority.LOW, Period.ofDays(3));
+        recurring.setMaxOccurrences(5);
+        recurring.setUserId(1L);
+        assertTrue(recurring.moveToNextOccurrence());
+        todoDAO.create(recurring);
+        Todo plain = todoDAO.create(newTodo("Plain todo"));
+
+        List<Todo> loaded = new ArrayList<>(todoDAO.findAll());
+        loaded.add(todoDAO.findById(recurring.getId()).orElseThrow());
+        try (Stream<Todo> stream = todoDAO.streamAll()) {
+            loaded.addAll(stream.toList());
+        }
+
+        int recurringRows = 0;
+        for (Todo todo : loaded) {
+            if (todo.getId().equals(recurring.getId())) {
+                RecurringTodo reloaded = assertInstanceOf(RecurringTodo.class, todo);
+                assertEquals(2, reloaded.getCurrentOccurrence());
+                assertEquals(5, reloaded.getMaxOccurrences());
+                assertEquals(start.plusDays(6), reloaded.getNextDueDate());
+                assertEquals(start.plusDays(3), reloaded.getDueDate());
+                assertNull(reloaded.getDescription());
+                assertNull(reloaded.getProjectId());
+                recurringRows++;
+            } else {
+                assertEquals(plain.getId(), todo.getId());
+                assertFalse(todo instanceof RecurringTodo);
+                assertEquals("Plain todo", todo.getTitle());
+            }
+        }
+        assertEquals(3, recurringRows);
+    }
+
+    @Test
+    @DisplayName("Test full-text search ranks, prefix-matches and follows updates")
+    void testSearch() throws DatabaseException {
+        Todo report = newTodo("Quarterly report");
+        report.setDescription("Collect figures for the report");
+        Todo groceries = newTodo("Buy groceries");
+        groceries.setDescription("Milk, eggs and a report binder");
+        Todo other = newTodo("Call plumber");
+        other.setDescription("Kitchen sink is leaking");
+        todoDAO.createAll(List.of(report, groceries, other));
+
+        List<TodoSearchResult> results = todoDAO.search("rep", 10);
+        assertEquals(2, results.size());
+        assertEquals(report.getId(), results.get(0).getTodo().getId(), "Title matches should rank first");
+        assertTrue(results.get(0).getSnippet().contains("[report]"));
+
+        assertEquals(1, todoDAO.search("quarterly REPORT", 10).size());
+        assertTrue(todoDAO.search("\"OR*", 10).isEmpty(), "FTS syntax in input should be treated as text");
+        assertTrue(todoDAO.search("  ", 10).isEmpty());
+
+        other.setTitle("Call electrician");
+        todoDAO.update(other);
+        assertTrue(todoDAO.search("plumber", 10).isEmpty());
+        assertEquals(1, todoDAO.search("electric", 10).size());
+
+        todoDAO.delete(report.getId());
+        assertEquals(1, todoDAO.search("report", 10).size());
+    }
+
+    @Test
+    @DisplayName("Test search expression escapes user input")
+    void testToMatchExpression() {
+        assertEquals("\"buy\"* \"milk\"*", TodoDAOImpl.toMatchExpression("Buy \"milk\" -"));
+        assertEquals("", TodoDAOImpl.toMatchExpression("***"));
+    }
+
+    @Test
+    @DisplayName("Test count summary groups by status and priority in one pass")
+    void testCountSummary() throws DatabaseException {
+        Todo overdue = newTodo("Overdue");
+        overdue.setDueDate(LocalDate.now().minusDays(2));
+        overdue.setPriority(Priority.URGENT);
+        Todo overdueButDone = newTodo("Done late");
+        overdueButDone.setDueDate(LocalDate.now().minusDays(2));
+        overdueButDone.setStatus(TodoStatus.COMPLETED);
+        Todo high = newTodo("High");
+        high.setPriority(Priority.HIGH);
+        high.setStatus(TodoStatus.IN_PROGRESS);
+        todoDAO.createAll(List.of(overdue, overdueButDone, high, newTodo("Medium")));
+
+        TodoCountSummary summary = todoDAO.countSummary();
+
+        assertEquals(4, summary.getTotal());
+        assertEquals(todoDAO.findOverdue().size(), summary.getOverdue());
+        assertEquals(1, summary.getOverdue());
+        assertEquals(2, summary.getCount(TodoStatus.TODO));
+        assertEquals(1, summary.getCount(TodoStatus.IN_PROGRESS));
+        assertEquals(1, summary.getCount(TodoStatus.COMPLETED));
+        assertEquals(0, summary.getCount(TodoStatus.CANCELLED));
+        assertEquals(1, summary.getCount(Priority.URGENT));
+        assertEquals(1, summary.getCount(Priority.HIGH));
+        assertEquals(2, summary.getCount(Priority.MEDIUM));
+        assertEquals(0, summary.getCount(Priority.LOW));
+    }
+
+    @Test
+    @DisplayName("Test per-project count summaries come from one grouped query")
+    void testCountSummaryByProject() throws DatabaseException {
+        ProjectDAOImpl projectDAO = new ProjectDAOImpl(databaseManager);
+        Project first = new Project("First project");
+        first.setUserId(1L);
+        Project second = new Project("Second project");
+        second.setUserId(1L);
+        projectDAO.create(first);
+        projectDAO.create(second);
+
+        Todo done = newTodo("Done");
+        done.setProjectId(first.getId());
+        done.setStatus(TodoStatus.COMPLETED);
+        Todo open = newTodo("Open");
+        open.setProjectId(first.getId());
+        Todo other = newTodo("Other");
+        other.setProjectId(second.getId());
+        todoDAO.createAll(List.of(done, open, other, newTodo("No project")));
+
+        Map<Long, TodoCountSummary> all = todoDAO.countSummaryByProject(null);
+        assertEquals(2, all.size());
+        assertEquals(2, all.get(first.getId()).getTotal());
+        assertEquals(1, all.get(first.getId()).getCount(TodoStatus.COMPLETED));
+        assertEquals(1, all.get(second.getId()).getTotal());
+
+        Map<Long, TodoCountSummary> selected = todoDAO.countSummaryByProject(List.of(second.getId(), 9_999L));
+        assertEquals(1, selected.size());
+        assertEquals(1, selected.get(second.getId()).getCount(TodoStatus.TODO));
+        assertTrue(todoDAO.countSummaryByProject(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test user-scoped finders only return the user's rows and use composite indexes")
+    void testUserScopedFinders() throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, email, password_hash) VALUES (2, 'bob', 'bob@example.com', 'x')");
+        }
+        Todo mine = newTodo("Mine");
+        mine.setStatus(TodoStatus.IN_PROGRESS);
+        Todo theirs = newTodo("Theirs");
+        theirs.setUserId(2L);
+        theirs.setStatus(TodoStatus.IN_PROGRESS);
+        Todo theirsOverdue = newTodo("Theirs overdue");
+        theirsOverdue.setUserId(2L);
+        theirsOverdue.setDueDate(LocalDate.now().minusDays(1));
+        todoDAO.createAll(List.of(mine, theirs, theirsOverdue));
+
+        assertEquals(1, todoDAO.findAllForUser(1L).size());
+        assertEquals(2, todoDAO.findAllForUser(2L).size());
+        assertEquals(List.of(theirs.getId()),
+                todoDAO.findByStatusForUser(2L, TodoStatus.IN_PROGRESS).stream().map(Todo::getId).toList());
+        assertEquals(List.of(theirsOverdue.getId()),
+                todoDAO.findOverdueForUser(2L).stream().map(Todo::getId).toList());
+        assertTrue(todoDAO.findOverdueForUser(1L).isEmpty());
+        assertEquals(2, todoDAO.countSummaryForUser(2L).getTotal());
+        assertEquals(1, todoDAO.searchForUser(1L, "mine", 10).size());
+        assertTrue(todoDAO.searchForUser(2L, "mine", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> todoDAO.findAllForUser(null));
+
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery(
+                     "EXPLAIN QUERY PLAN SELECT * FROM todos WHERE user_id = 2 AND status = 'TODO' AND due_date < 0")) {
+            StringBuilder detail = new StringBuilder();
+            while (plan.next()) {
+                detail.append(plan.getString("detail"));
+            }
+            assertTrue(detail.toString().contains("idx_todos_user_status_due"), detail.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test due date range finders and the open-todo date index")
+    void testFindDueBetween() throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, email, password_hash) VALUES (2, 'bob', 'bob@example.com', 'x')");
+        }
+        LocalDate today = LocalDate.now();
+        Todo yesterday = newTodo("Yesterday");
+        yesterday.setDueDate(today.minusDays(1));
+        Todo dueToday = newTodo("Today");
+        dueToday.setDueDate(today);
+        Todo doneToday = newTodo("Done today");
+        doneToday.setDueDate(today);
+        doneToday.setStatus(TodoStatus.COMPLETED);
+        Todo theirsToday = newTodo("Theirs today");
+        theirsToday.setDueDate(today);
+        theirsToday.setUserId(2L);
+        Todo nextWeek = newTodo("Next week");
+        nextWeek.setDueDate(today.plusDays(7));
+        Todo undated = newTodo("Undated");
+        undated.setDueDate(null);
+        todoDAO.createAll(List.of(yesterday, dueToday, doneToday, theirsToday, nextWeek, undated));
+
+        assertEquals(List.of(dueToday.getId(), doneToday.getId(), theirsToday.getId()),
+                todoDAO.findDueOn(today).stream().map(Todo::getId).toList());
+        assertEquals(List.of(dueToday.getId(), doneToday.getId()),
+                todoDAO.findDueOnForUser(1L, today).stream().map(Todo::getId).toList());
+        assertEquals(List.of(yesterday.getId(), dueToday.getId(), doneToday.getId(), nextWeek.getId()),
+                todoDAO.findDueBetweenForUser(1L, today.minusDays(1), today.plusDays(7)).stream()
+                        .map(Todo::getId).toList());
+        assertEquals(today.plusDays(7), todoDAO.findDueOn(today.plusDays(7)).get(0).getDueDate());
+        assertTrue(todoDAO.findDueBetween(today.plusDays(1), today).isEmpty());
+        assertTrue(todoDAO.findDueBetween(null, today).isEmpty());
+        assertEquals(List.of(yesterday.getId()), todoDAO.findOverdue().stream().map(Todo::getId).toList());
+
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT due_date, typeof(due_date) FROM todos WHERE id = " + dueToday.getId())) {
+                assertTrue(resultSet.next());
+                assertEquals(today.toString(), resultSet.getString(1));
+                assertEquals("text", resultSet.getString(2));
+            }
+            try (ResultSet plan = statement.executeQuery("EXPLAIN QUERY PLAN SELECT * FROM todos "
+                    + "WHERE status IN ('TODO', 'IN_PROGRESS') AND due_date < '2030-01-01'")) {
+                StringBuilder detail = new StringBuilder();
+                while (plan.next()) {
+                    detail.append(plan.getString("detail"));
+                }
+                assertTrue(detail.toString().contains("idx_todos_open_due"), detail.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test composable queries filter, sort, paginate and count in one statement")
+    void testQuery() throws Exception {
+        Project project = new Project("Garden");
+        project.setUserId(1L);
+        new ProjectDAOImpl(databaseManager).create(project);
+        LocalDate today = LocalDate.now();
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Todo todo = newTodo((i % 2 == 0 ? "Water plants " : "Pay bill ") + i);
+            todo.setPriority(Priority.values()[i % 4]);
+            todo.setStatus(i % 3 == 0 ? TodoStatus.COMPLETED : TodoStatus.TODO);
+            todo.setDueDate(i == 11 ? null : today.plusDays(i));
+            todo.setProjectId(i < 6 ? project.getId() : null);
+            todos.add(todo);
+        }
+        todoDAO.createAll(todos);
+
+        TodoQueryResult all = todoDAO.query(TodoQuery.all());
+        assertEquals(12, all.getTotalCount());
+        assertEquals(todos.get(11).getId(), all.getTodos().get(0).getId(), "Newest first by default");
+        assertFalse(all.hasMore());
+
+        TodoQuery open = TodoQuery.all().withStatus(TodoStatus.TODO, TodoStatus.IN_PROGRESS)
+                .sortedBy(TodoQuery.SortKey.DUE_DATE, false);
+        TodoQueryResult first = todoDAO.query(open.pageAt(0, 3));
+        assertEquals(8, first.getTotalCount());
+        assertEquals(List.of(1L, 2L, 4L), first.getTodos().stream().map(t -> t.getId() - todos.get(0).getId()).toList());
+        assertTrue(first.hasMore());
+        TodoQueryResult last = todoDAO.query(open.pageAt(2, 3));
+        assertEquals(2, last.getTodos().size());
+        assertNull(last.getTodos().get(1).getDueDate(), "Undated todos sort last");
+        assertFalse(last.hasMore());
+        TodoQueryResult pastEnd = todoDAO.query(open.pageAt(5, 3));
+        assertTrue(pastEnd.getTodos().isEmpty());
+        assertEquals(8, pastEnd.getTotalCount());
+
+        TodoQueryResult combined = todoDAO.query(TodoQuery.all()
+                .withProject(project.getId())
+                .withDueBetween(today.plusDays(1), today.plusDays(5))
+                .withText("water")
+                .withPriority(Priority.LOW, Priority.URGENT)
+                .forUser(1L));
+        assertEquals(List.of("Water plants 4"), combined.getTodos().stream().map(Todo::getTitle).toList());
+        assertEquals(0, todoDAO.query(TodoQuery.all().forUser(2L)).getTotalCount());
+        assertEquals(0, todoDAO.query(TodoQuery.all().withText("!!")).getTotalCount());
+
+        List<Priority> byPriority = todoDAO.query(TodoQuery.all()
+                        .sortedBy(TodoQuery.SortKey.PRIORITY, true)
+                        .sortedBy(TodoQuery.SortKey.TITLE, false)).getTodos().stream()
+                .map(Todo::getPriority).toList();
+        assertEquals(Priority.URGENT, byPriority.get(0));
+        assertEquals(Priority.LOW, byPriority.get(byPriority.size() - 1));
+
+        assertThrows(IllegalArgumentException.class, () -> TodoQuery.all().withDueBetween(today, today.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> TodoQuery.all().withText(" "));
+        assertThrows(IllegalArgumentException.class, () -> TodoQuery.all().page(-1, 10));
+    }
+}
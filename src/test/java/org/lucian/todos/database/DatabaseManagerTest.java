@@ -1,16 +1,26 @@
 package org.lucian.todos.database;
 
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
 
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucian.todos.exceptions.DatabaseException;
 
 public class DatabaseManagerTest {
 
@@ -57,8 +67,195 @@ public class DatabaseManagerTest {
         }, "Checking migration should not throw an exception");
     }
 
+    @Test
+    @DisplayName("Test pooled connections share the in-memory schema")
+    void testPooledConnectionsShareSchema() throws Exception {
+        try (Connection first = databaseManager.getConnection();
+             Connection second = databaseManager.getConnection();
+             Statement statement = second.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+            assertTrue(first.isValid(1));
+            assertTrue(resultSet.next());
+            assertEquals(1, resultSet.getInt(1), "Default admin user should be visible on every pooled connection");
+        }
+    }
+
+    @Test
+    @DisplayName("Test closed connections are returned to the pool")
+    void testConnectionReturnedToPool() throws Exception {
+        Connection connection = databaseManager.getConnection();
+        assertEquals(1, databaseManager.getPoolStats().getActiveConnections());
+
+        connection.close();
+        assertTrue(connection.isClosed(), "Returned connection should report closed");
+        assertEquals(0, databaseManager.getPoolStats().getActiveConnections());
+        assertTrue(databaseManager.getPoolStats().getIdleConnections() >= 1);
+
+        Connection reused = databaseManager.getConnection();
+        assertEquals(databaseManager.getPoolStats().getCreatedCount(), databaseManager.getPoolStats().getTotalConnections(),
+                "Borrowing again should reuse the idle connection");
+        reused.close();
+    }
+
+    @Test
+    @DisplayName("Test borrow times out when the pool is exhausted")
+    void testBorrowTimeoutWhenExhausted() throws Exception {
+        ConnectionPoolConfig config = new ConnectionPoolConfig();
+        config.setMaxSize(1);
+        config.setBorrowTimeoutMillis(50);
+        DatabaseManager manager = DatabaseManager.create("jdbc:sqlite::memory:", config);
+        try (Connection held = manager.getConnection()) {
+            assertThrows(DatabaseException.class, manager::getConnection);
+            assertEquals(1, manager.getPoolStats().getTimeoutCount());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test shutdown drains the pool")
+    void testShutdownDrainsPool() {
+        databaseManager.shutdown();
+        assertEquals(0, databaseManager.getPoolStats().getIdleConnections());
+        assertThrows(DatabaseException.class, databaseManager::getConnection);
+        assertFalse(databaseManager.isHealthy());
+    }
+
+    @Test
+    @DisplayName("Test prepared statements are reused from the cache")
+    void testStatementCacheReuse() throws Exception {
+        ConnectionPool.PoolStats before = databaseManager.getPoolStats();
+        String sql = "SELECT COUNT(*) FROM todos WHERE status = ?";
+        try (Connection connection = databaseManager.getConnection()) {
+            PreparedStatement first = connection.prepareStatement(sql);
+            first.setString(1, "TODO");
+            first.executeQuery().close();
+            first.close();
+            assertTrue(first.isClosed());
+
+            try (PreparedStatement second = connection.prepareStatement(sql)) {
+                assertSame(first, second);
+                second.setString(1, "TODO");
+                try (ResultSet resultSet = second.executeQuery()) {
+                    assertTrue(resultSet.next());
+                }
+            }
+        }
+        ConnectionPool.PoolStats after = databaseManager.getPoolStats();
+        assertEquals(before.getStatementCacheMisses() + 1, after.getStatementCacheMisses());
+        assertEquals(before.getStatementCacheHits() + 1, after.getStatementCacheHits());
+    }
+
+    @Test
+    @DisplayName("Test PRAGMA profile is applied to file-backed connections")
+    void testPragmaProfileApplied(@TempDir Path tempDir) throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("profile.db");
+        DatabaseManager manager = DatabaseManager.create(url, new ConnectionPoolConfig(), PragmaProfile.forName("bulk-load"));
+        try (Connection connection = manager.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA journal_mode")) {
+                assertTrue(resultSet.next());
+                assertEquals("wal", resultSet.getString(1).toLowerCase());
+            }
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA synchronous")) {
+                assertTrue(resultSet.next());
+                assertEquals(0, resultSet.getInt(1), "bulk-load profile should disable fsync");
+            }
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test dates stored as epoch milliseconds are converted to ISO-8601 text once")
+    void testLegacyDatesConverted(@TempDir Path tempDir) throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("legacy.db");
+        LocalDate dueDate = LocalDate.of(2030, 3, 15);
+        DatabaseManager manager = DatabaseManager.create(url, new ConnectionPoolConfig());
+        try (Connection connection = manager.getConnection();
+             Statement statement = connection.createStatement()) {
+            // How earlier versions stored a java.sql.Date parameter
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO todos (title, due_date, priority, status, user_id) VALUES ('Old', ?, 'LOW', 'TODO', 1)")) {
+                insert.setLong(1, Date.valueOf(dueDate).getTime());
+                insert.executeUpdate();
+            }
+            statement.execute("PRAGMA user_version = 0");
+        } finally {
+            manager.shutdown();
+        }
+
+        manager = DatabaseManager.create(url, new ConnectionPoolConfig());
+        try (Connection connection = manager.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT due_date, typeof(due_date) FROM todos")) {
+                assertTrue(resultSet.next());
+                assertEquals("2030-03-15", resultSet.getString(1));
+                assertEquals("text", resultSet.getString(2));
+            }
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+                assertTrue(resultSet.next());
+                assertEquals(1, resultSet.getInt(1));
+            }
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test unknown PRAGMA profile name is rejected")
+    void testUnknownPragmaProfile() {
+        assertEquals("durable", PragmaProfile.forName("DURABLE").getName());
+        assertThrows(IllegalArgumentException.class, () -> PragmaProfile.forName("fastest"));
+    }
+
+    @Test
+    @DisplayName("Test transaction commits together and rolls back together")
+    void testTransaction() throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE tx_test (value INTEGER)");
+        }
+
+        databaseManager.inTransaction(() -> {
+            insertValue(1);
+            // Nested DAO-style commits are deferred to the outer transaction
+            try (Connection connection = databaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                connection.commit();
+            }
+            insertValue(2);
+            return null;
+        });
+        assertEquals(2, countValues());
+
+        assertThrows(IllegalStateException.class, () -> databaseManager.inTransaction(() -> {
+            insertValue(3);
+            throw new IllegalStateException("fail");
+        }));
+        assertEquals(2, countValues(), "Rolled back transaction should leave no rows behind");
+    }
+
+    private void insertValue(int value) throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO tx_test (value) VALUES (?)")) {
+            statement.setInt(1, value);
+            statement.executeUpdate();
+        }
+    }
+
+    private int countValues() throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM tx_test")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
     @AfterEach
     void tearDown() {
+        databaseManager.shutdown();
         databaseManager = null;
     }
 }
@@ -0,0 +1,129 @@
+package org.lucian.todos.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.impl.TodoDAOImpl;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+
+public class DataExporterTest {
+
+    private DatabaseManager databaseManager;
+    private TodoDAO todoDAO;
+    private DataExporter exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        databaseManager = DatabaseManager.getTestInstance();
+        todoDAO = new TodoDAOImpl(databaseManager);
+        exporter = new DataExporter(databaseManager);
+
+        Todo simple = new Todo("Write \"report\"", "line one\nline two, with comma", LocalDate.of(2030, 1, 15),
+                Priority.HIGH);
+        simple.setUserId(1L);
+        todoDAO.create(simple);
+
+        RecurringTodo recurring = new RecurringTodo("Water plants", null, LocalDate.of(2030, 1, 1), Priority.LOW,
+                Period.ofDays(7));
+        recurring.setMaxOccurrences(5);
+        recurring.setUserId(1L);
+        recurring.setStatus(TodoStatus.COMPLETED);
+        todoDAO.create(recurring);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    private List<String> exportTodos(TodoExportFilter filter, ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportTodos(filter, format, out, false);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    @DisplayName("Test todos export as one JSON object per line")
+    void testNdjsonExport() throws Exception {
+        List<String> lines = exportTodos(TodoExportFilter.all(), ExportFormat.NDJSON);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":1,\"title\":\"Write \\\"report\\\"\","
+                + "\"description\":\"line one\\nline two, with comma\",\"dueDate\":\"2030-01-15\","
+                + "\"priority\":\"HIGH\",\"status\":\"TODO\",\"projectId\":null,\"userId\":1,"), lines.get(0));
+        assertTrue(lines.get(0).endsWith("\"recurringIntervalDays\":null,\"maxOccurrences\":null,"
+                + "\"currentOccurrence\":null,\"nextDueDate\":null}"), lines.get(0));
+        assertTrue(lines.get(1).contains("\"recurringIntervalDays\":7,\"maxOccurrences\":5,\"currentOccurrence\":1"),
+                lines.get(1));
+    }
+
+    @Test
+    @DisplayName("Test todos export as CSV with quoting")
+    void testCsvExport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, exporter.exportTodos(TodoExportFilter.byPriority(Priority.HIGH), ExportFormat.CSV, out, false));
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,title,description,dueDate,priority,status,projectId,userId,"), csv);
+        assertTrue(csv.contains("\r\n1,\"Write \"\"report\"\"\",\"line one\nline two, with comma\",2030-01-15,HIGH,TODO,,1,"),
+                csv);
+    }
+
+    @Test
+    @DisplayName("Test filters match the DAO finders")
+    void testFilters() throws Exception {
+        assertEquals(1, exportTodos(TodoExportFilter.byStatus(TodoStatus.COMPLETED), ExportFormat.NDJSON).size());
+        assertEquals(todoDAO.findDueBefore(LocalDate.of(2030, 1, 10)).size(),
+                exportTodos(TodoExportFilter.dueBefore(LocalDate.of(2030, 1, 10)), ExportFormat.NDJSON).size());
+        assertEquals(todoDAO.findOverdue().size(), exportTodos(TodoExportFilter.overdue(), ExportFormat.NDJSON).size());
+        assertEquals(2, exportTodos(TodoExportFilter.all().forUser(1L), ExportFormat.NDJSON).size());
+        assertEquals(0, exportTodos(TodoExportFilter.all().forUser(2L), ExportFormat.NDJSON).size());
+        assertEquals(0, exportTodos(TodoExportFilter.byProject(42L), ExportFormat.NDJSON).size());
+        assertThrows(IllegalArgumentException.class, () -> TodoExportFilter.byStatus(null));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromName("xml"));
+    }
+
+    @Test
+    @DisplayName("Test gzip file export and user export without password hashes")
+    void testGzipFileExport(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("todos.ndjson.gz");
+        assertEquals(2, exporter.exportTodos(TodoExportFilter.all(), ExportFormat.NDJSON, file));
+        assertEquals(2, gunzip(Files.readAllBytes(file)).lines().count());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "Temporary file should have been moved into place");
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, exporter.exportUsers(ExportFormat.NDJSON, out, true));
+        String users = gunzip(out.toByteArray());
+        assertTrue(users.startsWith("{\"id\":1,\"username\":\"admin\""), users);
+        assertFalse(users.contains("password"), users);
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
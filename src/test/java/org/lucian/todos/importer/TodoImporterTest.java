@@ -0,0 +1,238 @@
+package org.lucian.todos.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucian.todos.dao.ProjectDAO;
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.impl.ProjectDAOImpl;
+import org.lucian.todos.dao.impl.TodoDAOImpl;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.export.DataExporter;
+import org.lucian.todos.export.ExportFormat;
+import org.lucian.todos.export.TodoExportFilter;
+import org.lucian.todos.model.Priority;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.RecurringTodo;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.model.TodoStatus;
+import org.lucian.todos.util.FlatJsonParser;
+
+public class TodoImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private TodoDAO todoDAO;
+    private ProjectDAO projectDAO;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = DatabaseManager.getTestInstance();
+        todoDAO = new TodoDAOImpl(databaseManager);
+        projectDAO = new ProjectDAOImpl(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test CSV import quarantines invalid rows and keeps the rest")
+    void testCsvImportWithQuarantine() throws Exception {
+        Path input = tempDir.resolve("legacy.csv");
+        Files.writeString(input, """
+            Title,Description,Due_Date,Priority,Status,Project_Id,Recurring_Interval_Days
+            Plan sprint,"Multi-line
+            description, with comma",2030-02-01,high,in-progress,,
+            ,no title,,,,,
+            Water plants,,2030-01-01,LOW,,,7
+            Bad date,,01/02/2030,,,,
+            Missing project,,,,,424242,
+            Too,few
+            """);
+        ImportConfig config = ImportConfig.forInput(input);
+        config.setBatchSize(2);
+        List<ImportStats> progress = new ArrayList<>();
+
+        ImportStats stats = new TodoImporter(todoDAO, projectDAO, config).importTodos(input, ExportFormat.CSV, 1L, progress::add);
+
+        assertEquals(6, stats.getRecords());
+        assertEquals(2, stats.getImported());
+        assertEquals(4, stats.getQuarantined());
+        assertTrue(stats.isComplete());
+        assertEquals(4, progress.size(), "Three batches and the final report");
+        assertFalse(Files.exists(config.getCheckpointFile()), "Checkpoint should be removed when done");
+
+        List<String> rejected = Files.readAllLines(config.getQuarantineFile());
+        assertEquals(4, rejected.size());
+        assertTrue(rejected.get(0).startsWith("{\"record\":2,\"error\":\"Todo title cannot be null or empty\""),
+                rejected.get(0));
+        assertTrue(rejected.get(1).contains("Invalid dueDate"), rejected.get(1));
+        assertTrue(rejected.get(2).startsWith("{\"record\":5,\"error\":\"Project not found with ID: 424242\""),
+                rejected.get(2));
+        assertTrue(rejected.get(3).contains("Expected 7 fields but found 2"), rejected.get(3));
+
+        List<Todo> todos = todoDAO.findAll();
+        assertEquals(2, todos.size());
+        Todo planned = todos.stream().filter(t -> t.getTitle().equals("Plan sprint")).findFirst().orElseThrow();
+        assertEquals("Multi-line\ndescription, with comma", planned.getDescription());
+        assertEquals(TodoStatus.IN_PROGRESS, planned.getStatus());
+        assertEquals(Priority.HIGH, planned.getPriority());
+        RecurringTodo recurring = assertInstanceOf(RecurringTodo.class,
+                todos.stream().filter(t -> t.getTitle().equals("Water plants")).findFirst().orElseThrow());
+        assertEquals(Period.ofDays(7), recurring.getRecurringInterval());
+    }
+
+    @Test
+    @DisplayName("Test rows assigned to another user's project are quarantined")
+    void testForeignProjectQuarantine() throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, email, password_hash) VALUES (2, 'bob', 'bob@example.com', 'x')");
+        }
+        Project mine = new Project("Mine");
+        mine.setUserId(1L);
+        projectDAO.create(mine);
+        Project bobs = new Project("Bob's");
+        bobs.setUserId(2L);
+        projectDAO.create(bobs);
+
+        Path input = tempDir.resolve("projects.ndjson");
+        Files.writeString(input, """
+            {"title":"Mine","projectId":%d}
+            {"title":"Bob's","projectId":%d}
+            {"title":"Loose"}
+            """.formatted(mine.getId(), bobs.getId()));
+        ImportConfig config = ImportConfig.forInput(input);
+
+        ImportStats stats = new TodoImporter(todoDAO, projectDAO, config).importTodos(input, ExportFormat.NDJSON, 1L, null);
+        assertEquals(2, stats.getImported());
+        assertEquals(1, stats.getQuarantined());
+        List<String> rejected = Files.readAllLines(config.getQuarantineFile());
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0).startsWith("{\"record\":2,\"error\":\"Project not found with ID: " + bobs.getId()),
+                rejected.get(0));
+        assertTrue(todoDAO.findByProjectId(bobs.getId()).isEmpty());
+        assertEquals(1, todoDAO.findByProjectId(mine.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Test NDJSON written by the exporter imports back")
+    void testExportRoundTrip() throws Exception {
+        Todo todo = new Todo("Ship \"v2\"", "tab\there", LocalDate.of(2030, 3, 1), Priority.URGENT);
+        todo.setUserId(1L);
+        todoDAO.create(todo);
+        RecurringTodo recurring = new RecurringTodo("Standup", null, LocalDate.of(2030, 3, 2), Priority.LOW,
+                Period.ofDays(1));
+        recurring.setMaxOccurrences(10);
+        recurring.setUserId(1L);
+        todoDAO.create(recurring);
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new DataExporter(databaseManager).exportTodos(TodoExportFilter.all(), ExportFormat.NDJSON, exported, false);
+
+        ImportStats stats = new TodoImporter(todoDAO, projectDAO, new ImportConfig()).importTodos(
+                new StringReader(exported.toString(StandardCharsets.UTF_8)), ExportFormat.NDJSON, 1L, null);
+        assertEquals(2, stats.getImported());
+        assertEquals(0, stats.getQuarantined());
+
+        List<Todo> todos = todoDAO.findAll();
+        assertEquals(4, todos.size());
+        assertEquals(2, todos.stream().filter(t -> t.getTitle().equals("Ship \"v2\"")
+                && "tab\there".equals(t.getDescription())).count());
+        assertEquals(2, todos.stream().filter(t -> t instanceof RecurringTodo r && r.getMaxOccurrences() == 10).count());
+    }
+
+    @Test
+    @DisplayName("Test an import resumes after the checkpointed record")
+    void testResumeFromCheckpoint() throws Exception {
+        Path input = tempDir.resolve("todos.ndjson");
+        Files.writeString(input, """
+            {"title":"One"}
+            {"title":"Two"}
+            {"title":"Three"}
+
+            {"title":"Four","priority":"HIGH"}
+            """);
+        ImportConfig config = ImportConfig.forInput(input);
+        Files.writeString(config.getCheckpointFile(), "records=2\nimported=2\nquarantined=0\n");
+
+        ImportStats stats = new TodoImporter(todoDAO, projectDAO, config).importTodos(input, ExportFormat.NDJSON, 1L, null);
+        assertEquals(4, stats.getRecords());
+        assertEquals(2, stats.getResumedAt());
+        assertEquals(4, stats.getImported(), "Counters continue from the checkpoint");
+        assertEquals(List.of("Four", "Three"), todoDAO.findAll().stream().map(Todo::getTitle).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Test an unexpected failure on the reader thread fails the import instead of hanging it")
+    void testReaderFailure() {
+        Reader failing = new Reader() {
+            private final Reader lines = new StringReader("{\"title\":\"First\"}\n");
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = lines.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IllegalStateException("Decoder broke");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        TodoImporter importer = new TodoImporter(todoDAO, projectDAO, new ImportConfig());
+
+        IllegalStateException e = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(
+                IllegalStateException.class, () -> importer.importTodos(failing, ExportFormat.NDJSON, 1L, null)));
+        assertEquals("Decoder broke", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test NDJSON lines are parsed as flat objects")
+    void testFlatObjectParser() throws Exception {
+        Map<String, String> fields;
+        try (RecordReader reader = RecordReader.create(ExportFormat.NDJSON, new StringReader(
+                " {\"title\": \"a\\\"b\\u00e9\", \"Project_Id\": 12, \"description\": null, \"done\": true} "))) {
+            fields = reader.next().fields();
+        }
+        assertEquals("a\"bé", fields.get("title"));
+        assertEquals("12", fields.get("projectid"));
+        assertNull(fields.get("description"));
+        assertEquals("true", fields.get("done"));
+
+        assertThrows(IllegalArgumentException.class, () -> FlatJsonParser.parse("{\"a\":[1]}"));
+        assertThrows(IllegalArgumentException.class, () -> FlatJsonParser.parse("{\"a\":1"));
+        assertThrows(IllegalArgumentException.class, () -> FlatJsonParser.parse("{\"a\":nope}"));
+    }
+}
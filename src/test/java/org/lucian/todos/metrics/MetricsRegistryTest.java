@@ -0,0 +1,145 @@
+package org.lucian.todos.metrics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucian.todos.dao.TodoDAO;
+import org.lucian.todos.dao.impl.CachingTodoDAO;
+import org.lucian.todos.dao.impl.MeteredTodoDAO;
+import org.lucian.todos.dao.impl.TodoDAOImpl;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.DatabaseException;
+import org.lucian.todos.model.Todo;
+
+public class MetricsRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test histogram buckets are contiguous and percentiles stay within bucket precision")
+    void testHistogramPrecision() {
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            assertEquals(LatencyHistogram.bucketUpperBound(i - 1) + 1,
+                    LatencyHistogram.bucketUpperBound(i) - bucketWidth(i) + 1, "Gap before bucket " + i);
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1,
+                LatencyHistogram.bucketIndex(LatencyHistogram.HIGHEST_TRACKABLE_NANOS));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        long[] values = histogram.getValuesAtPercentiles(50, 99, 99.9, 100);
+        assertWithin(500_000, values[0]);
+        assertWithin(990_000, values[1]);
+        assertWithin(999_000, values[2]);
+        assertWithin(1_000_000, values[3]);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValuesAtPercentiles(101));
+    }
+
+    @Test
+    @DisplayName("Test timers count calls, errors and latencies")
+    void testTimer() throws Exception {
+        Timer timer = new MetricsRegistry().timer("op");
+        assertEquals("ok", timer.time(() -> "ok"));
+        assertThrows(DatabaseException.class, () -> timer.time(() -> {
+            throw new DatabaseException("boom");
+        }));
+        timer.record(2_000_000, false);
+
+        Timer.Stats stats = timer.getStats();
+        assertEquals(3, stats.getCount());
+        assertEquals(1, stats.getErrorCount());
+        assertEquals(2_000_000, stats.getMaxNanos());
+        assertEquals(2_000_000, stats.getP999Nanos(), "Percentiles are capped at the maximum");
+        assertTrue(stats.getP50Nanos() < 2_000_000);
+        assertTrue(stats.getThroughputPerSecond() > 0);
+
+        timer.reset();
+        assertEquals(0, timer.getStats().getCount());
+        assertEquals(0, timer.getStats().getP99Nanos());
+    }
+
+    @Test
+    @DisplayName("Test metered DAO calls are reported and dumped")
+    void testMeteredDaoReport() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        DatabaseManager databaseManager = DatabaseManager.getTestInstance();
+        try {
+            TodoDAO todoDAO = new MeteredTodoDAO(new TodoDAOImpl(databaseManager), metrics);
+            Todo todo = new Todo("Measured");
+            todo.setUserId(1L);
+            todoDAO.create(todo);
+            todoDAO.findById(todo.getId());
+            todoDAO.findById(todo.getId());
+        } finally {
+            databaseManager.shutdown();
+        }
+
+        List<Timer.Stats> stats = metrics.getStats();
+        assertEquals(List.of("TodoDAO.create", "TodoDAO.findById"), stats.stream().map(Timer.Stats::getName).toList(),
+                "Timers that never ran are left out");
+        assertEquals(2, stats.get(1).getCount());
+
+        Path file = tempDir.resolve("reports/metrics.txt");
+        metrics.dump(file);
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(1).matches("Operation\\s+Count\\s+Errors\\s+Ops/s\\s+Mean\\s+p50\\s+p99\\s+p99\\.9\\s+Max"),
+                lines.get(1));
+        assertTrue(lines.get(3).matches("TodoDAO\\.findById\\s+2\\s+0\\s+.*"), lines.get(3));
+    }
+
+    @Test
+    @DisplayName("Test gauges are read when the report is written")
+    void testGauges() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        DatabaseManager databaseManager = DatabaseManager.getTestInstance();
+        try {
+            CachingTodoDAO cache = new CachingTodoDAO(new TodoDAOImpl(databaseManager), databaseManager, 10);
+            metrics.gauge("TodoDAO.cache", () -> cache.getStats().toString());
+            Todo todo = new Todo("Cached");
+            todo.setUserId(1L);
+            cache.create(todo);
+            cache.findById(todo.getId());
+
+            StringBuilder report = new StringBuilder();
+            metrics.writeReport(report);
+            assertTrue(report.toString().contains("hits=1, misses=0"), report.toString());
+            metrics.reset();
+            cache.findById(-1L);
+            report.setLength(0);
+            metrics.writeReport(report);
+            assertTrue(report.toString().contains("hits=1, misses=1"), report.toString());
+        } finally {
+            databaseManager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test durations are formatted with a fitting unit")
+    void testFormatNanos() {
+        assertEquals("850ns", MetricsRegistry.formatNanos(850));
+        assertEquals("12.3us", MetricsRegistry.formatNanos(12_300));
+        assertEquals("4.56ms", MetricsRegistry.formatNanos(4_560_000));
+        assertEquals("1.20s", MetricsRegistry.formatNanos(1_200_000_000));
+    }
+
+    private static long bucketWidth(int index) {
+        return index < 64 ? 1 : 1L << (index / 64 - 1);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 64,
+                "Expected about " + expected + " but was " + actual);
+    }
+}
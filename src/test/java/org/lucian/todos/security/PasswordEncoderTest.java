@@ -0,0 +1,205 @@
+package org.lucian.todos.security;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.dao.UserDAO;
+import org.lucian.todos.dao.impl.UserDAOImpl;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.model.User;
+import org.lucian.todos.service.AuthenticationService;
+
+public class PasswordEncoderTest {
+
+    private PasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setIterations(2_000);
+        encoder = new PasswordEncoder(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test PBKDF2 hashes are versioned, salted and verifiable")
+    void testPbkdf2Format() {
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+        String hash = hasher.hash("correct horse");
+
+        assertTrue(hash.startsWith("$pbkdf2-sha256$v=1$i=1000$"), hash);
+        assertNotEquals(hash, hasher.hash("correct horse"), "Each hash should get a fresh salt");
+        assertTrue(hasher.verify("correct horse", hash));
+        assertFalse(hasher.verify("correct horse!", hash));
+        assertFalse(hasher.verify("correct horse", "$pbkdf2-sha256$v=1$i=1000$not base64$"));
+
+        assertFalse(hasher.needsRehash(hash));
+        assertTrue(new Pbkdf2PasswordHasher(2_000).needsRehash(hash), "Lower iteration counts should be upgraded");
+        assertTrue(new Pbkdf2PasswordHasher(500).verify("correct horse", hash), "Cost is read from the hash");
+    }
+
+    @Test
+    @DisplayName("Test the encoder verifies legacy hashes and flags them for rehash")
+    void testLegacyVerification() throws AuthenticationException {
+        String legacyHash = new LegacySha256PasswordHasher().hash("secret1");
+
+        PasswordEncoder.Verification verification = encoder.verify("secret1", legacyHash);
+        assertTrue(verification.matches());
+        assertTrue(verification.needsRehash());
+        assertFalse(encoder.verify("secret2", legacyHash).matches());
+        assertFalse(encoder.verify("secret1", "%%% not a hash %%%").matches());
+
+        PasswordEncoder.Verification current = encoder.verify("secret1", encoder.hash("secret1"));
+        assertTrue(current.matches());
+        assertFalse(current.needsRehash());
+        assertEquals(4, encoder.getStats().getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Test a legacy password hash is upgraded on login")
+    void testUpgradeOnLogin() throws Exception {
+        DatabaseManager databaseManager = DatabaseManager.getTestInstance();
+        try {
+            UserDAO userDAO = new UserDAOImpl(databaseManager);
+            User admin = userDAO.findByUsername("admin").orElseThrow();
+            admin.setPasswordHash(new LegacySha256PasswordHasher().hash("admin"));
+            userDAO.update(admin);
+
+            AuthenticationService authService = new AuthenticationService(userDAO, encoder);
+            authService.login("admin", "admin");
+
+            String upgraded = userDAO.findByUsername("admin").orElseThrow().getPasswordHash();
+            assertTrue(upgraded.startsWith("$pbkdf2-sha256$v=1$i=2000$"), upgraded);
+
+            authService.logout();
+            authService.login("admin", "admin");
+            assertEquals(upgraded, userDAO.findByUsername("admin").orElseThrow().getPasswordHash(),
+                    "A current hash should not be rewritten");
+            assertThrows(AuthenticationException.class, () -> authService.login("nobody", "admin"));
+        } finally {
+            databaseManager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test requests beyond the queue capacity are refused")
+    void testSaturatedExecutor() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(1);
+        config.setQueueCapacity(1);
+        PasswordEncoder blocking = new PasswordEncoder(config, new BlockingHasher(release, new AtomicInteger()));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<PasswordEncoder.Verification> running = callers.submit(() -> blocking.verify("a", "blocked"));
+            Future<PasswordEncoder.Verification> queued = callers.submit(() -> blocking.verify("b", "blocked"));
+            while (blocking.getStats().getActiveThreads() < 1 || blocking.getStats().getQueuedRequests() < 1) {
+                Thread.sleep(5);
+            }
+
+            AuthenticationException refused = assertThrows(AuthenticationException.class,
+                    () -> blocking.verify("c", "blocked"));
+            assertTrue(refused.getMessage().startsWith("Too many logins"), refused.getMessage());
+            assertEquals(1, blocking.getStats().getRejectedCount());
+
+            release.countDown();
+            assertTrue(running.get().matches());
+            assertTrue(queued.get().matches());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            blocking.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a request that waits too long times out")
+    void testTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(1);
+        config.setTimeoutMillis(50);
+        PasswordEncoder blocking = new PasswordEncoder(config, new BlockingHasher(release, new AtomicInteger()));
+        try {
+            assertThrows(AuthenticationException.class, () -> blocking.verify("a", "blocked"));
+            assertEquals(1, blocking.getStats().getTimeoutCount());
+        } finally {
+            release.countDown();
+            blocking.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test the dummy hash is computed once, on first use, on the executor and within the timeout")
+    void testDummyVerification() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger hashes = new AtomicInteger();
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(1);
+        config.setTimeoutMillis(50);
+        PasswordEncoder blocking = new PasswordEncoder(config, new BlockingHasher(release, hashes));
+        try {
+            assertEquals(0, hashes.get(), "Creating the encoder computes no hash");
+            assertThrows(AuthenticationException.class, () -> blocking.verifyDummy("guess"));
+            assertEquals(1, blocking.getStats().getTimeoutCount());
+            assertEquals(1, hashes.get(), "The dummy hash is computed on first use");
+            release.countDown();
+            assertDoesNotThrow(() -> blocking.verifyDummy("guess"));
+            assertEquals(1, hashes.get(), "The dummy hash is computed once");
+        } finally {
+            release.countDown();
+            blocking.shutdown();
+        }
+    }
+
+    /**
+     * Accepts any password for the hash "blocked", but only once released.
+     */
+    private record BlockingHasher(CountDownLatch release, AtomicInteger hashes) implements PasswordHasher {
+
+        @Override
+        public String hash(String password) {
+            hashes.incrementAndGet();
+            return "blocked";
+        }
+
+        @Override
+        public boolean verify(String password, String encodedHash) {
+            try {
+                release.await();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean supports(String encodedHash) {
+            return "blocked".equals(encodedHash);
+        }
+
+        @Override
+        public boolean needsRehash(String encodedHash) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.lucian.todos.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.session.SessionConfig;
+import org.lucian.todos.session.SessionRegistry;
+
+public class TodoServerTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("^\\{\"id\":(\\d+)");
+
+    private DatabaseManager databaseManager;
+    private SessionRegistry sessionRegistry;
+    private TodoServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        databaseManager = DatabaseManager.getTestInstance();
+        sessionRegistry = new SessionRegistry(new SessionConfig(), System::currentTimeMillis);
+        ServerConfig config = new ServerConfig();
+        config.setPort(0);
+        config.setGzipMinBytes(256);
+        config.setShutdownDelaySeconds(0);
+        server = new TodoServer(new DAOFactory(databaseManager), config, sessionRegistry);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        sessionRegistry.shutdown();
+        databaseManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test logging in, creating todos and paging through them")
+    void testCreateAndListTodos() throws Exception {
+        String token = login("admin", "admin");
+        for (int i = 1; i <= 3; i++) {
+            HttpResponse<String> created = send(request("/api/todos", token)
+                    .POST(body("{\"title\":\"Task " + i + "\",\"priority\":\"high\",\"dueDate\":\"2030-01-0" + i + "\"}")));
+            assertEquals(201, created.statusCode(), created.body());
+            assertTrue(created.headers().firstValue("Location").orElseThrow().startsWith("/api/todos/"));
+        }
+
+        HttpResponse<String> page = send(request("/api/todos?page=2&size=2", token).GET());
+        assertEquals(200, page.statusCode());
+        assertTrue(page.body().contains("\"page\":2,\"size\":2,\"totalItems\":3,\"totalPages\":2"), page.body());
+        assertEquals(1, page.body().split("\"title\"").length - 1, "The second page holds the last todo");
+
+        send(request("/api/todos", token).POST(body("{\"title\":\"Task 4\",\"priority\":\"low\"}")));
+        HttpResponse<String> filtered = send(request("/api/todos?priority=high&sort=-due_date&size=2", token).GET());
+        assertEquals(200, filtered.statusCode(), filtered.body());
+        assertTrue(filtered.body().contains("\"page\":1,\"size\":2,\"totalItems\":3,\"totalPages\":2"), filtered.body());
+        assertTrue(filtered.body().indexOf("Task 3") < filtered.body().indexOf("Task 2"), filtered.body());
+        assertEquals(400, send(request("/api/todos?sort=colour", token).GET()).statusCode());
+
+        HttpResponse<String> bad = send(request("/api/todos", token).POST(body("{\"title\":\"x\",\"priority\":\"whenever\"}")));
+        assertEquals(400, bad.statusCode());
+        assertTrue(bad.body().startsWith("{\"error\":{\"status\":400"), bad.body());
+    }
+
+    @Test
+    @DisplayName("Test conditional GET answers 304 while the resource is unchanged")
+    void testETag() throws Exception {
+        String token = login("admin", "admin");
+        long id = createTodo(token, "Cached");
+
+        HttpResponse<String> first = send(request("/api/todos/" + id, token).GET());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertTrue(etag.startsWith("W/\""), etag);
+
+        HttpResponse<String> unchanged = send(request("/api/todos/" + id, token).header("If-None-Match", etag).GET());
+        assertEquals(304, unchanged.statusCode());
+        assertEquals("", unchanged.body());
+
+        send(request("/api/todos/" + id, token).PUT(body("{\"status\":\"COMPLETED\"}")));
+        HttpResponse<String> changed = send(request("/api/todos/" + id, token).header("If-None-Match", etag).GET());
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().contains("\"status\":\"COMPLETED\""), changed.body());
+    }
+
+    @Test
+    @DisplayName("Test large responses are gzipped for clients that accept it")
+    void testGzip() throws Exception {
+        String token = login("admin", "admin");
+        for (int i = 0; i < 10; i++) {
+            createTodo(token, "Compressible todo number " + i);
+        }
+
+        HttpResponse<byte[]> response = client.send(request("/api/todos", token)
+                .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        String json;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(json.contains("\"totalItems\":10"), json);
+
+        HttpResponse<String> plain = send(request("/api/todos", token).GET());
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test requests need a session and only see the session user's data")
+    void testAuthorization() throws Exception {
+        HttpResponse<String> anonymous = send(request("/api/todos", null).GET());
+        assertEquals(401, anonymous.statusCode());
+        assertTrue(anonymous.headers().firstValue("WWW-Authenticate").isPresent());
+        assertEquals(401, send(request("/api/todos", "not-a-token").GET()).statusCode());
+
+        String adminToken = login("admin", "admin");
+        long id = createTodo(adminToken, "Private");
+        assertEquals(201, send(request("/api/auth/register", null).POST(body(
+                "{\"username\":\"carol\",\"email\":\"carol@example.com\",\"password\":\"carol-secret\"}"))).statusCode());
+        String carolToken = login("carol", "carol-secret");
+
+        assertEquals(404, send(request("/api/todos/" + id, carolToken).GET()).statusCode());
+        assertEquals(404, send(request("/api/todos/" + id, carolToken).DELETE()).statusCode());
+        assertTrue(send(request("/api/todos", carolToken).GET()).body().contains("\"totalItems\":0"));
+
+        assertEquals(204, send(request("/api/auth/logout", carolToken).POST(body("{}"))).statusCode());
+        assertEquals(401, send(request("/api/auth/me", carolToken).GET()).statusCode());
+        assertEquals(204, send(request("/api/todos/" + id, adminToken).DELETE()).statusCode());
+    }
+
+    @Test
+    @DisplayName("Test projects are served to their owner only")
+    void testProjects() throws Exception {
+        String token = login("admin", "admin");
+        HttpResponse<String> created = send(request("/api/projects", token)
+                .POST(body("{\"name\":\"Launch\",\"endDate\":\"2030-06-30\"}")));
+        assertEquals(201, created.statusCode(), created.body());
+        String location = created.headers().firstValue("Location").orElseThrow();
+        long projectId = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+        assertEquals(201, send(request("/api/todos", token).POST(
+                body("{\"title\":\"Press release\",\"projectId\":" + projectId + "}"))).statusCode());
+
+        HttpResponse<String> project = send(request(location, token).GET());
+        assertEquals(200, project.statusCode(), project.body());
+        assertTrue(project.body().contains("\"name\":\"Launch\""), project.body());
+        HttpResponse<String> todos = send(request(location + "/todos", token).GET());
+        assertTrue(todos.body().contains("\"title\":\"Press release\""), todos.body());
+        assertTrue(send(request(location + "/stats", token).GET()).body().contains("\"totalTodos\":1"));
+
+        assertEquals(201, send(request("/api/auth/register", null).POST(body(
+                "{\"username\":\"dave\",\"email\":\"dave@example.com\",\"password\":\"dave-secret\"}"))).statusCode());
+        String daveToken = login("dave", "dave-secret");
+        assertEquals(404, send(request(location, daveToken).GET()).statusCode());
+        assertEquals(404, send(request("/api/todos", daveToken).POST(
+                body("{\"title\":\"Hijack\",\"projectId\":" + projectId + "}"))).statusCode());
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = send(request("/api/auth/login", null).POST(
+                body("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}")));
+        assertEquals(200, response.statusCode(), response.body());
+        Matcher matcher = TOKEN.matcher(response.body());
+        assertTrue(matcher.find(), response.body());
+        return matcher.group(1);
+    }
+
+    private long createTodo(String token, String title) throws Exception {
+        HttpResponse<String> response = send(request("/api/todos", token).POST(body("{\"title\":\"" + title + "\"}")));
+        assertEquals(201, response.statusCode(), response.body());
+        Matcher matcher = ID.matcher(response.body());
+        assertTrue(matcher.find(), response.body());
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
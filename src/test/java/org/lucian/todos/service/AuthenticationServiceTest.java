@@ -0,0 +1,144 @@
+package org.lucian.todos.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.dao.DAOFactory;
+import org.lucian.todos.database.DatabaseManager;
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.exceptions.TodoNotFoundException;
+import org.lucian.todos.model.Project;
+import org.lucian.todos.model.Todo;
+import org.lucian.todos.security.PasswordEncoder;
+import org.lucian.todos.session.Session;
+import org.lucian.todos.session.SessionConfig;
+import org.lucian.todos.session.SessionRegistry;
+
+public class AuthenticationServiceTest {
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private DatabaseManager databaseManager;
+    private DAOFactory daoFactory;
+    private AuthenticationService authService;
+
+    @BeforeEach
+    void setUp() throws AuthenticationException {
+        databaseManager = DatabaseManager.getTestInstance();
+        daoFactory = new DAOFactory(databaseManager);
+        SessionConfig config = new SessionConfig();
+        config.setIdleTimeoutMillis(60_000);
+        authService = new AuthenticationService(daoFactory.getUserDAO(), PasswordEncoder.getDefault(),
+                new SessionRegistry(config, clock::get));
+        authService.register("bob", "bob@example.com", "bob-secret", null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test one service serves several users through their sessions")
+    void testConcurrentSessions() throws Exception {
+        Session admin = authService.authenticate("admin", "admin");
+        Session bob = authService.authenticate("bob", "bob-secret");
+        assertFalse(authService.isLoggedIn(), "Sessions do not change the service's own current session");
+
+        TodoService todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), authService);
+        todoService.withUserContext(admin).createTodo(new Todo("Admin task"));
+        todoService.withUserContext(bob).createTodo(new Todo("Bob task"));
+
+        List<Todo> bobTodos = todoService.withUserContext(authService.requireSession(bob.getToken())).getAllTodos();
+        assertEquals(List.of("Bob task"), bobTodos.stream().map(Todo::getTitle).toList());
+        assertEquals(1, todoService.withUserContext(admin).getAllTodos().size());
+
+        authService.logout(bob);
+        assertThrows(AuthenticationException.class, () -> authService.requireSession(bob.getToken()));
+        assertTrue(authService.findSession(admin.getToken()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test the current session expires when idle and ends other sessions on password change")
+    void testCurrentSessionLifecycle() throws Exception {
+        authService.login("bob", "bob-secret");
+        Session otherDevice = authService.authenticate("bob", "bob-secret");
+        assertEquals("bob", authService.getCurrentUser().getUsername());
+
+        authService.changePassword("bob-secret", "bob-secret-2");
+        assertTrue(otherDevice.isInvalidated(), "Other sessions end when the password changes");
+        assertTrue(authService.isLoggedIn());
+
+        clock.addAndGet(60_000);
+        assertFalse(authService.isLoggedIn(), "The idle timeout applies to the current session too");
+        assertNull(authService.getCurrentUser());
+        assertThrows(AuthenticationException.class, () -> authService.changePassword("bob-secret-2", "bob-secret-3"));
+        assertEquals("bob", authService.authenticate("bob", "bob-secret-2").getUser().getUsername());
+    }
+
+    @Test
+    @DisplayName("Test a user cannot read, change or delete another user's todo")
+    void testTodoOwnership() throws Exception {
+        TodoService todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), authService);
+        TodoService admin = todoService.withUserContext(authService.authenticate("admin", "admin"));
+        TodoService bob = todoService.withUserContext(authService.authenticate("bob", "bob-secret"));
+        Long adminTodoId = admin.createTodo(new Todo("Admin task")).getId();
+
+        assertThrows(TodoNotFoundException.class, () -> bob.getTodoById(adminTodoId));
+        assertThrows(TodoNotFoundException.class, () -> bob.markTodoCompleted(adminTodoId));
+        Todo hijack = new Todo("Hijacked");
+        hijack.setId(adminTodoId);
+        assertThrows(TodoNotFoundException.class, () -> bob.updateTodo(hijack));
+        assertFalse(bob.deleteTodo(adminTodoId));
+
+        assertEquals("Admin task", admin.getTodoById(adminTodoId).getTitle());
+        assertTrue(admin.deleteTodo(adminTodoId));
+    }
+
+    @Test
+    @DisplayName("Test completion stats of all projects only cover the user's own projects")
+    void testProjectCompletionStatsScope() throws Exception {
+        ProjectService projectService = new ProjectService(daoFactory.getProjectDAO(), daoFactory.getTodoDAO(), authService);
+        TodoService todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), authService);
+        Session adminSession = authService.authenticate("admin", "admin");
+        Session bobSession = authService.authenticate("bob", "bob-secret");
+        ProjectService admin = projectService.withUserContext(adminSession);
+        ProjectService bob = projectService.withUserContext(bobSession);
+        Long adminProjectId = admin.createProject(new Project("Admin project")).getId();
+        Long bobProjectId = bob.createProject(new Project("Bob project")).getId();
+        Todo adminTodo = new Todo("Admin task");
+        adminTodo.setProjectId(adminProjectId);
+        todoService.withUserContext(adminSession).createTodo(adminTodo);
+        Todo bobTodo = new Todo("Bob task");
+        bobTodo.setProjectId(bobProjectId);
+        todoService.withUserContext(bobSession).createTodo(bobTodo);
+
+        assertEquals(List.of(bobProjectId), List.copyOf(bob.getAllProjectCompletionStats().keySet()));
+        assertEquals(List.of(adminProjectId), List.copyOf(admin.getAllProjectCompletionStats().keySet()));
+    }
+
+    @Test
+    @DisplayName("Test listings fail instead of widening to every user once the session expires")
+    void testExpiredSessionListing() throws Exception {
+        TodoService todoService = new TodoService(daoFactory.getTodoDAO(), daoFactory.getProjectDAO(), authService);
+        ProjectService projectService = new ProjectService(daoFactory.getProjectDAO(), daoFactory.getTodoDAO(), authService);
+        todoService.withUserContext(authService.authenticate("admin", "admin")).createTodo(new Todo("Admin task"));
+        authService.login("bob", "bob-secret");
+        todoService.createTodo(new Todo("Bob task"));
+        assertEquals(List.of("Bob task"), todoService.getAllTodos().stream().map(Todo::getTitle).toList());
+
+        clock.addAndGet(60_000);
+        assertFalse(authService.isLoggedIn());
+        assertThrows(IllegalStateException.class, todoService::getAllTodos);
+        assertThrows(IllegalStateException.class, todoService::getTodoStatistics);
+        assertThrows(IllegalStateException.class, projectService::getAllProjects);
+    }
+}
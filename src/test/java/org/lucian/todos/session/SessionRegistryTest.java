@@ -0,0 +1,137 @@
+package org.lucian.todos.session;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucian.todos.exceptions.AuthenticationException;
+import org.lucian.todos.model.User;
+
+public class SessionRegistryTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private SessionConfig config;
+    private SessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        config = new SessionConfig();
+        config.setIdleTimeoutMillis(10_000);
+        config.setAbsoluteTimeoutMillis(25_000);
+        config.setTickMillis(1_000);
+        config.setWheelSize(8);
+        registry = new SessionRegistry(config, clock::get);
+    }
+
+    private static User user(long id, String username) {
+        User user = new User(username, username + "@example.com", null, null);
+        user.setId(id);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Test sessions are found by token and carry their user")
+    void testCreateAndFind() throws AuthenticationException {
+        Session alice = registry.create(user(1, "alice"));
+        Session bob = registry.create(user(2, "bob"));
+
+        assertNotEquals(alice.getToken(), bob.getToken());
+        assertTrue(alice.getToken().length() >= 43, "Tokens should carry 256 random bits");
+        assertSame(alice, registry.find(alice.getToken()).orElseThrow());
+        assertEquals(2L, registry.find(bob.getToken()).orElseThrow().getCurrentUserId());
+        assertTrue(registry.find("unknown").isEmpty());
+        assertFalse(alice.toString().contains(alice.getToken()), "Tokens must not leak into logs");
+
+        assertTrue(registry.invalidate(alice.getToken()));
+        assertTrue(registry.find(alice.getToken()).isEmpty());
+        assertNull(alice.getCurrentUser(), "A logged-out session has no user");
+        assertEquals(1, registry.getActiveSessionCount());
+    }
+
+    @Test
+    @DisplayName("Test use extends the idle deadline but not the absolute one")
+    void testIdleAndAbsoluteExpiry() throws AuthenticationException {
+        Session session = registry.create(user(1, "alice"));
+
+        for (int i = 0; i < 2; i++) {
+            clock.addAndGet(9_000);
+            assertTrue(registry.find(session.getToken()).isPresent(), "Use within the idle timeout keeps it alive");
+        }
+        clock.addAndGet(8_000);
+        assertTrue(registry.find(session.getToken()).isEmpty(), "25s after login it expires however busy it is");
+        assertTrue(session.isInvalidated());
+
+        Session idle = registry.create(user(1, "alice"));
+        clock.addAndGet(10_000);
+        assertTrue(registry.find(idle.getToken()).isEmpty(), "10s without use it expires");
+        assertEquals(2, registry.getExpiredCount());
+    }
+
+    @Test
+    @DisplayName("Test the timer wheel reclaims sessions nobody looks up again")
+    void testTimerWheelReclaimsAbandonedSessions() throws AuthenticationException {
+        Session abandoned = registry.create(user(1, "alice"));
+        Session active = registry.create(user(2, "bob"));
+
+        for (int second = 1; second <= 30; second++) {
+            clock.addAndGet(1_000);
+            if (second % 5 == 0 && second < 25) {
+                registry.find(active.getToken());
+            }
+            registry.expireSessions();
+            if (second < 10) {
+                assertEquals(2, registry.getActiveSessionCount(), "second " + second);
+            } else if (second == 10) {
+                assertTrue(abandoned.isInvalidated(), "Reclaimed at its idle deadline");
+                assertFalse(active.isInvalidated(), "Touched sessions are rescheduled, not expired");
+            }
+        }
+        assertTrue(active.isInvalidated(), "Reclaimed at its absolute deadline");
+        assertEquals(0, registry.getActiveSessionCount());
+        assertEquals(2, registry.getExpiredCount());
+    }
+
+    @Test
+    @DisplayName("Test sessions of one user can be ended or updated together")
+    void testPerUserOperations() throws AuthenticationException {
+        Session laptop = registry.create(user(1, "alice"));
+        Session phone = registry.create(user(1, "alice"));
+        Session other = registry.create(user(2, "bob"));
+
+        User renamed = user(1, "alice");
+        renamed.setFirstName("Alice");
+        registry.updateUser(renamed);
+        assertEquals("Alice", phone.getUser().getFirstName());
+
+        assertEquals(1, registry.invalidateUser(1L, laptop));
+        assertFalse(laptop.isInvalidated());
+        assertTrue(phone.isInvalidated());
+        assertFalse(other.isInvalidated());
+    }
+
+    @Test
+    @DisplayName("Test the registry refuses sessions beyond its limit")
+    void testSessionLimit() throws AuthenticationException {
+        config.setMaxSessions(2);
+        registry = new SessionRegistry(config, clock::get);
+        registry.create(user(1, "alice"));
+        registry.create(user(2, "bob"));
+        assertThrows(AuthenticationException.class, () -> registry.create(user(3, "carol")));
+
+        clock.addAndGet(10_000);
+        registry.create(user(3, "carol"));
+        assertEquals(1, registry.getActiveSessionCount(), "Expired sessions make room");
+
+        SessionConfig invalid = new SessionConfig();
+        invalid.setWheelSize(100);
+        assertThrows(IllegalStateException.class, invalid::validate);
+    }
+}